@@ -0,0 +1,33 @@
+package me.googas.reflect.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks measuring both throughput and allocation rate. Arguments are the same as the
+ * ones of the JMH command line, the gc profiler is always added.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {}
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args the JMH command line arguments
+   * @throws CommandLineOptionException if the arguments are not valid
+   * @throws RunnerException if the benchmarks fail to run
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,120 @@
+package me.googas.reflect.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares reading fields with the wrappers against direct access. The getters of the wrappers hold
+ * their handle in an instance field, which the JIT cannot treat as a constant, so they are compared
+ * against handles in static final fields too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FieldBenchmark {
+
+  private static final MethodHandle NAME = FieldBenchmark.handle("name", Object.class);
+  private static final MethodHandle COUNT = FieldBenchmark.handle("count", int.class);
+
+  private final Subject subject = new Subject("name");
+  private Field field;
+  private WrappedField<String> wrappedField;
+  private Function<Object, String> getter;
+  private Field countField;
+  private WrappedField<Integer> wrappedCountField;
+  private ToIntFunction<Object> countGetter;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    WrappedClass<Subject> clazz = WrappedClass.of(Subject.class);
+    this.field = Subject.class.getDeclaredField("name");
+    this.field.setAccessible(true);
+    this.wrappedField = clazz.getDeclaredField(String.class, "name");
+    this.getter = this.wrappedField.getter();
+    this.countField = Subject.class.getDeclaredField("count");
+    this.countField.setAccessible(true);
+    this.wrappedCountField = clazz.getDeclaredField(Integer.class, "count");
+    this.countGetter = this.wrappedCountField.intGetter();
+  }
+
+  private static MethodHandle handle(String name, Class<?> type) {
+    try {
+      Field field = Subject.class.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup()
+          .unreflectGetter(field)
+          .asType(MethodType.methodType(type, Object.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @Benchmark
+  public String directGet() {
+    return this.subject.getName();
+  }
+
+  @Benchmark
+  public Object reflectGet() throws IllegalAccessException {
+    return this.field.get(this.subject);
+  }
+
+  @Benchmark
+  public String wrappedGet() throws IllegalAccessException {
+    return this.wrappedField.get(this.subject);
+  }
+
+  @Benchmark
+  public String getter() {
+    return this.getter.apply(this.subject);
+  }
+
+  @Benchmark
+  public String constantHandleGet() throws Throwable {
+    return (String) (Object) FieldBenchmark.NAME.invokeExact((Object) this.subject);
+  }
+
+  @Benchmark
+  public int directGetInt() {
+    return this.subject.getCount();
+  }
+
+  @Benchmark
+  public Object reflectGetBoxed() throws IllegalAccessException {
+    return this.countField.get(this.subject);
+  }
+
+  @Benchmark
+  public Integer wrappedGetBoxed() throws IllegalAccessException {
+    return this.wrappedCountField.get(this.subject);
+  }
+
+  @Benchmark
+  public int wrappedGetInt() throws IllegalAccessException {
+    return this.wrappedCountField.getInt(this.subject);
+  }
+
+  @Benchmark
+  public int intGetter() {
+    return this.countGetter.applyAsInt(this.subject);
+  }
+
+  @Benchmark
+  public int constantHandleGetInt() throws Throwable {
+    return (int) FieldBenchmark.COUNT.invokeExact((Object) this.subject);
+  }
+}
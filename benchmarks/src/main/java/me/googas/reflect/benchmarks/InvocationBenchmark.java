@@ -0,0 +1,91 @@
+package me.googas.reflect.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import me.googas.reflect.wrappers.Invokers;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedConstructor;
+import me.googas.reflect.wrappers.WrappedMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Compares invoking methods and constructors with the wrappers against direct calls. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InvocationBenchmark {
+
+  private final Subject subject = new Subject("name");
+  private final String argument = "argument";
+  private Method method;
+  private WrappedMethod<String> wrappedMethod;
+  private Invokers.Method1<String> methodInvoker;
+  private Constructor<Subject> constructor;
+  private WrappedConstructor<Subject> wrappedConstructor;
+  private Invokers.Constructor1<Subject> constructorInvoker;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    WrappedClass<Subject> clazz = WrappedClass.of(Subject.class);
+    this.method = Subject.class.getMethod("greet", String.class);
+    this.wrappedMethod = clazz.getMethod(String.class, "greet", String.class);
+    this.methodInvoker = this.wrappedMethod.invoker1();
+    this.constructor = Subject.class.getConstructor(String.class);
+    this.wrappedConstructor = clazz.getConstructor(String.class);
+    this.constructorInvoker = this.wrappedConstructor.invoker1();
+  }
+
+  @Benchmark
+  public String directMethod() {
+    return this.subject.greet(this.argument);
+  }
+
+  @Benchmark
+  public Object reflectMethod() throws InvocationTargetException, IllegalAccessException {
+    return this.method.invoke(this.subject, this.argument);
+  }
+
+  @Benchmark
+  public String wrappedPrepare() throws InvocationTargetException, IllegalAccessException {
+    return this.wrappedMethod.prepare(this.subject, this.argument);
+  }
+
+  @Benchmark
+  public String wrappedPrepareHandle() throws InvocationTargetException, IllegalAccessException {
+    return this.wrappedMethod.prepareHandle(this.subject, this.argument);
+  }
+
+  @Benchmark
+  public String methodInvoker() throws InvocationTargetException {
+    return this.methodInvoker.invoke(this.subject, this.argument);
+  }
+
+  @Benchmark
+  public Subject directConstructor() {
+    return new Subject(this.argument);
+  }
+
+  @Benchmark
+  public Subject reflectConstructor()
+      throws InvocationTargetException, InstantiationException, IllegalAccessException {
+    return this.constructor.newInstance(this.argument);
+  }
+
+  @Benchmark
+  public Subject wrappedConstructor()
+      throws InvocationTargetException, InstantiationException, IllegalAccessException {
+    return this.wrappedConstructor.invoke(this.argument);
+  }
+
+  @Benchmark
+  public Subject constructorInvoker() throws InvocationTargetException {
+    return this.constructorInvoker.invoke(this.argument);
+  }
+}
@@ -0,0 +1,62 @@
+package me.googas.reflect.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import me.googas.reflect.wrappers.WrappedMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Compares looking up members with {@link WrappedClass} against core reflection. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LookupBenchmark {
+
+  private final WrappedClass<Subject> clazz = WrappedClass.of(Subject.class);
+
+  @Benchmark
+  public Method reflectGetMethod() throws NoSuchMethodException {
+    return Subject.class.getMethod("greet", String.class);
+  }
+
+  @Benchmark
+  public WrappedMethod<String> wrappedGetMethod() {
+    return this.clazz.getMethod(String.class, "greet", String.class);
+  }
+
+  @Benchmark
+  public Field reflectGetDeclaredField() throws NoSuchFieldException {
+    return Subject.class.getDeclaredField("name");
+  }
+
+  @Benchmark
+  public WrappedField<String> wrappedGetDeclaredField() {
+    return this.clazz.getDeclaredField(String.class, "name");
+  }
+
+  @Benchmark
+  public WrappedField<String> wrappedGetMissingField() {
+    return this.clazz.getDeclaredField(String.class, "missing");
+  }
+
+  @Benchmark
+  public Class<?> reflectForNameMissing() {
+    try {
+      return Class.forName("me.googas.reflect.benchmarks.Missing");
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public WrappedClass<?> wrappedForNameMissing() {
+    return WrappedClass.forName("me.googas.reflect.benchmarks.Missing");
+  }
+}
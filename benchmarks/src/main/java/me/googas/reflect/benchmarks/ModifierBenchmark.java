@@ -0,0 +1,48 @@
+package me.googas.reflect.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import me.googas.reflect.modifiers.CollectionModifier;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures applying a {@link CollectionModifier} to a field against adding to it directly. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModifierBenchmark {
+
+  private final Object element = new Object();
+  private final CollectionModifier modifier = CollectionModifier.add(this.element);
+  private final Subject subject = new Subject("name");
+  private WrappedField<?> field;
+
+  @Setup
+  public void setup() {
+    this.field = WrappedClass.of(Subject.class).getDeclaredField("list");
+  }
+
+  @Benchmark
+  public boolean directAdd() {
+    this.trim();
+    return this.subject.getList().add(this.element);
+  }
+
+  @Benchmark
+  public boolean modifierAdd() throws InvocationTargetException, IllegalAccessException {
+    this.trim();
+    return this.field.set(this.subject, this.modifier);
+  }
+
+  /** Keep the list small so the benchmarks do not measure its growth. */
+  private void trim() {
+    if (this.subject.getList().size() >= 1024) this.subject.getList().clear();
+  }
+}
@@ -0,0 +1,58 @@
+package me.googas.reflect.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The class which members are accessed in the benchmarks. */
+public class Subject {
+
+  private final List<Object> list = new ArrayList<>();
+  private String name;
+  private int count;
+
+  /**
+   * Create the subject.
+   *
+   * @param name the name of the subject
+   */
+  public Subject(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Greet someone.
+   *
+   * @param other the name to greet
+   * @return the greeting
+   */
+  public String greet(String other) {
+    return this.name + other;
+  }
+
+  /**
+   * Get the name of the subject.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Get the count of the subject.
+   *
+   * @return the count
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Get the list of the subject.
+   *
+   * @return the list
+   */
+  public List<Object> getList() {
+    return this.list;
+  }
+}
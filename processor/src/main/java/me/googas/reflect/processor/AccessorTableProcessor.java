@@ -0,0 +1,307 @@
+package me.googas.reflect.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import lombok.NonNull;
+
+/**
+ * Generates an {@code AccessorTable} for each class annotated with {@code
+ * me.googas.reflect.accessors.Reflective}. The table is a class in the same package named as the
+ * binary name of the annotated class followed by {@code $$ReflectTable}, it registers an accessor
+ * for each field, method and constructor declared in the class that is not private. Constant fields
+ * are left to reflection.
+ *
+ * <p>Accessors are plain Java code: casts, field accesses and calls, so at runtime the members are
+ * reached without reflection, access checks nor linking method handles. Private classes and local
+ * classes cannot be reached from another class and are reported as a warning
+ */
+@SupportedAnnotationTypes(AccessorTableProcessor.REFLECTIVE)
+public class AccessorTableProcessor extends AbstractProcessor {
+
+  /** The name of the annotation that marks the classes to generate tables for. */
+  static final String REFLECTIVE = "me.googas.reflect.accessors.Reflective";
+
+  private static final String TABLE = "me.googas.reflect.accessors.AccessorTable";
+  private static final String SUFFIX = "$$ReflectTable";
+  private static final String EXCEPTION = "java.lang.reflect.InvocationTargetException";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : round.getElementsAnnotatedWith(annotation)) {
+        if (element instanceof TypeElement) this.generate((TypeElement) element);
+      }
+    }
+    return true;
+  }
+
+  private void generate(@NonNull TypeElement type) {
+    if (!this.isReachable(type)) {
+      this.processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.WARNING,
+              "Private and local classes cannot have an accessor table",
+              type);
+      return;
+    }
+    String packageName =
+        this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+    String tableName =
+        (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+            + AccessorTableProcessor.SUFFIX;
+    String source = this.source(type, packageName, tableName);
+    String qualifiedName = packageName.isEmpty() ? tableName : packageName + "." + tableName;
+    try (Writer writer =
+        this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+      writer.write(source);
+    } catch (IOException e) {
+      this.processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR, "Could not write " + qualifiedName + ": " + e.getMessage());
+    }
+  }
+
+  private boolean isReachable(@NonNull TypeElement type) {
+    Element element = type;
+    while (element instanceof TypeElement) {
+      TypeElement enclosing = (TypeElement) element;
+      if (enclosing.getModifiers().contains(Modifier.PRIVATE)) return false;
+      NestingKind nesting = enclosing.getNestingKind();
+      if (nesting != NestingKind.TOP_LEVEL && nesting != NestingKind.MEMBER) return false;
+      element = enclosing.getEnclosingElement();
+    }
+    return true;
+  }
+
+  @NonNull
+  private String source(
+      @NonNull TypeElement type, @NonNull String packageName, @NonNull String tableName) {
+    String name = type.getQualifiedName().toString();
+    StringBuilder builder = new StringBuilder();
+    if (!packageName.isEmpty()) builder.append("package ").append(packageName).append(";\n\n");
+    builder
+        .append("/** Generated by ")
+        .append(AccessorTableProcessor.class.getName())
+        .append(" for {@link ")
+        .append(name)
+        .append("}. */\n")
+        .append("@SuppressWarnings({\"rawtypes\", \"unchecked\", \"deprecation\"})\n")
+        .append("public final class ")
+        .append(tableName)
+        .append(" extends ")
+        .append(AccessorTableProcessor.TABLE)
+        .append(" {\n\n")
+        .append("  public ")
+        .append(tableName)
+        .append("() {\n");
+    for (Element member : type.getEnclosedElements()) {
+      if (member.getModifiers().contains(Modifier.PRIVATE)) continue;
+      switch (member.getKind()) {
+        case FIELD:
+        case ENUM_CONSTANT:
+          // Constants are inlined by the compiler, the accessor would not see writes through
+          // reflection
+          if (((VariableElement) member).getConstantValue() == null) {
+            this.field(builder, name, (VariableElement) member);
+          }
+          break;
+        case METHOD:
+          this.method(builder, name, (ExecutableElement) member);
+          break;
+        case CONSTRUCTOR:
+          if (this.isInstantiable(type)) {
+            this.constructor(builder, name, (ExecutableElement) member);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return builder.append("  }\n}\n").toString();
+  }
+
+  private boolean isInstantiable(@NonNull TypeElement type) {
+    // Inner classes need an enclosing instance, which the accessor does not have
+    return type.getKind() == ElementKind.CLASS
+        && !type.getModifiers().contains(Modifier.ABSTRACT)
+        && (type.getNestingKind() == NestingKind.TOP_LEVEL
+            || type.getModifiers().contains(Modifier.STATIC));
+  }
+
+  private void field(
+      @NonNull StringBuilder builder, @NonNull String owner, @NonNull VariableElement field) {
+    String name = field.getSimpleName().toString();
+    boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+    String target = isStatic ? owner : "((" + owner + ") instance)";
+    builder
+        .append("    field(\"")
+        .append(name)
+        .append("\", instance -> ")
+        .append(target)
+        .append('.')
+        .append(name)
+        .append(", ");
+    if (field.getModifiers().contains(Modifier.FINAL)) {
+      builder.append("null");
+    } else {
+      builder
+          .append("(instance, value) -> ")
+          .append(target)
+          .append('.')
+          .append(name)
+          .append(" = (")
+          .append(this.boxed(field.asType()))
+          .append(") value");
+    }
+    builder.append(");\n");
+  }
+
+  private void method(
+      @NonNull StringBuilder builder, @NonNull String owner, @NonNull ExecutableElement method) {
+    String name = method.getSimpleName().toString();
+    boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+    builder
+        .append("    method(\"")
+        .append(name)
+        .append("\", ")
+        .append(this.parameterTypes(method.getParameters()))
+        .append(", (instance, args) -> {\n");
+    if (!isStatic) {
+      builder
+          .append("      ")
+          .append(owner)
+          .append(" target = (")
+          .append(owner)
+          .append(") instance;\n");
+    }
+    this.arguments(builder, method.getParameters());
+    String call = (isStatic ? owner : "target") + "." + name + this.call(method.getParameters());
+    builder.append("      try {\n");
+    if (method.getReturnType().getKind() == TypeKind.VOID) {
+      builder.append("        ").append(call).append(";\n        return null;\n");
+    } else {
+      builder.append("        return ").append(call).append(";\n");
+    }
+    this.rethrow(builder);
+    builder.append("    });\n");
+  }
+
+  private void constructor(
+      @NonNull StringBuilder builder,
+      @NonNull String owner,
+      @NonNull ExecutableElement constructor) {
+    builder
+        .append("    constructor(")
+        .append(this.parameterTypes(constructor.getParameters()))
+        .append(", args -> {\n");
+    this.arguments(builder, constructor.getParameters());
+    builder
+        .append("      try {\n")
+        .append("        return new ")
+        .append(owner)
+        .append(this.call(constructor.getParameters()))
+        .append(";\n");
+    this.rethrow(builder);
+    builder.append("    });\n");
+  }
+
+  private void arguments(
+      @NonNull StringBuilder builder, @NonNull List<? extends VariableElement> parameters) {
+    for (int i = 0; i < parameters.size(); i++) {
+      TypeMirror type = parameters.get(i).asType();
+      builder
+          .append("      ")
+          .append(this.erasure(type))
+          .append(" a")
+          .append(i)
+          .append(" = (")
+          .append(this.boxed(type))
+          .append(") args[")
+          .append(i)
+          .append("];\n");
+    }
+  }
+
+  private void rethrow(@NonNull StringBuilder builder) {
+    builder
+        .append("      } catch (Throwable e) {\n")
+        .append("        throw new ")
+        .append(AccessorTableProcessor.EXCEPTION)
+        .append("(e);\n")
+        .append("      }\n");
+  }
+
+  @NonNull
+  private String call(@NonNull List<? extends VariableElement> parameters) {
+    StringBuilder builder = new StringBuilder("(");
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) builder.append(", ");
+      builder.append('a').append(i);
+    }
+    return builder.append(')').toString();
+  }
+
+  @NonNull
+  private String parameterTypes(@NonNull List<? extends VariableElement> parameters) {
+    StringBuilder builder = new StringBuilder("new Class<?>[] {");
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) builder.append(", ");
+      builder.append(this.erasure(parameters.get(i).asType())).append(".class");
+    }
+    return builder.append('}').toString();
+  }
+
+  @NonNull
+  private String erasure(@NonNull TypeMirror type) {
+    // Built from the elements as toString would include type annotations
+    TypeMirror erased = this.processingEnv.getTypeUtils().erasure(type);
+    switch (erased.getKind()) {
+      case ARRAY:
+        return this.erasure(((ArrayType) erased).getComponentType()) + "[]";
+      case DECLARED:
+        return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+      default:
+        return erased.getKind().name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  @NonNull
+  private String boxed(@NonNull TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return this.processingEnv
+          .getTypeUtils()
+          .boxedClass((PrimitiveType) type)
+          .getQualifiedName()
+          .toString();
+    }
+    return this.erasure(type);
+  }
+}
@@ -0,0 +1,196 @@
+package me.googas.reflect.processor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import me.googas.reflect.accessors.AccessorTable;
+import me.googas.reflect.accessors.FieldAccessor;
+import me.googas.reflect.accessors.Reflective;
+import me.googas.reflect.wrappers.WrappedClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccessorTableProcessorTest {
+
+  private static final String POINT =
+      "package sample;\n"
+          + "\n"
+          + "@me.googas.reflect.accessors.Reflective\n"
+          + "public class Point {\n"
+          + "  public static final int ORIGIN = 0;\n"
+          + "  static String label = \"point\";\n"
+          + "  int x;\n"
+          + "  final int y;\n"
+          + "  private int hidden;\n"
+          + "\n"
+          + "  public Point() {\n"
+          + "    this(0, 0);\n"
+          + "  }\n"
+          + "\n"
+          + "  Point(int x, int y) {\n"
+          + "    this.x = x;\n"
+          + "    this.y = y;\n"
+          + "  }\n"
+          + "\n"
+          + "  int sum(int extra) {\n"
+          + "    return this.x + this.y + extra;\n"
+          + "  }\n"
+          + "\n"
+          + "  static String join(String separator, String... parts) {\n"
+          + "    return String.join(separator, parts);\n"
+          + "  }\n"
+          + "\n"
+          + "  long[] same(long[] values) {\n"
+          + "    return values;\n"
+          + "  }\n"
+          + "\n"
+          + "  void fail() throws java.io.IOException {\n"
+          + "    throw new java.io.IOException(\"fail\");\n"
+          + "  }\n"
+          + "\n"
+          + "  private void secret() {}\n"
+          + "\n"
+          + "  @me.googas.reflect.accessors.Reflective\n"
+          + "  private static class Hidden {}\n"
+          + "\n"
+          + "  @me.googas.reflect.accessors.Reflective\n"
+          + "  public abstract static class Shape {\n"
+          + "    public Shape() {}\n"
+          + "  }\n"
+          + "}\n";
+
+  @Test
+  void tablesAreGeneratedForReachableClasses(@TempDir Path directory) throws Exception {
+    List<Diagnostic<? extends JavaFileObject>> diagnostics =
+        AccessorTableProcessorTest.compile(directory);
+    assertTrue(Files.exists(directory.resolve("sample/Point$$ReflectTable.class")));
+    assertTrue(Files.exists(directory.resolve("sample/Point$Shape$$ReflectTable.class")));
+    assertFalse(Files.exists(directory.resolve("sample/Point$Hidden$$ReflectTable.class")));
+    assertTrue(
+        diagnostics.stream()
+            .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING));
+  }
+
+  @Test
+  void tablesRegisterTheMembersThatAreNotPrivate(@TempDir Path directory) throws Exception {
+    AccessorTableProcessorTest.compile(directory);
+    try (URLClassLoader loader = AccessorTableProcessorTest.loader(directory)) {
+      Class<?> point = Class.forName("sample.Point", true, loader);
+      AccessorTable table = AccessorTable.of(point);
+      assertNotNull(table);
+      assertNotNull(table.getField("x"));
+      assertNotNull(table.getField("label"));
+      assertNull(table.getField("hidden"));
+      assertNull(table.getField("ORIGIN"));
+      assertFalse(table.getField("y").isWritable());
+      assertNull(table.getMethod("secret"));
+      assertNull(table.getMethod("sum", long.class));
+      assertNotNull(table.getConstructor());
+      // Abstract classes have no constructors in their table
+      Class<?> shape = Class.forName("sample.Point$Shape", true, loader);
+      assertNull(AccessorTable.of(shape).getConstructor());
+    }
+  }
+
+  @Test
+  void accessorsReachTheMembers(@TempDir Path directory) throws Exception {
+    AccessorTableProcessorTest.compile(directory);
+    try (URLClassLoader loader = AccessorTableProcessorTest.loader(directory)) {
+      Class<?> point = Class.forName("sample.Point", true, loader);
+      AccessorTable table = AccessorTable.of(point);
+      Object instance = table.getConstructor(int.class, int.class).newInstance(new Object[] {1, 2});
+      FieldAccessor x = table.getField("x");
+      x.set(instance, 5);
+      assertEquals(5, x.get(instance));
+      assertEquals("point", table.getField("label").get(null));
+      assertThrows(UnsupportedOperationException.class, () -> table.getField("y").set(instance, 1));
+      assertEquals(10, table.getMethod("sum", int.class).invoke(instance, new Object[] {3}));
+      assertEquals(
+          "a-b",
+          table
+              .getMethod("join", String.class, String[].class)
+              .invoke(null, new Object[] {"-", new String[] {"a", "b"}}));
+      long[] values = {1, 2};
+      assertArrayEquals(
+          values,
+          (long[]) table.getMethod("same", long[].class).invoke(instance, new Object[] {values}));
+      InvocationTargetException e =
+          assertThrows(
+              InvocationTargetException.class,
+              () -> table.getMethod("fail").invoke(instance, new Object[0]));
+      assertInstanceOf(IOException.class, e.getCause());
+      // The wrappers use the table
+      assertEquals(
+          7, WrappedClass.of(point).getDeclaredMethod("sum", int.class).invoke(instance, 0));
+    }
+  }
+
+  private static List<Diagnostic<? extends JavaFileObject>> compile(Path directory)
+      throws IOException {
+    Path source = directory.resolve("sample/Point.java");
+    Files.createDirectories(source.getParent());
+    Files.write(source, AccessorTableProcessorTest.POINT.getBytes(StandardCharsets.UTF_8));
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager manager =
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<String> options =
+          new ArrayList<>(
+              Arrays.asList(
+                  "-classpath",
+                  AccessorTableProcessorTest.location(Reflective.class),
+                  "-d",
+                  directory.toString(),
+                  "-s",
+                  directory.toString()));
+      JavaCompiler.CompilationTask task =
+          compiler.getTask(
+              null,
+              manager,
+              diagnostics,
+              options,
+              null,
+              manager.getJavaFileObjectsFromFiles(Collections.singletonList(source.toFile())));
+      task.setProcessors(Collections.singletonList(new AccessorTableProcessor()));
+      assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+    }
+    return diagnostics.getDiagnostics();
+  }
+
+  private static URLClassLoader loader(Path directory) throws IOException {
+    return new URLClassLoader(
+        new URL[] {directory.toUri().toURL()}, AccessorTableProcessorTest.class.getClassLoader());
+  }
+
+  private static String location(Class<?> type) {
+    try {
+      return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package me.googas.reflect.accessors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Accessors of the members declared in a class generated at compile time by the {@code
+ * reflect-processor} annotation processor for classes annotated with {@link Reflective}. The
+ * generated table is named as the binary name of the class followed by {@code $$ReflectTable}.
+ *
+ * <p>Only the members that the generated code can access are in the table: fields, methods and
+ * constructors that are not private. Members are found by their name and exact parameter types.
+ *
+ * <p>Tables are loaded once per class through its class loader and cached
+ */
+public abstract class AccessorTable {
+
+  /** The suffix of the name of generated tables. */
+  @NonNull public static final String SUFFIX = "$$ReflectTable";
+
+  @NonNull private static final Class<?>[] NO_PARAMETERS = new Class<?>[0];
+
+  @NonNull
+  private static final AccessorTable NONE =
+      new AccessorTable() {
+        @Override
+        public String toString() {
+          return "AccessorTable.NONE";
+        }
+      };
+
+  @NonNull
+  private static final ClassCache<AccessorTable> TABLES = new ClassCache<>(AccessorTable::load);
+
+  @NonNull private final Map<String, FieldAccessor> fields = new HashMap<>();
+  @NonNull private final Map<String, List<Entry<MethodAccessor>>> methods = new HashMap<>();
+  @NonNull private final List<Entry<ConstructorAccessor>> constructors = new ArrayList<>(1);
+
+  /** Constructor for generated tables, which register their members in it. */
+  protected AccessorTable() {}
+
+  /**
+   * Get the table of a class.
+   *
+   * @param type the class to get the table of
+   * @return the table if the class is annotated with {@link Reflective} and its table could be
+   *     loaded else null
+   */
+  public static AccessorTable of(@NonNull Class<?> type) {
+    AccessorTable table = AccessorTable.TABLES.get(type);
+    return table == AccessorTable.NONE ? null : table;
+  }
+
+  @NonNull
+  private static AccessorTable load(@NonNull Class<?> type) {
+    if (!type.isAnnotationPresent(Reflective.class)) return AccessorTable.NONE;
+    try {
+      Class<?> table =
+          Class.forName(type.getName() + AccessorTable.SUFFIX, true, type.getClassLoader());
+      if (!AccessorTable.class.isAssignableFrom(table)) return AccessorTable.NONE;
+      return (AccessorTable) table.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // The processor did not run for the class, reflection is used instead
+      return AccessorTable.NONE;
+    }
+  }
+
+  /**
+   * Register the accessor of a field.
+   *
+   * @param name the name of the field
+   * @param getter the function to read the field
+   * @param setter the function to write the field, null if it is final
+   */
+  protected final void field(
+      @NonNull String name,
+      @NonNull Function<Object, Object> getter,
+      BiConsumer<Object, Object> setter) {
+    this.fields.put(name, new FieldAccessor(getter, setter));
+  }
+
+  /**
+   * Register the accessor of a method.
+   *
+   * @param name the name of the method
+   * @param parameters the parameter types of the method
+   * @param accessor the accessor to invoke the method
+   */
+  protected final void method(
+      @NonNull String name, @NonNull Class<?>[] parameters, @NonNull MethodAccessor accessor) {
+    this.methods
+        .computeIfAbsent(name, key -> new ArrayList<>(1))
+        .add(new Entry<>(parameters, accessor));
+  }
+
+  /**
+   * Register the accessor of a constructor.
+   *
+   * @param parameters the parameter types of the constructor
+   * @param accessor the accessor to invoke the constructor
+   */
+  protected final void constructor(
+      @NonNull Class<?>[] parameters, @NonNull ConstructorAccessor accessor) {
+    this.constructors.add(new Entry<>(parameters, accessor));
+  }
+
+  /**
+   * Get the accessor of a field.
+   *
+   * @param name the name of the field
+   * @return the accessor if the field is in the table else null
+   */
+  public FieldAccessor getField(@NonNull String name) {
+    return this.fields.get(name);
+  }
+
+  /**
+   * Get the accessor of a method.
+   *
+   * @param name the name of the method
+   * @param parameters the exact parameter types of the method, null is the same as none
+   * @return the accessor if the method is in the table else null
+   */
+  public MethodAccessor getMethod(@NonNull String name, Class<?>... parameters) {
+    List<Entry<MethodAccessor>> entries = this.methods.get(name);
+    return entries == null ? null : AccessorTable.find(entries, parameters);
+  }
+
+  /**
+   * Get the accessor of a constructor.
+   *
+   * @param parameters the exact parameter types of the constructor, null is the same as none
+   * @return the accessor if the constructor is in the table else null
+   */
+  public ConstructorAccessor getConstructor(Class<?>... parameters) {
+    return AccessorTable.find(this.constructors, parameters);
+  }
+
+  private static <A> A find(@NonNull List<Entry<A>> entries, Class<?>[] parameters) {
+    if (parameters == null) parameters = AccessorTable.NO_PARAMETERS;
+    for (Entry<A> entry : entries) {
+      if (Arrays.equals(entry.parameters, parameters)) return entry.accessor;
+    }
+    return null;
+  }
+
+  /**
+   * An accessor and the parameters of its member.
+   *
+   * @param <A> the type of accessor
+   */
+  private static final class Entry<A> {
+
+    @NonNull private final Class<?>[] parameters;
+    @NonNull private final A accessor;
+
+    private Entry(@NonNull Class<?>[] parameters, @NonNull A accessor) {
+      this.parameters = parameters;
+      this.accessor = accessor;
+    }
+  }
+}
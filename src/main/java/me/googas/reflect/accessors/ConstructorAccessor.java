@@ -0,0 +1,19 @@
+package me.googas.reflect.accessors;
+
+import java.lang.reflect.InvocationTargetException;
+
+/** Creates instances through code generated at compile time. */
+@FunctionalInterface
+public interface ConstructorAccessor {
+
+  /**
+   * Invoke the constructor.
+   *
+   * @param args the arguments of the constructor
+   * @return the new instance
+   * @throws InvocationTargetException if the constructor throws an exception
+   * @throws RuntimeException if the arguments do not match the constructor, usually {@link
+   *     ClassCastException} or {@link NullPointerException}
+   */
+  Object newInstance(Object[] args) throws InvocationTargetException;
+}
@@ -0,0 +1,50 @@
+package me.googas.reflect.accessors;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.NonNull;
+
+/** Reads and writes a field through code generated at compile time. */
+public final class FieldAccessor {
+
+  @NonNull private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+
+  FieldAccessor(@NonNull Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+    this.getter = getter;
+    this.setter = setter;
+  }
+
+  /**
+   * Get the value of the field.
+   *
+   * @param instance the instance to get the value from, ignored if the field is static
+   * @return the value of the field
+   * @throws ClassCastException if the instance is not of the class that declares the field
+   */
+  public Object get(Object instance) {
+    return this.getter.apply(instance);
+  }
+
+  /**
+   * Set the value of the field.
+   *
+   * @param instance the instance to set the value to, ignored if the field is static
+   * @param value the new value of the field
+   * @throws ClassCastException if the instance or the value do not match the field
+   * @throws UnsupportedOperationException if the field is final
+   */
+  public void set(Object instance, Object value) {
+    if (this.setter == null) throw new UnsupportedOperationException("The field is final");
+    this.setter.accept(instance, value);
+  }
+
+  /**
+   * Check whether the field can be written.
+   *
+   * @return false if the field is final
+   */
+  public boolean isWritable() {
+    return this.setter != null;
+  }
+}
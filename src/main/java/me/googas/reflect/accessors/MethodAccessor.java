@@ -0,0 +1,20 @@
+package me.googas.reflect.accessors;
+
+import java.lang.reflect.InvocationTargetException;
+
+/** Invokes a method through code generated at compile time. */
+@FunctionalInterface
+public interface MethodAccessor {
+
+  /**
+   * Invoke the method.
+   *
+   * @param instance the instance to invoke the method in, ignored if the method is static
+   * @param args the arguments of the method
+   * @return the object returned by the method or null if it is void
+   * @throws InvocationTargetException if the method throws an exception
+   * @throws RuntimeException if the instance or the arguments do not match the method, usually
+   *     {@link ClassCastException} or {@link NullPointerException}
+   */
+  Object invoke(Object instance, Object[] args) throws InvocationTargetException;
+}
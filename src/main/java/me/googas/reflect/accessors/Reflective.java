@@ -0,0 +1,19 @@
+package me.googas.reflect.accessors;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for which the {@code reflect-processor} annotation processor generates an {@link
+ * AccessorTable} at compile time. The wrappers use the table before falling back to reflection.
+ *
+ * <p>The annotation is kept at runtime so that classes without a table are known without trying to
+ * load it
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Reflective {}
@@ -0,0 +1,177 @@
+package me.googas.reflect.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.NonNull;
+
+/**
+ * Accounts the values of every {@link ClassCache}: the indexes of members and annotations, the
+ * accessor tables and the interned wrappers of the library. The number of values is bounded by
+ * {@link #getMaximumSize()}, when a new value goes over it the values that were not read recently
+ * are evicted following the CLOCK approximation of LRU: each value has a flag set when read, the
+ * hand clears the flag of the values it passes and evicts the first one without it.
+ *
+ * <p>Values are partitioned by the loader of their class. Values of classes or of caches that were
+ * collected, such as caches that were replaced by others, are dropped by the hand as it passes
+ * them, {@link #invalidate(ClassLoader)} drops the values of a loader right away, which is meant to
+ * be called when a plugin is unloaded:
+ *
+ * <pre>{@code
+ * plugin.close();
+ * CacheManager.invalidate(plugin.getClassLoader());
+ * }</pre>
+ */
+public final class CacheManager {
+
+  /** The maximum size used until {@link #setMaximumSize(int)} is called. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1 << 16;
+
+  @NonNull private static final Object LOCK = new Object();
+  @NonNull private static final List<ClassCache.Entry> RING = new ArrayList<>();
+
+  @NonNull
+  private static final List<Consumer<ClassLoader>> LISTENERS = new CopyOnWriteArrayList<>();
+
+  private static int hand;
+  private static int maximumSize = CacheManager.DEFAULT_MAXIMUM_SIZE;
+
+  private CacheManager() {}
+
+  /**
+   * Account a new value evicting others if it goes over the maximum size.
+   *
+   * @param entry the entry of the value
+   */
+  static void register(@NonNull ClassCache.Entry entry) {
+    List<ClassCache.Entry> evicted = new ArrayList<>(0);
+    synchronized (CacheManager.LOCK) {
+      CacheManager.RING.add(entry);
+      CacheManager.trim(entry, evicted);
+    }
+    // Removing from a ClassValue may take its own lock, do it outside of ours
+    evicted.forEach(ClassCache.Entry::evict);
+  }
+
+  /**
+   * Advance the hand until the ring fits in the maximum size. Must hold the lock.
+   *
+   * @param keep an entry that must not be evicted: the one being computed, as removing it would
+   *     make its {@link ClassValue} compute it again
+   * @param evicted the list to add the evicted entries to
+   */
+  private static void trim(ClassCache.Entry keep, @NonNull List<ClassCache.Entry> evicted) {
+    List<ClassCache.Entry> ring = CacheManager.RING;
+    while (ring.size() > CacheManager.maximumSize) {
+      if (CacheManager.hand >= ring.size()) CacheManager.hand = 0;
+      ClassCache.Entry entry = ring.get(CacheManager.hand);
+      if (entry == keep || entry.referenced && !entry.isCollected()) {
+        entry.referenced = false;
+        CacheManager.hand++;
+      } else {
+        evicted.add(CacheManager.removeAt(CacheManager.hand));
+      }
+    }
+  }
+
+  /** Remove an entry replacing it with the last one so the hand looks at it next. */
+  @NonNull
+  private static ClassCache.Entry removeAt(int index) {
+    List<ClassCache.Entry> ring = CacheManager.RING;
+    ClassCache.Entry last = ring.remove(ring.size() - 1);
+    return index < ring.size() ? ring.set(index, last) : last;
+  }
+
+  /**
+   * Drop every value of the classes of a loader. Listeners added with {@link
+   * #onInvalidate(Consumer)} are called after.
+   *
+   * @param loader the loader, null for the bootstrap class loader
+   */
+  public static void invalidate(ClassLoader loader) {
+    List<ClassCache.Entry> evicted = new ArrayList<>();
+    synchronized (CacheManager.LOCK) {
+      List<ClassCache.Entry> ring = CacheManager.RING;
+      for (int i = 0; i < ring.size(); ) {
+        ClassCache.Entry entry = ring.get(i);
+        Class<?> type = entry.type.get();
+        if (type == null || entry.isCollected() || type.getClassLoader() == loader) {
+          evicted.add(CacheManager.removeAt(i));
+        } else {
+          i++;
+        }
+      }
+    }
+    evicted.forEach(ClassCache.Entry::evict);
+    CacheManager.LISTENERS.forEach(listener -> listener.accept(loader));
+  }
+
+  /**
+   * Add a listener called with the loader when it is invalidated. This is for caches which are not
+   * kept by class, such as the names of classes that could not be found.
+   *
+   * @param listener the listener
+   */
+  public static void onInvalidate(@NonNull Consumer<ClassLoader> listener) {
+    CacheManager.LISTENERS.add(listener);
+  }
+
+  /**
+   * Get the number of values cached, including the ones of classes or caches that were collected
+   * but not yet passed by the hand.
+   *
+   * @return the number of values
+   */
+  public static int size() {
+    synchronized (CacheManager.LOCK) {
+      return CacheManager.RING.size();
+    }
+  }
+
+  /**
+   * Get the number of values cached for the classes of a loader.
+   *
+   * @param loader the loader, null for the bootstrap class loader
+   * @return the number of values
+   */
+  public static int size(ClassLoader loader) {
+    int size = 0;
+    synchronized (CacheManager.LOCK) {
+      for (ClassCache.Entry entry : CacheManager.RING) {
+        Class<?> type = entry.type.get();
+        if (type != null && !entry.isCollected() && type.getClassLoader() == loader) size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Get the maximum number of values cached.
+   *
+   * @return the maximum size
+   */
+  public static int getMaximumSize() {
+    synchronized (CacheManager.LOCK) {
+      return CacheManager.maximumSize;
+    }
+  }
+
+  /**
+   * Set the maximum number of values cached, values are evicted right away if there are more.
+   *
+   * @param maximumSize the maximum size
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public static void setMaximumSize(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+    }
+    List<ClassCache.Entry> evicted = new ArrayList<>();
+    synchronized (CacheManager.LOCK) {
+      CacheManager.maximumSize = maximumSize;
+      CacheManager.trim(null, evicted);
+    }
+    evicted.forEach(ClassCache.Entry::evict);
+  }
+}
@@ -0,0 +1,114 @@
+package me.googas.reflect.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+import lombok.NonNull;
+
+/**
+ * A value computed once for each class, like a {@link ClassValue}, which is accounted by the {@link
+ * CacheManager}. When the manager goes over its maximum size, or the loader of the class is
+ * invalidated, the value is removed and computed again the next time it is requested.
+ *
+ * <p>Reads only set a flag for the eviction policy, they take no lock and allocate nothing
+ *
+ * @param <V> the type of value
+ */
+public final class ClassCache<V> {
+
+  @NonNull private final Function<Class<?>, V> compute;
+
+  @NonNull
+  private final ClassValue<Holder<V>> values =
+      new ClassValue<Holder<V>>() {
+        @Override
+        protected Holder<V> computeValue(Class<?> type) {
+          Holder<V> holder =
+              new Holder<>(ClassCache.this.compute.apply(type), type, ClassCache.this);
+          CacheManager.register(holder.entry);
+          return holder;
+        }
+      };
+
+  /**
+   * Create a cache.
+   *
+   * @param compute the function to compute the value of a class
+   */
+  public ClassCache(@NonNull Function<Class<?>, V> compute) {
+    this.compute = compute;
+  }
+
+  /**
+   * Get the value of a class computing it if it is not cached.
+   *
+   * @param type the class
+   * @return the value of the class
+   */
+  public V get(@NonNull Class<?> type) {
+    Holder<V> holder = this.values.get(type);
+    Entry entry = holder.entry;
+    // Racy on purpose: a lost write only makes eviction less accurate
+    if (!entry.referenced) entry.referenced = true;
+    return holder.value;
+  }
+
+  /**
+   * Remove the value of a class, the next {@link #get(Class)} computes it again.
+   *
+   * @param type the class
+   */
+  public void remove(@NonNull Class<?> type) {
+    this.values.remove(type);
+  }
+
+  /**
+   * A value and its entry in the {@link CacheManager}.
+   *
+   * @param <V> the type of value
+   */
+  private static final class Holder<V> {
+
+    private final V value;
+    @NonNull private final Entry entry;
+
+    private Holder(V value, @NonNull Class<?> type, @NonNull ClassCache<V> cache) {
+      this.value = value;
+      this.entry = new Entry(type, cache);
+    }
+  }
+
+  /**
+   * A cached value as seen by the {@link CacheManager}. It references the class and the cache
+   * weakly and not the value, which may reference the class, so the bookkeeping does not keep any
+   * loader nor any cache that was discarded reachable.
+   */
+  static final class Entry {
+
+    @NonNull final WeakReference<Class<?>> type;
+    @NonNull private final WeakReference<ClassCache<?>> cache;
+
+    /** Whether the value has been read since the clock hand last passed. */
+    boolean referenced;
+
+    private Entry(@NonNull Class<?> type, @NonNull ClassCache<?> cache) {
+      this.type = new WeakReference<>(type);
+      this.cache = new WeakReference<>(cache);
+    }
+
+    /**
+     * Check if the class or the cache of the value was collected, so the value is gone.
+     *
+     * @return true if the value is gone
+     */
+    boolean isCollected() {
+      return this.type.get() == null || this.cache.get() == null;
+    }
+
+    /** Remove the value from its cache if the class and the cache are still reachable. */
+    void evict() {
+      Class<?> type = this.type.get();
+      ClassCache<?> cache = this.cache.get();
+      if (type != null && cache != null) cache.remove(type);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package me.googas.reflect.graph;
+
+import java.lang.reflect.Field;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Finds the fields that changed between two states of an object, such as a snapshot taken with a
+ * {@link DeepCloner} and the live object. Each class is compared following a plan built once: the
+ * fields of its whole hierarchy are read at their offsets through {@code sun.misc.Unsafe}, so
+ * primitives are compared without boxing and without access checks.
+ *
+ * <pre>{@code
+ * // World does not implement equals, so the snapshots point to the live one
+ * DeepCloner cloner = DeepCloner.create().share(World.class);
+ * ChangeDetector detector = ChangeDetector.create();
+ * BitSet changes = new BitSet();
+ * for (Entity entity : entities) {
+ *   changes.clear();
+ *   if (detector.diff(snapshots.get(entity), entity, changes)) sync(entity, changes);
+ *   snapshots.put(entity, cloner.copy(entity));
+ * }
+ * }</pre>
+ *
+ * <p>Changes are reported as the indices of the fields in {@link #fields(Class)}. Primitives are
+ * compared by value, floating points by their bits like their boxed {@code equals}, references are
+ * compared with {@link Object#equals(Object)} and are not followed. Static fields are not compared.
+ * A detector can be used by many threads at the same time and should be kept as it caches the plans
+ * of the classes it compares.
+ *
+ * <p>A snapshot taken with a {@link DeepCloner} holds copies of the objects its fields point to,
+ * which are only equal to the live ones if their class implements {@code equals}. Fields pointing
+ * to any other class would be reported as changed on every diff, so those classes must be shared
+ * with {@link DeepCloner#share(Class)}, as above, or their fields left out with {@link
+ * #filter(Predicate)}
+ */
+public final class ChangeDetector {
+
+  @NonNull private Predicate<Field> filter = field -> true;
+  @NonNull private ClassCache<DiffPlan> plans = this.plans();
+
+  private ChangeDetector() {}
+
+  /**
+   * Create a detector which compares every instance field.
+   *
+   * @return the detector
+   */
+  @NonNull
+  public static ChangeDetector create() {
+    return new ChangeDetector();
+  }
+
+  /**
+   * Only compare the fields that match a filter. The filter is tested once per field when the class
+   * that declares it is first compared, fields that do not match it have no index.
+   *
+   * @param filter the filter of the fields to compare
+   * @return this same instance
+   */
+  @NonNull
+  public ChangeDetector filter(@NonNull Predicate<Field> filter) {
+    this.filter = filter;
+    this.plans = this.plans();
+    return this;
+  }
+
+  @NonNull
+  private ClassCache<DiffPlan> plans() {
+    Predicate<Field> filter = this.filter;
+    return new ClassCache<>(type -> DiffPlan.of(type, filter));
+  }
+
+  /**
+   * Get the fields compared in the instances of a class. The index of a field in the list is its
+   * index in the changes, fields declared by the class come before the fields of its superclasses.
+   *
+   * @param type the class
+   * @return an unmodifiable list of the fields
+   * @throws IllegalArgumentException if the fields of the class cannot be read
+   */
+  @NonNull
+  public List<Field> fields(@NonNull Class<?> type) {
+    return this.plans.get(type).fields;
+  }
+
+  /**
+   * Find the fields that changed between two states of an object.
+   *
+   * @param previous the previous state
+   * @param current the current state, of the same class as the previous
+   * @return the indices of the changed fields in {@link #fields(Class)}, empty if none changed
+   * @throws IllegalArgumentException if the states are not of the same class or its fields cannot
+   *     be read
+   */
+  @NonNull
+  public BitSet diff(@NonNull Object previous, @NonNull Object current) {
+    BitSet changes = new BitSet();
+    this.diff(previous, current, changes);
+    return changes;
+  }
+
+  /**
+   * Find the fields that changed between two states of an object. This does not allocate, so the
+   * same set can be cleared and reused to diff many objects.
+   *
+   * @param previous the previous state
+   * @param current the current state, of the same class as the previous
+   * @param changes where the indices of the changed fields in {@link #fields(Class)} are set, other
+   *     bits are left as they are
+   * @return true if any field changed
+   * @throws IllegalArgumentException if the states are not of the same class or its fields cannot
+   *     be read
+   */
+  public boolean diff(@NonNull Object previous, @NonNull Object current, @NonNull BitSet changes) {
+    Class<?> type = current.getClass();
+    if (previous.getClass() != type) {
+      throw new IllegalArgumentException(
+          "Cannot diff " + previous.getClass().getName() + " against " + type.getName());
+    }
+    return previous != current && this.plans.get(type).diff(previous, current, changes);
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ChangeDetector.class.getSimpleName() + "[", "]")
+        .add("filter=" + filter)
+        .toString();
+  }
+}
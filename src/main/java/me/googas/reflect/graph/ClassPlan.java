@@ -0,0 +1,87 @@
+package me.googas.reflect.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.NonNull;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+
+/**
+ * How the references of the instances of a class are read. The plan is built once per class: the
+ * fields that may hold references are found in the whole hierarchy and a getter is linked for each
+ * of them, so walking an instance only calls the getters.
+ *
+ * <p>Classes whose fields cannot be made accessible, such as the ones in modules of the JDK that
+ * are not opened, are walked through their public API if they are a {@link Collection} or a {@link
+ * Map}, any other is not walked
+ */
+final class ClassPlan {
+
+  @NonNull private static final Function<?, ?>[] NO_GETTERS = new Function<?, ?>[0];
+
+  @NonNull final Kind kind;
+  @NonNull final Function<Object, Object>[] getters;
+
+  private ClassPlan(@NonNull Kind kind, @NonNull Function<Object, Object>[] getters) {
+    this.kind = kind;
+    this.getters = getters;
+  }
+
+  /**
+   * Build the plan of a class.
+   *
+   * @param type the class
+   * @param filter the fields to follow
+   * @return the plan
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static ClassPlan of(@NonNull Class<?> type, @NonNull Predicate<Field> filter) {
+    Function<Object, Object>[] none = (Function<Object, Object>[]) ClassPlan.NO_GETTERS;
+    if (type.isArray()) {
+      return new ClassPlan(type.getComponentType().isPrimitive() ? Kind.LEAF : Kind.ARRAY, none);
+    }
+    // Classes reference their loader and through it every class, that is not part of the graph
+    if (type == Class.class) return new ClassPlan(Kind.LEAF, none);
+    List<Function<Object, Object>> getters = new ArrayList<>();
+    try {
+      for (WrappedField<?> wrapper : WrappedClass.of(type).getHierarchyFields()) {
+        Field field = wrapper.getWrapped();
+        if (Modifier.isStatic(field.getModifiers())
+            || field.getType().isPrimitive()
+            || !filter.test(field)) {
+          continue;
+        }
+        getters.add((Function<Object, Object>) wrapper.getter());
+      }
+    } catch (IllegalAccessException | RuntimeException e) {
+      // The class is encapsulated, only its API can be used
+      if (Map.class.isAssignableFrom(type)) return new ClassPlan(Kind.MAP, none);
+      if (Collection.class.isAssignableFrom(type)) return new ClassPlan(Kind.COLLECTION, none);
+      return new ClassPlan(Kind.LEAF, none);
+    }
+    return getters.isEmpty()
+        ? new ClassPlan(Kind.LEAF, none)
+        : new ClassPlan(Kind.FIELDS, getters.toArray(none));
+  }
+
+  /** How the references of an instance are read. */
+  enum Kind {
+    /** It does not reference other objects or they are not walked. */
+    LEAF,
+    /** Through the getters of its fields. */
+    FIELDS,
+    /** It is an array of references. */
+    ARRAY,
+    /** Through the iterator of the collection. */
+    COLLECTION,
+    /** Through the entries of the map. */
+    MAP
+  }
+}
@@ -0,0 +1,451 @@
+package me.googas.reflect.graph;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.NonNull;
+
+/**
+ * How the instances of a class are copied by a {@link DeepCloner}. The plan is built once per
+ * class: the offsets of its fields are resolved and split between primitives, which are copied as
+ * they are, and references, which are copied deeply.
+ *
+ * <p>Collections and maps are not copied field by field, as their structure may depend on the
+ * identity of their elements, they are created empty and the copies of their elements are added
+ * once every other object has been copied. The fields declared by subclasses outside of the JDK are
+ * still copied deeply. Containers whose elements are not held by a class of the JDK, such as
+ * subclasses of {@link java.util.AbstractCollection}, and containers that cannot be created through
+ * their API are copied field by field as any other object
+ */
+final class ClonePlan {
+
+  @NonNull
+  private static final MethodType FACTORY = MethodType.methodType(Object.class, Object.class);
+
+  @NonNull private static final long[] NO_OFFSETS = new long[0];
+  @NonNull private static final int[] NO_KINDS = new int[0];
+
+  @NonNull final Kind kind;
+  @NonNull private final long[] primitiveOffsets;
+  @NonNull private final int[] primitiveKinds;
+  @NonNull private final long[] referenceOffsets;
+
+  /** Creates an empty container from the original, null if the kind is not a container. */
+  private final MethodHandle factory;
+
+  private final Class<?> type;
+
+  private ClonePlan(
+      @NonNull Kind kind,
+      Class<?> type,
+      @NonNull long[] primitiveOffsets,
+      @NonNull int[] primitiveKinds,
+      @NonNull long[] referenceOffsets,
+      MethodHandle factory) {
+    this.kind = kind;
+    this.type = type;
+    this.primitiveOffsets = primitiveOffsets;
+    this.primitiveKinds = primitiveKinds;
+    this.referenceOffsets = referenceOffsets;
+    this.factory = factory;
+  }
+
+  private ClonePlan(@NonNull Kind kind) {
+    this(kind, null, ClonePlan.NO_OFFSETS, ClonePlan.NO_KINDS, ClonePlan.NO_OFFSETS, null);
+  }
+
+  /**
+   * Build the plan of a class.
+   *
+   * @param type the class
+   * @param shared whether instances of the class are shared instead of copied
+   * @return the plan
+   */
+  @NonNull
+  static ClonePlan of(@NonNull Class<?> type, boolean shared) {
+    if (shared || type.isEnum() || type == Class.class) return new ClonePlan(Kind.SHARED);
+    if (type.isArray()) {
+      return new ClonePlan(
+          type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY);
+    }
+    boolean map = Map.class.isAssignableFrom(type);
+    if ((map || Collection.class.isAssignableFrom(type)) && ClonePlan.holdsElements(type)) {
+      MethodHandle factory = ClonePlan.factory(type);
+      if (factory != null) {
+        return ClonePlan.of(map ? Kind.MAP : Kind.COLLECTION, type, factory);
+      }
+    }
+    return ClonePlan.of(Kind.OBJECT, type, null);
+  }
+
+  /**
+   * Check if the elements of a container are held by a class of the JDK, which is its closest
+   * superclass that is a class of the JDK. Skeletal implementations such as {@link
+   * java.util.AbstractList} hold none, so the elements of containers that extend them are in fields
+   * of their own and they are copied field by field instead of being added again.
+   *
+   * @param type the class of the container
+   * @return true if the container is filled through its API
+   */
+  private static boolean holdsElements(@NonNull Class<?> type) {
+    Class<?> holder = type;
+    while (holder.getClassLoader() != null) {
+      holder = holder.getSuperclass();
+    }
+    return !Modifier.isAbstract(holder.getModifiers())
+        && (Map.class.isAssignableFrom(holder) || Collection.class.isAssignableFrom(holder));
+  }
+
+  /**
+   * Build the plan of a class that is copied field by field or, if it is a container, of the fields
+   * declared by its subclasses outside of the JDK.
+   *
+   * @param kind the kind of the plan
+   * @param type the class
+   * @param factory creates the empty container, null if the kind is not a container
+   * @return the plan
+   * @throws IllegalArgumentException if the fields of a container cannot be addressed
+   */
+  @NonNull
+  private static ClonePlan of(@NonNull Kind kind, @NonNull Class<?> type, MethodHandle factory) {
+    List<Field> primitives = new ArrayList<>();
+    List<Field> references = new ArrayList<>();
+    for (Class<?> current = type;
+        current != null && (factory == null || current.getClassLoader() != null);
+        current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) continue;
+        (field.getType().isPrimitive() ? primitives : references).add(field);
+      }
+    }
+    long[] primitiveOffsets = new long[primitives.size()];
+    int[] primitiveKinds = new int[primitives.size()];
+    long[] referenceOffsets = new long[references.size()];
+    try {
+      for (int i = 0; i < primitiveOffsets.length; i++) {
+        Field field = primitives.get(i);
+        primitiveOffsets[i] = UnsafeAccess.offset(field);
+        primitiveKinds[i] = UnsafeAccess.kind(field.getType());
+      }
+      for (int i = 0; i < referenceOffsets.length; i++) {
+        referenceOffsets[i] = UnsafeAccess.offset(references.get(i));
+      }
+    } catch (UnsupportedOperationException e) {
+      if (factory != null) {
+        throw new IllegalArgumentException("The fields of " + type + " cannot be copied", e);
+      }
+      // Records and hidden classes such as lambdas cannot be addressed
+      return new ClonePlan(Kind.SHARED);
+    }
+    return new ClonePlan(kind, type, primitiveOffsets, primitiveKinds, referenceOffsets, factory);
+  }
+
+  /**
+   * Create the copy of an object. Arrays are copied with their elements, which are replaced by
+   * their copies when the plan fills it, containers are created empty.
+   *
+   * @param original the object to copy
+   * @return the copy
+   */
+  @NonNull
+  Object create(@NonNull Object original) {
+    switch (this.kind) {
+      case OBJECT:
+        try {
+          return UnsafeAccess.allocate(this.type);
+        } catch (InstantiationException e) {
+          throw new IllegalArgumentException("Could not instantiate " + this.type, e);
+        }
+      case ARRAY:
+        return ((Object[]) original).clone();
+      case PRIMITIVE_ARRAY:
+        return ClonePlan.clonePrimitiveArray(original);
+      case COLLECTION:
+      case MAP:
+        try {
+          return (Object) this.factory.invokeExact(original);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new IllegalArgumentException("Could not create a copy of " + this.type, e);
+        }
+      default:
+        return original;
+    }
+  }
+
+  /**
+   * Copy the state of an object into its copy.
+   *
+   * @param original the object
+   * @param copy the copy created by {@link #create(Object)}
+   * @param cloner the cloner to copy the references with
+   */
+  void fill(@NonNull Object original, @NonNull Object copy, @NonNull DeepCloner.Copy cloner) {
+    // Each kind in its own method so the common ones are small enough to be inlined
+    switch (this.kind) {
+      case OBJECT:
+        this.fillObject(original, copy, cloner);
+        break;
+      case ARRAY:
+        ClonePlan.fillArray((Object[]) copy, cloner);
+        break;
+      case COLLECTION:
+        this.fillObject(original, copy, cloner);
+        ClonePlan.fillCollection((Collection<?>) original, copy, cloner);
+        break;
+      case MAP:
+        this.fillObject(original, copy, cloner);
+        ClonePlan.fillMap((Map<?, ?>) original, copy, cloner);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void fillObject(
+      @NonNull Object original, @NonNull Object copy, @NonNull DeepCloner.Copy cloner) {
+    long[] primitiveOffsets = this.primitiveOffsets;
+    for (int i = 0; i < primitiveOffsets.length; i++) {
+      UnsafeAccess.copy(this.primitiveKinds[i], original, copy, primitiveOffsets[i]);
+    }
+    for (long offset : this.referenceOffsets) {
+      Object reference = UnsafeAccess.get(original, offset);
+      if (reference != null) UnsafeAccess.put(copy, offset, cloner.of(reference));
+    }
+  }
+
+  private static void fillArray(@NonNull Object[] copy, @NonNull DeepCloner.Copy cloner) {
+    for (int i = 0; i < copy.length; i++) {
+      Object element = copy[i];
+      if (element != null) copy[i] = cloner.of(element);
+    }
+  }
+
+  private static void fillCollection(
+      @NonNull Collection<?> original, @NonNull Object copy, @NonNull DeepCloner.Copy cloner) {
+    Object[] elements = original.toArray();
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = cloner.of(elements[i]);
+    }
+    cloner.defer(copy, elements);
+  }
+
+  private static void fillMap(
+      @NonNull Map<?, ?> original, @NonNull Object copy, @NonNull DeepCloner.Copy cloner) {
+    Object[] entries = new Object[original.size() * 2];
+    int index = 0;
+    for (Map.Entry<?, ?> entry : original.entrySet()) {
+      entries[index++] = cloner.of(entry.getKey());
+      entries[index++] = cloner.of(entry.getValue());
+    }
+    cloner.defer(copy, entries);
+  }
+
+  @NonNull
+  private static Object clonePrimitiveArray(@NonNull Object array) {
+    if (array instanceof int[]) return ((int[]) array).clone();
+    if (array instanceof long[]) return ((long[]) array).clone();
+    if (array instanceof byte[]) return ((byte[]) array).clone();
+    if (array instanceof double[]) return ((double[]) array).clone();
+    if (array instanceof float[]) return ((float[]) array).clone();
+    if (array instanceof char[]) return ((char[]) array).clone();
+    if (array instanceof short[]) return ((short[]) array).clone();
+    return ((boolean[]) array).clone();
+  }
+
+  /**
+   * Find how to create an empty container like the original. The container is cloned and cleared if
+   * it has a public {@code clone} method, which keeps settings such as comparators and enum types,
+   * else it is created with its public constructor without parameters. Containers that have none of
+   * those, such as unmodifiable ones, are copied into the closest modifiable container if it can
+   * replace them, see {@link #replaces(Class, Class)}.
+   *
+   * @return the factory, null if the container must be copied field by field
+   */
+  private static MethodHandle factory(@NonNull Class<?> type) {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    MethodHandle clear =
+        Map.class.isAssignableFrom(type) ? Factories.CLEAR_MAP : Factories.CLEAR_COLLECTION;
+    if (Cloneable.class.isAssignableFrom(type)) {
+      for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+        if (!Modifier.isPublic(current.getModifiers())) continue;
+        try {
+          MethodHandle clone =
+              lookup.findVirtual(current, "clone", MethodType.methodType(Object.class));
+          return MethodHandles.filterReturnValue(clone.asType(ClonePlan.FACTORY), clear);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+          // Look in the superclass
+        }
+      }
+    }
+    // The constructor would lose the comparator
+    boolean ordered =
+        SortedMap.class.isAssignableFrom(type)
+            || SortedSet.class.isAssignableFrom(type)
+            || PriorityQueue.class.isAssignableFrom(type);
+    if (!ordered && Modifier.isPublic(type.getModifiers())) {
+      try {
+        MethodHandle constructor =
+            lookup
+                .findConstructor(type, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        return MethodHandles.dropArguments(constructor, 0, Object.class);
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        // Use a modifiable container
+      }
+    }
+    String name;
+    Class<?> replacement;
+    if (SortedMap.class.isAssignableFrom(type)) {
+      name = "sortedMap";
+      replacement = TreeMap.class;
+    } else if (Map.class.isAssignableFrom(type)) {
+      name = "map";
+      replacement = LinkedHashMap.class;
+    } else if (SortedSet.class.isAssignableFrom(type)) {
+      name = "sortedSet";
+      replacement = TreeSet.class;
+    } else if (Set.class.isAssignableFrom(type)) {
+      name = "set";
+      replacement = LinkedHashSet.class;
+    } else if (PriorityQueue.class.isAssignableFrom(type)) {
+      name = "priorityQueue";
+      replacement = PriorityQueue.class;
+    } else if (Queue.class.isAssignableFrom(type) && !List.class.isAssignableFrom(type)) {
+      name = "queue";
+      replacement = ArrayDeque.class;
+    } else {
+      name = "list";
+      replacement = ArrayList.class;
+    }
+    if (!ClonePlan.replaces(replacement, type)) return null;
+    try {
+      return MethodHandles.lookup().findStatic(Factories.class, name, ClonePlan.FACTORY);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Check if the copy of a container can be of another class. It can if it is assignable to every
+   * type that a reference to the container may be declared with: the container class itself, unless
+   * it is a class of the JDK that is not public, as those cannot be named outside of it, in which
+   * case its superclasses and interfaces are checked instead.
+   *
+   * @param replacement the class of the copy
+   * @param type the class of the container
+   * @return true if the copy can be of the replacement class
+   */
+  private static boolean replaces(@NonNull Class<?> replacement, @NonNull Class<?> type) {
+    if (type.isAssignableFrom(replacement)) return true;
+    if (type.getClassLoader() != null || Modifier.isPublic(type.getModifiers())) return false;
+    Class<?> superclass = type.getSuperclass();
+    if (superclass != null && !ClonePlan.replaces(replacement, superclass)) return false;
+    for (Class<?> implemented : type.getInterfaces()) {
+      if (!ClonePlan.replaces(replacement, implemented)) return false;
+    }
+    return true;
+  }
+
+  /** The kinds of plans. */
+  enum Kind {
+    /** Instances are not copied. */
+    SHARED,
+    /** Instances are copied field by field. */
+    OBJECT,
+    /** Arrays of references. */
+    ARRAY,
+    /** Arrays of primitives, copied at once. */
+    PRIMITIVE_ARRAY,
+    /**
+     * Collections, filled through {@link Collection#add(Object)} after the fields of their
+     * subclasses are copied.
+     */
+    COLLECTION,
+    /**
+     * Maps, filled through {@link Map#put(Object, Object)} after the fields of their subclasses are
+     * copied.
+     */
+    MAP
+  }
+
+  /**
+   * Creates the containers used when the original cannot be cloned nor constructed. The methods are
+   * not private as they are looked up from the enclosing class.
+   */
+  private static final class Factories {
+
+    @NonNull private static final MethodHandle CLEAR_COLLECTION;
+    @NonNull private static final MethodHandle CLEAR_MAP;
+
+    static {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CLEAR_COLLECTION = lookup.findStatic(Factories.class, "clearCollection", ClonePlan.FACTORY);
+        CLEAR_MAP = lookup.findStatic(Factories.class, "clearMap", ClonePlan.FACTORY);
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private Factories() {}
+
+    static Object clearCollection(Object collection) {
+      ((Collection<?>) collection).clear();
+      return collection;
+    }
+
+    static Object clearMap(Object map) {
+      ((Map<?, ?>) map).clear();
+      return map;
+    }
+
+    static Object sortedMap(Object original) {
+      return new TreeMap<>(((SortedMap<?, ?>) original).comparator());
+    }
+
+    static Object map(Object original) {
+      return new LinkedHashMap<>(((Map<?, ?>) original).size() * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object sortedSet(Object original) {
+      return new TreeSet<>(((SortedSet<Object>) original).comparator());
+    }
+
+    static Object set(Object original) {
+      return new LinkedHashSet<>(((Collection<?>) original).size() * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object priorityQueue(Object original) {
+      PriorityQueue<Object> queue = (PriorityQueue<Object>) original;
+      return new PriorityQueue<>(Math.max(1, queue.size()), queue.comparator());
+    }
+
+    static Object queue(Object original) {
+      return new ArrayDeque<>(((Collection<?>) original).size());
+    }
+
+    static Object list(Object original) {
+      return new ArrayList<>(((Collection<?>) original).size());
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package me.googas.reflect.graph;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Copies objects deeply. The copy of a graph has the same shape as the original: an object that is
+ * referenced many times is copied once and cycles are kept. Each class is copied following a {@link
+ * ClonePlan} built once, fields are read and written at their offsets through {@code
+ * sun.misc.Unsafe} so primitives are not boxed, constructors are not called and final fields are
+ * copied too.
+ *
+ * <pre>{@code
+ * DeepCloner cloner = DeepCloner.create().share(Config.class);
+ * State snapshot = cloner.copy(state);
+ * }</pre>
+ *
+ * <p>Enums, classes, lambdas and records are always shared. By default other immutable types of the
+ * JDK such as strings, boxed primitives and the types in {@code java.time} are shared too. The copy
+ * is iterative, deep graphs do not overflow the thread stack.
+ *
+ * <p>Collections and maps are copied through their API: the original is cloned and cleared if it
+ * can be, else it is created with its constructor, else it is copied into an {@link ArrayList},
+ * {@link java.util.LinkedHashSet}, {@link java.util.LinkedHashMap} or the sorted counterparts, as
+ * long as that copy can be assigned wherever the original could. Unmodifiable collections of the
+ * JDK so become modifiable copies, other containers that cannot be created through their API are
+ * copied field by field. The fields declared by subclasses outside of the JDK are copied deeply
+ * too, and containers that keep their elements in fields of their own, such as subclasses of {@link
+ * java.util.AbstractCollection}, are copied field by field
+ */
+public final class DeepCloner {
+
+  @NonNull
+  private static final Set<Class<?>> IMMUTABLE =
+      new HashSet<>(
+          Arrays.asList(
+              String.class,
+              Boolean.class,
+              Character.class,
+              Byte.class,
+              Short.class,
+              Integer.class,
+              Long.class,
+              Float.class,
+              Double.class,
+              BigInteger.class,
+              BigDecimal.class,
+              UUID.class,
+              Locale.class,
+              Pattern.class));
+
+  @NonNull private final List<Class<?>> shared = new ArrayList<>();
+  private boolean shareImmutables = true;
+  @NonNull private ClassCache<ClonePlan> plans = this.plans();
+
+  private DeepCloner() {}
+
+  /**
+   * Create a cloner.
+   *
+   * @return the cloner
+   * @throws UnsupportedOperationException if {@code sun.misc.Unsafe} is not available
+   */
+  @NonNull
+  public static DeepCloner create() {
+    if (!UnsafeAccess.isAvailable()) {
+      throw new UnsupportedOperationException("Deep copies require sun.misc.Unsafe");
+    }
+    return new DeepCloner();
+  }
+
+  /**
+   * Share the instances of a type and its subtypes instead of copying them.
+   *
+   * @param type the type to share
+   * @return this same instance
+   */
+  @NonNull
+  public DeepCloner share(@NonNull Class<?> type) {
+    this.shared.add(type);
+    this.plans = this.plans();
+    return this;
+  }
+
+  /**
+   * Set whether the immutable types of the JDK are shared.
+   *
+   * @param shareImmutables false to copy them too
+   * @return this same instance
+   */
+  @NonNull
+  public DeepCloner shareImmutables(boolean shareImmutables) {
+    this.shareImmutables = shareImmutables;
+    this.plans = this.plans();
+    return this;
+  }
+
+  @NonNull
+  private ClassCache<ClonePlan> plans() {
+    List<Class<?>> shared = new ArrayList<>(this.shared);
+    boolean shareImmutables = this.shareImmutables;
+    return new ClassCache<>(
+        type -> ClonePlan.of(type, DeepCloner.isShared(type, shared, shareImmutables)));
+  }
+
+  private static boolean isShared(
+      @NonNull Class<?> type, @NonNull List<Class<?>> shared, boolean shareImmutables) {
+    for (Class<?> sharedType : shared) {
+      if (sharedType.isAssignableFrom(type)) return true;
+    }
+    return shareImmutables
+        && (DeepCloner.IMMUTABLE.contains(type)
+            || type.getName().startsWith("java.time.") && type.getClassLoader() == null);
+  }
+
+  /**
+   * Copy an object deeply.
+   *
+   * @param object the object to copy
+   * @param <T> the type of the object
+   * @return the copy, null if the object is null
+   * @throws IllegalArgumentException if an object in the graph cannot be copied
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T copy(T object) {
+    if (object == null) return null;
+    Copy copy = new Copy(this.plans);
+    T result = (T) copy.of(object);
+    copy.run();
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", DeepCloner.class.getSimpleName() + "[", "]")
+        .add("shared=" + shared)
+        .add("shareImmutables=" + shareImmutables)
+        .toString();
+  }
+
+  /** The state of a single copy. */
+  static final class Copy {
+
+    @NonNull private final ClassCache<ClonePlan> plans;
+    @NonNull private final IdentityMap copies = new IdentityMap(16);
+
+    /** Objects to fill as triples of original, copy and plan. */
+    @NonNull private Object[] pending = new Object[48];
+
+    private int size;
+
+    /** Containers to fill as pairs of copy and elements. */
+    @NonNull private final List<Object> deferred = new ArrayList<>();
+
+    private Copy(@NonNull ClassCache<ClonePlan> plans) {
+      this.plans = plans;
+    }
+
+    /**
+     * Get the copy of an object, creating it if it was not copied yet. The state of the copy is
+     * filled later.
+     *
+     * @param original the object
+     * @return the copy, which is the same object if it is shared
+     */
+    Object of(Object original) {
+      if (original == null) return null;
+      ClonePlan plan = this.plans.get(original.getClass());
+      if (plan.kind == ClonePlan.Kind.SHARED) return original;
+      int slot = this.copies.find(original);
+      if (slot >= 0) return this.copies.valueAt(slot);
+      Object copy = plan.create(original);
+      this.copies.putAt(slot, original, copy);
+      if (plan.kind != ClonePlan.Kind.PRIMITIVE_ARRAY) this.push(original, copy, plan);
+      return copy;
+    }
+
+    /**
+     * Fill a container once every object has been copied.
+     *
+     * @param container the copy of the container
+     * @param elements the copies of its elements, or of its keys and values
+     */
+    void defer(@NonNull Object container, @NonNull Object[] elements) {
+      this.deferred.add(container);
+      this.deferred.add(elements);
+    }
+
+    private void push(@NonNull Object original, @NonNull Object copy, @NonNull ClonePlan plan) {
+      if (this.size + 3 > this.pending.length) {
+        this.pending = Arrays.copyOf(this.pending, this.pending.length * 2);
+      }
+      this.pending[this.size++] = original;
+      this.pending[this.size++] = copy;
+      this.pending[this.size++] = plan;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run() {
+      while (this.size > 0) {
+        ClonePlan plan = (ClonePlan) this.pending[--this.size];
+        Object copy = this.pending[--this.size];
+        Object original = this.pending[--this.size];
+        this.pending[this.size] = null;
+        this.pending[this.size + 1] = null;
+        this.pending[this.size + 2] = null;
+        plan.fill(original, copy, this);
+      }
+      // Nested containers were found after the ones that contain them, they are filled first so
+      // their hash codes are final when they are added
+      for (int i = this.deferred.size() - 2; i >= 0; i -= 2) {
+        Object container = this.deferred.get(i);
+        Object[] elements = (Object[]) this.deferred.get(i + 1);
+        if (container instanceof Map) {
+          Map<Object, Object> map = (Map<Object, Object>) container;
+          for (int j = 0; j < elements.length; j += 2) {
+            map.put(elements[j], elements[j + 1]);
+          }
+        } else {
+          Collections.addAll((Collection<Object>) container, elements);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package me.googas.reflect.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.NonNull;
+import me.googas.reflect.wrappers.WrappedField;
+
+/**
+ * How two instances of a class are compared by a {@link ChangeDetector}. The plan is built once per
+ * class: the fields to compare are found in the whole hierarchy, without making them accessible,
+ * and their offsets are resolved, so a comparison only reads the fields at those offsets and
+ * primitives are never boxed.
+ *
+ * <p>Fields that cannot be addressed by offset, such as the ones of records or when {@code
+ * sun.misc.Unsafe} is not available, are read through the getters of their wrappers instead
+ */
+final class DiffPlan {
+
+  @NonNull final List<Field> fields;
+
+  /** The offsets of the fields, null if they are read through {@link #getters}. */
+  private final long[] offsets;
+
+  @NonNull private final int[] kinds;
+
+  /** The getters of the fields, null if they are read through {@link #offsets}. */
+  private final Function<Object, Object>[] getters;
+
+  private DiffPlan(
+      @NonNull List<Field> fields,
+      long[] offsets,
+      @NonNull int[] kinds,
+      Function<Object, Object>[] getters) {
+    this.fields = fields;
+    this.offsets = offsets;
+    this.kinds = kinds;
+    this.getters = getters;
+  }
+
+  /**
+   * Build the plan of a class.
+   *
+   * @param type the class
+   * @param filter the fields to compare
+   * @return the plan
+   * @throws IllegalArgumentException if the fields of the class cannot be read
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static DiffPlan of(@NonNull Class<?> type, @NonNull Predicate<Field> filter) {
+    if (type.isArray()) throw new IllegalArgumentException("Arrays have no fields: " + type);
+    // Fields are not made accessible to find them nor to resolve their offsets
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || !filter.test(field)) continue;
+        fields.add(field);
+      }
+    }
+    int[] kinds = new int[fields.size()];
+    for (int i = 0; i < kinds.length; i++) {
+      kinds[i] = UnsafeAccess.kind(fields.get(i).getType());
+    }
+    List<Field> view = Collections.unmodifiableList(fields);
+    if (UnsafeAccess.isAvailable()) {
+      try {
+        long[] offsets = new long[kinds.length];
+        for (int i = 0; i < offsets.length; i++) {
+          offsets[i] = UnsafeAccess.offset(fields.get(i));
+        }
+        return new DiffPlan(view, offsets, kinds, null);
+      } catch (UnsupportedOperationException e) {
+        // Records and hidden classes cannot be addressed, their getters are used
+      }
+    }
+    Function<Object, Object>[] getters =
+        (Function<Object, Object>[]) new Function<?, ?>[kinds.length];
+    try {
+      for (int i = 0; i < getters.length; i++) {
+        getters[i] = (Function<Object, Object>) WrappedField.of(fields.get(i)).getter();
+      }
+    } catch (IllegalAccessException | RuntimeException e) {
+      throw new IllegalArgumentException("The fields of " + type + " cannot be read", e);
+    }
+    return new DiffPlan(view, null, kinds, getters);
+  }
+
+  /**
+   * Compare two instances of the class.
+   *
+   * @param previous the previous state
+   * @param current the current state
+   * @param changes where the indices of the changed fields are set
+   * @return true if any field changed
+   */
+  boolean diff(@NonNull Object previous, @NonNull Object current, @NonNull BitSet changes) {
+    return this.offsets == null
+        ? this.diffGetters(previous, current, changes)
+        : this.diffOffsets(previous, current, changes);
+  }
+
+  private boolean diffOffsets(
+      @NonNull Object previous, @NonNull Object current, @NonNull BitSet changes) {
+    long[] offsets = this.offsets;
+    int[] kinds = this.kinds;
+    boolean changed = false;
+    for (int i = 0; i < offsets.length; i++) {
+      int kind = kinds[i];
+      long offset = offsets[i];
+      boolean same =
+          kind == UnsafeAccess.OBJECT
+              ? Objects.equals(
+                  UnsafeAccess.get(previous, offset), UnsafeAccess.get(current, offset))
+              : UnsafeAccess.same(kind, previous, current, offset);
+      if (!same) {
+        changes.set(i);
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  private boolean diffGetters(
+      @NonNull Object previous, @NonNull Object current, @NonNull BitSet changes) {
+    Function<Object, Object>[] getters = this.getters;
+    boolean changed = false;
+    for (int i = 0; i < getters.length; i++) {
+      Function<Object, Object> getter = getters[i];
+      // Boxed primitives are compared by equals, which compares floating points by their bits too
+      if (!Objects.equals(getter.apply(previous), getter.apply(current))) {
+        changes.set(i);
+        changed = true;
+      }
+    }
+    return changed;
+  }
+}
@@ -0,0 +1,22 @@
+package me.googas.reflect.graph;
+
+import lombok.NonNull;
+
+/**
+ * Receives the objects reached by a {@link GraphWalker}. Each object is visited once, even if it is
+ * referenced many times or in a cycle.
+ *
+ * <p>When the walk is split across a {@link java.util.concurrent.ForkJoinPool} the visitor is
+ * called from many threads at the same time and must be thread-safe
+ */
+@FunctionalInterface
+public interface GraphVisitor {
+
+  /**
+   * Visit an object.
+   *
+   * @param object the object reached
+   * @return true to walk the objects it references, false to stop at it
+   */
+  boolean visit(@NonNull Object object);
+}
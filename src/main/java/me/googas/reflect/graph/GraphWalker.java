@@ -0,0 +1,281 @@
+package me.googas.reflect.graph;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Walks every object reachable from a root through its fields, the elements of its arrays and, for
+ * encapsulated collections and maps, their elements. The walk is iterative: pending objects are
+ * kept in an explicit stack so deep graphs such as long linked lists do not overflow the thread
+ * stack. Visited objects are tracked by identity in an open addressing set and the references of
+ * each class are read through a {@link ClassPlan} built once per class.
+ *
+ * <pre>{@code
+ * GraphWalker walker = GraphWalker.create().filter(field -> !field.getName().equals("parent"));
+ * long reached = walker.walk(root, object -> !(object instanceof Cache));
+ * }</pre>
+ *
+ * <p>Static fields are not followed. A walker can be used to walk many graphs at the same time, it
+ * should be kept as it caches the plans of the classes it reaches
+ */
+public final class GraphWalker {
+
+  /** Objects pending in a task before half of them are split to another task. */
+  private static final int SPLIT_THRESHOLD = 1024;
+
+  /** Number of partitions of the visited set used by parallel walks. */
+  private static final int SEGMENTS = 64;
+
+  @NonNull private Predicate<Field> filter = field -> true;
+  @NonNull private ClassCache<ClassPlan> plans = this.plans();
+
+  private GraphWalker() {}
+
+  /**
+   * Create a walker which follows every field.
+   *
+   * @return the walker
+   */
+  @NonNull
+  public static GraphWalker create() {
+    return new GraphWalker();
+  }
+
+  /**
+   * Only follow the fields that match a filter. The filter is tested once per field when the class
+   * that declares it is first reached.
+   *
+   * @param filter the filter of the fields to follow
+   * @return this same instance
+   */
+  @NonNull
+  public GraphWalker filter(@NonNull Predicate<Field> filter) {
+    this.filter = filter;
+    this.plans = this.plans();
+    return this;
+  }
+
+  @NonNull
+  private ClassCache<ClassPlan> plans() {
+    Predicate<Field> filter = this.filter;
+    return new ClassCache<>(type -> ClassPlan.of(type, filter));
+  }
+
+  /**
+   * Walk the graph in the current thread.
+   *
+   * @param root the object to start from
+   * @param visitor the visitor of the objects reached
+   * @return the number of objects visited
+   */
+  public long walk(@NonNull Object root, @NonNull GraphVisitor visitor) {
+    ClassCache<ClassPlan> plans = this.plans;
+    IdentitySet visited = new IdentitySet(GraphWalker.SPLIT_THRESHOLD);
+    Stack stack = new Stack(GraphWalker.SPLIT_THRESHOLD);
+    Push push =
+        reference -> {
+          if (visited.add(reference)) stack.push(reference);
+        };
+    visited.add(root);
+    stack.push(root);
+    while (stack.size > 0) {
+      Object object = stack.pop();
+      if (visitor.visit(object)) GraphWalker.expand(object, plans.get(object.getClass()), push);
+    }
+    return visited.size();
+  }
+
+  /**
+   * Walk the graph splitting the work across a pool. Each task walks its own stack and when it
+   * grows over a threshold half of it is given to a new task, so wide graphs are walked in
+   * parallel. The visitor is called from many threads.
+   *
+   * @param root the object to start from
+   * @param visitor the visitor of the objects reached, it must be thread-safe
+   * @param pool the pool to run the tasks in
+   * @return the number of objects visited
+   */
+  public long walk(
+      @NonNull Object root, @NonNull GraphVisitor visitor, @NonNull ForkJoinPool pool) {
+    Segments visited = new Segments();
+    visited.add(root);
+    Stack stack = new Stack(GraphWalker.SPLIT_THRESHOLD);
+    stack.push(root);
+    pool.invoke(new Task(this.plans, visitor, visited, stack));
+    return visited.count.sum();
+  }
+
+  /**
+   * Push the references of an object.
+   *
+   * @param object the object
+   * @param plan the plan of its class
+   * @param push the consumer of the references that are not null
+   */
+  private static void expand(@NonNull Object object, @NonNull ClassPlan plan, @NonNull Push push) {
+    switch (plan.kind) {
+      case FIELDS:
+        for (Function<Object, Object> getter : plan.getters) {
+          Object reference = getter.apply(object);
+          if (reference != null) push.push(reference);
+        }
+        break;
+      case ARRAY:
+        for (Object reference : (Object[]) object) {
+          if (reference != null) push.push(reference);
+        }
+        break;
+      case COLLECTION:
+        for (Object reference : (Collection<?>) object) {
+          if (reference != null) push.push(reference);
+        }
+        break;
+      case MAP:
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+          if (entry.getKey() != null) push.push(entry.getKey());
+          if (entry.getValue() != null) push.push(entry.getValue());
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", GraphWalker.class.getSimpleName() + "[", "]")
+        .add("filter=" + filter)
+        .toString();
+  }
+
+  /** Receives the references found while expanding an object. */
+  @FunctionalInterface
+  private interface Push {
+    void push(@NonNull Object reference);
+  }
+
+  /** A stack of objects backed by an array. */
+  private static final class Stack {
+
+    @NonNull private Object[] elements;
+    private int size;
+
+    private Stack(int capacity) {
+      this.elements = new Object[capacity];
+    }
+
+    private void push(@NonNull Object object) {
+      if (this.size == this.elements.length) {
+        Object[] grown = new Object[this.size * 2];
+        System.arraycopy(this.elements, 0, grown, 0, this.size);
+        this.elements = grown;
+      }
+      this.elements[this.size++] = object;
+    }
+
+    @NonNull
+    private Object pop() {
+      Object object = this.elements[--this.size];
+      this.elements[this.size] = null;
+      return object;
+    }
+
+    /**
+     * Move the bottom half of the stack to a new one. Those were pushed first, they are the closest
+     * to the root and lead to the largest parts of the graph.
+     */
+    @NonNull
+    private Stack split() {
+      int half = this.size / 2;
+      Stack other = new Stack(Math.max(GraphWalker.SPLIT_THRESHOLD, half * 2));
+      System.arraycopy(this.elements, 0, other.elements, 0, half);
+      other.size = half;
+      System.arraycopy(this.elements, half, this.elements, 0, this.size - half);
+      for (int i = this.size - half; i < this.size; i++) {
+        this.elements[i] = null;
+      }
+      this.size -= half;
+      return other;
+    }
+  }
+
+  /** The visited set of a parallel walk partitioned so tasks rarely contend on a lock. */
+  private static final class Segments {
+
+    @NonNull private final IdentitySet[] segments = new IdentitySet[GraphWalker.SEGMENTS];
+    @NonNull private final LongAdder count = new LongAdder();
+
+    private Segments() {
+      for (int i = 0; i < this.segments.length; i++) {
+        this.segments[i] = new IdentitySet(GraphWalker.SPLIT_THRESHOLD);
+      }
+    }
+
+    private boolean add(@NonNull Object object) {
+      int hash = System.identityHashCode(object);
+      IdentitySet segment = this.segments[(hash ^ (hash >>> 16)) & (GraphWalker.SEGMENTS - 1)];
+      boolean added;
+      synchronized (segment) {
+        added = segment.add(object);
+      }
+      if (added) this.count.increment();
+      return added;
+    }
+  }
+
+  /** Walks a stack splitting it when it grows. */
+  private static final class Task extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    @NonNull private final ClassCache<ClassPlan> plans;
+    @NonNull private final GraphVisitor visitor;
+    @NonNull private final Segments visited;
+    @NonNull private final Stack stack;
+
+    private Task(
+        @NonNull ClassCache<ClassPlan> plans,
+        @NonNull GraphVisitor visitor,
+        @NonNull Segments visited,
+        @NonNull Stack stack) {
+      this.plans = plans;
+      this.visitor = visitor;
+      this.visited = visited;
+      this.stack = stack;
+    }
+
+    @Override
+    protected void compute() {
+      List<Task> forked = new ArrayList<>();
+      Stack stack = this.stack;
+      Push push =
+          reference -> {
+            if (this.visited.add(reference)) stack.push(reference);
+          };
+      while (stack.size > 0) {
+        if (stack.size > GraphWalker.SPLIT_THRESHOLD) {
+          Task task = new Task(this.plans, this.visitor, this.visited, stack.split());
+          task.fork();
+          forked.add(task);
+        }
+        Object object = stack.pop();
+        if (!this.visitor.visit(object)) continue;
+        GraphWalker.expand(object, this.plans.get(object.getClass()), push);
+      }
+      for (Task task : forked) {
+        task.join();
+      }
+    }
+  }
+}
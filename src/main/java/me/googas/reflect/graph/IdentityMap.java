@@ -0,0 +1,100 @@
+package me.googas.reflect.graph;
+
+import lombok.NonNull;
+
+/**
+ * A map of objects compared by identity, the counterpart of {@link IdentitySet} that also keeps a
+ * value for each key. Keys and values are kept in two arrays with open addressing.
+ *
+ * <p>The map is not thread-safe
+ */
+final class IdentityMap {
+
+  @NonNull private Object[] keys;
+  @NonNull private Object[] values;
+  private int size;
+  private int threshold;
+
+  /**
+   * Create the map.
+   *
+   * @param capacity the number of entries expected
+   */
+  IdentityMap(int capacity) {
+    int length = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+    this.keys = new Object[length];
+    this.values = new Object[length];
+    this.threshold = length / 3 * 2;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param key the key
+   * @return the index of the key if it is in the map, else the index of the empty slot where it
+   *     would be put minus {@code 1} and negated
+   */
+  int find(@NonNull Object key) {
+    Object[] keys = this.keys;
+    int mask = keys.length - 1;
+    int index = IdentityMap.hash(key) & mask;
+    Object current;
+    while ((current = keys[index]) != null) {
+      if (current == key) return index;
+      index = (index + 1) & mask;
+    }
+    return -index - 1;
+  }
+
+  /**
+   * Get the value in a slot found by {@link #find(Object)}.
+   *
+   * @param index the index of the key
+   * @return the value
+   */
+  @NonNull
+  Object valueAt(int index) {
+    return this.values[index];
+  }
+
+  /**
+   * Put a key in the empty slot found by {@link #find(Object)}, the map must not have been modified
+   * since.
+   *
+   * @param slot the value returned by {@link #find(Object)}
+   * @param key the key
+   * @param value the value
+   */
+  void putAt(int slot, @NonNull Object key, @NonNull Object value) {
+    int index = -slot - 1;
+    this.keys[index] = key;
+    this.values[index] = value;
+    if (++this.size >= this.threshold) this.grow();
+  }
+
+  private void grow() {
+    Object[] oldKeys = this.keys;
+    Object[] oldValues = this.values;
+    Object[] keys = new Object[oldKeys.length * 2];
+    Object[] values = new Object[keys.length];
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      Object key = oldKeys[i];
+      if (key == null) continue;
+      int index = IdentityMap.hash(key) & mask;
+      while (keys[index] != null) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      values[index] = oldValues[i];
+    }
+    this.keys = keys;
+    this.values = values;
+    this.threshold = keys.length / 3 * 2;
+  }
+
+  private static int hash(@NonNull Object object) {
+    int hash = System.identityHashCode(object) * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,84 @@
+package me.googas.reflect.graph;
+
+import lombok.NonNull;
+
+/**
+ * A set of objects compared by identity. Objects are kept in a single array with open addressing
+ * and linear probing, adding an object does not allocate unless the table grows, unlike {@link
+ * java.util.IdentityHashMap} based sets which also keep a value for each key.
+ *
+ * <p>The set is not thread-safe
+ */
+final class IdentitySet {
+
+  /** Grow when the table is two thirds full. */
+  private static final int LOAD_NUMERATOR = 2;
+
+  private static final int LOAD_DENOMINATOR = 3;
+
+  @NonNull private Object[] table;
+  private int size;
+  private int threshold;
+
+  /**
+   * Create the set.
+   *
+   * @param capacity the number of objects expected
+   */
+  IdentitySet(int capacity) {
+    int length = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+    this.table = new Object[length];
+    this.threshold = length / IdentitySet.LOAD_DENOMINATOR * IdentitySet.LOAD_NUMERATOR;
+  }
+
+  /**
+   * Add an object.
+   *
+   * @param object the object to add
+   * @return true if the object was not in the set
+   */
+  boolean add(@NonNull Object object) {
+    Object[] table = this.table;
+    int mask = table.length - 1;
+    int index = IdentitySet.hash(object) & mask;
+    Object current;
+    while ((current = table[index]) != null) {
+      if (current == object) return false;
+      index = (index + 1) & mask;
+    }
+    table[index] = object;
+    if (++this.size >= this.threshold) this.grow();
+    return true;
+  }
+
+  /**
+   * Get the number of objects in the set.
+   *
+   * @return the number of objects
+   */
+  int size() {
+    return this.size;
+  }
+
+  private void grow() {
+    Object[] old = this.table;
+    Object[] table = new Object[old.length * 2];
+    int mask = table.length - 1;
+    for (Object object : old) {
+      if (object == null) continue;
+      int index = IdentitySet.hash(object) & mask;
+      while (table[index] != null) {
+        index = (index + 1) & mask;
+      }
+      table[index] = object;
+    }
+    this.table = table;
+    this.threshold = table.length / IdentitySet.LOAD_DENOMINATOR * IdentitySet.LOAD_NUMERATOR;
+  }
+
+  private static int hash(@NonNull Object object) {
+    // Identity hashes are not well spread in the low bits, which are the ones masked
+    int hash = System.identityHashCode(object) * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
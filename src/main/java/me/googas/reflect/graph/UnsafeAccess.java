@@ -0,0 +1,306 @@
+package me.googas.reflect.graph;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import lombok.NonNull;
+
+/**
+ * Reads and writes fields through {@code sun.misc.Unsafe}. As the library targets Java 8 and does
+ * not link against internal APIs the methods are looked up reflectively, they are kept in constant
+ * method handles which are inlined by the JIT just like direct calls.
+ *
+ * <p>Unlike reflection and method handles of the fields, Unsafe neither checks access nor boxes
+ * primitives and writes final fields, which is what copying an object needs
+ */
+final class UnsafeAccess {
+
+  /** Kind of the fields that hold references. */
+  static final int OBJECT = 0;
+
+  private static final MethodHandle ALLOCATE;
+  private static final MethodHandle OFFSET;
+  private static final MethodHandle GET_OBJECT;
+  private static final MethodHandle PUT_OBJECT;
+  private static final MethodHandle GET_BOOLEAN;
+  private static final MethodHandle PUT_BOOLEAN;
+  private static final MethodHandle GET_BYTE;
+  private static final MethodHandle PUT_BYTE;
+  private static final MethodHandle GET_SHORT;
+  private static final MethodHandle PUT_SHORT;
+  private static final MethodHandle GET_CHAR;
+  private static final MethodHandle PUT_CHAR;
+  private static final MethodHandle GET_INT;
+  private static final MethodHandle PUT_INT;
+  private static final MethodHandle GET_LONG;
+  private static final MethodHandle PUT_LONG;
+  private static final MethodHandle GET_FLOAT;
+  private static final MethodHandle PUT_FLOAT;
+  private static final MethodHandle GET_DOUBLE;
+  private static final MethodHandle PUT_DOUBLE;
+
+  @NonNull
+  private static final Class<?>[] KINDS = {
+    Object.class,
+    boolean.class,
+    byte.class,
+    short.class,
+    char.class,
+    int.class,
+    long.class,
+    float.class,
+    double.class
+  };
+
+  static {
+    MethodHandle[] handles = UnsafeAccess.link();
+    int i = 0;
+    ALLOCATE = handles[i++];
+    OFFSET = handles[i++];
+    GET_OBJECT = handles[i++];
+    PUT_OBJECT = handles[i++];
+    GET_BOOLEAN = handles[i++];
+    PUT_BOOLEAN = handles[i++];
+    GET_BYTE = handles[i++];
+    PUT_BYTE = handles[i++];
+    GET_SHORT = handles[i++];
+    PUT_SHORT = handles[i++];
+    GET_CHAR = handles[i++];
+    PUT_CHAR = handles[i++];
+    GET_INT = handles[i++];
+    PUT_INT = handles[i++];
+    GET_LONG = handles[i++];
+    PUT_LONG = handles[i++];
+    GET_FLOAT = handles[i++];
+    PUT_FLOAT = handles[i++];
+    GET_DOUBLE = handles[i++];
+    PUT_DOUBLE = handles[i];
+  }
+
+  private UnsafeAccess() {}
+
+  @NonNull
+  private static MethodHandle[] link() {
+    MethodHandle[] handles = new MethodHandle[2 + UnsafeAccess.KINDS.length * 2];
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      Object unsafe = field.get(null);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      handles[0] =
+          lookup.unreflect(unsafeClass.getMethod("allocateInstance", Class.class)).bindTo(unsafe);
+      handles[1] =
+          lookup.unreflect(unsafeClass.getMethod("objectFieldOffset", Field.class)).bindTo(unsafe);
+      for (int kind = 0; kind < UnsafeAccess.KINDS.length; kind++) {
+        Class<?> type = UnsafeAccess.KINDS[kind];
+        String suffix =
+            kind == UnsafeAccess.OBJECT
+                ? "Object"
+                : Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+        handles[2 + kind * 2] =
+            lookup
+                .unreflect(unsafeClass.getMethod("get" + suffix, Object.class, long.class))
+                .bindTo(unsafe);
+        handles[3 + kind * 2] =
+            lookup
+                .unreflect(unsafeClass.getMethod("put" + suffix, Object.class, long.class, type))
+                .bindTo(unsafe);
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Not available in this runtime
+      return new MethodHandle[handles.length];
+    }
+    return handles;
+  }
+
+  /**
+   * Check whether Unsafe could be linked.
+   *
+   * @return true if it is available
+   */
+  static boolean isAvailable() {
+    return UnsafeAccess.ALLOCATE != null;
+  }
+
+  /**
+   * Get the kind of a field by its type, {@link #OBJECT} for references.
+   *
+   * @param type the type of the field
+   * @return the kind
+   */
+  static int kind(@NonNull Class<?> type) {
+    for (int kind = 1; kind < UnsafeAccess.KINDS.length; kind++) {
+      if (UnsafeAccess.KINDS[kind] == type) return kind;
+    }
+    return UnsafeAccess.OBJECT;
+  }
+
+  /**
+   * Create an instance of a class without calling any of its constructors.
+   *
+   * @param type the class
+   * @return the new instance with every field set to its default value
+   * @throws InstantiationException if the class cannot be instantiated
+   */
+  @NonNull
+  static Object allocate(@NonNull Class<?> type) throws InstantiationException {
+    try {
+      return (Object) UnsafeAccess.ALLOCATE.invokeExact(type);
+    } catch (InstantiationException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get the offset of an instance field.
+   *
+   * @param field the field
+   * @return the offset
+   * @throws UnsupportedOperationException if the field cannot be addressed, such as the fields of
+   *     records and hidden classes
+   */
+  static long offset(@NonNull Field field) {
+    try {
+      return (long) UnsafeAccess.OFFSET.invokeExact(field);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get a reference field.
+   *
+   * @param object the instance
+   * @param offset the offset of the field
+   * @return the value of the field
+   */
+  static Object get(@NonNull Object object, long offset) {
+    try {
+      return (Object) UnsafeAccess.GET_OBJECT.invokeExact(object, offset);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Set a reference field.
+   *
+   * @param object the instance
+   * @param offset the offset of the field
+   * @param value the new value of the field
+   */
+  static void put(@NonNull Object object, long offset, Object value) {
+    try {
+      UnsafeAccess.PUT_OBJECT.invokeExact(object, offset, value);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Copy a primitive field from an instance to another.
+   *
+   * @param kind the kind of the field
+   * @param from the instance to copy from
+   * @param to the instance to copy to
+   * @param offset the offset of the field
+   */
+  static void copy(int kind, @NonNull Object from, @NonNull Object to, long offset) {
+    try {
+      switch (kind) {
+        case 1:
+          UnsafeAccess.PUT_BOOLEAN.invokeExact(
+              to, offset, (boolean) UnsafeAccess.GET_BOOLEAN.invokeExact(from, offset));
+          break;
+        case 2:
+          UnsafeAccess.PUT_BYTE.invokeExact(
+              to, offset, (byte) UnsafeAccess.GET_BYTE.invokeExact(from, offset));
+          break;
+        case 3:
+          UnsafeAccess.PUT_SHORT.invokeExact(
+              to, offset, (short) UnsafeAccess.GET_SHORT.invokeExact(from, offset));
+          break;
+        case 4:
+          UnsafeAccess.PUT_CHAR.invokeExact(
+              to, offset, (char) UnsafeAccess.GET_CHAR.invokeExact(from, offset));
+          break;
+        case 5:
+          UnsafeAccess.PUT_INT.invokeExact(
+              to, offset, (int) UnsafeAccess.GET_INT.invokeExact(from, offset));
+          break;
+        case 6:
+          UnsafeAccess.PUT_LONG.invokeExact(
+              to, offset, (long) UnsafeAccess.GET_LONG.invokeExact(from, offset));
+          break;
+        case 7:
+          UnsafeAccess.PUT_FLOAT.invokeExact(
+              to, offset, (float) UnsafeAccess.GET_FLOAT.invokeExact(from, offset));
+          break;
+        case 8:
+          UnsafeAccess.PUT_DOUBLE.invokeExact(
+              to, offset, (double) UnsafeAccess.GET_DOUBLE.invokeExact(from, offset));
+          break;
+        default:
+          throw new IllegalArgumentException("Not a primitive kind: " + kind);
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Check whether a primitive field has the same value in two instances. Floating point values are
+   * compared by their bits, like {@link Float#equals(Object)} and {@link Double#equals(Object)}.
+   *
+   * @param kind the kind of the field
+   * @param first an instance
+   * @param second the other instance
+   * @param offset the offset of the field
+   * @return true if the values are the same
+   */
+  static boolean same(int kind, @NonNull Object first, @NonNull Object second, long offset) {
+    try {
+      switch (kind) {
+        case 1:
+          return (boolean) UnsafeAccess.GET_BOOLEAN.invokeExact(first, offset)
+              == (boolean) UnsafeAccess.GET_BOOLEAN.invokeExact(second, offset);
+        case 2:
+          return (byte) UnsafeAccess.GET_BYTE.invokeExact(first, offset)
+              == (byte) UnsafeAccess.GET_BYTE.invokeExact(second, offset);
+        case 3:
+          return (short) UnsafeAccess.GET_SHORT.invokeExact(first, offset)
+              == (short) UnsafeAccess.GET_SHORT.invokeExact(second, offset);
+        case 4:
+          return (char) UnsafeAccess.GET_CHAR.invokeExact(first, offset)
+              == (char) UnsafeAccess.GET_CHAR.invokeExact(second, offset);
+        case 5:
+          return (int) UnsafeAccess.GET_INT.invokeExact(first, offset)
+              == (int) UnsafeAccess.GET_INT.invokeExact(second, offset);
+        case 6:
+          return (long) UnsafeAccess.GET_LONG.invokeExact(first, offset)
+              == (long) UnsafeAccess.GET_LONG.invokeExact(second, offset);
+        case 7:
+          return Float.floatToIntBits((float) UnsafeAccess.GET_FLOAT.invokeExact(first, offset))
+              == Float.floatToIntBits((float) UnsafeAccess.GET_FLOAT.invokeExact(second, offset));
+        case 8:
+          return Double.doubleToLongBits(
+                  (double) UnsafeAccess.GET_DOUBLE.invokeExact(first, offset))
+              == Double.doubleToLongBits(
+                  (double) UnsafeAccess.GET_DOUBLE.invokeExact(second, offset));
+        default:
+          throw new IllegalArgumentException("Not a primitive kind: " + kind);
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
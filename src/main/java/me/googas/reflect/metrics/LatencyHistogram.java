@@ -0,0 +1,90 @@
+package me.googas.reflect.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+
+/**
+ * A histogram of latencies with a bucket for each power of two of nanoseconds. Bucket {@code i}
+ * counts the values in the range {@code [2^(i-1), 2^i)}, which is the bit length of the values, and
+ * bucket 0 the values lower than 1. Recording a value does not allocate and it is safe to do
+ * concurrently.
+ */
+public final class LatencyHistogram {
+
+  /** The number of buckets. */
+  public static final int BUCKETS = 64;
+
+  @NonNull private final LongAdder[] buckets = new LongAdder[LatencyHistogram.BUCKETS];
+  @NonNull private final LongAdder total = new LongAdder();
+
+  /** Create an empty histogram. */
+  public LatencyHistogram() {
+    for (int i = 0; i < this.buckets.length; i++) {
+      this.buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Record a value.
+   *
+   * @param nanos the value in nanoseconds
+   */
+  public void record(long nanos) {
+    this.buckets[nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos)].increment();
+    this.total.add(Math.max(nanos, 0));
+  }
+
+  /**
+   * Get the number of recorded values.
+   *
+   * @return the number of values
+   */
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucket : this.buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of values recorded in a bucket.
+   *
+   * @param bucket the index of the bucket
+   * @return the number of values
+   */
+  public long getCount(int bucket) {
+    return this.buckets[bucket].sum();
+  }
+
+  /**
+   * Get the mean of the recorded values.
+   *
+   * @return the mean in nanoseconds or 0 if no value was recorded
+   */
+  public double getMean() {
+    long count = this.getCount();
+    return count == 0 ? 0 : (double) this.total.sum() / count;
+  }
+
+  /**
+   * Get an upper bound of a percentile of the recorded values.
+   *
+   * @param percentile the percentile from 0 to 100
+   * @return the highest value of the bucket that contains the percentile in nanoseconds, that is
+   *     {@code 2^i - 1} for bucket {@code i}
+   */
+  public long getPercentile(double percentile) {
+    long count = this.getCount();
+    long target = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+    long seen = 0;
+    for (int i = 0; i < this.buckets.length; i++) {
+      seen += this.buckets[i].sum();
+      if (seen >= target && seen > 0) {
+        // For bucket 63 this overflows to Long.MAX_VALUE
+        return (1L << i) - 1;
+      }
+    }
+    return 0;
+  }
+}
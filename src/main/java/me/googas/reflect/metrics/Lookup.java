@@ -0,0 +1,21 @@
+package me.googas.reflect.metrics;
+
+/** The kinds of lookups reported to a {@link MetricsSink}. */
+public enum Lookup {
+  /** A class looked up by its name. */
+  CLASS,
+  /** A public field. */
+  FIELD,
+  /** A declared field. */
+  DECLARED_FIELD,
+  /** A public method. */
+  METHOD,
+  /** A declared method. */
+  DECLARED_METHOD,
+  /** A public constructor. */
+  CONSTRUCTOR,
+  /** A field declared in the class or its superclasses. */
+  HIERARCHY_FIELD,
+  /** A method declared in the class, its superclasses or a default method of its interfaces. */
+  HIERARCHY_METHOD
+}
@@ -0,0 +1,55 @@
+package me.googas.reflect.metrics;
+
+import lombok.NonNull;
+
+/**
+ * Holds the {@link MetricsSink} in which the library reports its metrics. By default {@link
+ * MetricsSink#NONE} is installed and the instrumented operations only check {@link #isEnabled()}
+ * which makes the overhead of disabled metrics a single read.
+ *
+ * <p>Lookups are reported by {@link me.googas.reflect.wrappers.WrappedClass}, cache hits and misses
+ * by the caches of the lookups and invocations by {@link me.googas.reflect.wrappers.WrappedMethod}
+ * and {@link me.googas.reflect.wrappers.WrappedConstructor}. The fixed arity invokers from {@link
+ * me.googas.reflect.wrappers.Invokers} are not timed as they are meant to be as close to a direct
+ * call as possible
+ */
+public final class Metrics {
+
+  /** Name of the cache of class names that could not be found. */
+  @NonNull public static final String CLASS_CACHE = "class";
+
+  /** Name of the cache of members indexed for each class. */
+  @NonNull public static final String MEMBER_CACHE = "member";
+
+  @NonNull private static volatile MetricsSink sink = MetricsSink.NONE;
+
+  private Metrics() {}
+
+  /**
+   * Install the sink to report the metrics to.
+   *
+   * @param sink the new sink, {@link MetricsSink#NONE} to disable the metrics
+   */
+  public static void setSink(@NonNull MetricsSink sink) {
+    Metrics.sink = sink;
+  }
+
+  /**
+   * Get the installed sink.
+   *
+   * @return the sink
+   */
+  @NonNull
+  public static MetricsSink getSink() {
+    return Metrics.sink;
+  }
+
+  /**
+   * Check whether metrics are being collected.
+   *
+   * @return true if a sink other than {@link MetricsSink#NONE} is installed
+   */
+  public static boolean isEnabled() {
+    return Metrics.sink != MetricsSink.NONE;
+  }
+}
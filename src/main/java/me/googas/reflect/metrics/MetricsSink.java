@@ -0,0 +1,41 @@
+package me.googas.reflect.metrics;
+
+import java.lang.reflect.Member;
+import lombok.NonNull;
+
+/**
+ * Receives the metrics of the library. Implement it to bridge the metrics to any other system and
+ * install it using {@link Metrics#setSink(MetricsSink)}. Every method does nothing by default.
+ *
+ * <p>Methods may be called concurrently from any thread, implementations must be thread-safe and
+ * should return fast as they are called in the same thread that performs the operation
+ */
+public interface MetricsSink {
+
+  /** The sink that ignores every metric. While it is installed metrics are not collected. */
+  @NonNull MetricsSink NONE = new MetricsSink() {};
+
+  /**
+   * Called after a member or class is looked up.
+   *
+   * @param lookup the kind of lookup
+   * @param found whether the member or class was found
+   */
+  default void lookup(@NonNull Lookup lookup, boolean found) {}
+
+  /**
+   * Called when a cache of the library is queried.
+   *
+   * @param cache the name of the cache
+   * @param hit whether the value was already in the cache
+   */
+  default void cache(@NonNull String cache, boolean hit) {}
+
+  /**
+   * Called after a method or constructor is invoked, even if the invocation failed.
+   *
+   * @param member the method or constructor that was invoked
+   * @param nanos the time that the invocation took in nanoseconds
+   */
+  default void invocation(@NonNull Member member, long nanos) {}
+}
@@ -0,0 +1,114 @@
+package me.googas.reflect.metrics;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Member;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+
+/**
+ * A sink that keeps the metrics in memory: the count of lookups found and missing for each {@link
+ * Lookup}, the hits and misses of each cache and a {@link LatencyHistogram} for each invoked
+ * member.
+ *
+ * <p>Invoked members are kept by their signature and not by the {@link Member} itself, so the sink
+ * does not keep the loaders of the invoked classes reachable and the latencies of a class that is
+ * loaded again are added to the ones it had before
+ */
+public class SimpleMetricsSink implements MetricsSink {
+
+  @NonNull private final Map<Lookup, LongAdder> found = new EnumMap<>(Lookup.class);
+  @NonNull private final Map<Lookup, LongAdder> missing = new EnumMap<>(Lookup.class);
+  @NonNull private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+  @NonNull private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+
+  @NonNull private final Map<String, LatencyHistogram> invocations = new ConcurrentHashMap<>();
+
+  /** Create the sink. */
+  public SimpleMetricsSink() {
+    for (Lookup lookup : Lookup.values()) {
+      this.found.put(lookup, new LongAdder());
+      this.missing.put(lookup, new LongAdder());
+    }
+  }
+
+  @Override
+  public void lookup(@NonNull Lookup lookup, boolean found) {
+    (found ? this.found : this.missing).get(lookup).increment();
+  }
+
+  @Override
+  public void cache(@NonNull String cache, boolean hit) {
+    (hit ? this.hits : this.misses).computeIfAbsent(cache, key -> new LongAdder()).increment();
+  }
+
+  @Override
+  public void invocation(@NonNull Member member, long nanos) {
+    this.invocations
+        .computeIfAbsent(SimpleMetricsSink.signature(member), key -> new LatencyHistogram())
+        .record(nanos);
+  }
+
+  /**
+   * Get the signature of a member such as {@code com.example.Level#tick(int)}, constructors are
+   * named {@code <init>}.
+   *
+   * @param member the member
+   * @return the signature
+   */
+  @NonNull
+  public static String signature(@NonNull Member member) {
+    StringBuilder builder =
+        new StringBuilder(member.getDeclaringClass().getName())
+            .append('#')
+            .append(member instanceof Constructor ? "<init>" : member.getName());
+    if (member instanceof Executable) {
+      builder.append('(');
+      Class<?>[] parameters = ((Executable) member).getParameterTypes();
+      for (int i = 0; i < parameters.length; i++) {
+        if (i > 0) builder.append(',');
+        builder.append(parameters[i].getTypeName());
+      }
+      builder.append(')');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Get the number of lookups of a kind.
+   *
+   * @param lookup the kind of lookup
+   * @param found whether to count the lookups that found the member or the ones that did not
+   * @return the number of lookups
+   */
+  public long getLookups(@NonNull Lookup lookup, boolean found) {
+    return (found ? this.found : this.missing).get(lookup).sum();
+  }
+
+  /**
+   * Get the number of queries to a cache.
+   *
+   * @param cache the name of the cache
+   * @param hit whether to count the hits or the misses
+   * @return the number of queries
+   */
+  public long getQueries(@NonNull String cache, boolean hit) {
+    LongAdder adder = (hit ? this.hits : this.misses).get(cache);
+    return adder == null ? 0 : adder.sum();
+  }
+
+  /**
+   * Get the latencies of the invocations of each member.
+   *
+   * @see #signature(Member)
+   * @return an unmodifiable view of the histograms by the signature of the member
+   */
+  @NonNull
+  public Map<String, LatencyHistogram> getInvocations() {
+    return Collections.unmodifiableMap(this.invocations);
+  }
+}
@@ -148,10 +148,10 @@ public abstract class CollectionModifier implements Modifier {
         @NonNull Collection<?> collection)
         throws IllegalAccessException, InvocationTargetException {
       if (index > -1 && collection instanceof List) {
-        CollectionModifier.ADD_INDEX.invoke(collection, index, toAdd);
+        CollectionModifier.ADD_INDEX.invokeHandle(collection, index, toAdd);
         return true;
       } else {
-        return CollectionModifier.ADD.prepare(collection, toAdd);
+        return CollectionModifier.ADD.prepareHandle(collection, toAdd);
       }
     }
   }
@@ -170,7 +170,7 @@ public abstract class CollectionModifier implements Modifier {
         @NonNull Object reference,
         @NonNull Collection<?> collection)
         throws IllegalAccessException, InvocationTargetException {
-      return CollectionModifier.ADD_ALL.prepare(collection, this.collection);
+      return CollectionModifier.ADD_ALL.prepareHandle(collection, this.collection);
     }
   }
 }
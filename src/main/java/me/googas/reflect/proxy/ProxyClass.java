@@ -0,0 +1,142 @@
+package me.googas.reflect.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+
+/**
+ * The generated class of the proxies of an interface. It is generated once per interface and has a
+ * slot for each distinct abstract method of the interface and its superinterfaces, so a proxy is
+ * created by passing one handle per slot to its constructor.
+ *
+ * <p>Default methods keep their implementation and methods declared by {@link Object} are not
+ * proxied
+ */
+final class ProxyClass {
+
+  @NonNull private static final String SUFFIX = "$$ReflectProxy";
+  @NonNull private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  @NonNull
+  private static final MethodType CONSTRUCTOR =
+      MethodType.methodType(void.class, MethodHandle[].class);
+
+  /** The names of the methods of each slot. */
+  @NonNull final String[] names;
+
+  /** The types of the methods of each slot, without the receiver. */
+  @NonNull final MethodType[] types;
+
+  /** Creates a proxy from the array of handles, of type {@code (MethodHandle[])Object}. */
+  @NonNull private final MethodHandle constructor;
+
+  private ProxyClass(
+      @NonNull String[] names, @NonNull MethodType[] types, @NonNull MethodHandle constructor) {
+    this.names = names;
+    this.types = types;
+    this.constructor = constructor;
+  }
+
+  /**
+   * Generate the proxy class of an interface.
+   *
+   * @param type the public interface
+   * @return the proxy class
+   */
+  @NonNull
+  static ProxyClass of(@NonNull Class<?> type) {
+    Map<String, Method> methods = new LinkedHashMap<>();
+    for (Method method : type.getMethods()) {
+      if (!Modifier.isAbstract(method.getModifiers()) || ProxyClass.isObjectMethod(method)) {
+        continue;
+      }
+      // Overrides with covariant returns have distinct descriptors, each one needs its method
+      methods.putIfAbsent(
+          method.getName()
+              + MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                  .toMethodDescriptorString(),
+          method);
+    }
+    String[] names = new String[methods.size()];
+    MethodType[] types = new MethodType[methods.size()];
+    int slot = 0;
+    for (Method method : methods.values()) {
+      names[slot] = method.getName();
+      types[slot++] = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+    }
+    String name = ProxyClass.name(type);
+    Class<?> proxy =
+        new ProxyLoader(type.getClassLoader())
+            .define(name, ProxyGenerator.generate(name, type, names, types));
+    try {
+      MethodHandle constructor =
+          MethodHandles.publicLookup()
+              .findConstructor(proxy, ProxyClass.CONSTRUCTOR)
+              .asType(MethodType.methodType(Object.class, MethodHandle[].class));
+      return new ProxyClass(names, types, constructor);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Could not link the proxy of " + type, e);
+    }
+  }
+
+  @NonNull
+  private static String name(@NonNull Class<?> type) {
+    // Classes cannot be defined in the packages of the JDK
+    String name = type.getName().startsWith("java.") ? "proxy." + type.getName() : type.getName();
+    return name + ProxyClass.SUFFIX + ProxyClass.COUNTER.getAndIncrement();
+  }
+
+  private static boolean isObjectMethod(@NonNull Method method) {
+    try {
+      return Modifier.isPublic(
+          Object.class.getMethod(method.getName(), method.getParameterTypes()).getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Get the slots of the methods with a name and parameters.
+   *
+   * @param name the name of the methods
+   * @param parameters the parameter types of the methods
+   * @return the slots, which are many if the method is overridden with covariant returns
+   */
+  @NonNull
+  List<Integer> slots(@NonNull String name, @NonNull Class<?>[] parameters) {
+    List<Integer> slots = new ArrayList<>(1);
+    for (int slot = 0; slot < this.names.length; slot++) {
+      if (this.names[slot].equals(name)
+          && Arrays.equals(this.types[slot].parameterArray(), parameters)) {
+        slots.add(slot);
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * Create a proxy.
+   *
+   * @param handles the handle of each slot adapted to its type
+   * @return the proxy
+   */
+  @NonNull
+  Object newInstance(@NonNull MethodHandle[] handles) {
+    try {
+      return (Object) this.constructor.invokeExact(handles);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
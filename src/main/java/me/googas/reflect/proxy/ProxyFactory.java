@@ -0,0 +1,228 @@
+package me.googas.reflect.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.StringJoiner;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedMethod;
+
+/**
+ * Creates implementations of an interface whose methods call {@link MethodHandle} targets. Unlike
+ * {@link java.lang.reflect.Proxy} there is no {@link java.lang.reflect.InvocationHandler}: a class
+ * is generated once per interface with a slot for each of its methods, and each proxy is created
+ * with the targets bound to the slots. A call loads the target of its slot and invokes it exactly
+ * with the arguments as they are, so there is no lookup of the {@link Method} and no array of
+ * arguments.
+ *
+ * <pre>{@code
+ * Greeter greeter =
+ *     ProxyFactory.of(Greeter.class)
+ *         .bind("greet", impl, WrappedClass.of(Impl.class).getMethod("hello", String.class))
+ *         .create();
+ * }</pre>
+ *
+ * <p>Targets are adapted to the type of the method with {@link MethodHandle#asType(MethodType)}
+ * when they are bound. Methods that are not bound throw an {@link UnsupportedOperationException},
+ * default methods keep their implementation and {@code equals}, {@code hashCode} and {@code
+ * toString} are the ones of {@link Object}. Exceptions thrown by the targets, checked or not, are
+ * thrown by the proxy as they are.
+ *
+ * <p>Only public interfaces can be proxied. A factory can create many proxies, binding after
+ * creating a proxy does not change it
+ *
+ * @param <T> the type of the interface
+ */
+public final class ProxyFactory<T> {
+
+  @NonNull private static final ClassCache<ProxyClass> CLASSES = new ClassCache<>(ProxyClass::of);
+
+  @NonNull private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  @NonNull private static final MethodHandle UNBOUND;
+
+  static {
+    try {
+      UNBOUND =
+          ProxyFactory.LOOKUP.findStatic(
+              ProxyFactory.class, "unbound", MethodType.methodType(Object.class, String.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @NonNull private final Class<T> type;
+  @NonNull private final ProxyClass proxy;
+  @NonNull private final MethodHandle[] handles;
+  @NonNull private final boolean[] bound;
+
+  private ProxyFactory(@NonNull Class<T> type, @NonNull ProxyClass proxy) {
+    this.type = type;
+    this.proxy = proxy;
+    this.handles = new MethodHandle[proxy.names.length];
+    this.bound = new boolean[proxy.names.length];
+    for (int slot = 0; slot < this.handles.length; slot++) {
+      MethodType methodType = proxy.types[slot];
+      MethodHandle unbound =
+          MethodHandles.insertArguments(
+                  ProxyFactory.UNBOUND, 0, type.getName() + "." + proxy.names[slot] + methodType)
+              .asType(MethodType.methodType(methodType.returnType()));
+      this.handles[slot] = MethodHandles.dropArguments(unbound, 0, methodType.parameterList());
+    }
+  }
+
+  /**
+   * Get the factory of the proxies of an interface. The class of the proxies is generated the first
+   * time the interface is proxied.
+   *
+   * @param type the interface to implement
+   * @param <T> the type of the interface
+   * @return a new factory with no method bound
+   * @throws IllegalArgumentException if the type is not a public interface
+   */
+  @NonNull
+  public static <T> ProxyFactory<T> of(@NonNull Class<T> type) {
+    if (!type.isInterface() || !Modifier.isPublic(type.getModifiers())) {
+      throw new IllegalArgumentException("Only public interfaces can be proxied: " + type);
+    }
+    return new ProxyFactory<>(type, ProxyFactory.CLASSES.get(type));
+  }
+
+  // Called through UNBOUND
+  @SuppressWarnings("unused")
+  private static Object unbound(@NonNull String method) {
+    throw new UnsupportedOperationException(method + " is not bound");
+  }
+
+  /**
+   * Bind a method of the interface to a target.
+   *
+   * @param name the name of the method
+   * @param target the target to call, its type must be convertible to the type of the method
+   * @param params the parameter types of the method
+   * @return this same instance
+   * @throws IllegalArgumentException if the interface does not have an abstract method with the
+   *     name and parameters or the target cannot be adapted to its type
+   */
+  @NonNull
+  public ProxyFactory<T> bind(
+      @NonNull String name, @NonNull MethodHandle target, Class<?>... params) {
+    if (params == null) params = new Class<?>[0];
+    List<Integer> slots = this.proxy.slots(name, params);
+    if (slots.isEmpty()) {
+      throw new IllegalArgumentException(
+          "There is no abstract method "
+              + name
+              + MethodType.methodType(void.class, params).toString().replace(")void", ")")
+              + " in "
+              + this.type.getName());
+    }
+    for (int slot : slots) {
+      try {
+        this.handles[slot] = target.asType(this.proxy.types[slot]);
+      } catch (WrongMethodTypeException e) {
+        throw new IllegalArgumentException(
+            "Cannot bind " + target + " to " + name + this.proxy.types[slot], e);
+      }
+      this.bound[slot] = true;
+    }
+    return this;
+  }
+
+  /**
+   * Bind a method of the interface to a method. The method of the interface is the one with the
+   * same parameters as the target.
+   *
+   * @param name the name of the method of the interface
+   * @param instance the instance in which the target is invoked, ignored if it is static
+   * @param method the target
+   * @return this same instance
+   * @throws IllegalAccessException if the handle of the target cannot be linked
+   * @throws IllegalArgumentException if the wrapper is empty, the interface does not have a method
+   *     with the name and the parameters of the target or its return type cannot be converted
+   */
+  @NonNull
+  public ProxyFactory<T> bind(
+      @NonNull String name, Object instance, @NonNull WrappedMethod<?> method)
+      throws IllegalAccessException {
+    Method target = method.getMethod();
+    if (target == null) throw new IllegalArgumentException("Cannot bind " + name + " to nothing");
+    MethodHandle handle;
+    try {
+      handle = ProxyFactory.LOOKUP.unreflect(target);
+    } catch (IllegalAccessException e) {
+      // Wrapped methods are only made accessible once they are used through reflection
+      try {
+        target.setAccessible(true);
+      } catch (RuntimeException inaccessible) {
+        e.addSuppressed(inaccessible);
+        throw e;
+      }
+      handle = ProxyFactory.LOOKUP.unreflect(target);
+    }
+    if (!Modifier.isStatic(target.getModifiers())) {
+      if (instance == null) {
+        throw new IllegalArgumentException("An instance is required to bind " + target);
+      }
+      handle = handle.bindTo(instance);
+    }
+    return this.bind(name, handle, target.getParameterTypes());
+  }
+
+  /**
+   * Bind every method of the interface that is not bound yet to the method with the same name and
+   * parameters in the class of an instance, its superclasses or the default methods of its
+   * interfaces. The instance does not need to implement the interface.
+   *
+   * @param instance the instance in which the methods are invoked
+   * @return this same instance
+   * @throws IllegalAccessException if the handle of a method cannot be linked
+   * @throws IllegalArgumentException if the return type of a method cannot be converted
+   */
+  @NonNull
+  public ProxyFactory<T> bindAll(@NonNull Object instance) throws IllegalAccessException {
+    WrappedClass<?> wrapper = WrappedClass.of(instance.getClass());
+    for (int slot = 0; slot < this.handles.length; slot++) {
+      if (this.bound[slot]) continue;
+      String name = this.proxy.names[slot];
+      WrappedMethod<?> method =
+          wrapper.getHierarchyMethod(name, this.proxy.types[slot].parameterArray());
+      if (method.getMethod() != null) this.bind(name, instance, method);
+    }
+    return this;
+  }
+
+  /**
+   * Create a proxy with the targets bound so far.
+   *
+   * @return the new proxy
+   */
+  @NonNull
+  public T create() {
+    return this.type.cast(this.proxy.newInstance(this.handles.clone()));
+  }
+
+  /**
+   * Get the interface that the proxies implement.
+   *
+   * @return the interface
+   */
+  @NonNull
+  public Class<T> getType() {
+    return this.type;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ProxyFactory.class.getSimpleName() + "[", "]")
+        .add("type=" + type)
+        .add("methods=" + proxy.names.length)
+        .toString();
+  }
+}
@@ -0,0 +1,321 @@
+package me.googas.reflect.proxy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Writes the class file of a proxy. The proxy is a public final class that implements the interface
+ * and has a {@link java.lang.invoke.MethodHandle} field for each slot, which are set by its only
+ * constructor from an array. Each method loads the handle of its slot and calls {@code invokeExact}
+ * with its arguments as they are:
+ *
+ * <pre>{@code
+ * public final class Greeter$$ReflectProxy0 implements Greeter {
+ *   private final MethodHandle h0;
+ *
+ *   public Greeter$$ReflectProxy0(MethodHandle[] handles) {
+ *     this.h0 = handles[0];
+ *   }
+ *
+ *   public String greet(String name) {
+ *     return (String) this.h0.invokeExact(name);
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>The code has no branches nor exception handlers, so the class needs no stack map frames. The
+ * checked exceptions of the targets are not declared, the verifier does not check them and they are
+ * propagated as they are
+ */
+final class ProxyGenerator {
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int VERSION = 52;
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private static final int ALOAD_0 = 0x2A;
+  private static final int ALOAD_1 = 0x2B;
+  private static final int ICONST_0 = 0x03;
+  private static final int BIPUSH = 0x10;
+  private static final int SIPUSH = 0x11;
+  private static final int AALOAD = 0x32;
+  private static final int RETURN = 0xB1;
+  private static final int GETFIELD = 0xB4;
+  private static final int PUTFIELD = 0xB5;
+  private static final int INVOKEVIRTUAL = 0xB6;
+  private static final int INVOKESPECIAL = 0xB7;
+
+  @NonNull private static final String OBJECT = "java/lang/Object";
+  @NonNull private static final String HANDLE = "java/lang/invoke/MethodHandle";
+  @NonNull private static final String HANDLE_DESCRIPTOR = "L" + ProxyGenerator.HANDLE + ";";
+
+  @NonNull private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+  @NonNull private final DataOutputStream poolOut = new DataOutputStream(this.pool);
+  @NonNull private final Map<String, Integer> constants = new HashMap<>();
+  private int poolSize = 1;
+
+  private ProxyGenerator() {}
+
+  /**
+   * Generate the class file of a proxy.
+   *
+   * @param name the binary name of the proxy
+   * @param type the interface that the proxy implements
+   * @param names the names of the methods of each slot
+   * @param types the types of the methods of each slot
+   * @return the class file
+   */
+  @NonNull
+  static byte[] generate(
+      @NonNull String name,
+      @NonNull Class<?> type,
+      @NonNull String[] names,
+      @NonNull MethodType[] types) {
+    try {
+      return new ProxyGenerator().write(name.replace('.', '/'), type, names, types);
+    } catch (IOException e) {
+      // Only written to memory
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @NonNull
+  private byte[] write(
+      @NonNull String name,
+      @NonNull Class<?> type,
+      @NonNull String[] names,
+      @NonNull MethodType[] types)
+      throws IOException {
+    int thisClass = this.classInfo(name);
+    int superClass = this.classInfo(ProxyGenerator.OBJECT);
+    int interfaceClass = this.classInfo(type.getName().replace('.', '/'));
+    int code = this.utf8("Code");
+    int handleDescriptor = this.utf8(ProxyGenerator.HANDLE_DESCRIPTOR);
+    int[] fieldNames = new int[names.length];
+    int[] fieldRefs = new int[names.length];
+    for (int i = 0; i < names.length; i++) {
+      fieldNames[i] = this.utf8("h" + i);
+      fieldRefs[i] =
+          this.memberRef(
+              ProxyGenerator.CONSTANT_FIELDREF, name, "h" + i, ProxyGenerator.HANDLE_DESCRIPTOR);
+    }
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(body);
+    out.writeShort(ProxyGenerator.ACC_PUBLIC | ProxyGenerator.ACC_FINAL | ProxyGenerator.ACC_SUPER);
+    out.writeShort(thisClass);
+    out.writeShort(superClass);
+    out.writeShort(1);
+    out.writeShort(interfaceClass);
+
+    out.writeShort(names.length);
+    for (int fieldName : fieldNames) {
+      out.writeShort(ProxyGenerator.ACC_PRIVATE | ProxyGenerator.ACC_FINAL);
+      out.writeShort(fieldName);
+      out.writeShort(handleDescriptor);
+      out.writeShort(0);
+    }
+
+    out.writeShort(names.length + 1);
+    this.constructor(out, code, fieldRefs);
+    for (int i = 0; i < names.length; i++) {
+      this.method(out, code, fieldRefs[i], names[i], types[i]);
+    }
+    out.writeShort(0);
+
+    ByteArrayOutputStream file = new ByteArrayOutputStream(8 + this.pool.size() + body.size());
+    DataOutputStream header = new DataOutputStream(file);
+    header.writeInt(ProxyGenerator.MAGIC);
+    header.writeShort(0);
+    header.writeShort(ProxyGenerator.VERSION);
+    header.writeShort(this.poolSize);
+    this.pool.writeTo(file);
+    body.writeTo(file);
+    return file.toByteArray();
+  }
+
+  private void constructor(@NonNull DataOutputStream out, int code, @NonNull int[] fieldRefs)
+      throws IOException {
+    int objectInit =
+        this.memberRef(ProxyGenerator.CONSTANT_METHODREF, ProxyGenerator.OBJECT, "<init>", "()V");
+    ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+    DataOutputStream instructions = new DataOutputStream(bytecode);
+    instructions.writeByte(ProxyGenerator.ALOAD_0);
+    instructions.writeByte(ProxyGenerator.INVOKESPECIAL);
+    instructions.writeShort(objectInit);
+    for (int i = 0; i < fieldRefs.length; i++) {
+      instructions.writeByte(ProxyGenerator.ALOAD_0);
+      instructions.writeByte(ProxyGenerator.ALOAD_1);
+      ProxyGenerator.pushInt(instructions, i);
+      instructions.writeByte(ProxyGenerator.AALOAD);
+      instructions.writeByte(ProxyGenerator.PUTFIELD);
+      instructions.writeShort(fieldRefs[i]);
+    }
+    instructions.writeByte(ProxyGenerator.RETURN);
+    out.writeShort(ProxyGenerator.ACC_PUBLIC);
+    out.writeShort(this.utf8("<init>"));
+    out.writeShort(this.utf8("([" + ProxyGenerator.HANDLE_DESCRIPTOR + ")V"));
+    this.code(out, code, 3, 2, bytecode.toByteArray());
+  }
+
+  private void method(
+      @NonNull DataOutputStream out,
+      int code,
+      int fieldRef,
+      @NonNull String name,
+      @NonNull MethodType type)
+      throws IOException {
+    String descriptor = type.toMethodDescriptorString();
+    int invokeExact =
+        this.memberRef(
+            ProxyGenerator.CONSTANT_METHODREF, ProxyGenerator.HANDLE, "invokeExact", descriptor);
+    ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+    DataOutputStream instructions = new DataOutputStream(bytecode);
+    instructions.writeByte(ProxyGenerator.ALOAD_0);
+    instructions.writeByte(ProxyGenerator.GETFIELD);
+    instructions.writeShort(fieldRef);
+    int slot = 1;
+    for (Class<?> parameter : type.parameterArray()) {
+      Kind kind = Kind.of(parameter);
+      if (slot <= 3) {
+        instructions.writeByte(kind.load0 + slot);
+      } else {
+        instructions.writeByte(kind.load);
+        instructions.writeByte(slot);
+      }
+      slot += kind.size;
+    }
+    instructions.writeByte(ProxyGenerator.INVOKEVIRTUAL);
+    instructions.writeShort(invokeExact);
+    instructions.writeByte(
+        type.returnType() == void.class ? ProxyGenerator.RETURN : Kind.of(type.returnType()).ret);
+    out.writeShort(ProxyGenerator.ACC_PUBLIC);
+    out.writeShort(this.utf8(name));
+    out.writeShort(this.utf8(descriptor));
+    this.code(out, code, Math.max(slot, 2), slot, bytecode.toByteArray());
+  }
+
+  private void code(
+      @NonNull DataOutputStream out,
+      int code,
+      int maxStack,
+      int maxLocals,
+      @NonNull byte[] bytecode)
+      throws IOException {
+    out.writeShort(1);
+    out.writeShort(code);
+    out.writeInt(12 + bytecode.length);
+    out.writeShort(maxStack);
+    out.writeShort(maxLocals);
+    out.writeInt(bytecode.length);
+    out.write(bytecode);
+    // No exception table nor attributes
+    out.writeShort(0);
+    out.writeShort(0);
+  }
+
+  private static void pushInt(@NonNull DataOutputStream out, int value) throws IOException {
+    if (value <= 5) {
+      out.writeByte(ProxyGenerator.ICONST_0 + value);
+    } else if (value <= Byte.MAX_VALUE) {
+      out.writeByte(ProxyGenerator.BIPUSH);
+      out.writeByte(value);
+    } else {
+      out.writeByte(ProxyGenerator.SIPUSH);
+      out.writeShort(value);
+    }
+  }
+
+  private int utf8(@NonNull String value) throws IOException {
+    Integer index = this.constants.get(value);
+    if (index == null) {
+      this.poolOut.writeByte(ProxyGenerator.CONSTANT_UTF8);
+      this.poolOut.writeUTF(value);
+      index = this.poolSize++;
+      this.constants.put(value, index);
+    }
+    return index;
+  }
+
+  private int classInfo(@NonNull String name) throws IOException {
+    String key = "C" + name;
+    Integer index = this.constants.get(key);
+    if (index == null) {
+      int utf8 = this.utf8(name);
+      this.poolOut.writeByte(ProxyGenerator.CONSTANT_CLASS);
+      this.poolOut.writeShort(utf8);
+      index = this.poolSize++;
+      this.constants.put(key, index);
+    }
+    return index;
+  }
+
+  private int memberRef(int tag, @NonNull String owner, @NonNull String name, @NonNull String type)
+      throws IOException {
+    String key = tag + owner + "." + name + type;
+    Integer index = this.constants.get(key);
+    if (index == null) {
+      int ownerClass = this.classInfo(owner);
+      int nameIndex = this.utf8(name);
+      int typeIndex = this.utf8(type);
+      this.poolOut.writeByte(ProxyGenerator.CONSTANT_NAME_AND_TYPE);
+      this.poolOut.writeShort(nameIndex);
+      this.poolOut.writeShort(typeIndex);
+      int nameAndType = this.poolSize++;
+      this.poolOut.writeByte(tag);
+      this.poolOut.writeShort(ownerClass);
+      this.poolOut.writeShort(nameAndType);
+      index = this.poolSize++;
+      this.constants.put(key, index);
+    }
+    return index;
+  }
+
+  /** How a value of a type is loaded and returned. */
+  private enum Kind {
+    INT(0x15, 0x1A, 0xAC, 1),
+    LONG(0x16, 0x1E, 0xAD, 2),
+    FLOAT(0x17, 0x22, 0xAE, 1),
+    DOUBLE(0x18, 0x26, 0xAF, 2),
+    REFERENCE(0x19, 0x2A, 0xB0, 1);
+
+    /** The opcode to load a local variable by its index. */
+    private final int load;
+
+    /** The opcode to load the local variable 0, followed by the ones for 1, 2 and 3. */
+    private final int load0;
+
+    private final int ret;
+    private final int size;
+
+    Kind(int load, int load0, int ret, int size) {
+      this.load = load;
+      this.load0 = load0;
+      this.ret = ret;
+      this.size = size;
+    }
+
+    @NonNull
+    private static Kind of(@NonNull Class<?> type) {
+      if (type == long.class) return Kind.LONG;
+      if (type == float.class) return Kind.FLOAT;
+      if (type == double.class) return Kind.DOUBLE;
+      return type.isPrimitive() ? Kind.INT : Kind.REFERENCE;
+    }
+  }
+}
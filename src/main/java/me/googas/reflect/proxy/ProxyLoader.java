@@ -0,0 +1,32 @@
+package me.googas.reflect.proxy;
+
+import lombok.NonNull;
+
+/**
+ * Defines the class of the proxies of an interface. Each interface gets its own loader whose parent
+ * is the loader of the interface, so the proxy sees the same types as the interface and is unloaded
+ * with it.
+ */
+final class ProxyLoader extends ClassLoader {
+
+  /**
+   * Create the loader.
+   *
+   * @param parent the loader of the interface, null for the bootstrap loader
+   */
+  ProxyLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  /**
+   * Define a class.
+   *
+   * @param name the binary name of the class
+   * @param bytes the class file
+   * @return the class
+   */
+  @NonNull
+  Class<?> define(@NonNull String name, @NonNull byte[] bytes) {
+    return this.defineClass(name, bytes, 0, bytes.length);
+  }
+}
@@ -0,0 +1,257 @@
+package me.googas.reflect.resolve;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+import lombok.NonNull;
+
+/**
+ * The names of classes and members in a mapping file in the ProGuard format, which is also the
+ * format of R8 and of the mappings published for some obfuscated applications:
+ *
+ * <pre>
+ * com.example.Level -&gt; a:
+ *     int time -&gt; b
+ *     12:14:void tick(int,java.lang.String) -&gt; c
+ * </pre>
+ *
+ * <p>The file is read line by line and only the mappings are kept: line numbers, comments and
+ * members inlined from other classes are skipped, and names repeated across the file such as
+ * obfuscated names are shared. A filter of classes can be given to keep only the ones that are
+ * looked up
+ */
+public final class Mappings {
+
+  /** Mappings by the original name of the class. */
+  @NonNull private final Map<String, ClassMapping> byOriginal;
+
+  /** Mappings by the obfuscated name of the class. */
+  @NonNull private final Map<String, ClassMapping> byObfuscated;
+
+  private Mappings(
+      @NonNull Map<String, ClassMapping> byOriginal,
+      @NonNull Map<String, ClassMapping> byObfuscated) {
+    this.byOriginal = byOriginal;
+    this.byObfuscated = byObfuscated;
+  }
+
+  /**
+   * Read a mapping file.
+   *
+   * @param path the path to the file
+   * @return the mappings
+   * @throws IOException if the file cannot be read or a class line is malformed
+   */
+  @NonNull
+  public static Mappings read(@NonNull Path path) throws IOException {
+    return Mappings.read(path, name -> true);
+  }
+
+  /**
+   * Read a mapping file keeping only some classes.
+   *
+   * @param path the path to the file
+   * @param filter the original names of the classes to keep
+   * @return the mappings
+   * @throws IOException if the file cannot be read or a class line is malformed
+   */
+  @NonNull
+  public static Mappings read(@NonNull Path path, @NonNull Predicate<String> filter)
+      throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return Mappings.read(reader, filter);
+    }
+  }
+
+  /**
+   * Read mappings. The reader is not closed.
+   *
+   * @param reader the reader of the mappings
+   * @param filter the original names of the classes to keep
+   * @return the mappings
+   * @throws IOException if the reader fails or a class line is malformed
+   */
+  @NonNull
+  public static Mappings read(@NonNull Reader reader, @NonNull Predicate<String> filter)
+      throws IOException {
+    BufferedReader lines =
+        reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    Map<String, ClassMapping> byOriginal = new HashMap<>();
+    Map<String, ClassMapping> byObfuscated = new HashMap<>();
+    Map<String, String> pool = new HashMap<>();
+    ClassMapping current = null;
+    boolean skipping = false;
+    int number = 0;
+    String line;
+    while ((line = lines.readLine()) != null) {
+      number++;
+      // Metadata of R8 is in comments, the indented ones are skipped as they have no arrow
+      if (line.isEmpty() || line.charAt(0) == '#') continue;
+      int arrow = line.indexOf(" -> ");
+      if (!Character.isWhitespace(line.charAt(0))) {
+        if (arrow < 0 || !line.endsWith(":")) {
+          throw new IOException("Malformed class mapping at line " + number + ": " + line);
+        }
+        String original = line.substring(0, arrow).trim();
+        skipping = !filter.test(original);
+        if (skipping) continue;
+        String obfuscated = line.substring(arrow + 4, line.length() - 1).trim();
+        current = new ClassMapping(original, Mappings.pool(pool, obfuscated));
+        byOriginal.put(original, current);
+        byObfuscated.put(current.obfuscated, current);
+      } else if (!skipping && current != null && arrow >= 0) {
+        Mappings.member(current, line.substring(0, arrow).trim(), line.substring(arrow + 4), pool);
+      }
+    }
+    return new Mappings(byOriginal, byObfuscated);
+  }
+
+  private static void member(
+      @NonNull ClassMapping owner,
+      @NonNull String member,
+      @NonNull String obfuscated,
+      @NonNull Map<String, String> pool) {
+    // The line numbers of methods come before the return type: 12:14:void tick(int) -> c
+    int type = 0;
+    while (type < member.length()
+        && (Character.isDigit(member.charAt(type)) || member.charAt(type) == ':')) {
+      type++;
+    }
+    int space = member.indexOf(' ', type);
+    if (space < 0) return;
+    int open = member.indexOf('(', space);
+    String name = member.substring(space + 1, open < 0 ? member.length() : open);
+    // Members qualified with another class were inlined from it
+    if (name.indexOf('.') >= 0) return;
+    String obfuscatedName = Mappings.pool(pool, obfuscated.trim());
+    if (open < 0) {
+      owner.putField(name, obfuscatedName);
+    } else {
+      int close = member.indexOf(')', open);
+      if (close < 0) return;
+      owner.putMethod(member.substring(space + 1, close + 1), obfuscatedName);
+    }
+  }
+
+  @NonNull
+  private static String pool(@NonNull Map<String, String> pool, @NonNull String value) {
+    String pooled = pool.putIfAbsent(value, value);
+    return pooled == null ? value : pooled;
+  }
+
+  /**
+   * Get the obfuscated name of a class.
+   *
+   * @param original the original name of the class
+   * @return the obfuscated name, null if the class is not mapped
+   */
+  public String getClassName(@NonNull String original) {
+    ClassMapping mapping = this.byOriginal.get(original);
+    return mapping == null ? null : mapping.obfuscated;
+  }
+
+  /**
+   * Get the obfuscated name of a field.
+   *
+   * @param owner the original name of the class that declares the field
+   * @param name the original name of the field
+   * @return the obfuscated name, null if the field is not mapped
+   */
+  public String getFieldName(@NonNull String owner, @NonNull String name) {
+    ClassMapping mapping = this.byOriginal.get(owner);
+    return mapping == null ? null : mapping.getField(name);
+  }
+
+  /**
+   * Get the obfuscated name of a method.
+   *
+   * @param owner the original name of the class that declares the method
+   * @param signature the original signature of the method
+   * @return the obfuscated name, null if the method is not mapped
+   */
+  public String getMethodName(@NonNull String owner, @NonNull Signature signature) {
+    ClassMapping mapping = this.byOriginal.get(owner);
+    return mapping == null ? null : mapping.getMethod(signature.toString());
+  }
+
+  /**
+   * Get the mapping of a class by the name it has at runtime, which is its obfuscated name or, if
+   * the application is not obfuscated, its original name.
+   *
+   * @param name the name of the class at runtime
+   * @return the mapping, null if the class is not mapped
+   */
+  ClassMapping byRuntimeName(@NonNull String name) {
+    ClassMapping mapping = this.byObfuscated.get(name);
+    return mapping == null ? this.byOriginal.get(name) : mapping;
+  }
+
+  /**
+   * Get the number of classes mapped.
+   *
+   * @return the number of classes
+   */
+  public int size() {
+    return this.byOriginal.size();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", Mappings.class.getSimpleName() + "[", "]")
+        .add("classes=" + byOriginal.size())
+        .toString();
+  }
+
+  /** The mapping of a class and its members, the maps are created when the first member is read. */
+  static final class ClassMapping {
+
+    @NonNull final String original;
+    @NonNull final String obfuscated;
+    private Map<String, String> fields;
+
+    /** Mappings of methods by their original signature such as {@code tick(int)}. */
+    private Map<String, String> methods;
+
+    private ClassMapping(@NonNull String original, @NonNull String obfuscated) {
+      this.original = original;
+      this.obfuscated = obfuscated;
+    }
+
+    private void putField(@NonNull String name, @NonNull String obfuscated) {
+      if (this.fields == null) this.fields = new HashMap<>(4);
+      this.fields.put(name, obfuscated);
+    }
+
+    private void putMethod(@NonNull String signature, @NonNull String obfuscated) {
+      if (this.methods == null) this.methods = new HashMap<>(4);
+      this.methods.put(signature, obfuscated);
+    }
+
+    /**
+     * Get the obfuscated name of a field.
+     *
+     * @param name the original name
+     * @return the obfuscated name, null if the field is not mapped
+     */
+    String getField(@NonNull String name) {
+      return this.fields == null ? null : this.fields.get(name);
+    }
+
+    /**
+     * Get the obfuscated name of a method.
+     *
+     * @param signature the original signature as returned by {@link Signature#toString()}
+     * @return the obfuscated name, null if the method is not mapped
+     */
+    String getMethod(@NonNull String signature) {
+      return this.methods == null ? null : this.methods.get(signature);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package me.googas.reflect.resolve;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import lombok.NonNull;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import me.googas.reflect.wrappers.WrappedMethod;
+
+/**
+ * The classes and members resolved by a {@link WarmUp}, by the keys they were declared with. Their
+ * handles are already linked. Members that were not found are empty wrappers and are listed in
+ * {@link #getMissing()}, so they can be reported all at once.
+ */
+public final class MemberRegistry {
+
+  @NonNull private final Map<String, Object> members;
+  @NonNull private final List<String> missing;
+
+  MemberRegistry(@NonNull Map<String, Object> members, @NonNull List<String> missing) {
+    this.members = members;
+    this.missing = Collections.unmodifiableList(missing);
+  }
+
+  /**
+   * Get a class.
+   *
+   * @param key the key the class was declared with
+   * @return the wrapper of the class, empty if it was not found
+   * @throws IllegalArgumentException if no class was declared with the key
+   */
+  @NonNull
+  public WrappedClass<?> getType(@NonNull String key) {
+    return this.get(key, WrappedClass.class, "class");
+  }
+
+  /**
+   * Get a field.
+   *
+   * @param key the key the field was declared with
+   * @return the wrapper of the field, empty if it was not found
+   * @throws IllegalArgumentException if no field was declared with the key
+   */
+  @NonNull
+  public WrappedField<?> getField(@NonNull String key) {
+    return this.get(key, WrappedField.class, "field");
+  }
+
+  /**
+   * Get a method.
+   *
+   * @param key the key the method was declared with
+   * @return the wrapper of the method, empty if it was not found
+   * @throws IllegalArgumentException if no method was declared with the key
+   */
+  @NonNull
+  public WrappedMethod<?> getMethod(@NonNull String key) {
+    return this.get(key, WrappedMethod.class, "method");
+  }
+
+  @NonNull
+  private <W> W get(@NonNull String key, @NonNull Class<W> type, @NonNull String kind) {
+    Object member = this.members.get(key);
+    if (!type.isInstance(member)) {
+      throw new IllegalArgumentException("No " + kind + " was declared as " + key);
+    }
+    return type.cast(member);
+  }
+
+  /**
+   * Get the descriptions of the classes and members that were not found or could not be linked, in
+   * the order they were declared.
+   *
+   * @return an unmodifiable list of the descriptions
+   */
+  @NonNull
+  public List<String> getMissing() {
+    return this.missing;
+  }
+
+  /**
+   * Check whether every class and member was found.
+   *
+   * @return true if nothing is missing
+   */
+  public boolean isComplete() {
+    return this.missing.isEmpty();
+  }
+
+  /**
+   * Check that every class and member was found.
+   *
+   * @return this same instance
+   * @throws IllegalStateException listing everything that is missing if anything is
+   */
+  @NonNull
+  public MemberRegistry requireComplete() {
+    if (!this.missing.isEmpty()) {
+      throw new IllegalStateException(
+          this.missing.size() + " members are missing:\n  " + String.join("\n  ", this.missing));
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", MemberRegistry.class.getSimpleName() + "[", "]")
+        .add("members=" + members.size())
+        .add("missing=" + missing.size())
+        .toString();
+  }
+}
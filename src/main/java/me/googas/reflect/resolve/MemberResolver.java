@@ -0,0 +1,240 @@
+package me.googas.reflect.resolve;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import me.googas.reflect.wrappers.WrappedMethod;
+
+/**
+ * Resolves classes and members whose names differ between versions of an application. Each lookup
+ * takes the candidate names in order of preference and the first one that exists is used, if {@link
+ * Mappings} are given the names are first translated with them, so a single original name finds the
+ * member in any obfuscated version the mappings are for.
+ *
+ * <pre>{@code
+ * MemberResolver resolver = MemberResolver.create(loader, Mappings.read(path));
+ * WrappedClass<?> level = resolver.resolveClass("com.example.Level", "com.example.World");
+ * WrappedMethod<?> tick =
+ *     resolver.resolveMethod(
+ *         level.getClazz(), Signature.of("tick", "int"), Signature.of("update", "int"));
+ * }</pre>
+ *
+ * <p>Each candidate is probed through the indexes of {@link WrappedClass}, which neither throw nor
+ * scan, and the result of each lookup is cached, resolving it again returns the same wrapper
+ * without probing. Lookups that find nothing return empty wrappers and are cached too
+ */
+public final class MemberResolver {
+
+  @NonNull private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+  static {
+    for (Class<?> type :
+        new Class<?>[] {
+          boolean.class,
+          byte.class,
+          short.class,
+          char.class,
+          int.class,
+          long.class,
+          float.class,
+          double.class,
+          void.class
+        }) {
+      MemberResolver.PRIMITIVES.put(type.getName(), type);
+    }
+  }
+
+  private final ClassLoader loader;
+  private final Mappings mappings;
+  @NonNull private final ConcurrentMap<String, WrappedClass<?>> classes = new ConcurrentHashMap<>();
+
+  /** Results of the lookups of members by the class in which they were looked up. */
+  @NonNull
+  private final ClassCache<ConcurrentMap<String, Object>> members =
+      new ClassCache<>(type -> new ConcurrentHashMap<>());
+
+  private MemberResolver(ClassLoader loader, Mappings mappings) {
+    this.loader = loader;
+    this.mappings = mappings;
+  }
+
+  /**
+   * Create a resolver which only probes the candidate names.
+   *
+   * @param loader the loader to find classes with, null for the bootstrap loader
+   * @return the resolver
+   */
+  @NonNull
+  public static MemberResolver create(ClassLoader loader) {
+    return new MemberResolver(loader, null);
+  }
+
+  /**
+   * Create a resolver which translates the candidate names with mappings before probing them.
+   *
+   * @param loader the loader to find classes with, null for the bootstrap loader
+   * @param mappings the mappings of the version running
+   * @return the resolver
+   */
+  @NonNull
+  public static MemberResolver create(ClassLoader loader, @NonNull Mappings mappings) {
+    return new MemberResolver(loader, mappings);
+  }
+
+  /**
+   * Resolve a class.
+   *
+   * @param names the candidate names of the class in order of preference
+   * @return the wrapper of the first class found, empty if none is found
+   */
+  @NonNull
+  public WrappedClass<?> resolveClass(@NonNull String... names) {
+    return this.classes.computeIfAbsent(String.join(",", names), key -> this.findClass(names));
+  }
+
+  @NonNull
+  private WrappedClass<?> findClass(@NonNull String[] names) {
+    for (String name : names) {
+      String mapped = this.mappings == null ? null : this.mappings.getClassName(name);
+      if (mapped != null) {
+        WrappedClass<?> wrapper = WrappedClass.forName(mapped, this.loader);
+        if (wrapper.getClazz() != null) return wrapper;
+      }
+      // The application may not be obfuscated even if there are mappings
+      WrappedClass<?> wrapper = WrappedClass.forName(name, this.loader);
+      if (wrapper.getClazz() != null) return wrapper;
+    }
+    return WrappedClass.of(null);
+  }
+
+  /**
+   * Resolve a field declared in a class or any of its superclasses.
+   *
+   * @param owner the class to look the field up in
+   * @param names the candidate names of the field in order of preference
+   * @return the wrapper of the first field found, empty if none is found
+   */
+  @NonNull
+  public WrappedField<?> resolveField(@NonNull Class<?> owner, @NonNull String... names) {
+    return (WrappedField<?>)
+        this.members
+            .get(owner)
+            .computeIfAbsent("f:" + String.join(",", names), key -> this.findField(owner, names));
+  }
+
+  @NonNull
+  private WrappedField<?> findField(@NonNull Class<?> owner, @NonNull String[] names) {
+    for (String name : names) {
+      if (this.mappings != null) {
+        // Mapped names are only unique in the class that declares the member
+        for (Class<?> type = owner; type != null; type = type.getSuperclass()) {
+          Mappings.ClassMapping mapping = this.mappings.byRuntimeName(type.getName());
+          String mapped = mapping == null ? null : mapping.getField(name);
+          if (mapped == null) continue;
+          WrappedField<?> field = WrappedClass.of(type).getDeclaredField(mapped);
+          if (field.getWrapped() != null) return field;
+        }
+      }
+      WrappedField<?> field = WrappedClass.of(owner).getHierarchyField(name);
+      if (field.getWrapped() != null) return field;
+    }
+    return WrappedField.of(null);
+  }
+
+  /**
+   * Resolve a method declared in a class, any of its superclasses or a default method of its
+   * interfaces.
+   *
+   * @param owner the class to look the method up in
+   * @param signatures the candidate signatures of the method in order of preference
+   * @return the wrapper of the first method found, empty if none is found
+   */
+  @NonNull
+  public WrappedMethod<?> resolveMethod(@NonNull Class<?> owner, @NonNull Signature... signatures) {
+    StringJoiner key = new StringJoiner(",", "m:", "");
+    for (Signature signature : signatures) {
+      key.add(signature.toString());
+    }
+    return (WrappedMethod<?>)
+        this.members
+            .get(owner)
+            .computeIfAbsent(key.toString(), ignored -> this.findMethod(owner, signatures));
+  }
+
+  @NonNull
+  private WrappedMethod<?> findMethod(@NonNull Class<?> owner, @NonNull Signature[] signatures) {
+    for (Signature signature : signatures) {
+      Class<?>[] parameters = this.parameterTypes(signature);
+      if (parameters == null) continue;
+      if (this.mappings != null) {
+        String key = signature.toString();
+        for (Class<?> type = owner; type != null; type = type.getSuperclass()) {
+          WrappedMethod<?> method = this.findMappedMethod(type, key, parameters);
+          if (method != null) return method;
+          for (Class<?> implemented : type.getInterfaces()) {
+            method = this.findMappedMethod(implemented, key, parameters);
+            if (method != null) return method;
+          }
+        }
+      }
+      WrappedMethod<?> method =
+          WrappedClass.of(owner).getHierarchyMethod(signature.getName(), parameters);
+      if (method.getMethod() != null) return method;
+    }
+    return WrappedMethod.of(null);
+  }
+
+  private WrappedMethod<?> findMappedMethod(
+      @NonNull Class<?> type, @NonNull String signature, @NonNull Class<?>[] parameters) {
+    Mappings.ClassMapping mapping = this.mappings.byRuntimeName(type.getName());
+    String mapped = mapping == null ? null : mapping.getMethod(signature);
+    if (mapped == null) return null;
+    WrappedMethod<?> method = WrappedClass.of(type).getDeclaredMethod(mapped, parameters);
+    return method.getMethod() == null ? null : method;
+  }
+
+  /**
+   * Resolve the parameter types of a signature.
+   *
+   * @param signature the signature
+   * @return the types, null if any of them cannot be found
+   */
+  private Class<?>[] parameterTypes(@NonNull Signature signature) {
+    String[] names = signature.parameters();
+    Class<?>[] types = new Class<?>[names.length];
+    for (int i = 0; i < names.length; i++) {
+      types[i] = this.type(names[i]);
+      if (types[i] == null) return null;
+    }
+    return types;
+  }
+
+  private Class<?> type(@NonNull String name) {
+    int dimensions = 0;
+    while (name.endsWith("[]")) {
+      name = name.substring(0, name.length() - 2);
+      dimensions++;
+    }
+    Class<?> type = MemberResolver.PRIMITIVES.get(name);
+    if (type == null) type = this.resolveClass(name).getClazz();
+    for (int i = 0; type != null && i < dimensions; i++) {
+      type = Array.newInstance(type, 0).getClass();
+    }
+    return type;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", MemberResolver.class.getSimpleName() + "[", "]")
+        .add("loader=" + loader)
+        .add("mappings=" + mappings)
+        .toString();
+  }
+}
@@ -0,0 +1,90 @@
+package me.googas.reflect.resolve;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import lombok.NonNull;
+
+/**
+ * The name and parameter types of a method, with the types given by name as they may not exist in
+ * every version of the application. Types are written as in Java source: {@code int}, {@code
+ * java.lang.String}, {@code byte[]} and nested classes with their binary name such as {@code
+ * java.util.Map$Entry}.
+ */
+public final class Signature {
+
+  @NonNull private final String name;
+  @NonNull private final String[] parameters;
+  @NonNull private final String string;
+
+  private Signature(@NonNull String name, @NonNull String[] parameters) {
+    this.name = name;
+    this.parameters = parameters;
+    this.string = name + "(" + String.join(",", parameters) + ")";
+  }
+
+  /**
+   * Create a signature.
+   *
+   * @param name the name of the method
+   * @param parameters the names of the parameter types of the method
+   * @return the signature
+   */
+  @NonNull
+  public static Signature of(@NonNull String name, @NonNull String... parameters) {
+    return new Signature(name, parameters.clone());
+  }
+
+  /**
+   * Get the name of the method.
+   *
+   * @return the name
+   */
+  @NonNull
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Get the names of the parameter types of the method.
+   *
+   * @return an unmodifiable list of the names
+   */
+  @NonNull
+  public List<String> getParameters() {
+    return Collections.unmodifiableList(Arrays.asList(this.parameters));
+  }
+
+  /**
+   * Get the signature as in mapping files, such as {@code tick(int,java.lang.String)}.
+   *
+   * @return the signature
+   */
+  @Override
+  public String toString() {
+    return this.string;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || this.getClass() != o.getClass()) return false;
+    return this.string.equals(((Signature) o).string);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(this.string);
+  }
+
+  /**
+   * Get the names of the parameter types without copying them.
+   *
+   * @return the names
+   */
+  @NonNull
+  String[] parameters() {
+    return this.parameters;
+  }
+}
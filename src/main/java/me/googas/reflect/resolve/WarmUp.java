@@ -0,0 +1,278 @@
+package me.googas.reflect.resolve;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.NonNull;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedField;
+import me.googas.reflect.wrappers.WrappedMethod;
+
+/**
+ * Declares the classes and members needed at startup so they are resolved at once in an executor
+ * instead of one after another as they are first used. Each class and its members are resolved in a
+ * task of their own through a {@link MemberResolver}, so candidate names and mappings work the
+ * same, and the handles of the members are linked in that task too.
+ *
+ * <pre>{@code
+ * MemberRegistry registry =
+ *     WarmUp.create(resolver)
+ *         .type("level", "com.example.Level", "com.example.World")
+ *         .field("time", "level", "time", "ticks")
+ *         .method("tick", "level", Signature.of("tick", "int"))
+ *         .resolve(executor)
+ *         .join()
+ *         .requireComplete();
+ * WrappedMethod<?> tick = registry.getMethod("tick");
+ * }</pre>
+ *
+ * <p>Nothing that is missing fails the warm up, the registry lists all of it
+ */
+public final class WarmUp {
+
+  @NonNull private final MemberResolver resolver;
+  @NonNull private final Map<String, TypeEntry> types = new LinkedHashMap<>();
+  @NonNull private final Map<String, String> keys = new HashMap<>();
+
+  private WarmUp(@NonNull MemberResolver resolver) {
+    this.resolver = resolver;
+  }
+
+  /**
+   * Start declaring what to warm up.
+   *
+   * @param resolver the resolver to find the classes and members with
+   * @return the warm up
+   */
+  @NonNull
+  public static WarmUp create(@NonNull MemberResolver resolver) {
+    return new WarmUp(resolver);
+  }
+
+  /**
+   * Declare a class.
+   *
+   * @see MemberResolver#resolveClass(String...)
+   * @param key the key to get the class from the registry and to declare its members with
+   * @param names the candidate names of the class in order of preference
+   * @return this same instance
+   * @throws IllegalArgumentException if the key is already used
+   */
+  @NonNull
+  public WarmUp type(@NonNull String key, @NonNull String... names) {
+    this.claim(key, "class");
+    this.types.put(key, new TypeEntry(key, names.clone()));
+    return this;
+  }
+
+  /**
+   * Declare a field. Its getter, and its setter if it is not final, are linked.
+   *
+   * @see MemberResolver#resolveField(Class, String...)
+   * @param key the key to get the field from the registry
+   * @param type the key of the class to look the field up in
+   * @param names the candidate names of the field in order of preference
+   * @return this same instance
+   * @throws IllegalArgumentException if the key is already used or the class was not declared
+   */
+  @NonNull
+  public WarmUp field(@NonNull String key, @NonNull String type, @NonNull String... names) {
+    TypeEntry entry = this.owner(type);
+    this.claim(key, "field");
+    entry.members.add(new MemberEntry(key, names.clone(), null));
+    return this;
+  }
+
+  /**
+   * Declare a method. The handles of {@link WrappedMethod#invokeHandle(Object, Object...)} and
+   * {@link WrappedMethod#prepareHandle(Object, Object...)} are linked.
+   *
+   * @see MemberResolver#resolveMethod(Class, Signature...)
+   * @param key the key to get the method from the registry
+   * @param type the key of the class to look the method up in
+   * @param signatures the candidate signatures of the method in order of preference
+   * @return this same instance
+   * @throws IllegalArgumentException if the key is already used or the class was not declared
+   */
+  @NonNull
+  public WarmUp method(
+      @NonNull String key, @NonNull String type, @NonNull Signature... signatures) {
+    TypeEntry entry = this.owner(type);
+    this.claim(key, "method");
+    entry.members.add(new MemberEntry(key, null, signatures.clone()));
+    return this;
+  }
+
+  private void claim(@NonNull String key, @NonNull String kind) {
+    String previous = this.keys.putIfAbsent(key, kind);
+    if (previous != null) {
+      throw new IllegalArgumentException(key + " is already declared as a " + previous);
+    }
+  }
+
+  @NonNull
+  private TypeEntry owner(@NonNull String type) {
+    TypeEntry entry = this.types.get(type);
+    if (entry == null) throw new IllegalArgumentException("No class is declared as " + type);
+    return entry;
+  }
+
+  /**
+   * Resolve every class and member declared so far. Each class is resolved along with its members
+   * in a task of its own.
+   *
+   * @param executor the executor to run the tasks in
+   * @return a future completed with the registry once everything is resolved
+   */
+  @NonNull
+  public CompletableFuture<MemberRegistry> resolve(@NonNull Executor executor) {
+    List<CompletableFuture<Result>> futures = new ArrayList<>(this.types.size());
+    for (TypeEntry entry : this.types.values()) {
+      TypeEntry copy = entry.copy();
+      futures.add(CompletableFuture.supplyAsync(() -> copy.resolve(this.resolver), executor));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+        .thenApply(
+            ignored -> {
+              Map<String, Object> members = new HashMap<>();
+              List<String> missing = new ArrayList<>();
+              // Merged in the order the classes were declared so the report is stable
+              for (CompletableFuture<Result> future : futures) {
+                Result result = future.join();
+                members.putAll(result.members);
+                missing.addAll(result.missing);
+              }
+              return new MemberRegistry(members, missing);
+            });
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", WarmUp.class.getSimpleName() + "[", "]")
+        .add("types=" + types.size())
+        .add("members=" + (keys.size() - types.size()))
+        .toString();
+  }
+
+  /** A class and its members to resolve. */
+  private static final class TypeEntry {
+
+    @NonNull private final String key;
+    @NonNull private final String[] names;
+    @NonNull private final List<MemberEntry> members;
+
+    private TypeEntry(@NonNull String key, @NonNull String[] names) {
+      this(key, names, new ArrayList<>());
+    }
+
+    private TypeEntry(
+        @NonNull String key, @NonNull String[] names, @NonNull List<MemberEntry> members) {
+      this.key = key;
+      this.names = names;
+      this.members = members;
+    }
+
+    /** Copy the entry so declaring more members does not change a warm up that is running. */
+    @NonNull
+    private TypeEntry copy() {
+      return new TypeEntry(this.key, this.names, new ArrayList<>(this.members));
+    }
+
+    @NonNull
+    private Result resolve(@NonNull MemberResolver resolver) {
+      Result result = new Result();
+      WrappedClass<?> type = resolver.resolveClass(this.names);
+      result.members.put(this.key, type);
+      Class<?> clazz = type.getClazz();
+      if (clazz == null) {
+        result.missing.add(this.key + ": class " + String.join(" | ", this.names));
+      }
+      for (MemberEntry member : this.members) {
+        if (clazz == null) {
+          result.members.put(
+              member.key,
+              member.signatures == null ? WrappedField.of(null) : WrappedMethod.of(null));
+          result.missing.add(member.key + ": " + member.describe() + " in missing " + this.key);
+        } else if (member.signatures == null) {
+          result.members.put(member.key, member.field(resolver, clazz, result));
+        } else {
+          result.members.put(member.key, member.method(resolver, clazz, result));
+        }
+      }
+      return result;
+    }
+  }
+
+  /** A field, if it has names, or a method, if it has signatures, to resolve. */
+  private static final class MemberEntry {
+
+    @NonNull private final String key;
+    private final String[] names;
+    private final Signature[] signatures;
+
+    private MemberEntry(@NonNull String key, String[] names, Signature[] signatures) {
+      this.key = key;
+      this.names = names;
+      this.signatures = signatures;
+    }
+
+    @NonNull
+    private WrappedField<?> field(
+        @NonNull MemberResolver resolver, @NonNull Class<?> owner, @NonNull Result result) {
+      try {
+        WrappedField<?> field = resolver.resolveField(owner, this.names);
+        if (field.getWrapped() == null) {
+          result.missing.add(this.key + ": " + this.describe() + " in " + owner.getName());
+        } else {
+          field.getter();
+          if (!Modifier.isFinal(field.getWrapped().getModifiers())) field.setter();
+        }
+        return field;
+      } catch (IllegalAccessException | RuntimeException e) {
+        // Such as members of modules that are not opened
+        result.missing.add(this.key + ": " + this.describe() + " cannot be linked: " + e);
+        return WrappedField.of(null);
+      }
+    }
+
+    @NonNull
+    private WrappedMethod<?> method(
+        @NonNull MemberResolver resolver, @NonNull Class<?> owner, @NonNull Result result) {
+      try {
+        WrappedMethod<?> method = resolver.resolveMethod(owner, this.signatures);
+        if (method.getMethod() == null) {
+          result.missing.add(this.key + ": " + this.describe() + " in " + owner.getName());
+        } else {
+          method.prelink();
+        }
+        return method;
+      } catch (IllegalAccessException | RuntimeException e) {
+        result.missing.add(this.key + ": " + this.describe() + " cannot be linked: " + e);
+        return WrappedMethod.of(null);
+      }
+    }
+
+    @NonNull
+    private String describe() {
+      if (this.signatures == null) return "field " + String.join(" | ", this.names);
+      StringJoiner joiner = new StringJoiner(" | ", "method ", "");
+      for (Signature signature : this.signatures) {
+        joiner.add(signature.toString());
+      }
+      return joiner.toString();
+    }
+  }
+
+  /** The classes and members resolved in a task. */
+  private static final class Result {
+
+    @NonNull private final Map<String, Object> members = new HashMap<>();
+    @NonNull private final List<String> missing = new ArrayList<>();
+  }
+}
@@ -0,0 +1,313 @@
+package me.googas.reflect.scan;
+
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import lombok.NonNull;
+
+/**
+ * The header of a class file: its name, super class, interfaces and the types of its annotations.
+ * It is parsed directly from the bytes of the class file as described in chapter 4 of the Java
+ * Virtual Machine Specification, so the class is not loaded. Fields and methods are skipped without
+ * decoding them.
+ *
+ * <p>Names are binary names as returned by {@link Class#getName()}
+ */
+final class ClassHeader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int UTF8 = 1;
+  private static final int INTEGER = 3;
+  private static final int FLOAT = 4;
+  private static final int LONG = 5;
+  private static final int DOUBLE = 6;
+  private static final int CLASS = 7;
+  private static final int STRING = 8;
+  private static final int FIELD_REF = 9;
+  private static final int METHOD_REF = 10;
+  private static final int INTERFACE_METHOD_REF = 11;
+  private static final int NAME_AND_TYPE = 12;
+  private static final int METHOD_HANDLE = 15;
+  private static final int METHOD_TYPE = 16;
+  private static final int DYNAMIC = 17;
+  private static final int INVOKE_DYNAMIC = 18;
+  private static final int MODULE = 19;
+  private static final int PACKAGE = 20;
+
+  @NonNull private static final String[] NO_NAMES = new String[0];
+
+  /** The access flags of the class. */
+  final int access;
+
+  @NonNull final String name;
+
+  /** The name of the super class, null for {@link Object} and interfaces in some compilers. */
+  final String superName;
+
+  @NonNull final String[] interfaces;
+
+  /** The types of the annotations of the class, visible or not at runtime. */
+  @NonNull final String[] annotations;
+
+  private ClassHeader(
+      int access,
+      @NonNull String name,
+      String superName,
+      @NonNull String[] interfaces,
+      @NonNull String[] annotations) {
+    this.access = access;
+    this.name = name;
+    this.superName = superName;
+    this.interfaces = interfaces;
+    this.annotations = annotations;
+  }
+
+  /**
+   * Parse the header of a class file. The position of the buffer is not modified.
+   *
+   * @param buffer the bytes of the class file
+   * @return the header of the class
+   * @throws IllegalArgumentException if the bytes are not a valid class file
+   */
+  @NonNull
+  static ClassHeader parse(@NonNull ByteBuffer buffer) {
+    ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    try {
+      return ClassHeader.parse0(in);
+    } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated class file", e);
+    }
+  }
+
+  @NonNull
+  private static ClassHeader parse0(@NonNull ByteBuffer in) {
+    if (in.getInt() != ClassHeader.MAGIC) throw new IllegalArgumentException("Not a class file");
+    // Minor and major versions
+    in.getInt();
+    int count = in.getShort() & 0xFFFF;
+    // Absolute position of every entry of the constant pool, strings are decoded when needed
+    int[] offsets = new int[count];
+    byte[] tags = new byte[count];
+    for (int i = 1; i < count; i++) {
+      int tag = in.get();
+      tags[i] = (byte) tag;
+      offsets[i] = in.position();
+      switch (tag) {
+        case UTF8:
+          ClassHeader.skip(in, (in.getShort() & 0xFFFF));
+          break;
+        case CLASS:
+        case STRING:
+        case METHOD_TYPE:
+        case MODULE:
+        case PACKAGE:
+          ClassHeader.skip(in, 2);
+          break;
+        case METHOD_HANDLE:
+          ClassHeader.skip(in, 3);
+          break;
+        case INTEGER:
+        case FLOAT:
+        case FIELD_REF:
+        case METHOD_REF:
+        case INTERFACE_METHOD_REF:
+        case NAME_AND_TYPE:
+        case DYNAMIC:
+        case INVOKE_DYNAMIC:
+          ClassHeader.skip(in, 4);
+          break;
+        case LONG:
+        case DOUBLE:
+          ClassHeader.skip(in, 8);
+          // Takes two entries
+          i++;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+      }
+    }
+    ConstantPool pool = new ConstantPool(in, offsets, tags);
+    int access = in.getShort() & 0xFFFF;
+    String name = pool.className(in.getShort() & 0xFFFF);
+    int superIndex = in.getShort() & 0xFFFF;
+    String superName = superIndex == 0 ? null : pool.className(superIndex);
+    int interfaceCount = in.getShort() & 0xFFFF;
+    String[] interfaces = interfaceCount == 0 ? ClassHeader.NO_NAMES : new String[interfaceCount];
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaces[i] = pool.className(in.getShort() & 0xFFFF);
+    }
+    // Fields and methods share the same layout
+    for (int members = 0; members < 2; members++) {
+      int memberCount = in.getShort() & 0xFFFF;
+      for (int i = 0; i < memberCount; i++) {
+        ClassHeader.skip(in, 6);
+        ClassHeader.skipAttributes(in);
+      }
+    }
+    List<String> annotations = null;
+    int attributeCount = in.getShort() & 0xFFFF;
+    for (int i = 0; i < attributeCount; i++) {
+      String attribute = pool.utf8(in.getShort() & 0xFFFF);
+      int length = in.getInt();
+      int end = in.position() + length;
+      if (attribute.equals("RuntimeVisibleAnnotations")
+          || attribute.equals("RuntimeInvisibleAnnotations")) {
+        int annotationCount = in.getShort() & 0xFFFF;
+        if (annotations == null) annotations = new ArrayList<>(annotationCount);
+        for (int j = 0; j < annotationCount; j++) {
+          annotations.add(ClassHeader.descriptorName(pool.utf8(in.getShort() & 0xFFFF)));
+          ClassHeader.skipPairs(in);
+        }
+      }
+      ClassHeader.seek(in, end);
+    }
+    return new ClassHeader(
+        access,
+        name,
+        superName,
+        interfaces,
+        annotations == null ? ClassHeader.NO_NAMES : annotations.toArray(ClassHeader.NO_NAMES));
+  }
+
+  private static void skip(@NonNull ByteBuffer in, int bytes) {
+    ClassHeader.seek(in, in.position() + bytes);
+  }
+
+  private static void seek(@NonNull ByteBuffer in, int position) {
+    // Cast so that the Java 8 signature of position is linked
+    ((Buffer) in).position(position);
+  }
+
+  private static void skipAttributes(@NonNull ByteBuffer in) {
+    int count = in.getShort() & 0xFFFF;
+    for (int i = 0; i < count; i++) {
+      ClassHeader.skip(in, 2);
+      int length = in.getInt();
+      ClassHeader.skip(in, length);
+    }
+  }
+
+  private static void skipPairs(@NonNull ByteBuffer in) {
+    int pairs = in.getShort() & 0xFFFF;
+    for (int i = 0; i < pairs; i++) {
+      ClassHeader.skip(in, 2);
+      ClassHeader.skipElementValue(in);
+    }
+  }
+
+  private static void skipElementValue(@NonNull ByteBuffer in) {
+    int tag = in.get();
+    switch (tag) {
+      case 'e':
+        ClassHeader.skip(in, 4);
+        break;
+      case '@':
+        ClassHeader.skip(in, 2);
+        ClassHeader.skipPairs(in);
+        break;
+      case '[':
+        int values = in.getShort() & 0xFFFF;
+        for (int i = 0; i < values; i++) {
+          ClassHeader.skipElementValue(in);
+        }
+        break;
+      default:
+        // Constants, strings and classes are an index of the constant pool
+        ClassHeader.skip(in, 2);
+    }
+  }
+
+  @NonNull
+  private static String descriptorName(@NonNull String descriptor) {
+    // Annotation types are always object descriptors: Lpackage/Name;
+    return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+  }
+
+  /**
+   * Check whether the class is an interface.
+   *
+   * @return true if it is an interface
+   */
+  boolean isInterface() {
+    return (this.access & 0x0200) != 0;
+  }
+
+  /**
+   * Check whether the class is an annotation type.
+   *
+   * @return true if it is an annotation type
+   */
+  boolean isAnnotation() {
+    return (this.access & 0x2000) != 0;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ClassHeader.class.getSimpleName() + "[", "]")
+        .add("name='" + name + "'")
+        .add("superName='" + superName + "'")
+        .add("interfaces=" + String.join(", ", interfaces))
+        .add("annotations=" + String.join(", ", annotations))
+        .toString();
+  }
+
+  /** Decodes the entries of the constant pool on demand. */
+  private static final class ConstantPool {
+
+    @NonNull private final ByteBuffer in;
+    @NonNull private final int[] offsets;
+    @NonNull private final byte[] tags;
+
+    private ConstantPool(@NonNull ByteBuffer in, @NonNull int[] offsets, @NonNull byte[] tags) {
+      this.in = in;
+      this.offsets = offsets;
+      this.tags = tags;
+    }
+
+    @NonNull
+    private String className(int index) {
+      this.check(index, ClassHeader.CLASS);
+      return this.utf8(this.in.getShort(this.offsets[index]) & 0xFFFF).replace('/', '.');
+    }
+
+    @NonNull
+    private String utf8(int index) {
+      this.check(index, ClassHeader.UTF8);
+      int offset = this.offsets[index];
+      int length = this.in.getShort(offset) & 0xFFFF;
+      return ConstantPool.decode(this.in, offset + 2, length);
+    }
+
+    private void check(int index, int tag) {
+      if (index <= 0 || index >= this.tags.length || this.tags[index] != tag) {
+        throw new IllegalArgumentException("Invalid constant pool index " + index);
+      }
+    }
+
+    /** Decode modified UTF-8 as written by {@link java.io.DataOutput#writeUTF(String)}. */
+    @NonNull
+    private static String decode(@NonNull ByteBuffer in, int offset, int length) {
+      char[] chars = new char[length];
+      int count = 0;
+      int end = offset + length;
+      while (offset < end) {
+        int b = in.get(offset++) & 0xFF;
+        if (b < 0x80) {
+          chars[count++] = (char) b;
+        } else if ((b & 0xE0) == 0xC0) {
+          chars[count++] = (char) (((b & 0x1F) << 6) | (in.get(offset++) & 0x3F));
+        } else {
+          int b2 = in.get(offset++) & 0x3F;
+          int b3 = in.get(offset++) & 0x3F;
+          chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+        }
+      }
+      return new String(chars, 0, count);
+    }
+  }
+}
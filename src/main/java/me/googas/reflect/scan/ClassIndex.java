@@ -0,0 +1,175 @@
+package me.googas.reflect.scan;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import lombok.NonNull;
+import me.googas.reflect.wrappers.WrappedClass;
+
+/**
+ * The result of a {@link ClassScanner}: the classes found in the scanned roots indexed by the
+ * annotations they have and the types they extend or implement. Querying the index works on the
+ * names of the classes, only the classes returned as {@link WrappedClass} are loaded.
+ *
+ * <p>Classes are wrapped without being initialized, so querying the index does not run their static
+ * initializers, and those that could not be loaded, such as classes that depend on classes that are
+ * missing, are skipped. Subtypes are only found through classes that were scanned, a class
+ * extending a type from a root that was not scanned through another type that was not scanned
+ * either is not found
+ */
+public final class ClassIndex {
+
+  @NonNull private final Map<String, ClassHeader> classes;
+  @NonNull private final Map<String, List<String>> annotated;
+  @NonNull private final Map<String, List<String>> subtypes;
+  private final ClassLoader loader;
+
+  ClassIndex(@NonNull Collection<ClassHeader> headers, ClassLoader loader) {
+    Map<String, ClassHeader> classes = new LinkedHashMap<>(headers.size() * 2);
+    Map<String, List<String>> annotated = new HashMap<>();
+    Map<String, List<String>> subtypes = new HashMap<>();
+    for (ClassHeader header : headers) {
+      // The first root that contains a class wins, same as the class path
+      if (classes.putIfAbsent(header.name, header) != null) continue;
+      for (String annotation : header.annotations) {
+        annotated.computeIfAbsent(annotation, key -> new ArrayList<>()).add(header.name);
+      }
+      if (header.superName != null) {
+        subtypes.computeIfAbsent(header.superName, key -> new ArrayList<>()).add(header.name);
+      }
+      for (String type : header.interfaces) {
+        subtypes.computeIfAbsent(type, key -> new ArrayList<>()).add(header.name);
+      }
+    }
+    this.classes = Collections.unmodifiableMap(classes);
+    this.annotated = annotated;
+    this.subtypes = subtypes;
+    this.loader = loader;
+  }
+
+  /**
+   * Get the names of every class that was found.
+   *
+   * @return an unmodifiable set of names in the order they were found
+   */
+  @NonNull
+  public Set<String> getNames() {
+    return this.classes.keySet();
+  }
+
+  /**
+   * Check whether a class was found.
+   *
+   * @param name the binary name of the class
+   * @return true if the class was found
+   */
+  public boolean contains(@NonNull String name) {
+    return this.classes.containsKey(name);
+  }
+
+  /**
+   * Get the number of classes that were found.
+   *
+   * @return the number of classes
+   */
+  public int size() {
+    return this.classes.size();
+  }
+
+  /**
+   * Get the names of the classes that are annotated with an annotation. Annotations are not
+   * inherited.
+   *
+   * @param annotation the binary name of the annotation
+   * @return an unmodifiable list of names
+   */
+  @NonNull
+  public List<String> getAnnotatedNames(@NonNull String annotation) {
+    List<String> names = this.annotated.get(annotation);
+    return names == null ? Collections.emptyList() : Collections.unmodifiableList(names);
+  }
+
+  /**
+   * Get the classes that are annotated with an annotation.
+   *
+   * @see #getAnnotatedNames(String)
+   * @param annotation the annotation
+   * @return the classes
+   */
+  @NonNull
+  public List<WrappedClass<?>> getAnnotated(@NonNull Class<? extends Annotation> annotation) {
+    return this.wrap(this.getAnnotatedNames(annotation.getName()));
+  }
+
+  /**
+   * Get the names of the classes that extend or implement a type, directly or through other scanned
+   * classes. The type itself is not included.
+   *
+   * @param type the binary name of the type
+   * @return the names of the subtypes
+   */
+  @NonNull
+  public Set<String> getSubtypeNames(@NonNull String type) {
+    Set<String> found = new LinkedHashSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    pending.push(type);
+    while (!pending.isEmpty()) {
+      List<String> direct = this.subtypes.get(pending.pop());
+      if (direct == null) continue;
+      for (String name : direct) {
+        if (found.add(name)) pending.push(name);
+      }
+    }
+    return Collections.unmodifiableSet(found);
+  }
+
+  /**
+   * Get the classes that extend or implement a type.
+   *
+   * @see #getSubtypeNames(String)
+   * @param type the type
+   * @param <T> the type
+   * @return the classes
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public <T> List<WrappedClass<? extends T>> getSubtypes(@NonNull Class<T> type) {
+    List<WrappedClass<? extends T>> subtypes = new ArrayList<>();
+    for (WrappedClass<?> wrapper : this.wrap(this.getSubtypeNames(type.getName()))) {
+      subtypes.add((WrappedClass<? extends T>) wrapper);
+    }
+    return subtypes;
+  }
+
+  @NonNull
+  private List<WrappedClass<?>> wrap(@NonNull Collection<String> names) {
+    List<WrappedClass<?>> wrappers = new ArrayList<>(names.size());
+    for (String name : names) {
+      try {
+        WrappedClass<?> wrapper = WrappedClass.forName(name, this.loader, false);
+        if (wrapper.getClazz() != null) wrappers.add(wrapper);
+      } catch (LinkageError e) {
+        // Such as classes of optional dependencies that are not present
+      }
+    }
+    return wrappers;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ClassIndex.class.getSimpleName() + "[", "]")
+        .add("classes=" + classes.size())
+        .add("loader=" + loader)
+        .toString();
+  }
+}
@@ -0,0 +1,271 @@
+package me.googas.reflect.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import lombok.NonNull;
+
+/**
+ * Finds the classes in directories and jar files without loading them. Each root is read in
+ * parallel and only the header of each class file is parsed, the result is a {@link ClassIndex} of
+ * the classes by their annotations and by the types they extend or implement.
+ *
+ * <pre>{@code
+ * ClassIndex index = ClassScanner.of(loader).addClassPath().include("me.googas").scan();
+ * for (WrappedClass<?> handler : index.getAnnotated(Handler.class)) { ... }
+ * }</pre>
+ *
+ * <p>Class files in directories are memory-mapped when they are larger than {@link #MAP_THRESHOLD},
+ * smaller ones are read into a buffer that is reused by the task scanning the root: mapping is
+ * slower for small files and every mapping is kept until it is collected. Entries in jar files are
+ * read through {@link ZipFile} as they are usually compressed. Files that are not valid class files
+ * are skipped
+ */
+public final class ClassScanner {
+
+  /** The size in bytes from which class files are memory-mapped. */
+  public static final int MAP_THRESHOLD = 64 * 1024;
+
+  @NonNull private final List<Path> roots = new ArrayList<>();
+  @NonNull private final List<String> packages = new ArrayList<>();
+  private final ClassLoader loader;
+
+  private ClassScanner(ClassLoader loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Create a scanner.
+   *
+   * @param loader the loader used to load the classes returned by the {@link ClassIndex}, null for
+   *     the bootstrap class loader
+   * @return the scanner
+   */
+  @NonNull
+  public static ClassScanner of(ClassLoader loader) {
+    return new ClassScanner(loader);
+  }
+
+  /**
+   * Add a directory or a jar file to scan. Roots are scanned in order and if a class is found in
+   * many roots the first one is kept.
+   *
+   * @param root the directory or jar file
+   * @return this same instance
+   */
+  @NonNull
+  public ClassScanner addRoot(@NonNull Path root) {
+    this.roots.add(root);
+    return this;
+  }
+
+  /**
+   * Add every entry of the {@code java.class.path} system property as a root.
+   *
+   * @return this same instance
+   */
+  @NonNull
+  public ClassScanner addClassPath() {
+    String classPath = System.getProperty("java.class.path", "");
+    for (String entry : classPath.split(File.pathSeparator)) {
+      if (!entry.isEmpty()) this.roots.add(Paths.get(entry));
+    }
+    return this;
+  }
+
+  /**
+   * Only include the classes in a package and its subpackages. If no package is included every
+   * class is.
+   *
+   * @param packageName the name of the package
+   * @return this same instance
+   */
+  @NonNull
+  public ClassScanner include(@NonNull String packageName) {
+    this.packages.add(packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/");
+    return this;
+  }
+
+  /**
+   * Scan the roots using the common {@link ForkJoinPool}.
+   *
+   * @see #scan(ExecutorService)
+   * @return the index of the classes found
+   * @throws IOException if a root could not be read
+   */
+  @NonNull
+  public ClassIndex scan() throws IOException {
+    return this.scan(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Scan the roots, each root is scanned in a task of the executor. Roots that do not exist are
+   * skipped.
+   *
+   * @param executor the executor to run the tasks in
+   * @return the index of the classes found
+   * @throws IOException if a root could not be read
+   */
+  @NonNull
+  public ClassIndex scan(@NonNull ExecutorService executor) throws IOException {
+    List<Future<List<ClassHeader>>> futures = new ArrayList<>(this.roots.size());
+    for (Path root : this.roots) {
+      futures.add(executor.submit((Callable<List<ClassHeader>>) () -> this.scanRoot(root)));
+    }
+    List<ClassHeader> headers = new ArrayList<>();
+    try {
+      for (Future<List<ClassHeader>> future : futures) {
+        headers.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      futures.forEach(future -> future.cancel(true));
+      throw new IOException("Interrupted while scanning", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) throw (IOException) cause;
+      if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IOException(cause);
+    }
+    return new ClassIndex(headers, this.loader);
+  }
+
+  @NonNull
+  private List<ClassHeader> scanRoot(@NonNull Path root) throws IOException {
+    List<ClassHeader> headers = new ArrayList<>();
+    if (Files.isDirectory(root)) {
+      this.scanDirectory(root, headers);
+    } else if (Files.isRegularFile(root)) {
+      this.scanJar(root, headers);
+    }
+    return headers;
+  }
+
+  private void scanDirectory(@NonNull Path root, @NonNull List<ClassHeader> headers)
+      throws IOException {
+    Reader reader = new Reader();
+    Files.walkFileTree(
+        root,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+              throws IOException {
+            String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+            if (attributes.isRegularFile() && ClassScanner.this.accepts(path)) {
+              ClassScanner.add(headers, reader.read(file, attributes.size()));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  private void scanJar(@NonNull Path jar, @NonNull List<ClassHeader> headers) throws IOException {
+    Reader reader = new Reader();
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        if (entry.isDirectory() || !this.accepts(entry.getName())) continue;
+        try (InputStream stream = zip.getInputStream(entry)) {
+          ClassScanner.add(headers, reader.read(stream, entry.getSize()));
+        }
+      }
+    }
+  }
+
+  private boolean accepts(@NonNull String path) {
+    if (!path.endsWith(".class")
+        || path.startsWith("META-INF/")
+        || path.endsWith("module-info.class")
+        || path.endsWith("package-info.class")) {
+      return false;
+    }
+    if (this.packages.isEmpty()) return true;
+    for (String prefix : this.packages) {
+      if (path.startsWith(prefix)) return true;
+    }
+    return false;
+  }
+
+  private static void add(@NonNull List<ClassHeader> headers, @NonNull ByteBuffer buffer) {
+    try {
+      headers.add(ClassHeader.parse(buffer));
+    } catch (IllegalArgumentException e) {
+      // Not a valid class file
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ClassScanner.class.getSimpleName() + "[", "]")
+        .add("roots=" + roots)
+        .add("packages=" + packages)
+        .add("loader=" + loader)
+        .toString();
+  }
+
+  /** Reads class files reusing a buffer, a reader is used by a single task. */
+  private static final class Reader {
+
+    @NonNull private byte[] buffer = new byte[8 * 1024];
+
+    @NonNull
+    private ByteBuffer read(@NonNull Path file, long size) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        if (size >= ClassScanner.MAP_THRESHOLD) {
+          return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.ensure((int) size);
+        ByteBuffer target = ByteBuffer.wrap(this.buffer, 0, (int) size);
+        while (target.hasRemaining() && channel.read(target) >= 0) {
+          // Read until the end of the file
+        }
+        return ByteBuffer.wrap(this.buffer, 0, target.position());
+      }
+    }
+
+    @NonNull
+    private ByteBuffer read(@NonNull InputStream stream, long size) throws IOException {
+      if (size > 0) this.ensure((int) size);
+      int length = 0;
+      int read;
+      while ((read = stream.read(this.buffer, length, this.buffer.length - length)) >= 0) {
+        length += read;
+        if (length == this.buffer.length) this.ensure(length * 2);
+      }
+      return ByteBuffer.wrap(this.buffer, 0, length);
+    }
+
+    private void ensure(int size) {
+      if (this.buffer.length < size) {
+        byte[] grown = new byte[Math.max(size, this.buffer.length * 2)];
+        System.arraycopy(this.buffer, 0, grown, 0, this.buffer.length);
+        this.buffer = grown;
+      }
+    }
+  }
+}
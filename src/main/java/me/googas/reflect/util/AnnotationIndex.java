@@ -0,0 +1,140 @@
+package me.googas.reflect.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Index of the annotations of an {@link AnnotatedElement}. The annotations are read once and kept
+ * by their type, so checking whether an element has an annotation or getting it does not copy the
+ * array of {@link AnnotatedElement#getAnnotations()} nor scan it.
+ *
+ * <p>Indexes of classes, fields, methods, constructors and parameters are computed once and kept in
+ * a {@link ClassCache} of the class that declares them, so they are shared by every thread and do
+ * not prevent the class from being unloaded. Members are matched by {@link Object#equals(Object)},
+ * any copy of a {@link java.lang.reflect.Method} returned by reflection uses the same index.
+ * Indexes of other elements such as packages are not cached
+ */
+public final class AnnotationIndex {
+
+  @NonNull
+  private static final ClassCache<AnnotationIndex> CLASSES =
+      new ClassCache<>(AnnotationIndex::create);
+
+  @NonNull
+  private static final ClassCache<ConcurrentMap<AnnotatedElement, AnnotationIndex>> MEMBERS =
+      new ClassCache<>(type -> new ConcurrentHashMap<>());
+
+  @NonNull
+  private static final AnnotationIndex EMPTY =
+      new AnnotationIndex(new Annotation[0], Collections.emptyMap());
+
+  @NonNull private final Annotation[] annotations;
+  @NonNull private final Map<Class<? extends Annotation>, Annotation> types;
+
+  private AnnotationIndex(
+      @NonNull Annotation[] annotations,
+      @NonNull Map<Class<? extends Annotation>, Annotation> types) {
+    this.annotations = annotations;
+    this.types = types;
+  }
+
+  /**
+   * Get the index of the annotations of an element.
+   *
+   * @param element the element to get the index from
+   * @return the index of the element
+   */
+  @NonNull
+  public static AnnotationIndex of(@NonNull AnnotatedElement element) {
+    if (element instanceof Class) return AnnotationIndex.CLASSES.get((Class<?>) element);
+    Class<?> owner = AnnotationIndex.owner(element);
+    if (owner == null) return AnnotationIndex.create(element);
+    ConcurrentMap<AnnotatedElement, AnnotationIndex> members = AnnotationIndex.MEMBERS.get(owner);
+    AnnotationIndex index = members.get(element);
+    if (index == null) {
+      index = AnnotationIndex.create(element);
+      AnnotationIndex previous = members.putIfAbsent(element, index);
+      if (previous != null) index = previous;
+    }
+    return index;
+  }
+
+  private static Class<?> owner(@NonNull AnnotatedElement element) {
+    if (element instanceof Member) return ((Member) element).getDeclaringClass();
+    if (element instanceof Parameter) {
+      return ((Parameter) element).getDeclaringExecutable().getDeclaringClass();
+    }
+    return null;
+  }
+
+  @NonNull
+  private static AnnotationIndex create(@NonNull AnnotatedElement element) {
+    Annotation[] annotations = element.getAnnotations();
+    if (annotations.length == 0) return AnnotationIndex.EMPTY;
+    Map<Class<? extends Annotation>, Annotation> types = new HashMap<>(annotations.length * 2);
+    for (Annotation annotation : annotations) {
+      types.put(annotation.annotationType(), annotation);
+    }
+    return new AnnotationIndex(annotations, types);
+  }
+
+  /**
+   * Check whether the element has an annotation.
+   *
+   * @param type the type of the annotation
+   * @return true if the element has the annotation
+   */
+  public boolean has(@NonNull Class<? extends Annotation> type) {
+    return this.types.containsKey(type);
+  }
+
+  /**
+   * Get an annotation of the element.
+   *
+   * @param type the type of the annotation
+   * @param <T> the type of the annotation
+   * @return the annotation if present else null
+   */
+  public <T extends Annotation> T get(@NonNull Class<T> type) {
+    return type.cast(this.types.get(type));
+  }
+
+  /**
+   * Get all the annotations of the element in the order of {@link
+   * AnnotatedElement#getAnnotations()}.
+   *
+   * @return an unmodifiable list of the annotations
+   */
+  @NonNull
+  public List<Annotation> getAll() {
+    return Collections.unmodifiableList(Arrays.asList(this.annotations));
+  }
+
+  /**
+   * Check whether the element has no annotations.
+   *
+   * @return true if the element has no annotations
+   */
+  public boolean isEmpty() {
+    return this.annotations.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", AnnotationIndex.class.getSimpleName() + "[", "]")
+        .add("annotations=" + Arrays.toString(annotations))
+        .toString();
+  }
+}
@@ -1,6 +1,7 @@
 package me.googas.reflect.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -63,7 +64,8 @@ public final class ReflectUtil {
   }
 
   /**
-   * Check whether a method has certain annotation.
+   * Check whether a method has certain annotation. The annotations of the method are looked up in
+   * its {@link AnnotationIndex}.
    *
    * @param method the method to check if it has an annotation
    * @param clazz the class of annotation to match
@@ -71,7 +73,41 @@ public final class ReflectUtil {
    */
   public static boolean hasAnnotation(
       @NonNull Method method, @NonNull Class<? extends Annotation> clazz) {
-    return ReflectUtil.hasAnnotation(method.getAnnotations(), clazz);
+    return AnnotationIndex.of(method).has(clazz);
+  }
+
+  /**
+   * Check whether a class, field, method, constructor or any other element has certain annotation.
+   * The annotations of the element are looked up in its {@link AnnotationIndex}.
+   *
+   * @param element the element to check if it has an annotation
+   * @param clazz the class of annotation to match
+   * @return true if the element has the annotation
+   */
+  public static boolean hasAnnotation(
+      @NonNull AnnotatedElement element, @NonNull Class<? extends Annotation> clazz) {
+    return AnnotationIndex.of(element).has(clazz);
+  }
+
+  /**
+   * Get the annotation of a class, field, method, constructor or any other element. The annotations
+   * of the element are looked up in its {@link AnnotationIndex}.
+   *
+   * @param element the element to get the annotation from
+   * @param clazz the class of the annotation to get
+   * @param <T> the type of the annotation to get
+   * @return the annotation if found
+   * @throws IllegalArgumentException if the element does not have the annotation use {@link
+   *     #hasAnnotation(AnnotatedElement, Class)} to avoid this
+   */
+  @NonNull
+  public static <T extends Annotation> T getAnnotation(
+      @NonNull AnnotatedElement element, @NonNull Class<T> clazz) {
+    T annotation = AnnotationIndex.of(element).get(clazz);
+    if (annotation == null) {
+      throw new IllegalArgumentException(element + " does not contain the annotation " + clazz);
+    }
+    return annotation;
   }
 
   /**
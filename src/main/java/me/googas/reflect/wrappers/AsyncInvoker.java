@@ -0,0 +1,266 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+
+/**
+ * Invokes wrapped methods and constructors in an executor and returns their result as a {@link
+ * CompletableFuture}, for members that block such as the ones that do I/O.
+ *
+ * <pre>{@code
+ * AsyncInvoker invoker = AsyncInvoker.create().limit(4);
+ * CompletableFuture<String> body = invoker.prepare(fetch, client, url);
+ * }</pre>
+ *
+ * <p>By default calls run in {@link #defaultExecutor()}, which uses a virtual thread per call in
+ * Java 21 and later. The number of calls of the same method or constructor running at the same time
+ * can be limited, calls over the limit wait in a queue without holding a thread.
+ *
+ * <p>Futures complete with the value returned by the member or exceptionally with the exception it
+ * throws, which is not wrapped in an {@link InvocationTargetException}. Cancelling a future before
+ * its call starts skips the call
+ */
+public final class AsyncInvoker {
+
+  private static final int UNLIMITED = Integer.MAX_VALUE;
+
+  @NonNull private Executor executor;
+  private int permits = AsyncInvoker.UNLIMITED;
+
+  /**
+   * The limiters of the members of each class. They are not kept in a {@link
+   * me.googas.reflect.cache.ClassCache} as evicting them would forget the calls running.
+   */
+  @NonNull private ClassValue<ConcurrentMap<Member, Limiter>> limiters = AsyncInvoker.limiters();
+
+  private AsyncInvoker(@NonNull Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Create an invoker which runs calls in the {@link #defaultExecutor()} without limit.
+   *
+   * @return the invoker
+   */
+  @NonNull
+  public static AsyncInvoker create() {
+    return new AsyncInvoker(AsyncInvoker.defaultExecutor());
+  }
+
+  /**
+   * Get the executor used by default. In Java 21 and later it starts a virtual thread for each
+   * task, else it is a pool of daemon threads which grows as needed and keeps idle threads for a
+   * minute.
+   *
+   * <p>The library is built for Java 8, so the executor of virtual threads is looked up
+   * reflectively
+   *
+   * @return the shared executor
+   */
+  @NonNull
+  public static Executor defaultExecutor() {
+    return DefaultExecutor.INSTANCE;
+  }
+
+  /**
+   * Check whether the {@link #defaultExecutor()} uses virtual threads.
+   *
+   * @return true if it does
+   */
+  public static boolean isVirtual() {
+    return DefaultExecutor.VIRTUAL;
+  }
+
+  /**
+   * Set the executor to run the calls in.
+   *
+   * @param executor the executor
+   * @return this same instance
+   */
+  @NonNull
+  public AsyncInvoker executor(@NonNull Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Limit the number of calls of each method or constructor running at the same time. Each member
+   * has its own limit, use different invokers to limit members differently. Calls already queued
+   * keep the previous limit.
+   *
+   * @param permits the maximum number of calls of a member running at the same time
+   * @return this same instance
+   * @throws IllegalArgumentException if permits is less than 1
+   */
+  @NonNull
+  public AsyncInvoker limit(int permits) {
+    if (permits < 1) throw new IllegalArgumentException("Permits must be at least 1: " + permits);
+    this.permits = permits;
+    this.limiters = AsyncInvoker.limiters();
+    return this;
+  }
+
+  @NonNull
+  private static ClassValue<ConcurrentMap<Member, Limiter>> limiters() {
+    return new ClassValue<ConcurrentMap<Member, Limiter>>() {
+      @Override
+      protected ConcurrentMap<Member, Limiter> computeValue(Class<?> type) {
+        return new ConcurrentHashMap<>();
+      }
+    };
+  }
+
+  /**
+   * Invoke a method.
+   *
+   * @see WrappedMethod#invokeHandle(Object, Object...)
+   * @param method the method to invoke
+   * @param instance the instance to invoke the method in, ignored if it is static
+   * @param params the arguments of the method
+   * @return a future completed with the object returned by the method, or null if the wrapper is
+   *     empty
+   */
+  @NonNull
+  public CompletableFuture<Object> invoke(
+      @NonNull WrappedMethod<?> method, Object instance, Object... params) {
+    return this.submit(method.getMethod(), () -> method.invokeHandle(instance, params));
+  }
+
+  /**
+   * Invoke a method and cast the object it returns to its return type.
+   *
+   * @see WrappedMethod#prepareHandle(Object, Object...)
+   * @param method the method to invoke
+   * @param instance the instance to invoke the method in, ignored if it is static
+   * @param params the arguments of the method
+   * @param <T> the return type of the method
+   * @return a future completed with the object returned by the method, or null if the wrapper is
+   *     empty
+   */
+  @NonNull
+  public <T> CompletableFuture<T> prepare(
+      @NonNull WrappedMethod<T> method, Object instance, Object... params) {
+    return this.submit(method.getMethod(), () -> method.prepareHandle(instance, params));
+  }
+
+  /**
+   * Create an instance with a constructor.
+   *
+   * @see WrappedConstructor#invoke(Object...)
+   * @param constructor the constructor to invoke
+   * @param params the arguments of the constructor
+   * @param <T> the type of the instance
+   * @return a future completed with the new instance, or null if the wrapper is empty
+   */
+  @NonNull
+  public <T> CompletableFuture<T> newInstance(
+      @NonNull WrappedConstructor<T> constructor, Object... params) {
+    return this.submit(constructor.getConstructor(), () -> constructor.invoke(params));
+  }
+
+  @NonNull
+  private <R> CompletableFuture<R> submit(Member target, @NonNull Callable<R> call) {
+    if (target == null) return CompletableFuture.completedFuture(null);
+    Call<R> task = new Call<>(call);
+    if (this.permits == AsyncInvoker.UNLIMITED) {
+      try {
+        this.executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        task.reject(e);
+      }
+    } else {
+      int permits = this.permits;
+      this.limiters
+          .get(target.getDeclaringClass())
+          .computeIfAbsent(target, key -> new Limiter(permits))
+          .submit(this.executor, task);
+    }
+    return task.future;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", AsyncInvoker.class.getSimpleName() + "[", "]")
+        .add("executor=" + executor)
+        .add("permits=" + (permits == AsyncInvoker.UNLIMITED ? "unlimited" : permits))
+        .toString();
+  }
+
+  /**
+   * A call that completes a future.
+   *
+   * @param <R> the type of result
+   */
+  private static final class Call<R> implements Limiter.Task {
+
+    @NonNull private final Callable<R> call;
+    @NonNull private final CompletableFuture<R> future = new CompletableFuture<>();
+
+    private Call(@NonNull Callable<R> call) {
+      this.call = call;
+    }
+
+    @Override
+    public void run() {
+      if (this.future.isDone()) return;
+      try {
+        this.future.complete(this.call.call());
+      } catch (InvocationTargetException e) {
+        this.future.completeExceptionally(e.getCause() == null ? e : e.getCause());
+      } catch (Throwable e) {
+        this.future.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public void reject(@NonNull RejectedExecutionException e) {
+      this.future.completeExceptionally(e);
+    }
+  }
+
+  /** The executor used by default, created when first used. */
+  private static final class DefaultExecutor {
+
+    @NonNull private static final Executor INSTANCE;
+    private static final boolean VIRTUAL;
+
+    static {
+      Executor executor;
+      try {
+        Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        executor = (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // Before Java 21
+        executor = null;
+      }
+      VIRTUAL = executor != null;
+      INSTANCE = executor != null ? executor : Executors.newCachedThreadPool(new Daemons());
+    }
+  }
+
+  /** Creates the daemon threads of the executor used before Java 21. */
+  private static final class Daemons implements ThreadFactory {
+
+    @NonNull private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+      Thread thread = new Thread(runnable, "reflect-async-" + this.count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,334 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.StringJoiner;
+import lombok.NonNull;
+
+/**
+ * Atomic operations over a field. Get it using {@link WrappedField#atomic()}.
+ *
+ * <p>On Java 9+ the operations are performed through a {@code java.lang.invoke.VarHandle}, on Java
+ * 8 through {@code sun.misc.Unsafe}. Supported fields are the ones holding references, {@code int}
+ * or {@code long}. Writing operations are not supported on final fields and throw {@link
+ * UnsupportedOperationException}.
+ *
+ * <p>Just like {@link WrappedField} if the field is not present the operations do nothing and
+ * return null, false or 0
+ *
+ * @param <O> the type of the object that the field contains
+ */
+public final class AtomicField<O> {
+
+  private final Field field;
+
+  /** The handles with the exact types of the field indexed by operation. */
+  @NonNull private final MethodHandle[] handles;
+
+  /** The handles adapted to {@link Object} values indexed by operation. */
+  @NonNull private final MethodHandle[] generic;
+
+  private AtomicField(Field field, @NonNull MethodHandle[] handles) {
+    this.field = field;
+    this.handles = handles;
+    this.generic = new MethodHandle[handles.length];
+    for (int i = 0; i < handles.length; i++) {
+      if (handles[i] != null) {
+        MethodType type = handles[i].type();
+        MethodType generic = MethodType.genericMethodType(type.parameterCount());
+        if (type.returnType() == boolean.class || type.returnType() == void.class) {
+          generic = generic.changeReturnType(type.returnType());
+        }
+        this.generic[i] = handles[i].asType(generic);
+      }
+    }
+  }
+
+  /**
+   * Link the atomic operations of a field.
+   *
+   * @param field the field to link, null for an empty instance
+   * @param <T> the type of the object that the field contains
+   * @return the atomic field
+   * @throws IllegalAccessException if the field cannot be accessed atomically
+   * @throws IllegalArgumentException if the field does not hold a reference, int or long
+   */
+  @NonNull
+  static <T> AtomicField<T> of(Field field) throws IllegalAccessException {
+    return new AtomicField<>(
+        field, field == null ? new MethodHandle[5] : AtomicHandles.link(field));
+  }
+
+  /**
+   * Read the value of the field with acquire semantics. Reads and writes after this one cannot be
+   * reordered before it.
+   *
+   * @param instance the object to get the value of the field from, ignored if the field is static
+   * @return the value of the field
+   */
+  @SuppressWarnings("unchecked")
+  public O getAcquire(Object instance) {
+    if (this.field == null) return null;
+    try {
+      return (O) (Object) this.generic(AtomicHandles.GET_ACQUIRE).invokeExact(instance);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Write the value of the field with release semantics. Reads and writes before this one cannot be
+   * reordered after it.
+   *
+   * @param instance the object to set the value of the field to, ignored if the field is static
+   * @param value the new value of the field
+   */
+  public void setRelease(Object instance, O value) {
+    if (this.field == null) return;
+    try {
+      this.generic(AtomicHandles.SET_RELEASE).invokeExact(instance, (Object) value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of the field if its current value is the expected one. References are
+   * compared by identity and primitives by value.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param expected the expected value
+   * @param update the new value
+   * @return true if the value was updated
+   */
+  public boolean compareAndSet(Object instance, O expected, O update) {
+    if (this.field == null) return false;
+    try {
+      return (boolean)
+          this.generic(AtomicHandles.COMPARE_AND_SET)
+              .invokeExact(instance, (Object) expected, (Object) update);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of the field and get the previous one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param value the new value
+   * @return the previous value
+   */
+  @SuppressWarnings("unchecked")
+  public O getAndSet(Object instance, O value) {
+    if (this.field == null) return null;
+    try {
+      return (O)
+          (Object) this.generic(AtomicHandles.GET_AND_SET).invokeExact(instance, (Object) value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Read the value of an {@code int} field with acquire semantics.
+   *
+   * @see #getAcquire(Object)
+   * @param instance the object to get the value of the field from, ignored if the field is static
+   * @return the value of the field
+   */
+  public int getIntAcquire(Object instance) {
+    if (this.field == null) return 0;
+    try {
+      return (int) this.exact(AtomicHandles.GET_ACQUIRE, int.class).invokeExact(instance);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Write the value of an {@code int} field with release semantics.
+   *
+   * @see #setRelease(Object, Object)
+   * @param instance the object to set the value of the field to, ignored if the field is static
+   * @param value the new value of the field
+   */
+  public void setIntRelease(Object instance, int value) {
+    if (this.field == null) return;
+    try {
+      this.exact(AtomicHandles.SET_RELEASE, int.class).invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of an {@code int} field if its current value is the expected one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param expected the expected value
+   * @param update the new value
+   * @return true if the value was updated
+   */
+  public boolean compareAndSetInt(Object instance, int expected, int update) {
+    if (this.field == null) return false;
+    try {
+      return (boolean)
+          this.exact(AtomicHandles.COMPARE_AND_SET, int.class)
+              .invokeExact(instance, expected, update);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of an {@code int} field and get the previous one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param value the new value
+   * @return the previous value
+   */
+  public int getAndSetInt(Object instance, int value) {
+    if (this.field == null) return 0;
+    try {
+      return (int) this.exact(AtomicHandles.GET_AND_SET, int.class).invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically add to the value of an {@code int} field and get the previous one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param delta the value to add
+   * @return the previous value
+   */
+  public int getAndAddInt(Object instance, int delta) {
+    if (this.field == null) return 0;
+    try {
+      return (int) this.exact(AtomicHandles.GET_AND_ADD, int.class).invokeExact(instance, delta);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Read the value of a {@code long} field with acquire semantics.
+   *
+   * @see #getAcquire(Object)
+   * @param instance the object to get the value of the field from, ignored if the field is static
+   * @return the value of the field
+   */
+  public long getLongAcquire(Object instance) {
+    if (this.field == null) return 0;
+    try {
+      return (long) this.exact(AtomicHandles.GET_ACQUIRE, long.class).invokeExact(instance);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Write the value of a {@code long} field with release semantics.
+   *
+   * @see #setRelease(Object, Object)
+   * @param instance the object to set the value of the field to, ignored if the field is static
+   * @param value the new value of the field
+   */
+  public void setLongRelease(Object instance, long value) {
+    if (this.field == null) return;
+    try {
+      this.exact(AtomicHandles.SET_RELEASE, long.class).invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of a {@code long} field if its current value is the expected one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param expected the expected value
+   * @param update the new value
+   * @return true if the value was updated
+   */
+  public boolean compareAndSetLong(Object instance, long expected, long update) {
+    if (this.field == null) return false;
+    try {
+      return (boolean)
+          this.exact(AtomicHandles.COMPARE_AND_SET, long.class)
+              .invokeExact(instance, expected, update);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically set the value of a {@code long} field and get the previous one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param value the new value
+   * @return the previous value
+   */
+  public long getAndSetLong(Object instance, long value) {
+    if (this.field == null) return 0;
+    try {
+      return (long) this.exact(AtomicHandles.GET_AND_SET, long.class).invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  /**
+   * Atomically add to the value of a {@code long} field and get the previous one.
+   *
+   * @param instance the object in which the field is, ignored if the field is static
+   * @param delta the value to add
+   * @return the previous value
+   */
+  public long getAndAddLong(Object instance, long delta) {
+    if (this.field == null) return 0;
+    try {
+      return (long) this.exact(AtomicHandles.GET_AND_ADD, long.class).invokeExact(instance, delta);
+    } catch (Throwable e) {
+      throw FieldAccessors.propagate(e);
+    }
+  }
+
+  @NonNull
+  private MethodHandle generic(int op) {
+    return AtomicField.check(this.generic[op]);
+  }
+
+  @NonNull
+  private MethodHandle exact(int op, @NonNull Class<?> type) {
+    if (this.field.getType() != type) {
+      throw new IllegalArgumentException(this.field + " does not hold " + type);
+    }
+    return AtomicField.check(this.handles[op]);
+  }
+
+  @NonNull
+  private static MethodHandle check(MethodHandle handle) {
+    if (handle == null) throw new UnsupportedOperationException("The field is final");
+    return handle;
+  }
+
+  /**
+   * Get the field in which the operations are performed.
+   *
+   * @return the field if present else null
+   */
+  public Field getField() {
+    return this.field;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", AtomicField.class.getSimpleName() + "[", "]")
+        .add("field=" + field)
+        .toString();
+  }
+}
@@ -0,0 +1,303 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import lombok.NonNull;
+
+/**
+ * Links the {@link MethodHandle} instances used by {@link AtomicField}. On Java 9+ the operations
+ * are linked through a {@code java.lang.invoke.VarHandle} of the field, as the library targets Java
+ * 8 the API is looked up reflectively and only used through method handles. On Java 8, or when a
+ * {@code VarHandle} cannot be created for the field, the operations are linked to {@code
+ * sun.misc.Unsafe}.
+ *
+ * <p>Linked handles have the instance in which the field is as the first parameter, its type is
+ * {@link Object} and it is ignored for static fields. The values are {@code int} or {@code long}
+ * for fields of those types and {@link Object} for any other field
+ */
+final class AtomicHandles {
+
+  /** Index of the acquire read operation. */
+  static final int GET_ACQUIRE = 0;
+  /** Index of the release write operation. */
+  static final int SET_RELEASE = 1;
+  /** Index of the compare and set operation. */
+  static final int COMPARE_AND_SET = 2;
+  /** Index of the get and set operation. */
+  static final int GET_AND_SET = 3;
+  /** Index of the get and add operation. */
+  static final int GET_AND_ADD = 4;
+
+  @NonNull private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  @NonNull
+  private static final String[] VAR_HANDLE_MODES = {
+    "GET_ACQUIRE", "SET_RELEASE", "COMPARE_AND_SET", "GET_AND_SET", "GET_AND_ADD"
+  };
+
+  @NonNull
+  private static final String[] UNSAFE_METHODS = {
+    "get%sVolatile", "putOrdered%s", "compareAndSwap%s", "getAndSet%s", "getAndAdd%s"
+  };
+
+  @NonNull private static final MethodHandle REQUIRE_NON_NULL;
+
+  private static final VarHandles VAR_HANDLES = VarHandles.create();
+  private static final Object UNSAFE = AtomicHandles.unsafe();
+
+  static {
+    try {
+      REQUIRE_NON_NULL =
+          AtomicHandles.LOOKUP.findStatic(
+              Objects.class, "requireNonNull", MethodType.genericMethodType(1));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private AtomicHandles() {}
+
+  /**
+   * Check whether atomic operations are supported for a type of field.
+   *
+   * @param type the type of the field
+   * @return true if it is supported
+   */
+  static boolean isSupported(@NonNull Class<?> type) {
+    return !type.isPrimitive() || type == int.class || type == long.class;
+  }
+
+  /**
+   * Link the atomic operations of a field. The array is indexed by the constants in this class,
+   * operations that are not supported by the field are null.
+   *
+   * @param field the field to link the operations of
+   * @return the array of handles
+   * @throws IllegalAccessException if the field cannot be accessed atomically
+   */
+  @NonNull
+  static MethodHandle[] link(@NonNull Field field) throws IllegalAccessException {
+    if (!AtomicHandles.isSupported(field.getType())) {
+      throw new IllegalArgumentException(field + " does not hold a reference, int or long");
+    }
+    IllegalAccessException failure = null;
+    if (AtomicHandles.VAR_HANDLES != null) {
+      try {
+        return AtomicHandles.VAR_HANDLES.link(field);
+      } catch (IllegalAccessException e) {
+        failure = e;
+      }
+    }
+    if (AtomicHandles.UNSAFE != null) {
+      return AtomicHandles.linkUnsafe(field);
+    }
+    throw failure == null ? new IllegalAccessException("No atomic access for " + field) : failure;
+  }
+
+  @NonNull
+  private static MethodHandle[] linkUnsafe(@NonNull Field field) throws IllegalAccessException {
+    Object unsafe = Objects.requireNonNull(AtomicHandles.UNSAFE);
+    Class<?> unsafeClass = unsafe.getClass();
+    Class<?> valueType = AtomicHandles.valueType(field);
+    String suffix = valueType == Object.class ? "Object" : valueType == int.class ? "Int" : "Long";
+    boolean isStatic = Modifier.isStatic(field.getModifiers());
+    Object base;
+    long offset;
+    try {
+      if (isStatic) {
+        // Reading the field initializes its class
+        field.get(null);
+        base = unsafeClass.getMethod("staticFieldBase", Field.class).invoke(unsafe, field);
+        offset =
+            (long) unsafeClass.getMethod("staticFieldOffset", Field.class).invoke(unsafe, field);
+      } else {
+        base = null;
+        offset =
+            (long) unsafeClass.getMethod("objectFieldOffset", Field.class).invoke(unsafe, field);
+      }
+    } catch (NoSuchMethodException | InvocationTargetException e) {
+      throw AtomicHandles.illegalAccess(field, e);
+    }
+    MethodHandle[] handles = new MethodHandle[AtomicHandles.UNSAFE_METHODS.length];
+    for (int op = 0; op < handles.length; op++) {
+      if (!AtomicHandles.isLinkable(field, op)) continue;
+      MethodHandle handle;
+      try {
+        handle =
+            AtomicHandles.LOOKUP
+                .unreflect(
+                    unsafeClass.getMethod(
+                        String.format(AtomicHandles.UNSAFE_METHODS[op], suffix),
+                        AtomicHandles.unsafeParameters(op, valueType)))
+                .bindTo(unsafe);
+      } catch (NoSuchMethodException e) {
+        throw AtomicHandles.illegalAccess(field, e);
+      }
+      if (isStatic) {
+        handle = MethodHandles.insertArguments(handle, 0, base, offset);
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      } else {
+        handle = MethodHandles.insertArguments(handle, 1, offset);
+        // Unsafe does not check the instance, a wrong one would corrupt memory
+        MethodHandle check =
+            AtomicHandles.REQUIRE_NON_NULL
+                .asType(MethodType.methodType(field.getDeclaringClass(), Object.class))
+                .asType(MethodType.genericMethodType(1));
+        handle = MethodHandles.filterArguments(handle, 0, check);
+      }
+      if (valueType == Object.class) {
+        // Neither the values it writes
+        handle = AtomicHandles.castValues(handle, field.getType(), op);
+      }
+      handles[op] = handle;
+    }
+    return handles;
+  }
+
+  @NonNull
+  private static Class<?>[] unsafeParameters(int op, @NonNull Class<?> valueType) {
+    switch (op) {
+      case AtomicHandles.GET_ACQUIRE:
+        return new Class<?>[] {Object.class, long.class};
+      case AtomicHandles.COMPARE_AND_SET:
+        return new Class<?>[] {Object.class, long.class, valueType, valueType};
+      default:
+        return new Class<?>[] {Object.class, long.class, valueType};
+    }
+  }
+
+  @NonNull
+  private static MethodHandle castValues(
+      @NonNull MethodHandle handle, @NonNull Class<?> type, int op) {
+    if (type == Object.class || op == AtomicHandles.GET_ACQUIRE) return handle;
+    // The value written is always the last parameter
+    MethodType generic = handle.type();
+    return handle
+        .asType(generic.changeParameterType(generic.parameterCount() - 1, type))
+        .asType(generic);
+  }
+
+  private static boolean isLinkable(@NonNull Field field, int op) {
+    if (op == AtomicHandles.GET_ACQUIRE) return true;
+    if (Modifier.isFinal(field.getModifiers())) return false;
+    return op != AtomicHandles.GET_AND_ADD || field.getType().isPrimitive();
+  }
+
+  @NonNull
+  private static Class<?> valueType(@NonNull Field field) {
+    return field.getType().isPrimitive() ? field.getType() : Object.class;
+  }
+
+  @NonNull
+  private static MethodHandle normalize(@NonNull MethodHandle handle, @NonNull Field field) {
+    if (Modifier.isStatic(field.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    MethodType type = handle.type().changeParameterType(0, Object.class);
+    if (!field.getType().isPrimitive()) {
+      for (int i = 1; i < type.parameterCount(); i++) {
+        type = type.changeParameterType(i, Object.class);
+      }
+      if (type.returnType() != boolean.class && type.returnType() != void.class) {
+        type = type.changeReturnType(Object.class);
+      }
+    }
+    return handle.asType(type);
+  }
+
+  @NonNull
+  private static IllegalAccessException illegalAccess(
+      @NonNull Field field, @NonNull Exception cause) {
+    IllegalAccessException exception =
+        new IllegalAccessException("Could not link atomic access for " + field);
+    exception.initCause(cause instanceof InvocationTargetException ? cause.getCause() : cause);
+    return exception;
+  }
+
+  private static Object unsafe() {
+    try {
+      Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      return field.get(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /** Links operations using the {@code VarHandle} API of Java 9+. */
+  private static final class VarHandles {
+
+    @NonNull private final Method privateLookupIn;
+    @NonNull private final Method unreflectVarHandle;
+    @NonNull private final Method accessModeType;
+    @NonNull private final Method isAccessModeSupported;
+    @NonNull private final Method exactInvoker;
+    @NonNull private final Object[] modes;
+
+    private VarHandles(
+        @NonNull Method privateLookupIn,
+        @NonNull Method unreflectVarHandle,
+        @NonNull Method accessModeType,
+        @NonNull Method isAccessModeSupported,
+        @NonNull Method exactInvoker,
+        @NonNull Object[] modes) {
+      this.privateLookupIn = privateLookupIn;
+      this.unreflectVarHandle = unreflectVarHandle;
+      this.accessModeType = accessModeType;
+      this.isAccessModeSupported = isAccessModeSupported;
+      this.exactInvoker = exactInvoker;
+      this.modes = modes;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VarHandles create() {
+      try {
+        Class<?> varHandle = Class.forName("java.lang.invoke.VarHandle");
+        Class<? extends Enum> accessMode =
+            (Class<? extends Enum>) Class.forName("java.lang.invoke.VarHandle$AccessMode");
+        Object[] modes = new Object[AtomicHandles.VAR_HANDLE_MODES.length];
+        for (int i = 0; i < modes.length; i++) {
+          modes[i] = Enum.valueOf(accessMode, AtomicHandles.VAR_HANDLE_MODES[i]);
+        }
+        return new VarHandles(
+            MethodHandles.class.getMethod(
+                "privateLookupIn", Class.class, MethodHandles.Lookup.class),
+            MethodHandles.Lookup.class.getMethod("unreflectVarHandle", Field.class),
+            varHandle.getMethod("accessModeType", accessMode),
+            varHandle.getMethod("isAccessModeSupported", accessMode),
+            MethodHandles.class.getMethod("varHandleExactInvoker", accessMode, MethodType.class),
+            modes);
+      } catch (ClassNotFoundException | NoSuchMethodException e) {
+        // Running on Java 8
+        return null;
+      }
+    }
+
+    @NonNull
+    private MethodHandle[] link(@NonNull Field field) throws IllegalAccessException {
+      MethodHandle[] handles = new MethodHandle[this.modes.length];
+      try {
+        Object lookup =
+            this.privateLookupIn.invoke(null, field.getDeclaringClass(), AtomicHandles.LOOKUP);
+        Object varHandle = this.unreflectVarHandle.invoke(lookup, field);
+        for (int op = 0; op < handles.length; op++) {
+          Object mode = this.modes[op];
+          if (!AtomicHandles.isLinkable(field, op)
+              || !(boolean) this.isAccessModeSupported.invoke(varHandle, mode)) continue;
+          MethodType type = (MethodType) this.accessModeType.invoke(varHandle, mode);
+          MethodHandle invoker = (MethodHandle) this.exactInvoker.invoke(null, mode, type);
+          handles[op] = AtomicHandles.normalize(invoker.bindTo(varHandle), field);
+        }
+      } catch (InvocationTargetException e) {
+        throw AtomicHandles.illegalAccess(field, e);
+      }
+      return handles;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import lombok.NonNull;
+import me.googas.reflect.cache.CacheManager;
+import me.googas.reflect.metrics.Metrics;
+
+/**
+ * Resolves classes by name remembering the classes found and the names that could not be found for
+ * each {@link ClassLoader}. Once a name is resolved further lookups return without calling {@link
+ * Class#forName(String, boolean, ClassLoader)}, so no {@link ClassNotFoundException} is created.
+ *
+ * <p>Concurrent lookups of a name that is not resolved yet wait for a single resolution. The
+ * loaders and the classes found are weakly referenced so this does not prevent them from being
+ * collected
+ */
+final class ClassLookup {
+
+  /** Marks a name that could not be found. */
+  @NonNull private static final Object MISSING = new Object();
+
+  @NonNull
+  private static final Map<ClassLoader, ConcurrentMap<String, Object>> LOADERS =
+      new WeakHashMap<>();
+
+  /** Partition for the bootstrap class loader. */
+  @NonNull private static final ConcurrentMap<String, Object> BOOTSTRAP = new ConcurrentHashMap<>();
+
+  static {
+    CacheManager.onInvalidate(ClassLookup::invalidate);
+  }
+
+  private ClassLookup() {}
+
+  /**
+   * Forget the names looked up with a loader.
+   *
+   * @param loader the loader, null for the bootstrap class loader
+   */
+  static void invalidate(ClassLoader loader) {
+    if (loader == null) {
+      ClassLookup.BOOTSTRAP.clear();
+    } else {
+      synchronized (ClassLookup.LOADERS) {
+        ClassLookup.LOADERS.remove(loader);
+      }
+    }
+  }
+
+  @NonNull
+  private static ConcurrentMap<String, Object> partition(ClassLoader loader) {
+    if (loader == null) return ClassLookup.BOOTSTRAP;
+    synchronized (ClassLookup.LOADERS) {
+      return ClassLookup.LOADERS.computeIfAbsent(loader, key -> new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Find a class by its name and initialize it.
+   *
+   * @param name the fully qualified name of the class
+   * @param loader the loader to find the class with, null for the bootstrap class loader
+   * @return the class if found else null
+   */
+  static Class<?> find(@NonNull String name, ClassLoader loader) {
+    return ClassLookup.find(name, loader, true);
+  }
+
+  /**
+   * Find a class by its name. Found classes are kept in the partition of the loader, so later
+   * lookups do not call {@link Class#forName(String, boolean, ClassLoader)} again unless the class
+   * must be initialized and was not yet. Classes are initialized once their resolution is done, so
+   * a static initializer may look up any class, including the one being initialized.
+   *
+   * @param name the fully qualified name of the class
+   * @param loader the loader to find the class with, null for the bootstrap class loader
+   * @param initialize whether the class must be initialized
+   * @return the class if found else null
+   */
+  static Class<?> find(@NonNull String name, ClassLoader loader, boolean initialize) {
+    ConcurrentMap<String, Object> partition = ClassLookup.partition(loader);
+    Object cached = partition.get(name);
+    if (Metrics.isEnabled()) {
+      boolean hit =
+          cached == ClassLookup.MISSING
+              || cached instanceof Found && ((Found) cached).get() != null;
+      Metrics.getSink().cache(Metrics.CLASS_CACHE, hit);
+    }
+    while (true) {
+      if (cached == ClassLookup.MISSING) return null;
+      if (cached instanceof Found) {
+        Found found = (Found) cached;
+        Class<?> clazz = found.get();
+        if (clazz != null) return initialize ? found.initialize(clazz) : clazz;
+        // The class was collected, resolve it again
+        partition.remove(name, found);
+      } else if (cached != null) {
+        @SuppressWarnings("unchecked")
+        FutureTask<Object> task = (FutureTask<Object>) cached;
+        cached = ClassLookup.await(task);
+        continue;
+      }
+      // Static initializers may look classes up, so they run after the resolution is published
+      FutureTask<Object> created = new FutureTask<>(() -> ClassLookup.resolve(name, loader));
+      cached = partition.putIfAbsent(name, created);
+      if (cached == null) {
+        created.run();
+        cached = ClassLookup.complete(partition, name, created);
+      }
+    }
+  }
+
+  /**
+   * Mark a name as missing for a loader unless it was already looked up.
+   *
+   * @param name the fully qualified name of the class
+   * @param loader the loader, null for the bootstrap class loader
+   */
+  static void seedMissing(@NonNull String name, ClassLoader loader) {
+    ClassLookup.partition(loader).putIfAbsent(name, ClassLookup.MISSING);
+  }
+
+  /**
+   * Get the names known to be missing for a loader.
+   *
+   * @param loader the loader, null for the bootstrap class loader
+   * @return the names that could not be found
+   */
+  @NonNull
+  static List<String> missing(ClassLoader loader) {
+    List<String> names = new ArrayList<>();
+    for (Map.Entry<String, Object> entry : ClassLookup.partition(loader).entrySet()) {
+      if (entry.getValue() == ClassLookup.MISSING) names.add(entry.getKey());
+    }
+    return names;
+  }
+
+  /**
+   * Replace a finished resolution with its result.
+   *
+   * @return the result of the resolution
+   */
+  @NonNull
+  private static Object complete(
+      @NonNull ConcurrentMap<String, Object> partition,
+      @NonNull String name,
+      @NonNull FutureTask<Object> task) {
+    Object result;
+    try {
+      result = ClassLookup.await(task);
+    } catch (Error e) {
+      // The class failed to load, it is not cached as missing
+      partition.remove(name, task);
+      throw e;
+    }
+    partition.replace(name, task, result);
+    return result;
+  }
+
+  /**
+   * Wait for a resolution, errors thrown while loading the class are thrown again.
+   *
+   * @return either {@link #MISSING} or the {@link Found} class
+   */
+  @NonNull
+  private static Object await(@NonNull FutureTask<Object> task) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return task.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Error) throw (Error) cause;
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Load a class without initializing it, so no code of the class runs while other lookups of the
+   * name wait for the resolution.
+   *
+   * @return either {@link #MISSING} or the {@link Found} class
+   */
+  @NonNull
+  private static Object resolve(@NonNull String name, ClassLoader loader) {
+    try {
+      return new Found(Class.forName(name, false, loader), false);
+    } catch (ClassNotFoundException e) {
+      return ClassLookup.MISSING;
+    }
+  }
+
+  /**
+   * A found class. It is weakly referenced as it may be defined by the loader that keys the
+   * partition.
+   */
+  private static final class Found extends WeakReference<Class<?>> {
+
+    private volatile boolean initialized;
+
+    private Found(@NonNull Class<?> clazz, boolean initialized) {
+      super(clazz);
+      this.initialized = initialized;
+    }
+
+    @NonNull
+    private Class<?> initialize(@NonNull Class<?> clazz) {
+      if (!this.initialized) {
+        try {
+          Class.forName(clazz.getName(), true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+          throw new IllegalStateException(clazz + " is not visible to its own loader", e);
+        }
+        this.initialized = true;
+      }
+      return clazz;
+    }
+  }
+}
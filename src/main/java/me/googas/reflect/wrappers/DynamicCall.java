@@ -0,0 +1,229 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.NonNull;
+
+/**
+ * A call site that invokes the overload of a method or constructor that matches the classes of the
+ * arguments it receives, for arguments held as {@link Object}. The overload is selected like the
+ * compiler does, including unboxing, widening and variable arity, see {@link #select(Class[])}.
+ *
+ * <pre>{@code
+ * DynamicCall append = DynamicCall.method(StringBuilder.class, "append");
+ * append.invoke(builder, value);
+ * }</pre>
+ *
+ * <p>The selected overloads are kept in a polymorphic inline cache: the classes of the arguments of
+ * the last few distinct calls are compared against the ones of the current call, so calls with the
+ * same classes skip the selection and reuse a handle adapted to those classes. Once the inline
+ * cache is full the rest are kept in a map. Keep one instance per place it is called from so each
+ * one only holds the classes it sees
+ */
+public final class DynamicCall {
+
+  /** The number of distinct classes of arguments kept in the inline cache. */
+  private static final int POLYMORPHIC_LIMIT = 8;
+
+  @NonNull private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  @NonNull private final String name;
+  @NonNull private final List<? extends Executable> candidates;
+
+  /** The inline cache, replaced with a larger copy when an entry is added. */
+  @NonNull private volatile Entry[] entries = new Entry[0];
+
+  /** The handles linked once the inline cache is full. */
+  @NonNull private final ConcurrentMap<Key, MethodHandle> megamorphic = new ConcurrentHashMap<>();
+
+  private DynamicCall(@NonNull String name, @NonNull List<? extends Executable> candidates) {
+    this.name = name;
+    this.candidates = candidates;
+  }
+
+  /**
+   * Create a call site of the public methods of a class with a name, including the inherited ones.
+   *
+   * @param owner the class to get the methods from
+   * @param name the name of the methods
+   * @return the call site
+   * @throws IllegalArgumentException if the class has no public method with the name
+   */
+  @NonNull
+  public static DynamicCall method(@NonNull Class<?> owner, @NonNull String name) {
+    List<Method> candidates = new ArrayList<>();
+    for (Method method : owner.getMethods()) {
+      if (method.getName().equals(name) && !method.isBridge() && !method.isSynthetic()) {
+        candidates.add(method);
+      }
+    }
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException(owner + " has no public method named " + name);
+    }
+    return new DynamicCall(owner.getName() + "#" + name, Collections.unmodifiableList(candidates));
+  }
+
+  /**
+   * Create a call site of the public constructors of a class.
+   *
+   * @param type the class to get the constructors from
+   * @return the call site
+   * @throws IllegalArgumentException if the class has no public constructor
+   */
+  @NonNull
+  public static DynamicCall constructor(@NonNull Class<?> type) {
+    Constructor<?>[] constructors = type.getConstructors();
+    if (constructors.length == 0) {
+      throw new IllegalArgumentException(type + " has no public constructor");
+    }
+    return new DynamicCall(type.getName() + "#<init>", Arrays.asList(constructors));
+  }
+
+  /**
+   * Invoke the overload that matches the classes of the arguments.
+   *
+   * @param instance the instance to invoke the method in, ignored if it is static or a constructor
+   * @param args the arguments, null is the same as none
+   * @return the object returned by the method or the new instance, null if the method is void
+   * @throws IllegalArgumentException if no overload matches or many are equally specific
+   * @throws IllegalAccessException if the handle of the overload cannot be linked
+   * @throws InvocationTargetException if the underlying method or constructor throws an exception
+   */
+  public Object invoke(Object instance, Object... args)
+      throws InvocationTargetException, IllegalAccessException {
+    Object[] arguments = args == null ? DynamicCall.NO_ARGUMENTS : args;
+    MethodHandle handle = this.target(arguments);
+    try {
+      return (Object) handle.invokeExact(instance, arguments);
+    } catch (Throwable e) {
+      throw Handles.propagate(e);
+    }
+  }
+
+  /**
+   * Create an instance with the constructor that matches the classes of the arguments.
+   *
+   * @see #invoke(Object, Object...)
+   * @param args the arguments, null is the same as none
+   * @return the new instance
+   * @throws IllegalArgumentException if no constructor matches or many are equally specific
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws InvocationTargetException if the constructor throws an exception
+   */
+  public Object newInstance(Object... args)
+      throws InvocationTargetException, IllegalAccessException {
+    return this.invoke(null, args);
+  }
+
+  /**
+   * Select the overload that would be invoked with arguments of some classes. The overloads that
+   * take the arguments without unboxing them are preferred, then the ones that unbox and widen them
+   * and last the ones of variable arity. Among those the most specific is selected.
+   *
+   * @param types the classes of the arguments, primitive for primitive arguments and null for null
+   *     arguments
+   * @return the selected method or constructor
+   * @throws IllegalArgumentException if no overload matches or many are equally specific
+   */
+  @NonNull
+  public Executable select(@NonNull Class<?>... types) {
+    return Overloads.select(this.name, this.candidates, types).executable;
+  }
+
+  @NonNull
+  private MethodHandle target(@NonNull Object[] args) throws IllegalAccessException {
+    for (Entry entry : this.entries) {
+      if (entry.matches(args)) return entry.handle;
+    }
+    Class<?>[] types = new Class<?>[args.length];
+    for (int i = 0; i < args.length; i++) {
+      types[i] = args[i] == null ? null : args[i].getClass();
+    }
+    Key key = new Key(types);
+    MethodHandle handle = this.megamorphic.get(key);
+    if (handle == null) {
+      Overloads.Selection selection = Overloads.select(this.name, this.candidates, types);
+      handle = Handles.dynamic(selection.executable, types, selection.variable);
+      this.cache(key, handle);
+    }
+    return handle;
+  }
+
+  private synchronized void cache(@NonNull Key key, @NonNull MethodHandle handle) {
+    Entry[] entries = this.entries;
+    for (Entry entry : entries) {
+      if (Arrays.equals(entry.types, key.types)) return;
+    }
+    if (entries.length < DynamicCall.POLYMORPHIC_LIMIT) {
+      Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+      copy[entries.length] = new Entry(key.types, handle);
+      this.entries = copy;
+    } else {
+      this.megamorphic.putIfAbsent(key, handle);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", DynamicCall.class.getSimpleName() + "[", "]")
+        .add("name='" + name + "'")
+        .add("candidates=" + candidates.size())
+        .add("cached=" + (entries.length + megamorphic.size()))
+        .toString();
+  }
+
+  /** An entry of the inline cache. */
+  private static final class Entry {
+
+    @NonNull private final Class<?>[] types;
+    @NonNull private final MethodHandle handle;
+
+    private Entry(@NonNull Class<?>[] types, @NonNull MethodHandle handle) {
+      this.types = types;
+      this.handle = handle;
+    }
+
+    private boolean matches(@NonNull Object[] args) {
+      if (args.length != this.types.length) return false;
+      for (int i = 0; i < args.length; i++) {
+        Object arg = args[i];
+        if (arg == null ? this.types[i] != null : arg.getClass() != this.types[i]) return false;
+      }
+      return true;
+    }
+  }
+
+  /** The classes of some arguments as the key of the map of handles. */
+  private static final class Key {
+
+    @NonNull private final Class<?>[] types;
+    private final int hash;
+
+    private Key(@NonNull Class<?>[] types) {
+      this.types = types;
+      this.hash = Arrays.hashCode(types);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      return Arrays.equals(this.types, ((Key) o).types);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,312 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import lombok.NonNull;
+import me.googas.reflect.accessors.FieldAccessor;
+import me.googas.reflect.util.ReflectUtil;
+
+/**
+ * Functional accessors of fields backed by {@link MethodHandle} instances or by the {@link
+ * FieldAccessor} generated at compile time. Each accessor holds a handle which is already adapted
+ * to its exact type, so it is invoked without access checks nor reflection. The handle is held in
+ * an instance field, so unlike a handle in a static final field the JIT does not treat it as a
+ * constant, {@code FieldBenchmark} in the benchmarks compares both.
+ *
+ * <p>Accessors of primitive types read and write the values without boxing them
+ */
+final class FieldAccessors {
+
+  @NonNull private static final MethodType GETTER = MethodType.genericMethodType(1);
+
+  @NonNull
+  private static final MethodType SETTER =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  private FieldAccessors() {}
+
+  /**
+   * Create a getter from a handle of type {@code (Object)type}.
+   *
+   * @param handle the handle to get the value of the field
+   * @param <O> the type of the value in the field
+   * @return the getter
+   */
+  @NonNull
+  static <O> Function<Object, O> getter(@NonNull MethodHandle handle) {
+    return new Getter<>(handle.asType(FieldAccessors.GETTER));
+  }
+
+  /**
+   * Create a setter from a handle of type {@code (Object, type)void}.
+   *
+   * @param handle the handle to set the value of the field
+   * @param <O> the type of the value in the field
+   * @return the setter
+   */
+  @NonNull
+  static <O> BiConsumer<Object, O> setter(@NonNull MethodHandle handle) {
+    return new Setter<>(handle.asType(FieldAccessors.SETTER));
+  }
+
+  /**
+   * Create a getter from an accessor generated at compile time.
+   *
+   * @param accessor the accessor of the field
+   * @param type the type to cast the value to, null to not cast it
+   * @param <O> the type of the value in the field
+   * @return the getter
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <O> Function<Object, O> getter(@NonNull FieldAccessor accessor, Class<O> type) {
+    if (type == null) return instance -> (O) accessor.get(instance);
+    Class<O> boxed = type.isPrimitive() ? ReflectUtil.getBoxing(type) : type;
+    return instance -> boxed.cast(accessor.get(instance));
+  }
+
+  /**
+   * Create a setter from an accessor generated at compile time.
+   *
+   * @param accessor the accessor of the field
+   * @param <O> the type of the value in the field
+   * @return the setter
+   */
+  @NonNull
+  static <O> BiConsumer<Object, O> setter(@NonNull FieldAccessor accessor) {
+    return accessor::set;
+  }
+
+  /**
+   * Create a getter from a handle of type {@code (Object)int}.
+   *
+   * @param handle the handle to get the value of the field
+   * @return the getter
+   */
+  @NonNull
+  static ToIntFunction<Object> intGetter(@NonNull MethodHandle handle) {
+    return new IntGetter(handle);
+  }
+
+  /**
+   * Create a setter from a handle of type {@code (Object, int)void}.
+   *
+   * @param handle the handle to set the value of the field
+   * @return the setter
+   */
+  @NonNull
+  static ObjIntConsumer<Object> intSetter(@NonNull MethodHandle handle) {
+    return new IntSetter(handle);
+  }
+
+  /**
+   * Create a getter from a handle of type {@code (Object)long}.
+   *
+   * @param handle the handle to get the value of the field
+   * @return the getter
+   */
+  @NonNull
+  static ToLongFunction<Object> longGetter(@NonNull MethodHandle handle) {
+    return new LongGetter(handle);
+  }
+
+  /**
+   * Create a setter from a handle of type {@code (Object, long)void}.
+   *
+   * @param handle the handle to set the value of the field
+   * @return the setter
+   */
+  @NonNull
+  static ObjLongConsumer<Object> longSetter(@NonNull MethodHandle handle) {
+    return new LongSetter(handle);
+  }
+
+  /**
+   * Create a getter from a handle of type {@code (Object)double}.
+   *
+   * @param handle the handle to get the value of the field
+   * @return the getter
+   */
+  @NonNull
+  static ToDoubleFunction<Object> doubleGetter(@NonNull MethodHandle handle) {
+    return new DoubleGetter(handle);
+  }
+
+  /**
+   * Create a setter from a handle of type {@code (Object, double)void}.
+   *
+   * @param handle the handle to set the value of the field
+   * @return the setter
+   */
+  @NonNull
+  static ObjDoubleConsumer<Object> doubleSetter(@NonNull MethodHandle handle) {
+    return new DoubleSetter(handle);
+  }
+
+  /**
+   * Get the exception to throw after a handle invocation failed. Field handles only throw unchecked
+   * exceptions, which are thrown directly.
+   *
+   * @param throwable the throwable caught from the handle
+   * @return the exception to throw
+   */
+  @NonNull
+  static RuntimeException propagate(@NonNull Throwable throwable) {
+    if (throwable instanceof RuntimeException) throw (RuntimeException) throwable;
+    if (throwable instanceof Error) throw (Error) throwable;
+    return new IllegalStateException(throwable);
+  }
+
+  private static final class Getter<O> implements Function<Object, O> {
+
+    @NonNull private final MethodHandle handle;
+
+    private Getter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public O apply(Object instance) {
+      try {
+        return (O) (Object) this.handle.invokeExact(instance);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class Setter<O> implements BiConsumer<Object, O> {
+
+    @NonNull private final MethodHandle handle;
+
+    private Setter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public void accept(Object instance, O value) {
+      try {
+        this.handle.invokeExact(instance, (Object) value);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class IntGetter implements ToIntFunction<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private IntGetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public int applyAsInt(Object instance) {
+      try {
+        return (int) this.handle.invokeExact(instance);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class IntSetter implements ObjIntConsumer<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private IntSetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public void accept(Object instance, int value) {
+      try {
+        this.handle.invokeExact(instance, value);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class LongGetter implements ToLongFunction<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private LongGetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public long applyAsLong(Object instance) {
+      try {
+        return (long) this.handle.invokeExact(instance);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class LongSetter implements ObjLongConsumer<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private LongSetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public void accept(Object instance, long value) {
+      try {
+        this.handle.invokeExact(instance, value);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class DoubleGetter implements ToDoubleFunction<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private DoubleGetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public double applyAsDouble(Object instance) {
+      try {
+        return (double) this.handle.invokeExact(instance);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+
+  private static final class DoubleSetter implements ObjDoubleConsumer<Object> {
+
+    @NonNull private final MethodHandle handle;
+
+    private DoubleSetter(@NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public void accept(Object instance, double value) {
+      try {
+        this.handle.invokeExact(instance, value);
+      } catch (Throwable e) {
+        throw FieldAccessors.propagate(e);
+      }
+    }
+  }
+}
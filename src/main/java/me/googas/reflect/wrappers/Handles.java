@@ -0,0 +1,271 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import lombok.NonNull;
+import me.googas.reflect.util.ReflectUtil;
+
+/**
+ * Static utilities to link {@link MethodHandle} instances for the wrappers. Handles linked here
+ * report exceptions thrown by the underlying member as {@link InvocationTargetException} just like
+ * core reflection does, while conversion errors of the arguments or return value are thrown as they
+ * are.
+ */
+final class Handles {
+
+  @NonNull private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  @NonNull private static final MethodHandle WRAP_EXCEPTION;
+
+  static {
+    try {
+      WRAP_EXCEPTION =
+          Handles.LOOKUP.findConstructor(
+              InvocationTargetException.class, MethodType.methodType(void.class, Throwable.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private Handles() {}
+
+  /**
+   * Unreflect a method and adapt it to the type {@code (Object, Object[])returnType}. The first
+   * parameter is the instance in which the method is invoked and it is ignored if the method is
+   * static, the second is the array of arguments.
+   *
+   * @param method the method to unreflect
+   * @param returnType the type to adapt the return value to, null for {@link Object}
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails
+   */
+  @NonNull
+  static MethodHandle spreader(@NonNull Method method, Class<?> returnType)
+      throws IllegalAccessException {
+    return Handles.invoker(method, returnType)
+        .asSpreader(Object[].class, method.getParameterCount());
+  }
+
+  /**
+   * Unreflect a method and adapt it to the type {@code (Object, Object...)returnType} with one
+   * {@link Object} parameter for each parameter of the method. The first parameter is the instance
+   * in which the method is invoked and it is ignored if the method is static.
+   *
+   * @param method the method to unreflect
+   * @param returnType the type to adapt the return value to, null for {@link Object}
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails
+   */
+  @NonNull
+  static MethodHandle invoker(@NonNull Method method, Class<?> returnType)
+      throws IllegalAccessException {
+    MethodHandle handle = Handles.wrapExceptions(Handles.LOOKUP.unreflect(method).asFixedArity());
+    if (Modifier.isStatic(method.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    MethodType type = MethodType.genericMethodType(method.getParameterCount() + 1);
+    return handle
+        .asType(type.changeReturnType(returnType == null ? Object.class : returnType))
+        .asType(type);
+  }
+
+  /**
+   * Unreflect a constructor and adapt it to the type {@code (Object...)Object} with one {@link
+   * Object} parameter for each parameter of the constructor.
+   *
+   * @param constructor the constructor to unreflect
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails or the class is abstract
+   */
+  @NonNull
+  static MethodHandle constructor(@NonNull Constructor<?> constructor)
+      throws IllegalAccessException {
+    MethodHandle handle =
+        Handles.wrapExceptions(Handles.LOOKUP.unreflectConstructor(constructor).asFixedArity());
+    return handle.asType(MethodType.genericMethodType(constructor.getParameterCount()));
+  }
+
+  /**
+   * Unreflect a method or constructor and adapt it to the type {@code (Object, Object[])Object}
+   * like {@link #spreader(Method, Class)}, specialized for arguments of some classes so the casts
+   * and conversions of each argument are linked once. The first parameter is ignored for static
+   * methods and constructors.
+   *
+   * @param executable the method or constructor to unreflect
+   * @param types the classes of the arguments, null for null arguments
+   * @param variable whether the last arguments are collected in the variable arity array
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails or the class is abstract
+   */
+  @NonNull
+  static MethodHandle dynamic(
+      @NonNull Executable executable, @NonNull Class<?>[] types, boolean variable)
+      throws IllegalAccessException {
+    MethodHandle handle;
+    if (executable instanceof Method) {
+      Method method = (Method) executable;
+      handle = Handles.wrapExceptions(Handles.LOOKUP.unreflect(method).asFixedArity());
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+    } else {
+      Constructor<?> constructor = (Constructor<?>) executable;
+      handle =
+          MethodHandles.dropArguments(
+              Handles.wrapExceptions(
+                  Handles.LOOKUP.unreflectConstructor(constructor).asFixedArity()),
+              0,
+              Object.class);
+    }
+    if (variable) {
+      int count = executable.getParameterCount();
+      Class<?> array = executable.getParameterTypes()[count - 1];
+      handle = handle.asCollector(array, types.length - count + 1);
+    }
+    MethodType type = handle.type().changeReturnType(Object.class);
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] != null) type = type.changeParameterType(i + 1, types[i]);
+    }
+    return handle
+        .asType(type)
+        .asType(MethodType.genericMethodType(types.length + 1))
+        .asSpreader(Object[].class, types.length);
+  }
+
+  /**
+   * Unreflect the getter of a field and adapt it to the type {@code (Object)type}. The parameter is
+   * the instance to get the value from and it is ignored if the field is static.
+   *
+   * @param field the field to unreflect
+   * @param type the type to adapt the value to, null for {@link Object}
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails
+   */
+  @NonNull
+  static MethodHandle getter(@NonNull Field field, Class<?> type) throws IllegalAccessException {
+    return Handles.getter(field).asType(MethodType.methodType(Handles.box(type), Object.class));
+  }
+
+  /**
+   * Unreflect the getter of a field and adapt it to the type {@code (Object)primitive}. Values of
+   * smaller primitive types are widened.
+   *
+   * @param field the field to unreflect
+   * @param primitive the primitive type to read
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails
+   * @throws IllegalArgumentException if the field cannot be read as the primitive type
+   */
+  @NonNull
+  static MethodHandle primitiveGetter(@NonNull Field field, @NonNull Class<?> primitive)
+      throws IllegalAccessException {
+    try {
+      return Handles.getter(field).asType(MethodType.methodType(primitive, Object.class));
+    } catch (WrongMethodTypeException e) {
+      throw new IllegalArgumentException(field + " cannot be read as " + primitive, e);
+    }
+  }
+
+  @NonNull
+  private static MethodHandle getter(@NonNull Field field) throws IllegalAccessException {
+    MethodHandle handle = Handles.LOOKUP.unreflectGetter(field);
+    if (Modifier.isStatic(field.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    return handle;
+  }
+
+  /**
+   * Unreflect the setter of a field and adapt it to the type {@code (Object, type)void}. The first
+   * parameter is the instance to set the value to and it is ignored if the field is static.
+   *
+   * @param field the field to unreflect
+   * @param type the type to adapt the value to, null for {@link Object}
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails or the field is final and static
+   */
+  @NonNull
+  static MethodHandle setter(@NonNull Field field, Class<?> type) throws IllegalAccessException {
+    return Handles.setter(field)
+        .asType(MethodType.methodType(void.class, Object.class, Handles.box(type)));
+  }
+
+  /**
+   * Unreflect the setter of a field and adapt it to the type {@code (Object, primitive)void}.
+   * Values are widened to the type of the field.
+   *
+   * @param field the field to unreflect
+   * @param primitive the primitive type to write
+   * @return the adapted handle
+   * @throws IllegalAccessException if access checking fails or the field is final and static
+   * @throws IllegalArgumentException if the primitive type cannot be written in the field
+   */
+  @NonNull
+  static MethodHandle primitiveSetter(@NonNull Field field, @NonNull Class<?> primitive)
+      throws IllegalAccessException {
+    try {
+      return Handles.setter(field)
+          .asType(MethodType.methodType(void.class, Object.class, primitive));
+    } catch (WrongMethodTypeException e) {
+      throw new IllegalArgumentException(primitive + " cannot be written in " + field, e);
+    }
+  }
+
+  @NonNull
+  private static MethodHandle setter(@NonNull Field field) throws IllegalAccessException {
+    MethodHandle handle = Handles.LOOKUP.unreflectSetter(field);
+    if (Modifier.isStatic(field.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    return handle;
+  }
+
+  @NonNull
+  private static Class<?> box(Class<?> type) {
+    if (type == null) return Object.class;
+    return type.isPrimitive() ? ReflectUtil.getBoxing(type) : type;
+  }
+
+  /**
+   * Make the handle throw an {@link InvocationTargetException} wrapping any exception thrown by it.
+   *
+   * @param target the handle to catch the exceptions from
+   * @return the handle with the same type as the target
+   */
+  @NonNull
+  static MethodHandle wrapExceptions(@NonNull MethodHandle target) {
+    MethodType type = target.type();
+    MethodHandle handler =
+        MethodHandles.filterArguments(
+            MethodHandles.throwException(type.returnType(), InvocationTargetException.class),
+            0,
+            Handles.WRAP_EXCEPTION);
+    handler = MethodHandles.dropArguments(handler, 1, type.parameterList());
+    return MethodHandles.catchException(target, Throwable.class, handler);
+  }
+
+  /**
+   * Get the exception to throw after a handle invocation failed. Unchecked exceptions are thrown
+   * directly.
+   *
+   * @param throwable the throwable caught from the handle
+   * @return the exception to throw
+   */
+  @NonNull
+  static InvocationTargetException propagate(@NonNull Throwable throwable) {
+    if (throwable instanceof RuntimeException) throw (RuntimeException) throwable;
+    if (throwable instanceof Error) throw (Error) throwable;
+    if (throwable instanceof InvocationTargetException) {
+      return (InvocationTargetException) throwable;
+    }
+    return new InvocationTargetException(throwable);
+  }
+}
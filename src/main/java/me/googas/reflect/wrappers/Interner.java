@@ -0,0 +1,92 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.Member;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+
+/**
+ * Keeps a single wrapper for each member and declared type. Wrappers are kept in a {@link
+ * ClassCache} of the class that declares the member, so they are released with the class when its
+ * loader is collected or invalidated. A table that is evicted is built again, so the wrapper of a
+ * member is shared as long as its table is cached.
+ *
+ * <p>A declared type that cannot be seen from the loader of the declaring class, such as a type
+ * from a plugin used with a field of a shared library, would keep its loader reachable for as long
+ * as the declaring class is. Wrappers of those are not interned
+ */
+final class Interner {
+
+  @NonNull
+  private static final ClassCache<ConcurrentMap<Key, Object>> TABLES =
+      new ClassCache<>(type -> new ConcurrentHashMap<>());
+
+  private Interner() {}
+
+  /**
+   * Get the wrapper of a member.
+   *
+   * @param member the member
+   * @param type the declared type of the wrapper, null if none
+   * @param create creates the wrapper if there is none yet
+   * @param <W> the type of wrapper
+   * @return the shared wrapper or a new one if it cannot be interned
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <W> W intern(@NonNull Member member, Class<?> type, @NonNull Supplier<W> create) {
+    Class<?> owner = member.getDeclaringClass();
+    if (!Interner.isVisible(type, owner)) return create.get();
+    ConcurrentMap<Key, Object> table = Interner.TABLES.get(owner);
+    Key key = new Key(member, type);
+    Object wrapper = table.get(key);
+    if (wrapper == null) {
+      Object created = create.get();
+      wrapper = table.putIfAbsent(key, created);
+      if (wrapper == null) wrapper = created;
+    }
+    return (W) wrapper;
+  }
+
+  private static boolean isVisible(Class<?> type, @NonNull Class<?> owner) {
+    if (type == null) return true;
+    ClassLoader loader = type.getClassLoader();
+    if (loader == null) return true;
+    for (ClassLoader current = owner.getClassLoader();
+        current != null;
+        current = current.getParent()) {
+      if (current == loader) return true;
+    }
+    return false;
+  }
+
+  /** A member and the declared type of its wrapper. */
+  private static final class Key {
+
+    @NonNull private final Member member;
+    private final Class<?> type;
+    private final int hash;
+
+    private Key(@NonNull Member member, Class<?> type) {
+      this.member = member;
+      this.type = type;
+      this.hash = member.hashCode() * 31 + Objects.hashCode(type);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key that = (Key) o;
+      return this.type == that.type && this.member.equals(that.member);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,600 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import lombok.NonNull;
+
+/**
+ * Invokers of methods and constructors with a fixed number of arguments. Unlike {@link
+ * WrappedMethod#invoke(Object, Object...)} and {@link WrappedConstructor#invoke(Object...)} calling
+ * an invoker does not allocate an array for the arguments. Invokers are backed by a {@link
+ * MethodHandle} that is linked once, get them using {@link WrappedMethod#invoker0()} or {@link
+ * WrappedConstructor#invoker0()} and the methods for other arities.
+ *
+ * <p>Exceptions thrown by the underlying member are wrapped in an {@link
+ * InvocationTargetException}, if the wrapper is empty the invokers return null
+ */
+public final class Invokers {
+
+  private Invokers() {}
+
+  /**
+   * Invoker of a method with 0 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method0<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 1 parameter.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method1<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance, Object arg1) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 2 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method2<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance, Object arg1, Object arg2) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 3 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method3<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance, Object arg1, Object arg2, Object arg3)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 4 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method4<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance, Object arg1, Object arg2, Object arg3, Object arg4)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 5 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method5<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @param arg5 the argument 5
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(Object instance, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a method with 6 parameters.
+   *
+   * @param <T> the type that the method returns
+   */
+  @FunctionalInterface
+  public interface Method6<T> {
+
+    /**
+     * Invoke the method.
+     *
+     * @param instance the instance in which the method is invoked, ignored if it is static
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @param arg5 the argument 5
+     * @param arg6 the argument 6
+     * @return the object which the method returns
+     * @throws InvocationTargetException if the underlying method throws an exception
+     */
+    T invoke(
+        Object instance,
+        Object arg1,
+        Object arg2,
+        Object arg3,
+        Object arg4,
+        Object arg5,
+        Object arg6)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 0 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor0<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke() throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 1 parameter.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor1<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 2 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor2<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1, Object arg2) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 3 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor3<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1, Object arg2, Object arg3) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 4 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor4<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1, Object arg2, Object arg3, Object arg4) throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 5 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor5<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @param arg5 the argument 5
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1, Object arg2, Object arg3, Object arg4, Object arg5)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Invoker of a constructor with 6 parameters.
+   *
+   * @param <T> the type that the constructor initializes
+   */
+  @FunctionalInterface
+  public interface Constructor6<T> {
+
+    /**
+     * Invoke the constructor to create a new instance.
+     *
+     * @param arg1 the argument 1
+     * @param arg2 the argument 2
+     * @param arg3 the argument 3
+     * @param arg4 the argument 4
+     * @param arg5 the argument 5
+     * @param arg6 the argument 6
+     * @return the created instance
+     * @throws InvocationTargetException if the underlying constructor throws an exception
+     */
+    T invoke(Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6)
+        throws InvocationTargetException;
+  }
+
+  /**
+   * Create the invoker of a method with 0 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method0<T> method0(MethodHandle handle) {
+    if (handle == null) return (instance) -> null;
+    return (instance) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 1 parameter.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method1<T> method1(MethodHandle handle) {
+    if (handle == null) return (instance, arg1) -> null;
+    return (instance, arg1) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 2 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method2<T> method2(MethodHandle handle) {
+    if (handle == null) return (instance, arg1, arg2) -> null;
+    return (instance, arg1, arg2) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1, arg2);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 3 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method3<T> method3(MethodHandle handle) {
+    if (handle == null) return (instance, arg1, arg2, arg3) -> null;
+    return (instance, arg1, arg2, arg3) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1, arg2, arg3);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 4 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method4<T> method4(MethodHandle handle) {
+    if (handle == null) return (instance, arg1, arg2, arg3, arg4) -> null;
+    return (instance, arg1, arg2, arg3, arg4) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1, arg2, arg3, arg4);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 5 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method5<T> method5(MethodHandle handle) {
+    if (handle == null) return (instance, arg1, arg2, arg3, arg4, arg5) -> null;
+    return (instance, arg1, arg2, arg3, arg4, arg5) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1, arg2, arg3, arg4, arg5);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a method with 6 parameters.
+   *
+   * @param handle the handle of type {@code (Object, Object...)Object} null for an empty invoker
+   * @param <T> the type that the method returns
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Method6<T> method6(MethodHandle handle) {
+    if (handle == null) return (instance, arg1, arg2, arg3, arg4, arg5, arg6) -> null;
+    return (instance, arg1, arg2, arg3, arg4, arg5, arg6) -> {
+      try {
+        return (T) (Object) handle.invokeExact(instance, arg1, arg2, arg3, arg4, arg5, arg6);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 0 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor0<T> constructor0(MethodHandle handle) {
+    if (handle == null) return () -> null;
+    return () -> {
+      try {
+        return (T) (Object) handle.invokeExact();
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 1 parameter.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor1<T> constructor1(MethodHandle handle) {
+    if (handle == null) return (arg1) -> null;
+    return (arg1) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 2 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor2<T> constructor2(MethodHandle handle) {
+    if (handle == null) return (arg1, arg2) -> null;
+    return (arg1, arg2) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1, arg2);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 3 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor3<T> constructor3(MethodHandle handle) {
+    if (handle == null) return (arg1, arg2, arg3) -> null;
+    return (arg1, arg2, arg3) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1, arg2, arg3);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 4 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor4<T> constructor4(MethodHandle handle) {
+    if (handle == null) return (arg1, arg2, arg3, arg4) -> null;
+    return (arg1, arg2, arg3, arg4) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1, arg2, arg3, arg4);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 5 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor5<T> constructor5(MethodHandle handle) {
+    if (handle == null) return (arg1, arg2, arg3, arg4, arg5) -> null;
+    return (arg1, arg2, arg3, arg4, arg5) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1, arg2, arg3, arg4, arg5);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+
+  /**
+   * Create the invoker of a constructor with 6 parameters.
+   *
+   * @param handle the handle of type {@code (Object...)Object} null for an empty invoker
+   * @param <T> the type that the constructor initializes
+   * @return the invoker
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  static <T> Constructor6<T> constructor6(MethodHandle handle) {
+    if (handle == null) return (arg1, arg2, arg3, arg4, arg5, arg6) -> null;
+    return (arg1, arg2, arg3, arg4, arg5, arg6) -> {
+      try {
+        return (T) (Object) handle.invokeExact(arg1, arg2, arg3, arg4, arg5, arg6);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      }
+    };
+  }
+}
@@ -41,6 +41,6 @@ class LangWrapper<T> implements Wrapper<T> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(wrapped);
+    return Objects.hashCode(wrapped);
   }
 }
@@ -0,0 +1,79 @@
+package me.googas.reflect.wrappers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+
+/**
+ * Runs tasks in an executor with at most a number of them running at the same time. Tasks over the
+ * limit wait in a queue instead of blocking a thread, and each task that finishes submits the next
+ * one.
+ */
+final class Limiter {
+
+  private final int permits;
+  @NonNull private final AtomicInteger running = new AtomicInteger();
+  @NonNull private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Create a limiter.
+   *
+   * @param permits the maximum number of tasks running at the same time
+   */
+  Limiter(int permits) {
+    this.permits = permits;
+  }
+
+  /**
+   * Run a task once there is a permit for it.
+   *
+   * @param executor the executor to run the task in
+   * @param task the task, it is told when the executor rejects it
+   */
+  void submit(@NonNull Executor executor, @NonNull Task task) {
+    this.pending.add(task);
+    this.drain(executor);
+  }
+
+  private void drain(@NonNull Executor executor) {
+    // A task queued while the last permit is released is taken by whichever thread runs last
+    while (!this.pending.isEmpty()) {
+      int current = this.running.get();
+      if (current >= this.permits) return;
+      if (!this.running.compareAndSet(current, current + 1)) continue;
+      Task task = this.pending.poll();
+      if (task == null) {
+        this.running.decrementAndGet();
+        continue;
+      }
+      try {
+        executor.execute(
+            () -> {
+              try {
+                task.run();
+              } finally {
+                this.running.decrementAndGet();
+                this.drain(executor);
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        this.running.decrementAndGet();
+        task.reject(e);
+      }
+    }
+  }
+
+  /** A task that can be rejected. */
+  interface Task extends Runnable {
+
+    /**
+     * Called when the executor rejects the task instead of running it.
+     *
+     * @param e the reason why it was rejected
+     */
+    void reject(@NonNull RejectedExecutionException e);
+  }
+}
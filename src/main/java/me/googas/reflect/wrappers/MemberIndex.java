@@ -0,0 +1,522 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.NonNull;
+import me.googas.reflect.cache.ClassCache;
+import me.googas.reflect.metrics.Lookup;
+import me.googas.reflect.metrics.Metrics;
+import me.googas.reflect.util.ReflectUtil;
+
+/**
+ * Index of the members of a class. Fields are grouped by name and methods by name and then by the
+ * number of parameters, this way lookups from {@link WrappedClass} do not have to copy the members
+ * of the class nor scan all of them. Missing members are reported as null instead of exceptions.
+ *
+ * <p>Each kind of member is indexed the first time it is looked up, so looking up a field does not
+ * resolve the signatures of the methods, which may reference classes that are missing.
+ *
+ * <p>Indexes are computed once per class and kept in a {@link ClassCache} so they are shared by
+ * every thread and do not prevent the class from being unloaded. While a {@link PersistentCache} is
+ * open, each member is recorded the first time it is found by each kind of lookup
+ */
+final class MemberIndex {
+
+  @NonNull
+  private static final ClassCache<MemberIndex> INDEXES = new ClassCache<>(MemberIndex::new);
+
+  @NonNull private static final Entry<?>[] EMPTY = new Entry<?>[0];
+
+  /** The class of the index. */
+  @NonNull private final Class<?> clazz;
+
+  /** Whether the index has not been returned yet, used to report the misses of the cache. */
+  private volatile boolean fresh = true;
+
+  // Each table is computed on first use, computing one twice is harmless as both are the same
+  private volatile Fields fields;
+  private volatile Fields declaredFields;
+  private volatile Methods methods;
+  private volatile Methods declaredMethods;
+  private volatile Group<Constructor<?>> constructors;
+  private volatile Hierarchy hierarchy;
+
+  private MemberIndex(@NonNull Class<?> clazz) {
+    this.clazz = clazz;
+  }
+
+  /**
+   * Get the index of a class.
+   *
+   * @param clazz the class to get the index from
+   * @return the index of the class
+   */
+  @NonNull
+  static MemberIndex of(@NonNull Class<?> clazz) {
+    MemberIndex index = MemberIndex.INDEXES.get(clazz);
+    if (Metrics.isEnabled()) {
+      boolean hit = !index.fresh;
+      if (!hit) index.fresh = false;
+      Metrics.getSink().cache(Metrics.MEMBER_CACHE, hit);
+    }
+    return index;
+  }
+
+  @NonNull
+  private static Map<String, Entry<Field>[]> fields(@NonNull Field[] fields) {
+    // Inherited fields may be hidden so more than one field can share a name
+    Map<String, List<Entry<Field>>> names = new HashMap<>();
+    for (Field field : fields) {
+      names.computeIfAbsent(field.getName(), name -> new ArrayList<>(1)).add(new Entry<>(field));
+    }
+    Map<String, Entry<Field>[]> map = new HashMap<>(names.size() * 2);
+    names.forEach((name, list) -> map.put(name, MemberIndex.array(list)));
+    return Collections.unmodifiableMap(map);
+  }
+
+  @NonNull
+  private static Map<String, Group<Method>> group(@NonNull Method[] methods) {
+    Map<String, List<Entry<Method>>> names = new HashMap<>();
+    for (Method method : methods) {
+      names.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(new Entry<>(method));
+    }
+    Map<String, Group<Method>> groups = new HashMap<>(names.size() * 2);
+    names.forEach((name, entries) -> groups.put(name, new Group<>(MemberIndex.array(entries))));
+    return Collections.unmodifiableMap(groups);
+  }
+
+  @NonNull
+  @SuppressWarnings("unchecked")
+  private static <M extends Member> Entry<M>[] array(@NonNull List<Entry<M>> entries) {
+    return entries.toArray((Entry<M>[]) MemberIndex.EMPTY);
+  }
+
+  @NonNull
+  @SuppressWarnings("unchecked")
+  private static <M extends Member> Entry<M>[] entries(@NonNull M[] members) {
+    Entry<M>[] entries = (Entry<M>[]) new Entry<?>[members.length];
+    for (int i = 0; i < members.length; i++) {
+      entries[i] = new Entry<>(members[i]);
+    }
+    return entries;
+  }
+
+  @NonNull
+  private Fields getPublicFields() {
+    Fields fields = this.fields;
+    if (fields == null) {
+      fields = new Fields(this.clazz.getFields());
+      this.fields = fields;
+    }
+    return fields;
+  }
+
+  @NonNull
+  private Fields getDeclaredFieldTable() {
+    Fields fields = this.declaredFields;
+    if (fields == null) {
+      fields = new Fields(this.clazz.getDeclaredFields());
+      this.declaredFields = fields;
+    }
+    return fields;
+  }
+
+  @NonNull
+  private Methods getPublicMethods() {
+    Methods methods = this.methods;
+    if (methods == null) {
+      methods = new Methods(this.clazz.getMethods());
+      this.methods = methods;
+    }
+    return methods;
+  }
+
+  @NonNull
+  private Methods getDeclaredMethodTable() {
+    Methods methods = this.declaredMethods;
+    if (methods == null) {
+      methods = new Methods(this.clazz.getDeclaredMethods());
+      this.declaredMethods = methods;
+    }
+    return methods;
+  }
+
+  @NonNull
+  private Group<Constructor<?>> getConstructors() {
+    Group<Constructor<?>> constructors = this.constructors;
+    if (constructors == null) {
+      constructors = new Group<>(MemberIndex.entries(this.clazz.getConstructors()));
+      this.constructors = constructors;
+    }
+    return constructors;
+  }
+
+  /**
+   * Find a public field including the ones inherited. If many fields match the first in the order
+   * of {@link Class#getField(String)} is returned.
+   *
+   * @param fieldType the type that the field must hold, null to match any
+   * @param name the name of the field
+   * @return the field if found else null
+   */
+  Field findField(Class<?> fieldType, @NonNull String name) {
+    return this.find(Lookup.FIELD, this.getPublicFields().byName.get(name), fieldType);
+  }
+
+  /**
+   * Find a field declared in the class.
+   *
+   * @param fieldType the type that the field must hold, null to match any
+   * @param name the name of the field
+   * @return the field if found else null
+   */
+  Field findDeclaredField(Class<?> fieldType, @NonNull String name) {
+    return this.find(
+        Lookup.DECLARED_FIELD, this.getDeclaredFieldTable().byName.get(name), fieldType);
+  }
+
+  /**
+   * Find a public method including the ones inherited.
+   *
+   * @param returnType the type that the method must return, null to match any
+   * @param name the name of the method
+   * @param params the parameters of the method, null to match any
+   * @return the method if found else null
+   */
+  Method findMethod(Class<?> returnType, @NonNull String name, Class<?>[] params) {
+    return this.find(Lookup.METHOD, this.getPublicMethods().byName.get(name), returnType, params);
+  }
+
+  /**
+   * Find a method declared in the class.
+   *
+   * @param returnType the type that the method must return, null to match any
+   * @param name the name of the method
+   * @param params the parameters of the method, null to match any
+   * @return the method if found else null
+   */
+  Method findDeclaredMethod(Class<?> returnType, @NonNull String name, Class<?>[] params) {
+    return this.find(
+        Lookup.DECLARED_METHOD, this.getDeclaredMethodTable().byName.get(name), returnType, params);
+  }
+
+  /**
+   * Find a public constructor.
+   *
+   * @param params the parameters of the constructor, null to match any
+   * @return the constructor if found else null
+   */
+  Constructor<?> findConstructor(Class<?>[] params) {
+    for (Entry<Constructor<?>> entry : this.getConstructors().candidates(params)) {
+      if (ReflectUtil.compareParameters(entry.parameters, params)) {
+        return entry.found(this.clazz, Lookup.CONSTRUCTOR);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the wrappers of the public fields including the ones inherited.
+   *
+   * @return the shared list of fields
+   */
+  @NonNull
+  List<WrappedField<?>> getFields() {
+    return this.getPublicFields().list;
+  }
+
+  /**
+   * Get the wrappers of the fields declared in the class.
+   *
+   * @return the shared list of fields
+   */
+  @NonNull
+  List<WrappedField<?>> getDeclaredFields() {
+    return this.getDeclaredFieldTable().list;
+  }
+
+  /**
+   * Get the wrappers of the public methods including the ones inherited.
+   *
+   * @return the shared list of methods
+   */
+  @NonNull
+  List<WrappedMethod<?>> getMethods() {
+    return this.getPublicMethods().list;
+  }
+
+  /**
+   * Find a field declared in the class or any of its superclasses. If many fields match the one in
+   * the most specific class is returned.
+   *
+   * @param fieldType the type that the field must hold, null to match any
+   * @param name the name of the field
+   * @return the field if found else null
+   */
+  Field findHierarchyField(Class<?> fieldType, @NonNull String name) {
+    return this.find(
+        Lookup.HIERARCHY_FIELD, this.getHierarchy().fields.byName.get(name), fieldType);
+  }
+
+  /**
+   * Find a method declared in the class, any of its superclasses or a default method of its
+   * interfaces. Methods overridden by a more specific class are not included.
+   *
+   * @param returnType the type that the method must return, null to match any
+   * @param name the name of the method
+   * @param params the parameters of the method, null to match any
+   * @return the method if found else null
+   */
+  Method findHierarchyMethod(Class<?> returnType, @NonNull String name, Class<?>[] params) {
+    return this.find(
+        Lookup.HIERARCHY_METHOD, this.getHierarchy().methods.byName.get(name), returnType, params);
+  }
+
+  /**
+   * Get the wrappers of the fields declared in the class and its superclasses.
+   *
+   * @return the shared list of fields, the most specific first
+   */
+  @NonNull
+  List<WrappedField<?>> getHierarchyFields() {
+    return this.getHierarchy().fields.list;
+  }
+
+  /**
+   * Get the wrappers of the methods declared in the class, its superclasses and the default methods
+   * of its interfaces.
+   *
+   * @return the shared list of methods, the most specific first
+   */
+  @NonNull
+  List<WrappedMethod<?>> getHierarchyMethods() {
+    return this.getHierarchy().methods.list;
+  }
+
+  @NonNull
+  private Hierarchy getHierarchy() {
+    Hierarchy hierarchy = this.hierarchy;
+    if (hierarchy == null) {
+      // Computing it twice is harmless, both are the same
+      hierarchy = new Hierarchy(this.clazz);
+      this.hierarchy = hierarchy;
+    }
+    return hierarchy;
+  }
+
+  private Field find(@NonNull Lookup lookup, Entry<Field>[] candidates, Class<?> fieldType) {
+    if (candidates != null) {
+      for (Entry<Field> entry : candidates) {
+        if (fieldType == null || fieldType.isAssignableFrom(entry.member.getType())) {
+          return entry.found(this.clazz, lookup);
+        }
+      }
+    }
+    return null;
+  }
+
+  private Method find(
+      @NonNull Lookup lookup, Group<Method> group, Class<?> returnType, Class<?>[] params) {
+    if (group != null) {
+      for (Entry<Method> entry : group.candidates(params)) {
+        if (ReflectUtil.compareParameters(entry.parameters, params)
+            && (returnType == null || returnType.isAssignableFrom(entry.member.getReturnType()))) {
+          return entry.found(this.clazz, lookup);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Fields by their name and the shared list of their wrappers. */
+  private static final class Fields {
+
+    @NonNull private final Map<String, Entry<Field>[]> byName;
+    @NonNull private final MemberList<Field, WrappedField<?>> list;
+
+    private Fields(@NonNull Field[] fields) {
+      this.byName = MemberIndex.fields(fields);
+      this.list = new MemberList<>(fields, WrappedField::of);
+    }
+  }
+
+  /** Methods by their name and the shared list of their wrappers. */
+  private static final class Methods {
+
+    @NonNull private final Map<String, Group<Method>> byName;
+    @NonNull private final MemberList<Method, WrappedMethod<?>> list;
+
+    private Methods(@NonNull Method[] methods) {
+      this.byName = MemberIndex.group(methods);
+      this.list = new MemberList<>(methods, WrappedMethod::of);
+    }
+  }
+
+  /**
+   * The members of a class and its superclasses, other than {@link Object}, flattened into a single
+   * table. Methods are kept once per signature, the most specific first: the methods declared in
+   * the class chain and then the default methods of the interfaces, so a class method wins over a
+   * default one.
+   */
+  private static final class Hierarchy {
+
+    @NonNull private final Fields fields;
+    @NonNull private final Methods methods;
+
+    private Hierarchy(@NonNull Class<?> clazz) {
+      List<Field> fields = new ArrayList<>();
+      List<Method> methods = new ArrayList<>();
+      Set<List<Object>> signatures = new HashSet<>();
+      Set<Class<?>> interfaces = new LinkedHashSet<>();
+      // Object is only included for itself, it is the root of every hierarchy
+      for (Class<?> current = clazz;
+          current != null && (current != Object.class || clazz == Object.class);
+          current = current.getSuperclass()) {
+        Collections.addAll(fields, current.getDeclaredFields());
+        for (Method method : current.getDeclaredMethods()) {
+          // Bridges share the signature of the method they bridge to
+          if (!method.isBridge() && signatures.add(Hierarchy.signature(method))) {
+            methods.add(method);
+          }
+        }
+        Collections.addAll(interfaces, current.getInterfaces());
+      }
+      // Breadth first so the most specific interfaces are visited first
+      List<Class<?>> queue = new ArrayList<>(interfaces);
+      for (int i = 0; i < queue.size(); i++) {
+        Class<?> type = queue.get(i);
+        for (Method method : type.getDeclaredMethods()) {
+          if (method.isDefault() && signatures.add(Hierarchy.signature(method))) {
+            methods.add(method);
+          }
+        }
+        for (Class<?> parent : type.getInterfaces()) {
+          if (interfaces.add(parent)) queue.add(parent);
+        }
+      }
+      this.fields = new Fields(fields.toArray(new Field[0]));
+      this.methods = new Methods(methods.toArray(new Method[0]));
+    }
+
+    @NonNull
+    private static List<Object> signature(@NonNull Method method) {
+      Class<?>[] parameters = method.getParameterTypes();
+      List<Object> signature = new ArrayList<>(parameters.length + 1);
+      signature.add(method.getName());
+      Collections.addAll(signature, parameters);
+      return signature;
+    }
+  }
+
+  /**
+   * Members that share a name.
+   *
+   * @param <M> the type of member
+   */
+  private static final class Group<M extends Member> {
+
+    /** All the members in the order given by reflection. */
+    @NonNull private final Entry<M>[] all;
+
+    /** The members indexed by their number of parameters. */
+    @NonNull private final Entry<M>[][] arities;
+
+    @SuppressWarnings("unchecked")
+    private Group(@NonNull Entry<M>[] all) {
+      this.all = all;
+      int max = -1;
+      for (Entry<M> entry : all) {
+        max = Math.max(max, entry.parameters.length);
+      }
+      this.arities = (Entry<M>[][]) new Entry<?>[max + 1][];
+      int[] counts = new int[max + 1];
+      for (Entry<M> entry : all) {
+        counts[entry.parameters.length]++;
+      }
+      for (int i = 0; i < this.arities.length; i++) {
+        this.arities[i] = (Entry<M>[]) new Entry<?>[counts[i]];
+        counts[i] = 0;
+      }
+      for (Entry<M> entry : all) {
+        int arity = entry.parameters.length;
+        this.arities[arity][counts[arity]++] = entry;
+      }
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private Entry<M>[] candidates(Class<?>[] params) {
+      if (params == null) return this.all;
+      return params.length < this.arities.length
+          ? this.arities[params.length]
+          : (Entry<M>[]) MemberIndex.EMPTY;
+    }
+  }
+
+  /**
+   * A member and its parameters which are copied once from reflection.
+   *
+   * @param <M> the type of member
+   */
+  private static final class Entry<M extends Member> {
+
+    @NonNull private final M member;
+
+    /** The parameters of a method or constructor, null for fields. */
+    private final Class<?>[] parameters;
+
+    /** The generation of the {@link PersistentCache} in which {@link #recorded} was set. */
+    private volatile int generation;
+
+    /** The lookups that found the member, one bit per ordinal of {@link Lookup}. */
+    private volatile int recorded;
+
+    private Entry(@NonNull M member) {
+      this.member = member;
+      this.parameters =
+          member instanceof Executable ? ((Executable) member).getParameterTypes() : null;
+    }
+
+    /**
+     * Get the member after a lookup found it, recording it the first time each kind of lookup finds
+     * it while a cache is open.
+     *
+     * @param clazz the class in which the member was looked up
+     * @param lookup the kind of lookup
+     * @return the member
+     */
+    @NonNull
+    private M found(@NonNull Class<?> clazz, @NonNull Lookup lookup) {
+      int generation = PersistentCache.generation();
+      if (generation != 0) {
+        int bit = 1 << lookup.ordinal();
+        if (this.generation != generation || (this.recorded & bit) == 0)
+          this.record(clazz, lookup, generation, bit);
+      }
+      return this.member;
+    }
+
+    private void record(@NonNull Class<?> clazz, @NonNull Lookup lookup, int generation, int bit) {
+      synchronized (this) {
+        if (this.generation != generation) {
+          this.generation = generation;
+          this.recorded = 0;
+        }
+        if ((this.recorded & bit) != 0) return;
+        this.recorded |= bit;
+      }
+      PersistentCache.record(clazz, lookup, this.member);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.Member;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import lombok.NonNull;
+
+/**
+ * An unmodifiable list of wrappers backed by an array of members. The wrapper of a member is only
+ * created the first time the element is read and then it is kept, so the list can be shared by
+ * every caller without copying it.
+ *
+ * <p>Concurrent reads of an element that has not been wrapped yet may create more than one wrapper
+ * but all of them get the same one
+ *
+ * @param <M> the type of member
+ * @param <W> the type of wrapper
+ */
+final class MemberList<M extends Member, W> extends AbstractList<W> implements RandomAccess {
+
+  @NonNull private final M[] members;
+  @NonNull private final Function<M, W> wrap;
+  @NonNull private final AtomicReferenceArray<W> wrappers;
+
+  /**
+   * Create the list.
+   *
+   * @param members the members, the array must not be modified after
+   * @param wrap the function to create the wrapper of a member
+   */
+  MemberList(@NonNull M[] members, @NonNull Function<M, W> wrap) {
+    this.members = members;
+    this.wrap = wrap;
+    this.wrappers = new AtomicReferenceArray<>(members.length);
+  }
+
+  @Override
+  public W get(int index) {
+    W wrapper = this.wrappers.get(index);
+    if (wrapper == null) {
+      W created = this.wrap.apply(this.members[index]);
+      if (this.wrappers.compareAndSet(index, null, created)) return created;
+      wrapper = this.wrappers.get(index);
+    }
+    return wrapper;
+  }
+
+  @Override
+  public int size() {
+    return this.members.length;
+  }
+}
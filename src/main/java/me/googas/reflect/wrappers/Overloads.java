@@ -0,0 +1,240 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import lombok.NonNull;
+import me.googas.reflect.util.ReflectUtil;
+
+/**
+ * Selects the overload to invoke for the classes of some arguments following the phases of the Java
+ * compiler: first without boxing or unboxing, then with them and last with variable arity. The
+ * classes of the arguments take the place of their static types, so an {@link Integer} prefers a
+ * parameter of type {@link Object} to one of type {@code int} just like the compiler does for an
+ * expression of type {@link Integer}. A null argument matches any parameter that is not primitive.
+ * Primitive classes may be given too, as the types of primitive arguments.
+ */
+final class Overloads {
+
+  /**
+   * The primitive classes by the class that boxes them, the inverse of {@link ReflectUtil#boxing}.
+   */
+  @NonNull private static final Map<Class<?>, Class<?>> UNBOXING = new HashMap<>();
+
+  static {
+    ReflectUtil.boxing.forEach((primitive, box) -> Overloads.UNBOXING.put(box, primitive));
+  }
+
+  private Overloads() {}
+
+  /**
+   * Select the most specific overload applicable to the classes of the arguments.
+   *
+   * @param name the name of the overloads, used in the messages of the exceptions
+   * @param candidates the overloads to select from
+   * @param types the classes of the arguments, primitive for primitive arguments and null for null
+   *     arguments
+   * @return the selected overload
+   * @throws IllegalArgumentException if no overload is applicable or many are equally specific
+   */
+  @NonNull
+  static Selection select(
+      @NonNull String name,
+      @NonNull List<? extends Executable> candidates,
+      @NonNull Class<?>[] types) {
+    for (Phase phase : Phase.values()) {
+      List<Executable> applicable = new ArrayList<>();
+      for (Executable candidate : candidates) {
+        if (phase.applies(candidate, types)) applicable.add(candidate);
+      }
+      if (!applicable.isEmpty()) {
+        return new Selection(
+            Overloads.mostSpecific(name, applicable, types, phase), phase == Phase.VARIABLE);
+      }
+    }
+    throw new IllegalArgumentException(
+        "No overload of " + name + " is applicable to " + Overloads.describe(types));
+  }
+
+  @NonNull
+  private static Executable mostSpecific(
+      @NonNull String name,
+      @NonNull List<Executable> applicable,
+      @NonNull Class<?>[] types,
+      @NonNull Phase phase) {
+    List<Executable> maximal = new ArrayList<>(1);
+    for (Executable candidate : applicable) {
+      boolean specific = true;
+      for (Executable other : applicable) {
+        if (other != candidate && !Overloads.moreSpecific(candidate, other, types.length, phase)) {
+          specific = false;
+          break;
+        }
+      }
+      if (specific) maximal.add(candidate);
+    }
+    // Overloads with the same parameters, such as an abstract one and its implementation
+    if (!maximal.isEmpty() && Overloads.sameParameters(maximal)) {
+      for (Executable candidate : maximal) {
+        if (!Modifier.isAbstract(candidate.getModifiers())) return candidate;
+      }
+      return maximal.get(0);
+    }
+    StringJoiner joiner = new StringJoiner(", ");
+    for (Executable candidate : maximal.isEmpty() ? applicable : maximal) {
+      joiner.add(candidate.toString());
+    }
+    throw new IllegalArgumentException(
+        "Ambiguous call of " + name + " with " + Overloads.describe(types) + ": " + joiner);
+  }
+
+  private static boolean sameParameters(@NonNull List<Executable> executables) {
+    Class<?>[] first = executables.get(0).getParameterTypes();
+    for (int i = 1; i < executables.size(); i++) {
+      if (!Arrays.equals(first, executables.get(i).getParameterTypes())) return false;
+    }
+    return true;
+  }
+
+  private static boolean moreSpecific(
+      @NonNull Executable candidate, @NonNull Executable other, int arity, @NonNull Phase phase) {
+    Class<?>[] params = candidate.getParameterTypes();
+    Class<?>[] others = other.getParameterTypes();
+    if (phase != Phase.VARIABLE) {
+      for (int i = 0; i < params.length; i++) {
+        if (!Overloads.isSubtype(params[i], others[i])) return false;
+      }
+      return true;
+    }
+    // Both are expanded to the number of arguments, plus one to compare their arrays when the
+    // call has no variable arguments at all
+    for (int i = 0; i < Math.max(arity, Math.max(params.length, others.length)); i++) {
+      if (!Overloads.isSubtype(Overloads.variable(params, i), Overloads.variable(others, i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @NonNull
+  private static Class<?> variable(@NonNull Class<?>[] params, int index) {
+    int last = params.length - 1;
+    return index < last ? params[index] : params[last].getComponentType();
+  }
+
+  /**
+   * Check whether a type is a subtype of another, primitive types are subtypes of the types they
+   * widen to.
+   */
+  private static boolean isSubtype(@NonNull Class<?> type, @NonNull Class<?> other) {
+    if (type == other) return true;
+    if (type.isPrimitive() != other.isPrimitive()) return false;
+    return type.isPrimitive() ? Overloads.widens(type, other) : other.isAssignableFrom(type);
+  }
+
+  /** Check whether a primitive type widens to another, both being different. */
+  private static boolean widens(@NonNull Class<?> from, @NonNull Class<?> to) {
+    if (from == boolean.class || to == boolean.class || to == byte.class || to == char.class) {
+      return false;
+    }
+    if (to == short.class) return from == byte.class;
+    if (to == int.class) return from == byte.class || from == short.class || from == char.class;
+    if (to == long.class) return from != float.class && from != double.class;
+    if (to == float.class) return from != double.class;
+    return true;
+  }
+
+  /** Check whether an argument can be passed to a parameter without boxing or unboxing it. */
+  private static boolean strict(@NonNull Class<?> param, Class<?> type) {
+    if (type == null) return !param.isPrimitive();
+    return Overloads.isSubtype(type, param);
+  }
+
+  /** Check whether an argument can be passed to a parameter with boxing or unboxing if needed. */
+  private static boolean loose(@NonNull Class<?> param, Class<?> type) {
+    if (type == null) return !param.isPrimitive();
+    if (type.isPrimitive()) {
+      return param.isPrimitive()
+          ? Overloads.isSubtype(type, param)
+          : param.isAssignableFrom(ReflectUtil.getBoxing(type));
+    }
+    if (!param.isPrimitive()) return param.isAssignableFrom(type);
+    Class<?> primitive = Overloads.UNBOXING.get(type);
+    return primitive != null && (primitive == param || Overloads.widens(primitive, param));
+  }
+
+  /**
+   * Describe the classes of some arguments.
+   *
+   * @param types the classes of the arguments, null for null arguments
+   * @return the description such as {@code (java.lang.Integer, null)}
+   */
+  @NonNull
+  static String describe(@NonNull Class<?>[] types) {
+    StringJoiner joiner = new StringJoiner(", ", "(", ")");
+    for (Class<?> type : types) {
+      joiner.add(type == null ? "null" : type.getName());
+    }
+    return joiner.toString();
+  }
+
+  /** The phases in which overloads are selected, in order. */
+  private enum Phase {
+    /** Arguments are passed without boxing or unboxing. */
+    STRICT {
+      @Override
+      boolean applies(@NonNull Executable candidate, @NonNull Class<?>[] types) {
+        Class<?>[] params = candidate.getParameterTypes();
+        if (params.length != types.length) return false;
+        for (int i = 0; i < params.length; i++) {
+          if (!Overloads.strict(params[i], types[i])) return false;
+        }
+        return true;
+      }
+    },
+    /** Arguments may be unboxed and then widened. */
+    LOOSE {
+      @Override
+      boolean applies(@NonNull Executable candidate, @NonNull Class<?>[] types) {
+        Class<?>[] params = candidate.getParameterTypes();
+        if (params.length != types.length) return false;
+        for (int i = 0; i < params.length; i++) {
+          if (!Overloads.loose(params[i], types[i])) return false;
+        }
+        return true;
+      }
+    },
+    /** The last arguments are collected in the array of a variable arity overload. */
+    VARIABLE {
+      @Override
+      boolean applies(@NonNull Executable candidate, @NonNull Class<?>[] types) {
+        if (!candidate.isVarArgs()) return false;
+        Class<?>[] params = candidate.getParameterTypes();
+        if (types.length < params.length - 1) return false;
+        for (int i = 0; i < types.length; i++) {
+          if (!Overloads.loose(Overloads.variable(params, i), types[i])) return false;
+        }
+        return true;
+      }
+    };
+
+    abstract boolean applies(@NonNull Executable candidate, @NonNull Class<?>[] types);
+  }
+
+  /** An overload and whether its last arguments are collected in an array. */
+  static final class Selection {
+
+    @NonNull final Executable executable;
+    final boolean variable;
+
+    private Selection(@NonNull Executable executable, boolean variable) {
+      this.executable = executable;
+      this.variable = variable;
+    }
+  }
+}
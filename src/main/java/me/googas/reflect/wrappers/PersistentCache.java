@@ -0,0 +1,689 @@
+package me.googas.reflect.wrappers;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import lombok.NonNull;
+import me.googas.reflect.metrics.Lookup;
+
+/**
+ * Remembers the members resolved through {@link WrappedClass} in a file so that the next start of
+ * the same application can resolve them ahead of time. For each class it records the fields,
+ * methods and constructors looked up and the file it was loaded from: a jar or a class file. The
+ * names that could not be found as classes are recorded too.
+ *
+ * <pre>{@code
+ * PersistentCache cache = PersistentCache.open(Paths.get("reflect.cache"), loader);
+ * cache.warmUp(executor);
+ * ...
+ * cache.close();
+ * }</pre>
+ *
+ * <p>When opened, the file is memory-mapped and the records of classes whose file did not change
+ * are kept, the rest are dropped. A file is unchanged if its size and modification time are the
+ * same or, if those changed, its CRC32 is. Names that were not found are pre-seeded as missing only
+ * if every entry of the class path of the loader is a jar that did not change, as a new class could
+ * be anywhere in it. The class path is the one of the system class loader or the URLs of {@link
+ * URLClassLoader} instances, names are not persisted as missing for other loaders. The whole file
+ * is dropped when the Java version changes.
+ *
+ * <p>Only one cache records at a time, opening a new one replaces the previous
+ */
+public final class PersistentCache implements Closeable {
+
+  private static final int MAGIC = 0x52464c43;
+  private static final short VERSION = 2;
+  private static final int NONE = -1;
+
+  private static volatile PersistentCache active;
+
+  /** The generation of the last cache opened. */
+  private static final AtomicInteger GENERATIONS = new AtomicInteger();
+
+  @NonNull private final Path file;
+  private final ClassLoader loader;
+  private final int generation = PersistentCache.GENERATIONS.incrementAndGet();
+  @NonNull private final Map<String, Record> records = new ConcurrentHashMap<>();
+  @NonNull private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+  private PersistentCache(@NonNull Path file, ClassLoader loader) {
+    this.file = file;
+    this.loader = loader;
+  }
+
+  /**
+   * Open a cache, read the records that are still valid from the file and start recording the
+   * lookups. The names that were not found are pre-seeded as missing in {@link
+   * WrappedClass#forName(String, ClassLoader)} for the loader.
+   *
+   * @param file the file of the cache, it does not have to exist
+   * @param loader the loader of the classes to record, null for the bootstrap class loader
+   * @return the cache
+   * @throws IOException if the file exists but it could not be read
+   */
+  @NonNull
+  public static PersistentCache open(@NonNull Path file, ClassLoader loader) throws IOException {
+    PersistentCache cache = new PersistentCache(file, loader);
+    if (Files.isRegularFile(file)) cache.read();
+    for (String name : cache.missing) {
+      ClassLookup.seedMissing(name, loader);
+    }
+    PersistentCache.active = cache;
+    return cache;
+  }
+
+  /**
+   * Get the generation of the cache that is open, each cache opened gets a new one so members found
+   * while a previous cache was open are recorded again.
+   *
+   * @return the generation, 0 if no cache is open
+   */
+  static int generation() {
+    PersistentCache cache = PersistentCache.active;
+    return cache == null ? 0 : cache.generation;
+  }
+
+  /**
+   * Record a member that was found by a lookup of {@link WrappedClass} if a cache is open. The
+   * member is recorded by its own name, type and parameters so it is found again by the same kind
+   * of lookup.
+   *
+   * @param clazz the class in which the member was looked up
+   * @param lookup the kind of lookup
+   * @param member the field, method or constructor found
+   */
+  static void record(@NonNull Class<?> clazz, @NonNull Lookup lookup, @NonNull Member member) {
+    PersistentCache cache = PersistentCache.active;
+    if (cache == null) return;
+    String name = null;
+    String type = null;
+    String[] params = null;
+    if (member instanceof Field) {
+      name = member.getName();
+      type = ((Field) member).getType().getName();
+    } else {
+      Class<?>[] parameters = ((Executable) member).getParameterTypes();
+      params = new String[parameters.length];
+      for (int i = 0; i < parameters.length; i++) {
+        params[i] = parameters[i].getName();
+      }
+      if (member instanceof Method) {
+        name = member.getName();
+        type = ((Method) member).getReturnType().getName();
+      }
+    }
+    cache
+        .records
+        .computeIfAbsent(clazz.getName(), key -> new Record(key))
+        .add(clazz, new MemberKey(lookup, name, type, params));
+  }
+
+  /**
+   * Resolve every recorded member ahead of time. Each class is resolved in a task of the executor:
+   * it is loaded, its member index is computed and its members are looked up. Members that can no
+   * longer be found are ignored.
+   *
+   * @param executor the executor to run the tasks in
+   * @return a future completed when every class is resolved
+   */
+  @NonNull
+  public CompletableFuture<Void> warmUp(@NonNull Executor executor) {
+    List<CompletableFuture<?>> futures = new ArrayList<>(this.records.size());
+    for (Record record : this.records.values()) {
+      futures.add(CompletableFuture.runAsync(() -> record.warmUp(this.loader), executor));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  /**
+   * Write the records and the names that were not found to the file.
+   *
+   * @throws IOException if the file could not be written
+   */
+  public void save() throws IOException {
+    Writer writer = new Writer();
+    List<Integer> classPath = writer.classPath(this.loader);
+    for (String name : ClassLookup.missing(this.loader)) {
+      this.missing.add(name);
+    }
+    Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      writer.write(out, this.records.values(), classPath, this.missing);
+    }
+    Files.move(
+        temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Save the cache and stop recording.
+   *
+   * @throws IOException if the file could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (PersistentCache.class) {
+      if (PersistentCache.active == this) PersistentCache.active = null;
+    }
+    this.save();
+  }
+
+  /**
+   * Get the number of classes recorded.
+   *
+   * @return the number of classes
+   */
+  public int size() {
+    return this.records.size();
+  }
+
+  private void read() throws IOException {
+    ByteBuffer in;
+    try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      in = mapped;
+    }
+    try {
+      this.read(in);
+    } catch (RuntimeException e) {
+      // A corrupt file is the same as no file
+      this.records.clear();
+      this.missing.clear();
+    }
+  }
+
+  private void read(@NonNull ByteBuffer in) throws IOException {
+    if (in.getInt() != PersistentCache.MAGIC || in.getShort() != PersistentCache.VERSION) return;
+    String[] strings = new String[in.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] bytes = new byte[in.getShort() & 0xFFFF];
+      in.get(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    if (!strings[in.getInt()].equals(System.getProperty("java.version"))) return;
+    Source[] sources = new Source[in.getInt()];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = new Source(strings[in.getInt()], in.getLong(), in.getLong(), in.getLong());
+    }
+    boolean classPathValid = true;
+    String[] classPath = new String[in.getInt()];
+    for (int i = 0; i < classPath.length; i++) {
+      Source source = sources[in.getInt()];
+      classPath[i] = source.path;
+      classPathValid &= source.isValid();
+    }
+    classPathValid &= Arrays.equals(classPath, Writer.classPathEntries(this.loader));
+    int missingCount = in.getInt();
+    for (int i = 0; i < missingCount; i++) {
+      String name = strings[in.getInt()];
+      if (classPathValid) this.missing.add(name);
+    }
+    int classCount = in.getInt();
+    for (int i = 0; i < classCount; i++) {
+      Record record = new Record(strings[in.getInt()]);
+      int source = in.getInt();
+      if (source != PersistentCache.NONE) record.source = sources[source].path;
+      int memberCount = in.getInt();
+      for (int j = 0; j < memberCount; j++) {
+        Lookup lookup = Lookup.values()[in.get()];
+        String name = PersistentCache.string(strings, in.getInt());
+        String type = PersistentCache.string(strings, in.getInt());
+        int paramCount = in.getShort();
+        String[] params = paramCount < 0 ? null : new String[paramCount];
+        for (int k = 0; k < paramCount; k++) {
+          params[k] = strings[in.getInt()];
+        }
+        record.members.add(new MemberKey(lookup, name, type, params));
+      }
+      if (source == PersistentCache.NONE || sources[source].isValid()) {
+        this.records.put(record.name, record);
+      }
+    }
+  }
+
+  private static String string(@NonNull String[] strings, int index) {
+    return index == PersistentCache.NONE ? null : strings[index];
+  }
+
+  /**
+   * Get the file from which a class was loaded.
+   *
+   * @param clazz the class
+   * @return the jar or class file, null if it is not a local file
+   */
+  private static Path source(@NonNull Class<?> clazz) {
+    CodeSource codeSource;
+    try {
+      codeSource = clazz.getProtectionDomain().getCodeSource();
+    } catch (SecurityException e) {
+      return null;
+    }
+    URL location = codeSource == null ? null : codeSource.getLocation();
+    if (location == null || !"file".equals(location.getProtocol())) return null;
+    Path path;
+    try {
+      path = Paths.get(location.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+    if (Files.isDirectory(path)) {
+      path = path.resolve(clazz.getName().replace('.', File.separatorChar) + ".class");
+    }
+    return Files.isRegularFile(path) ? path : null;
+  }
+
+  private static long checksum(@NonNull Path path) throws IOException {
+    CRC32 crc = new CRC32();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long position = 0;
+      while (position < size) {
+        long length = Math.min(size - position, Integer.MAX_VALUE);
+        crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        position += length;
+      }
+    }
+    return crc.getValue();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", PersistentCache.class.getSimpleName() + "[", "]")
+        .add("file=" + file)
+        .add("records=" + records.size())
+        .add("missing=" + missing.size())
+        .toString();
+  }
+
+  /** A file from which classes are loaded as it was when the cache was saved. */
+  private static final class Source {
+
+    @NonNull private final String path;
+    private final long size;
+    private final long modified;
+    private final long checksum;
+    private Boolean valid;
+
+    private Source(@NonNull String path, long size, long modified, long checksum) {
+      this.path = path;
+      this.size = size;
+      this.modified = modified;
+      this.checksum = checksum;
+    }
+
+    private boolean isValid() {
+      if (this.valid == null) {
+        Path file = Paths.get(this.path);
+        try {
+          this.valid =
+              Files.size(file) == this.size
+                      && Files.getLastModifiedTime(file).toMillis() == this.modified
+                  || PersistentCache.checksum(file) == this.checksum;
+        } catch (IOException e) {
+          this.valid = false;
+        }
+      }
+      return this.valid;
+    }
+  }
+
+  /** The members recorded for a class. */
+  private static final class Record {
+
+    @NonNull private final String name;
+    @NonNull private final Set<MemberKey> members = ConcurrentHashMap.newKeySet();
+    private volatile WeakReference<Class<?>> clazz;
+    /** The source read from the file, used until the class is looked up again. */
+    private String source;
+
+    private Record(@NonNull String name) {
+      this.name = name;
+    }
+
+    private void add(@NonNull Class<?> clazz, @NonNull MemberKey member) {
+      if (this.clazz == null) this.clazz = new WeakReference<>(clazz);
+      this.members.add(member);
+    }
+
+    private Class<?> getClazz() {
+      WeakReference<Class<?>> reference = this.clazz;
+      return reference == null ? null : reference.get();
+    }
+
+    private void warmUp(ClassLoader loader) {
+      Class<?> clazz = ClassLookup.find(this.name, loader, false);
+      if (clazz == null) return;
+      WrappedClass<?> wrapper = WrappedClass.of(clazz);
+      ClassLoader owner = clazz.getClassLoader();
+      for (MemberKey member : this.members) {
+        try {
+          member.resolve(wrapper, owner);
+        } catch (ClassNotFoundException | RuntimeException e) {
+          // The member changed, it is resolved again when it is used
+        }
+      }
+    }
+  }
+
+  /** A lookup of a member: its kind, name, type and parameters. */
+  private static final class MemberKey {
+
+    @NonNull private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+      for (Class<?> primitive :
+          new Class<?>[] {
+            boolean.class,
+            byte.class,
+            short.class,
+            char.class,
+            int.class,
+            long.class,
+            float.class,
+            double.class,
+            void.class
+          }) {
+        MemberKey.PRIMITIVES.put(primitive.getName(), primitive);
+      }
+    }
+
+    @NonNull private final Lookup lookup;
+    private final String name;
+    private final String type;
+    private final String[] params;
+
+    private MemberKey(@NonNull Lookup lookup, String name, String type, String[] params) {
+      this.lookup = lookup;
+      this.name = name;
+      this.type = type;
+      this.params = params;
+    }
+
+    private void resolve(@NonNull WrappedClass<?> wrapper, ClassLoader loader)
+        throws ClassNotFoundException {
+      Class<?> type = MemberKey.load(this.type, loader);
+      Class<?>[] params = null;
+      if (this.params != null) {
+        params = new Class<?>[this.params.length];
+        for (int i = 0; i < params.length; i++) {
+          params[i] = MemberKey.load(this.params[i], loader);
+        }
+      }
+      String name = this.name;
+      switch (this.lookup) {
+        case CONSTRUCTOR:
+          wrapper.getConstructor(params);
+          break;
+        case FIELD:
+          wrapper.getField(name);
+          break;
+        case DECLARED_FIELD:
+          wrapper.getDeclaredField(name);
+          break;
+        case METHOD:
+          wrapper.getMethod(type, name, params);
+          break;
+        case DECLARED_METHOD:
+          wrapper.getDeclaredMethod(type, name, params);
+          break;
+        case HIERARCHY_FIELD:
+          wrapper.getHierarchyField(type, name);
+          break;
+        case HIERARCHY_METHOD:
+          wrapper.getHierarchyMethod(type, name, params);
+          break;
+        default:
+          break;
+      }
+    }
+
+    private static Class<?> load(String name, ClassLoader loader) throws ClassNotFoundException {
+      if (name == null) return null;
+      Class<?> primitive = MemberKey.PRIMITIVES.get(name);
+      return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || this.getClass() != o.getClass()) return false;
+      MemberKey that = (MemberKey) o;
+      return lookup == that.lookup
+          && Objects.equals(name, that.name)
+          && Objects.equals(type, that.type)
+          && Arrays.equals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(lookup, name, type) * 31 + Arrays.hashCode(params);
+    }
+  }
+
+  /** Writes the cache deduplicating the strings. */
+  private static final class Writer {
+
+    @NonNull private final Map<String, Integer> strings = new HashMap<>();
+    @NonNull private final List<String> ordered = new ArrayList<>();
+    @NonNull private final Map<String, Integer> sourceIndexes = new HashMap<>();
+    @NonNull private final List<Source> sources = new ArrayList<>();
+
+    /**
+     * Get the entries from which a loader and its parents load classes, the parents that load the
+     * classes of the Java runtime are left out as those only change with its version.
+     *
+     * @param loader the loader, null for the bootstrap class loader
+     * @return the absolute paths of the entries, null if a loader is not known to load from a list
+     *     of entries
+     */
+    private static String[] classPathEntries(ClassLoader loader) {
+      ClassLoader system = ClassLoader.getSystemClassLoader();
+      List<String> entries = new ArrayList<>();
+      for (ClassLoader current = loader; current != null; current = current.getParent()) {
+        if (current == system) {
+          for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) entries.add(Paths.get(entry).toAbsolutePath().toString());
+          }
+          break;
+        }
+        if (Writer.isRuntime(current, system)) break;
+        if (!(current instanceof URLClassLoader)) return null;
+        for (URL url : ((URLClassLoader) current).getURLs()) {
+          if (!"file".equals(url.getProtocol())) return null;
+          try {
+            entries.add(Paths.get(url.toURI()).toAbsolutePath().toString());
+          } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+          }
+        }
+      }
+      return entries.toArray(new String[0]);
+    }
+
+    /** Check whether a loader is a parent of the system class loader. */
+    private static boolean isRuntime(@NonNull ClassLoader loader, ClassLoader system) {
+      for (ClassLoader parent = system == null ? null : system.getParent();
+          parent != null;
+          parent = parent.getParent()) {
+        if (parent == loader) return true;
+      }
+      return false;
+    }
+
+    /**
+     * Get the sources of the class path of a loader, null if an entry is not a jar as a directory
+     * cannot be checked for new classes.
+     */
+    private List<Integer> classPath(ClassLoader loader) throws IOException {
+      String[] entries = Writer.classPathEntries(loader);
+      if (entries == null) return null;
+      List<Integer> indexes = new ArrayList<>();
+      for (String entry : entries) {
+        Path path = Paths.get(entry);
+        if (!Files.isRegularFile(path)) return null;
+        indexes.add(this.source(path));
+      }
+      return indexes;
+    }
+
+    private int string(String string) {
+      if (string == null) return PersistentCache.NONE;
+      return this.strings.computeIfAbsent(
+          string,
+          key -> {
+            this.ordered.add(key);
+            return this.ordered.size() - 1;
+          });
+    }
+
+    private int source(Path path) throws IOException {
+      if (path == null) return PersistentCache.NONE;
+      String key = path.toAbsolutePath().toString();
+      Integer index = this.sourceIndexes.get(key);
+      if (index == null) {
+        index = this.sources.size();
+        this.sources.add(
+            new Source(
+                key,
+                Files.size(path),
+                Files.getLastModifiedTime(path).toMillis(),
+                PersistentCache.checksum(path)));
+        this.sourceIndexes.put(key, index);
+        this.string(key);
+      }
+      return index;
+    }
+
+    private void write(
+        @NonNull DataOutputStream out,
+        @NonNull Iterable<Record> records,
+        List<Integer> classPath,
+        @NonNull Set<String> missing)
+        throws IOException {
+      // Everything that references a string is encoded first so the table is complete
+      int version = this.string(System.getProperty("java.version"));
+      List<int[]> classes = new ArrayList<>();
+      List<Record> written = new ArrayList<>();
+      // Members may be recorded while writing, both passes use the same copy
+      List<List<MemberKey>> snapshots = new ArrayList<>();
+      for (Record record : records) {
+        Class<?> clazz = record.getClazz();
+        int source;
+        try {
+          if (clazz != null) {
+            source = this.source(PersistentCache.source(clazz));
+          } else {
+            source =
+                record.source == null
+                    ? PersistentCache.NONE
+                    : this.source(Paths.get(record.source));
+          }
+        } catch (IOException e) {
+          // The source was removed, so is the class
+          continue;
+        }
+        if (clazz != null && source == PersistentCache.NONE && clazz.getClassLoader() != null) {
+          // Loaded from somewhere that cannot be checked
+          continue;
+        }
+        this.string(record.name);
+        List<MemberKey> members = new ArrayList<>(record.members);
+        for (MemberKey member : members) {
+          this.string(member.name);
+          this.string(member.type);
+          if (member.params != null) {
+            for (String param : member.params) {
+              this.string(param);
+            }
+          }
+        }
+        classes.add(new int[] {source});
+        written.add(record);
+        snapshots.add(members);
+      }
+      List<String> names = classPath == null ? new ArrayList<>() : new ArrayList<>(missing);
+      int[] missingIndexes = new int[names.size()];
+      for (int i = 0; i < missingIndexes.length; i++) {
+        missingIndexes[i] = this.string(names.get(i));
+      }
+      out.writeInt(PersistentCache.MAGIC);
+      out.writeShort(PersistentCache.VERSION);
+      out.writeInt(this.ordered.size());
+      for (String string : this.ordered) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+      }
+      out.writeInt(version);
+      out.writeInt(this.sources.size());
+      for (Source source : this.sources) {
+        out.writeInt(this.string(source.path));
+        out.writeLong(source.size);
+        out.writeLong(source.modified);
+        out.writeLong(source.checksum);
+      }
+      out.writeInt(classPath == null ? 0 : classPath.size());
+      if (classPath != null) {
+        for (int index : classPath) {
+          out.writeInt(index);
+        }
+      }
+      out.writeInt(missingIndexes.length);
+      for (int index : missingIndexes) {
+        out.writeInt(index);
+      }
+      out.writeInt(written.size());
+      for (int i = 0; i < written.size(); i++) {
+        Record record = written.get(i);
+        out.writeInt(this.string(record.name));
+        out.writeInt(classes.get(i)[0]);
+        List<MemberKey> members = snapshots.get(i);
+        out.writeInt(members.size());
+        for (MemberKey member : members) {
+          out.writeByte(member.lookup.ordinal());
+          out.writeInt(this.string(member.name));
+          out.writeInt(this.string(member.type));
+          out.writeShort(member.params == null ? PersistentCache.NONE : member.params.length);
+          if (member.params != null) {
+            for (String param : member.params) {
+              out.writeInt(this.string(param));
+            }
+          }
+        }
+      }
+    }
+  }
+}
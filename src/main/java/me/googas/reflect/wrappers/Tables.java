@@ -0,0 +1,112 @@
+package me.googas.reflect.wrappers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import lombok.NonNull;
+import me.googas.reflect.accessors.AccessorTable;
+import me.googas.reflect.accessors.ConstructorAccessor;
+import me.googas.reflect.accessors.FieldAccessor;
+import me.googas.reflect.accessors.MethodAccessor;
+
+/**
+ * Finds the accessors generated at compile time for reflected members. The wrappers resolve the
+ * accessor of their member once and use it before falling back to reflection.
+ */
+final class Tables {
+
+  private Tables() {}
+
+  /**
+   * Get the accessor of a field.
+   *
+   * @param field the field
+   * @return the accessor if the class that declares the field has a table which contains it else
+   *     null
+   */
+  static FieldAccessor field(@NonNull Field field) {
+    if (Modifier.isPrivate(field.getModifiers())) return null;
+    AccessorTable table = AccessorTable.of(field.getDeclaringClass());
+    return table == null ? null : table.getField(field.getName());
+  }
+
+  /**
+   * Get the accessor of a method.
+   *
+   * @param method the method
+   * @return the accessor if the class that declares the method has a table which contains it else
+   *     null
+   */
+  static MethodAccessor method(@NonNull Method method) {
+    if (Modifier.isPrivate(method.getModifiers())) return null;
+    AccessorTable table = AccessorTable.of(method.getDeclaringClass());
+    return table == null ? null : table.getMethod(method.getName(), method.getParameterTypes());
+  }
+
+  /**
+   * Get the accessor of a constructor.
+   *
+   * @param constructor the constructor
+   * @return the accessor if the class that declares the constructor has a table which contains it
+   *     else null
+   */
+  static ConstructorAccessor constructor(@NonNull Constructor<?> constructor) {
+    if (Modifier.isPrivate(constructor.getModifiers())) return null;
+    AccessorTable table = AccessorTable.of(constructor.getDeclaringClass());
+    return table == null ? null : table.getConstructor(constructor.getParameterTypes());
+  }
+
+  /**
+   * Invoke a method through its accessor. Exceptions that are not thrown by the method itself come
+   * from an instance or arguments that do not match it, those are thrown as {@link
+   * IllegalArgumentException} just like {@link Method#invoke(Object, Object...)} does.
+   *
+   * @param accessor the accessor of the method
+   * @param arity the number of parameters of the method
+   * @param instance the instance to invoke the method in
+   * @param args the arguments of the method
+   * @return the object returned by the method
+   * @throws InvocationTargetException if the method throws an exception
+   */
+  static Object invoke(@NonNull MethodAccessor accessor, int arity, Object instance, Object[] args)
+      throws InvocationTargetException {
+    args = Tables.check(arity, args);
+    try {
+      return accessor.invoke(instance, args);
+    } catch (ClassCastException | NullPointerException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Wrong instance or arguments", e);
+    }
+  }
+
+  /**
+   * Invoke a constructor through its accessor.
+   *
+   * @see #invoke(MethodAccessor, int, Object, Object[])
+   * @param accessor the accessor of the constructor
+   * @param arity the number of parameters of the constructor
+   * @param args the arguments of the constructor
+   * @return the new instance
+   * @throws InvocationTargetException if the constructor throws an exception
+   */
+  static Object newInstance(@NonNull ConstructorAccessor accessor, int arity, Object[] args)
+      throws InvocationTargetException {
+    args = Tables.check(arity, args);
+    try {
+      return accessor.newInstance(args);
+    } catch (ClassCastException | NullPointerException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Wrong arguments", e);
+    }
+  }
+
+  @NonNull
+  private static Object[] check(int arity, Object[] args) {
+    if (args == null) args = new Object[0];
+    if (args.length != arity) {
+      throw new IllegalArgumentException(
+          "Wrong number of arguments: " + args.length + " expected " + arity);
+    }
+    return args;
+  }
+}
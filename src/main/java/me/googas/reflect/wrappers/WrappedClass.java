@@ -3,12 +3,14 @@ package me.googas.reflect.wrappers;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.stream.Stream;
 import lombok.NonNull;
-import me.googas.reflect.util.ReflectUtil;
+import me.googas.reflect.accessors.AccessorTable;
+import me.googas.reflect.metrics.Lookup;
+import me.googas.reflect.metrics.Metrics;
 
 /**
  * This class wraps a {@link Class} to use its methods checking if those can be executed and
@@ -18,10 +20,26 @@ import me.googas.reflect.util.ReflectUtil;
  * meanwhile {@link WrappedClass#forName(String)} will just return an empty instance if that is the
  * case most of the methods declared in this class would return empty instances too
  *
+ * <p>Fields, methods and constructors are looked up in an index that is computed once per class, so
+ * repeated lookups do not copy nor scan the members of the class. Wrapping a member does not make
+ * it accessible: it is only made accessible once it is used through reflection, and the members in
+ * the {@link AccessorTable} of their class use the generated accessors instead
+ *
  * @param <O> the type of the class object
  */
 public final class WrappedClass<O> extends LangWrapper<Class<O>> {
 
+  @NonNull private static final WrappedClass<?> EMPTY = new WrappedClass<>();
+
+  @NonNull
+  private static final ClassValue<WrappedClass<?>> WRAPPERS =
+      new ClassValue<WrappedClass<?>>() {
+        @Override
+        protected WrappedClass<?> computeValue(Class<?> type) {
+          return new WrappedClass<>(type);
+        }
+      };
+
   private WrappedClass(Class<O> clazz) {
     super(clazz);
   }
@@ -40,23 +58,59 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    */
   @NonNull
   public static WrappedClass<?> forName(@NonNull String name) {
-    try {
-      return new WrappedClass<>(Class.forName(name));
-    } catch (ClassNotFoundException e) {
-      return new WrappedClass<>();
-    }
+    return WrappedClass.forName(name, WrappedClass.class.getClassLoader());
+  }
+
+  /**
+   * Return the wrapper of the {@link Class} object if {@link Class#forName(String, boolean,
+   * ClassLoader)} matches a class else it would be empty.
+   *
+   * <p>Names that are not found are remembered for each loader, further lookups of those names
+   * return an empty instance without trying to load the class again
+   *
+   * @see Class#forName(String, boolean, ClassLoader)
+   * @param name the fully qualified name of the class
+   * @param loader the class loader to load the class from, null for the bootstrap class loader
+   * @return the wrapped {@link Class} instance
+   */
+  @NonNull
+  public static WrappedClass<?> forName(@NonNull String name, ClassLoader loader) {
+    return WrappedClass.forName(name, loader, true);
+  }
+
+  /**
+   * Return the wrapper of the {@link Class} object if {@link Class#forName(String, boolean,
+   * ClassLoader)} matches a class else it would be empty. Classes that are not initialized do not
+   * run their static initializers until they are first used.
+   *
+   * @see #forName(String, ClassLoader)
+   * @param name the fully qualified name of the class
+   * @param loader the class loader to load the class from, null for the bootstrap class loader
+   * @param initialize whether the class must be initialized
+   * @return the wrapped {@link Class} instance
+   * @throws LinkageError if the class is found but cannot be linked or initialized
+   */
+  @NonNull
+  public static WrappedClass<?> forName(
+      @NonNull String name, ClassLoader loader, boolean initialize) {
+    Class<?> clazz = WrappedClass.report(Lookup.CLASS, ClassLookup.find(name, loader, initialize));
+    return WrappedClass.of(clazz);
   }
 
   /**
-   * Wrap a {@link Class} instance.
+   * Wrap a {@link Class} instance. Wrappers are shared, the same one is returned for the same
+   * class.
    *
    * @param clazz the class to wrap
    * @return the wrapper of {@link Class}
    * @param <T> the type of the class object
    */
   @NonNull
+  @SuppressWarnings("unchecked")
   public static <T> WrappedClass<T> of(Class<T> clazz) {
-    return new WrappedClass<>(clazz);
+    return clazz == null
+        ? (WrappedClass<T>) WrappedClass.EMPTY
+        : (WrappedClass<T>) WrappedClass.WRAPPERS.get(clazz);
   }
 
   /**
@@ -68,12 +122,12 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   @NonNull
   public WrappedConstructor<O> getConstructor(Class<?>... params) {
     Constructor<O> constructor = null;
-    for (Constructor<?> referenceConstructor : this.wrapped.getConstructors()) {
-      if (this.compare(referenceConstructor, params)) {
-        //noinspection unchecked
-        constructor = (Constructor<O>) referenceConstructor;
-        break;
-      }
+    if (this.wrapped != null) {
+      //noinspection unchecked
+      constructor =
+          (Constructor<O>)
+              WrappedClass.report(
+                  Lookup.CONSTRUCTOR, MemberIndex.of(this.wrapped).findConstructor(params));
     }
     return WrappedConstructor.of(constructor);
   }
@@ -87,10 +141,8 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   @NonNull
   public WrappedField<?> getField(@NonNull String name) {
     Field field = null;
-    try {
-      field = this.wrapped.getField(name);
-    } catch (NoSuchFieldException e) {
-      // Field not found
+    if (this.wrapped != null) {
+      field = WrappedClass.report(Lookup.FIELD, MemberIndex.of(this.wrapped).findField(null, name));
     }
     return WrappedField.of(field);
   }
@@ -106,10 +158,8 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   @NonNull
   public <T> WrappedField<T> getField(@NonNull Class<T> fieldType, @NonNull String name) {
     Field field = null;
-    try {
-      field = this.wrapped.getField(name);
-    } catch (NoSuchFieldException e) {
-      // Field not found
+    if (this.wrapped != null) {
+      field = WrappedClass.report(Lookup.FIELD, MemberIndex.of(this.wrapped).findField(null, name));
     }
     return WrappedField.of(fieldType, field);
   }
@@ -123,10 +173,10 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   @NonNull
   public WrappedField<?> getDeclaredField(@NonNull String name) {
     Field field = null;
-    try {
-      field = this.wrapped.getDeclaredField(name);
-    } catch (NoSuchFieldException e) {
-      // Field not found
+    if (this.wrapped != null) {
+      field =
+          WrappedClass.report(
+              Lookup.DECLARED_FIELD, MemberIndex.of(this.wrapped).findDeclaredField(null, name));
     }
     return WrappedField.of(field);
   }
@@ -142,10 +192,10 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   @NonNull
   public <T> WrappedField<T> getDeclaredField(@NonNull Class<T> fieldType, @NonNull String name) {
     Field field = null;
-    try {
-      field = this.wrapped.getDeclaredField(name);
-    } catch (NoSuchFieldException e) {
-      // Field not found
+    if (this.wrapped != null) {
+      field =
+          WrappedClass.report(
+              Lookup.DECLARED_FIELD, MemberIndex.of(this.wrapped).findDeclaredField(null, name));
     }
     return WrappedField.of(fieldType, field);
   }
@@ -175,11 +225,10 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   public <T> WrappedMethod<T> getMethod(
       Class<T> returnType, @NonNull String name, Class<?>... params) {
     Method method = null;
-    for (Method referenceMethod : this.wrapped.getMethods()) {
-      if (this.compareMethods(returnType, name, referenceMethod, params)) {
-        method = referenceMethod;
-        break;
-      }
+    if (this.wrapped != null) {
+      method =
+          WrappedClass.report(
+              Lookup.METHOD, MemberIndex.of(this.wrapped).findMethod(returnType, name, params));
     }
     return WrappedMethod.of(method, returnType);
   }
@@ -209,11 +258,82 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
   public <T> WrappedMethod<T> getDeclaredMethod(
       Class<T> returnType, @NonNull String name, Class<?>... params) {
     Method method = null;
-    for (Method referenceMethod : this.wrapped.getDeclaredMethods()) {
-      if (this.compareMethods(returnType, name, referenceMethod, params)) {
-        method = referenceMethod;
-        break;
-      }
+    if (this.wrapped != null) {
+      method =
+          WrappedClass.report(
+              Lookup.DECLARED_METHOD,
+              MemberIndex.of(this.wrapped).findDeclaredMethod(returnType, name, params));
+    }
+    return WrappedMethod.of(method, returnType);
+  }
+
+  /**
+   * Get a field declared in the class or any of its superclasses other than {@link Object}, private
+   * fields included. If a field is hidden the one in the most specific class is returned.
+   *
+   * @param name the name to match the field with
+   * @return a {@link WrappedField} instance containing the field or empty if not found
+   */
+  @NonNull
+  public WrappedField<?> getHierarchyField(@NonNull String name) {
+    return this.getHierarchyField(null, name);
+  }
+
+  /**
+   * Get a field declared in the class or any of its superclasses.
+   *
+   * @see #getHierarchyField(String)
+   * @param fieldType the class of the object that the field contains, null to match any
+   * @param name the name to match the field with
+   * @return a {@link WrappedField} instance containing the field or empty if not found
+   * @param <T> the type of the object that the field contains
+   */
+  @NonNull
+  public <T> WrappedField<T> getHierarchyField(Class<T> fieldType, @NonNull String name) {
+    Field field = null;
+    if (this.wrapped != null) {
+      field =
+          WrappedClass.report(
+              Lookup.HIERARCHY_FIELD,
+              MemberIndex.of(this.wrapped).findHierarchyField(fieldType, name));
+    }
+    return WrappedField.of(fieldType, field);
+  }
+
+  /**
+   * Get a method declared in the class, any of its superclasses other than {@link Object} or a
+   * default method of its interfaces, private methods included. Methods overridden by a more
+   * specific class are skipped.
+   *
+   * @param name the name to match the method with
+   * @param params the parameters to match the method with
+   * @return a {@link WrappedMethod} instance containing the method or empty if not found
+   */
+  @NonNull
+  public WrappedMethod<?> getHierarchyMethod(@NonNull String name, Class<?>... params) {
+    return this.getHierarchyMethod(null, name, params);
+  }
+
+  /**
+   * Get a method declared in the class, any of its superclasses or a default method of its
+   * interfaces.
+   *
+   * @see #getHierarchyMethod(String, Class[])
+   * @param returnType the return type to match the method with
+   * @param name the name to match the method with
+   * @param params the parameters to match the method with
+   * @param <T> the type of return
+   * @return a {@link WrappedMethod} instance containing the method or empty if not found
+   */
+  @NonNull
+  public <T> WrappedMethod<T> getHierarchyMethod(
+      Class<T> returnType, @NonNull String name, Class<?>... params) {
+    Method method = null;
+    if (this.wrapped != null) {
+      method =
+          WrappedClass.report(
+              Lookup.HIERARCHY_METHOD,
+              MemberIndex.of(this.wrapped).findHierarchyMethod(returnType, name, params));
     }
     return WrappedMethod.of(method, returnType);
   }
@@ -227,12 +347,8 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    * @return true if the method is found false otherwise
    */
   public boolean hasMethod(Class<?> returnType, @NonNull String name, Class<?>... params) {
-    if (this.wrapped != null) {
-      for (Method method : this.wrapped.getMethods()) {
-        if (this.compareMethods(returnType, name, method, params)) return true;
-      }
-    }
-    return false;
+    return this.wrapped != null
+        && MemberIndex.of(this.wrapped).findMethod(returnType, name, params) != null;
   }
 
   /**
@@ -244,23 +360,8 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    * @return true if the method is found false otherwise
    */
   public boolean hasDeclaredMethod(Class<?> returnType, @NonNull String name, Class<?>... params) {
-    if (this.wrapped != null) {
-      for (Method method : this.wrapped.getDeclaredMethods()) {
-        if (this.compareMethods(returnType, name, method, params)) return true;
-      }
-    }
-    return false;
-  }
-
-  private boolean compareMethods(
-      Class<?> returnType, @NonNull String name, Method method, Class<?>[] params) {
-    if (method.getName().equals(name)) {
-      Class<?>[] paramTypes = method.getParameterTypes();
-      Class<?> methodReturnType = method.getReturnType();
-      return ReflectUtil.compareParameters(paramTypes, params)
-          && (returnType == null || returnType.isAssignableFrom(method.getReturnType()));
-    }
-    return false;
+    return this.wrapped != null
+        && MemberIndex.of(this.wrapped).findDeclaredMethod(returnType, name, params) != null;
   }
 
   /**
@@ -271,13 +372,7 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    * @return true if the field is found false otherwise
    */
   public boolean hasField(Class<?> fieldType, @NonNull String name) {
-    if (this.wrapped != null) {
-      for (Field field : this.wrapped.getFields()) {
-        if (field.getName().equals(name)
-            && (fieldType == null || fieldType.isAssignableFrom(field.getType()))) return true;
-      }
-    }
-    return false;
+    return this.wrapped != null && MemberIndex.of(this.wrapped).findField(fieldType, name) != null;
   }
 
   /**
@@ -288,29 +383,13 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    * @return true if the field is found false otherwise
    */
   public boolean hasDeclaredField(Class<?> fieldType, @NonNull String name) {
-    if (this.wrapped != null) {
-      for (Field field : this.wrapped.getDeclaredFields()) {
-        if (field.getName().equals(name)
-            && (fieldType == null || fieldType.isAssignableFrom(field.getType()))) return true;
-      }
-    }
-    return false;
+    return this.wrapped != null
+        && MemberIndex.of(this.wrapped).findDeclaredField(fieldType, name) != null;
   }
 
-  private static List<WrappedField<?>> wrap(@NonNull Field... fields) {
-    List<WrappedField<?>> wrappers = new ArrayList<>(fields.length);
-    for (Field field : fields) {
-      wrappers.add(WrappedField.of(field));
-    }
-    return wrappers;
-  }
-
-  private static List<WrappedMethod<?>> wrap(@NonNull Method... methods) {
-    List<WrappedMethod<?>> wrappers = new ArrayList<>(methods.length);
-    for (Method method : methods) {
-      wrappers.add(WrappedMethod.of(method));
-    }
-    return wrappers;
+  private static <T> T report(@NonNull Lookup lookup, T found) {
+    if (Metrics.isEnabled()) Metrics.getSink().lookup(lookup, found != null);
+    return found;
   }
 
   /**
@@ -320,58 +399,107 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
    * @return true if the constructor is found false otherwise
    */
   public boolean hasConstructor(Class<?>... params) {
-    if (this.wrapped != null) {
-      for (Constructor<?> constructor : this.wrapped.getConstructors()) {
-        if (this.compare(constructor, params)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.wrapped != null && MemberIndex.of(this.wrapped).findConstructor(params) != null;
   }
 
   /**
-   * Compares a constructor to an array of classes. This checks if the constructor has the same
-   * parameter types as the array
+   * Get a list of {@link Method} of the class. The list is unmodifiable and shared: the wrapper of
+   * each method is created when it is read for the first time.
    *
-   * @param constructor the constructor to be compared
-   * @param params the array to compare
-   * @return true if the parameter types of the constructor matches the classes of the array
+   * @return the list of methods
    */
-  private boolean compare(Constructor<?> constructor, Class<?>[] params) {
-    return ReflectUtil.compareParameters(constructor.getParameterTypes(), params);
+  @NonNull
+  public List<WrappedMethod<?>> getMethods() {
+    return this.wrapped == null
+        ? Collections.emptyList()
+        : MemberIndex.of(this.wrapped).getMethods();
   }
 
   /**
-   * Get a list of {@link Method} of the class.
+   * Get a list of {@link Field} of the class. The list is unmodifiable and shared: the wrapper of
+   * each field is created when it is read for the first time.
    *
-   * @return the list of methods
+   * @return the list of fields
    */
   @NonNull
-  public List<WrappedMethod<?>> getMethods() {
-    return wrapped == null ? new ArrayList<>() : WrappedClass.wrap(this.wrapped.getMethods());
+  public List<WrappedField<?>> getFields() {
+    return this.wrapped == null
+        ? Collections.emptyList()
+        : MemberIndex.of(this.wrapped).getFields();
   }
 
   /**
-   * Get a list of {@link Field} of the class.
+   * Get a list of {@link Field} that are declared in the class. The list is unmodifiable and
+   * shared: the wrapper of each field is created when it is read for the first time.
    *
    * @return the list of fields
    */
   @NonNull
-  public List<WrappedField<?>> getFields() {
-    return this.wrapped == null ? new ArrayList<>() : WrappedClass.wrap(this.wrapped.getFields());
+  public List<WrappedField<?>> getDeclaredFields() {
+    return this.wrapped == null
+        ? Collections.emptyList()
+        : MemberIndex.of(this.wrapped).getDeclaredFields();
   }
 
   /**
-   * Get a list of {@link Field} that are declared in the class.
+   * Get the fields declared in the class and its superclasses, the most specific first. The list is
+   * unmodifiable and shared like {@link #getFields()}.
    *
    * @return the list of fields
    */
   @NonNull
-  public List<WrappedField<?>> getDeclaredFields() {
+  public List<WrappedField<?>> getHierarchyFields() {
     return this.wrapped == null
-        ? new ArrayList<>()
-        : WrappedClass.wrap(this.wrapped.getDeclaredFields());
+        ? Collections.emptyList()
+        : MemberIndex.of(this.wrapped).getHierarchyFields();
+  }
+
+  /**
+   * Get the methods declared in the class, its superclasses and the default methods of its
+   * interfaces, the most specific first and once per signature. The list is unmodifiable and shared
+   * like {@link #getMethods()}.
+   *
+   * @return the list of methods
+   */
+  @NonNull
+  public List<WrappedMethod<?>> getHierarchyMethods() {
+    return this.wrapped == null
+        ? Collections.emptyList()
+        : MemberIndex.of(this.wrapped).getHierarchyMethods();
+  }
+
+  /**
+   * Stream the methods of the class. Methods are wrapped as the stream reaches them, so short
+   * circuiting operations such as {@link Stream#findFirst()} only wrap the ones traversed.
+   *
+   * @see #getMethods()
+   * @return the stream of methods
+   */
+  @NonNull
+  public Stream<WrappedMethod<?>> streamMethods() {
+    return this.getMethods().stream();
+  }
+
+  /**
+   * Stream the fields of the class.
+   *
+   * @see #getFields()
+   * @return the stream of fields
+   */
+  @NonNull
+  public Stream<WrappedField<?>> streamFields() {
+    return this.getFields().stream();
+  }
+
+  /**
+   * Stream the fields declared in the class.
+   *
+   * @see #getDeclaredFields()
+   * @return the stream of fields
+   */
+  @NonNull
+  public Stream<WrappedField<?>> streamDeclaredFields() {
+    return this.getDeclaredFields().stream();
   }
 
   /**
@@ -384,17 +512,20 @@ public final class WrappedClass<O> extends LangWrapper<Class<O>> {
     return this.wrapped;
   }
 
+  /**
+   * Wrappers of classes are interned by {@link #of(Class)} so they are equal only to themselves.
+   *
+   * @param o the object to compare with
+   * @return whether the object is this same wrapper
+   */
   @Override
   public boolean equals(Object o) {
-    if (this == o) return true;
-    if (o == null || this.getClass() != o.getClass()) return false;
-    WrappedClass<?> that = (WrappedClass<?>) o;
-    return Objects.equals(wrapped, that.wrapped);
+    return this == o;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(wrapped);
+    return System.identityHashCode(this);
   }
 
   @Override
@@ -1,14 +1,35 @@
 package me.googas.reflect.wrappers;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
 import lombok.NonNull;
+import me.googas.reflect.accessors.ConstructorAccessor;
+import me.googas.reflect.metrics.Metrics;
 
-/** This class wraps a {@link Constructor} to prepare it and create instances of a class. */
+/**
+ * This class wraps a {@link Constructor} to prepare it and create instances of a class.
+ *
+ * <p>If the class has an {@link me.googas.reflect.accessors.AccessorTable} which contains the
+ * constructor, instances are created through the generated accessor
+ */
 public final class WrappedConstructor<T> extends LangWrapper<Constructor<T>> {
 
+  /** Accessor generated at compile time, null if there is none. */
+  private final ConstructorAccessor accessor;
+
+  /** Whether the wrapped constructor was made accessible, see {@link #reflected()}. */
+  private volatile boolean accessible;
+
+  /** Invoker returned by the {@code invokerN} method of the arity of the constructor. */
+  private volatile Object fixed;
+
+  @NonNull private static final WrappedConstructor<?> EMPTY = new WrappedConstructor<>();
+
   private WrappedConstructor(Constructor<T> reference) {
     super(reference);
+    this.accessor = reference == null ? null : Tables.constructor(reference);
   }
 
   private WrappedConstructor() {
@@ -16,16 +37,18 @@ public final class WrappedConstructor<T> extends LangWrapper<Constructor<T>> {
   }
 
   /**
-   * Wrap a {@link Constructor} instance.
+   * Wrap a {@link Constructor} instance. Wrappers are shared, the same one is returned for the same
+   * constructor.
    *
    * @param constructor the constructor to wrap
    * @return the wrapper of constructor
    * @param <T> the type that the constructor initializes
    */
   @NonNull
+  @SuppressWarnings("unchecked")
   public static <T> WrappedConstructor<T> of(Constructor<T> constructor) {
-    if (constructor != null) constructor.setAccessible(true);
-    return new WrappedConstructor<>(constructor);
+    if (constructor == null) return (WrappedConstructor<T>) WrappedConstructor.EMPTY;
+    return Interner.intern(constructor, null, () -> new WrappedConstructor<>(constructor));
   }
 
   /**
@@ -43,11 +66,157 @@ public final class WrappedConstructor<T> extends LangWrapper<Constructor<T>> {
       throws InvocationTargetException, InstantiationException, IllegalAccessException {
     T other = null;
     if (this.wrapped != null) {
-      other = this.wrapped.newInstance(args);
+      long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+      try {
+        other =
+            this.accessor == null
+                ? this.reflected().newInstance(args)
+                : this.wrapped
+                    .getDeclaringClass()
+                    .cast(
+                        Tables.newInstance(this.accessor, this.wrapped.getParameterCount(), args));
+      } finally {
+        if (start != 0) Metrics.getSink().invocation(this.wrapped, System.nanoTime() - start);
+      }
     }
     return other;
   }
 
+  /**
+   * Get an invoker for the constructor with 0 parameters. The invoker does not allocate an array of
+   * arguments. It is linked once and shared by later calls.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 0 parameters
+   */
+  @NonNull
+  public Invokers.Constructor0<T> invoker0() throws IllegalAccessException {
+    return this.invoker(0, Invokers::constructor0);
+  }
+
+  /**
+   * Get an invoker for the constructor with 1 parameter. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 1 parameter
+   */
+  @NonNull
+  public Invokers.Constructor1<T> invoker1() throws IllegalAccessException {
+    return this.invoker(1, Invokers::constructor1);
+  }
+
+  /**
+   * Get an invoker for the constructor with 2 parameters. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 2 parameters
+   */
+  @NonNull
+  public Invokers.Constructor2<T> invoker2() throws IllegalAccessException {
+    return this.invoker(2, Invokers::constructor2);
+  }
+
+  /**
+   * Get an invoker for the constructor with 3 parameters. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 3 parameters
+   */
+  @NonNull
+  public Invokers.Constructor3<T> invoker3() throws IllegalAccessException {
+    return this.invoker(3, Invokers::constructor3);
+  }
+
+  /**
+   * Get an invoker for the constructor with 4 parameters. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 4 parameters
+   */
+  @NonNull
+  public Invokers.Constructor4<T> invoker4() throws IllegalAccessException {
+    return this.invoker(4, Invokers::constructor4);
+  }
+
+  /**
+   * Get an invoker for the constructor with 5 parameters. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 5 parameters
+   */
+  @NonNull
+  public Invokers.Constructor5<T> invoker5() throws IllegalAccessException {
+    return this.invoker(5, Invokers::constructor5);
+  }
+
+  /**
+   * Get an invoker for the constructor with 6 parameters. The invoker does not allocate an array of
+   * arguments.
+   *
+   * @see Invokers
+   * @return the invoker of the constructor
+   * @throws IllegalAccessException if the handle of the constructor cannot be linked
+   * @throws IllegalArgumentException if the constructor does not have 6 parameters
+   */
+  @NonNull
+  public Invokers.Constructor6<T> invoker6() throws IllegalAccessException {
+    return this.invoker(6, Invokers::constructor6);
+  }
+
+  /**
+   * Get the invoker of the arity of the constructor, it is created on first use and shared by later
+   * calls.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  private <I> I invoker(int arity, @NonNull Function<MethodHandle, I> factory)
+      throws IllegalAccessException {
+    if (this.wrapped == null) return factory.apply(null);
+    if (this.wrapped.getParameterCount() != arity) {
+      throw new IllegalArgumentException(this.wrapped + " does not have " + arity + " parameters");
+    }
+    Object invoker = this.fixed;
+    if (invoker == null) {
+      invoker = factory.apply(Handles.constructor(this.reflected()));
+      this.fixed = invoker;
+    }
+    return (I) invoker;
+  }
+
+  /**
+   * Get the wrapped constructor to use it through reflection, making it accessible the first time.
+   * Wrapping a constructor does not make it accessible, so members that cannot be made accessible,
+   * such as the ones of modules that are not open, can still be wrapped and inspected.
+   *
+   * @return the accessible constructor
+   */
+  @NonNull
+  private Constructor<T> reflected() {
+    Constructor<T> constructor = this.wrapped;
+    if (!this.accessible) {
+      constructor.setAccessible(true);
+      this.accessible = true;
+    }
+    return constructor;
+  }
+
   /**
    * Get the wrapped constructor.
    *
@@ -4,17 +4,67 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import lombok.NonNull;
+import me.googas.reflect.accessors.FieldAccessor;
 import me.googas.reflect.modifiers.Modifier;
 
-/** This class wraps a {@link Field} to set or get the declaration. */
+/**
+ * This class wraps a {@link Field} to set or get the declaration.
+ *
+ * <p>If the class that declares the field has an {@link me.googas.reflect.accessors.AccessorTable}
+ * which contains it, the field is read and written through the generated accessor
+ */
 public final class WrappedField<O> extends LangWrapper<Field> {
 
   private final Class<O> fieldType;
 
+  /** Accessor generated at compile time, null if there is none. */
+  private final FieldAccessor accessor;
+
+  /** Whether the wrapped field was made accessible, see {@link #reflected()}. */
+  private volatile boolean accessible;
+
+  /** Accessor returned by {@link #getter()} created on first use. */
+  private volatile Function<Object, O> getter;
+
+  /** Accessor returned by {@link #setter()} created on first use. */
+  private volatile BiConsumer<Object, O> setter;
+
+  /** Accessor returned by {@link #intGetter()} created on first use. */
+  private volatile ToIntFunction<Object> intGetter;
+
+  /** Accessor returned by {@link #intSetter()} created on first use. */
+  private volatile ObjIntConsumer<Object> intSetter;
+
+  /** Accessor returned by {@link #longGetter()} created on first use. */
+  private volatile ToLongFunction<Object> longGetter;
+
+  /** Accessor returned by {@link #longSetter()} created on first use. */
+  private volatile ObjLongConsumer<Object> longSetter;
+
+  /** Accessor returned by {@link #doubleGetter()} created on first use. */
+  private volatile ToDoubleFunction<Object> doubleGetter;
+
+  /** Accessor returned by {@link #doubleSetter()} created on first use. */
+  private volatile ObjDoubleConsumer<Object> doubleSetter;
+
+  /** Operations returned by {@link #atomic()} linked on first use. */
+  private volatile AtomicField<O> atomic;
+
+  @NonNull private static final WrappedField<?> EMPTY = new WrappedField<>();
+
   private WrappedField(Field reference, Class<O> fieldType) {
     super(reference);
     this.fieldType = fieldType;
+    this.accessor = reference == null ? null : Tables.field(reference);
   }
 
   WrappedField() {
@@ -22,19 +72,20 @@ public final class WrappedField<O> extends LangWrapper<Field> {
   }
 
   /**
-   * Wrap a {@link Field} instance.
+   * Wrap a {@link Field} instance. Wrappers are shared, the same one is returned for the same
+   * field.
    *
    * @param field the field to wrap
    * @return the wrapper of the field
    */
   @NonNull
   public static WrappedField<?> of(Field field) {
-    if (field != null) field.setAccessible(true);
-    return new WrappedField<>(field, null);
+    return WrappedField.of(null, field);
   }
 
   /**
-   * Wrap a {@link Field} instance.
+   * Wrap a {@link Field} instance. Wrappers are shared, the same one is returned for the same field
+   * and field type.
    *
    * @param fieldType the class of the object that the field contains
    * @param field the field to wrap
@@ -42,9 +93,10 @@ public final class WrappedField<O> extends LangWrapper<Field> {
    * @return the wrapped field
    */
   @NonNull
+  @SuppressWarnings("unchecked")
   public static <T> WrappedField<T> of(Class<T> fieldType, Field field) {
-    if (field != null) field.setAccessible(true);
-    return new WrappedField<>(field, fieldType);
+    if (field == null) return (WrappedField<T>) WrappedField.EMPTY;
+    return Interner.intern(field, fieldType, () -> new WrappedField<>(field, fieldType));
   }
 
   /**
@@ -57,8 +109,14 @@ public final class WrappedField<O> extends LangWrapper<Field> {
    */
   public Object provide(Object instance) throws IllegalAccessException {
     Object other = null;
-    if (this.wrapped != null) {
-      other = this.wrapped.get(instance);
+    if (this.accessor != null) {
+      try {
+        other = this.accessor.get(instance);
+      } catch (ClassCastException e) {
+        throw new IllegalArgumentException("Wrong instance for " + this.wrapped, e);
+      }
+    } else if (this.wrapped != null) {
+      other = this.reflected().get(instance);
     }
     return other;
   }
@@ -92,8 +150,15 @@ public final class WrappedField<O> extends LangWrapper<Field> {
   @NonNull
   public boolean set(Object object, Object value) throws IllegalAccessException {
     boolean set = false;
-    if (this.wrapped != null) {
-      this.wrapped.set(object, value);
+    if (this.accessor != null && this.accessor.isWritable()) {
+      try {
+        this.accessor.set(object, value);
+      } catch (ClassCastException e) {
+        throw new IllegalArgumentException("Wrong instance or value for " + this.wrapped, e);
+      }
+      set = true;
+    } else if (this.wrapped != null) {
+      this.reflected().set(object, value);
       set = true;
     }
     return set;
@@ -118,6 +183,487 @@ public final class WrappedField<O> extends LangWrapper<Field> {
     return set;
   }
 
+  /**
+   * Get a function that reads the value of the field from an instance. The function is backed by a
+   * {@link java.lang.invoke.MethodHandle} adapted to the field type, so it skips the access checks
+   * of {@link #get(Object)}. It is created once and shared by later calls. If an {@link
+   * me.googas.reflect.accessors.AccessorTable} was generated for the class the function uses its
+   * accessor instead and no handle is linked.
+   *
+   * <p>If the type of the field is unknown the value is returned as {@link #provide(Object)} does.
+   * If the wrapper is empty the function always returns null
+   *
+   * @return the function to get the value of the field
+   * @throws IllegalAccessException if the field is inaccessible
+   */
+  @NonNull
+  public Function<Object, O> getter() throws IllegalAccessException {
+    Function<Object, O> getter = this.getter;
+    if (getter == null) {
+      if (this.wrapped == null) {
+        getter = instance -> null;
+      } else if (this.accessor != null) {
+        getter = FieldAccessors.getter(this.accessor, this.fieldType);
+      } else {
+        getter = FieldAccessors.getter(Handles.getter(this.reflected(), this.fieldType));
+      }
+      this.getter = getter;
+    }
+    return getter;
+  }
+
+  /**
+   * Get a consumer that sets the value of the field in an instance. Just like {@link #getter()}
+   * this is backed by a {@link java.lang.invoke.MethodHandle} which is created once.
+   *
+   * <p>If the wrapper is empty the consumer does nothing
+   *
+   * @return the consumer to set the value of the field
+   * @throws IllegalAccessException if the field is inaccessible or it is final and static
+   */
+  @NonNull
+  public BiConsumer<Object, O> setter() throws IllegalAccessException {
+    BiConsumer<Object, O> setter = this.setter;
+    if (setter == null) {
+      if (this.wrapped == null) {
+        setter = (instance, value) -> {};
+      } else if (this.accessor != null && this.accessor.isWritable()) {
+        setter = FieldAccessors.setter(this.accessor);
+      } else {
+        setter = FieldAccessors.setter(Handles.setter(this.reflected(), this.fieldType));
+      }
+      this.setter = setter;
+    }
+    return setter;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code boolean} without
+   * boxing it.
+   *
+   * @see Field#getBoolean(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code false} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public boolean getBoolean(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? false : this.reflected().getBoolean(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code boolean} without boxing it.
+   *
+   * @see Field#setBoolean(Object, boolean)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setBoolean(Object object, boolean value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setBoolean(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code byte} without
+   * boxing it.
+   *
+   * @see Field#getByte(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public byte getByte(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getByte(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code byte} without boxing it.
+   *
+   * @see Field#setByte(Object, byte)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setByte(Object object, byte value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setByte(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code char} without
+   * boxing it.
+   *
+   * @see Field#getChar(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public char getChar(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getChar(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code char} without boxing it.
+   *
+   * @see Field#setChar(Object, char)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setChar(Object object, char value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setChar(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code short} without
+   * boxing it.
+   *
+   * @see Field#getShort(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public short getShort(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getShort(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code short} without boxing it.
+   *
+   * @see Field#setShort(Object, short)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setShort(Object object, short value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setShort(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as an {@code int} without
+   * boxing it.
+   *
+   * @see Field#getInt(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public int getInt(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getInt(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as an {@code int} without boxing it.
+   *
+   * @see Field#setInt(Object, int)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setInt(Object object, int value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setInt(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code long} without
+   * boxing it.
+   *
+   * @see Field#getLong(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public long getLong(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getLong(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code long} without boxing it.
+   *
+   * @see Field#setLong(Object, long)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setLong(Object object, long value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setLong(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code float} without
+   * boxing it.
+   *
+   * @see Field#getFloat(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public float getFloat(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getFloat(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code float} without boxing it.
+   *
+   * @see Field#setFloat(Object, float)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setFloat(Object object, float value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setFloat(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get the value that is stored in the field for the parameter object as a {@code double} without
+   * boxing it.
+   *
+   * @see Field#getDouble(Object)
+   * @param instance the object to get the value of the field from
+   * @return the value of the field or {@code 0} if the wrapper is empty
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is inaccessible.
+   */
+  public double getDouble(Object instance) throws IllegalAccessException {
+    return this.wrapped == null ? 0 : this.reflected().getDouble(instance);
+  }
+
+  /**
+   * Set the value of the field in an object as a {@code double} without boxing it.
+   *
+   * @see Field#setDouble(Object, double)
+   * @param object the object to set the value of the field to
+   * @param value the new value to set on the field
+   * @return whether the value has been set successfully
+   * @throws IllegalAccessException if this Field object is enforcing Java language access control
+   *     and the underlying field is either inaccessible or final.
+   */
+  public boolean setDouble(Object object, double value) throws IllegalAccessException {
+    boolean set = false;
+    if (this.wrapped != null) {
+      this.reflected().setDouble(object, value);
+      set = true;
+    }
+    return set;
+  }
+
+  /**
+   * Get a function that reads the value of the field as an {@code int} without boxing it. The
+   * function is backed by a {@link java.lang.invoke.MethodHandle} just like {@link #getter()}, it
+   * is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the function always returns {@code 0}
+   *
+   * @return the function to get the value of the field
+   * @throws IllegalAccessException if the field is inaccessible
+   * @throws IllegalArgumentException if the field cannot be read as an {@code int}
+   */
+  @NonNull
+  public ToIntFunction<Object> intGetter() throws IllegalAccessException {
+    ToIntFunction<Object> getter = this.intGetter;
+    if (getter == null) {
+      getter =
+          this.wrapped == null
+              ? instance -> 0
+              : FieldAccessors.intGetter(Handles.primitiveGetter(this.reflected(), int.class));
+      this.intGetter = getter;
+    }
+    return getter;
+  }
+
+  /**
+   * Get a consumer that sets the value of the field as an {@code int} without boxing it. The
+   * consumer is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the consumer does nothing
+   *
+   * @return the consumer to set the value of the field
+   * @throws IllegalAccessException if the field is inaccessible or it is final and static
+   * @throws IllegalArgumentException if an {@code int} cannot be written in the field
+   */
+  @NonNull
+  public ObjIntConsumer<Object> intSetter() throws IllegalAccessException {
+    ObjIntConsumer<Object> setter = this.intSetter;
+    if (setter == null) {
+      setter =
+          this.wrapped == null
+              ? (instance, value) -> {}
+              : FieldAccessors.intSetter(Handles.primitiveSetter(this.reflected(), int.class));
+      this.intSetter = setter;
+    }
+    return setter;
+  }
+
+  /**
+   * Get a function that reads the value of the field as a {@code long} without boxing it. The
+   * function is backed by a {@link java.lang.invoke.MethodHandle} just like {@link #getter()}, it
+   * is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the function always returns {@code 0}
+   *
+   * @return the function to get the value of the field
+   * @throws IllegalAccessException if the field is inaccessible
+   * @throws IllegalArgumentException if the field cannot be read as a {@code long}
+   */
+  @NonNull
+  public ToLongFunction<Object> longGetter() throws IllegalAccessException {
+    ToLongFunction<Object> getter = this.longGetter;
+    if (getter == null) {
+      getter =
+          this.wrapped == null
+              ? instance -> 0
+              : FieldAccessors.longGetter(Handles.primitiveGetter(this.reflected(), long.class));
+      this.longGetter = getter;
+    }
+    return getter;
+  }
+
+  /**
+   * Get a consumer that sets the value of the field as a {@code long} without boxing it. The
+   * consumer is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the consumer does nothing
+   *
+   * @return the consumer to set the value of the field
+   * @throws IllegalAccessException if the field is inaccessible or it is final and static
+   * @throws IllegalArgumentException if a {@code long} cannot be written in the field
+   */
+  @NonNull
+  public ObjLongConsumer<Object> longSetter() throws IllegalAccessException {
+    ObjLongConsumer<Object> setter = this.longSetter;
+    if (setter == null) {
+      setter =
+          this.wrapped == null
+              ? (instance, value) -> {}
+              : FieldAccessors.longSetter(Handles.primitiveSetter(this.reflected(), long.class));
+      this.longSetter = setter;
+    }
+    return setter;
+  }
+
+  /**
+   * Get a function that reads the value of the field as a {@code double} without boxing it. The
+   * function is backed by a {@link java.lang.invoke.MethodHandle} just like {@link #getter()}, it
+   * is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the function always returns {@code 0}
+   *
+   * @return the function to get the value of the field
+   * @throws IllegalAccessException if the field is inaccessible
+   * @throws IllegalArgumentException if the field cannot be read as a {@code double}
+   */
+  @NonNull
+  public ToDoubleFunction<Object> doubleGetter() throws IllegalAccessException {
+    ToDoubleFunction<Object> getter = this.doubleGetter;
+    if (getter == null) {
+      getter =
+          this.wrapped == null
+              ? instance -> 0
+              : FieldAccessors.doubleGetter(
+                  Handles.primitiveGetter(this.reflected(), double.class));
+      this.doubleGetter = getter;
+    }
+    return getter;
+  }
+
+  /**
+   * Get a consumer that sets the value of the field as a {@code double} without boxing it. The
+   * consumer is created once and shared by later calls.
+   *
+   * <p>If the wrapper is empty the consumer does nothing
+   *
+   * @return the consumer to set the value of the field
+   * @throws IllegalAccessException if the field is inaccessible or it is final and static
+   * @throws IllegalArgumentException if a {@code double} cannot be written in the field
+   */
+  @NonNull
+  public ObjDoubleConsumer<Object> doubleSetter() throws IllegalAccessException {
+    ObjDoubleConsumer<Object> setter = this.doubleSetter;
+    if (setter == null) {
+      setter =
+          this.wrapped == null
+              ? (instance, value) -> {}
+              : FieldAccessors.doubleSetter(
+                  Handles.primitiveSetter(this.reflected(), double.class));
+      this.doubleSetter = setter;
+    }
+    return setter;
+  }
+
+  /**
+   * Get the atomic operations of the field: compare and set, get and set, get and add and reads and
+   * writes with acquire and release semantics. The operations are linked once and shared by later
+   * calls.
+   *
+   * @see AtomicField
+   * @return the atomic operations of the field
+   * @throws IllegalAccessException if the field cannot be accessed atomically
+   * @throws IllegalArgumentException if the field does not hold a reference, int or long
+   */
+  @NonNull
+  public AtomicField<O> atomic() throws IllegalAccessException {
+    AtomicField<O> atomic = this.atomic;
+    if (atomic == null) {
+      atomic = AtomicField.of(this.wrapped == null ? null : this.reflected());
+      this.atomic = atomic;
+    }
+    return atomic;
+  }
+
   /**
    * Get the instance of wrapped {@link Field}.
    *
@@ -127,6 +673,23 @@ public final class WrappedField<O> extends LangWrapper<Field> {
     return wrapped;
   }
 
+  /**
+   * Get the wrapped field to use it through reflection, making it accessible the first time.
+   * Wrapping a field does not make it accessible, so members that cannot be made accessible, such
+   * as the ones of modules that are not open, can still be wrapped and inspected.
+   *
+   * @return the accessible field
+   */
+  @NonNull
+  private Field reflected() {
+    Field field = this.wrapped;
+    if (!this.accessible) {
+      field.setAccessible(true);
+      this.accessible = true;
+    }
+    return field;
+  }
+
   @Override
   public String toString() {
     return new StringJoiner(", ", WrappedField.class.getSimpleName() + "[", "]")
@@ -144,6 +707,6 @@ public final class WrappedField<O> extends LangWrapper<Field> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(wrapped);
+    return Objects.hashCode(wrapped);
   }
 }
@@ -1,18 +1,44 @@
 package me.googas.reflect.wrappers;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.function.Function;
 import lombok.NonNull;
+import me.googas.reflect.accessors.MethodAccessor;
+import me.googas.reflect.metrics.Metrics;
 import me.googas.reflect.util.ReflectUtil;
 
-/** This class wraps a {@link Method} to prepare. */
+/**
+ * This class wraps a {@link Method} to prepare.
+ *
+ * <p>If the class that declares the method has an {@link me.googas.reflect.accessors.AccessorTable}
+ * which contains it, the method is invoked through the generated accessor
+ */
 public final class WrappedMethod<T> extends LangWrapper<Method> {
 
   private final Class<T> returnType;
 
+  /** Accessor generated at compile time, null if there is none. */
+  private final MethodAccessor accessor;
+
+  /** Whether the wrapped method was made accessible, see {@link #reflected()}. */
+  private volatile boolean accessible;
+
+  /** Handle used by {@link #invokeHandle(Object, Object...)} linked on first use. */
+  private volatile MethodHandle invoker;
+
+  /** Handle used by {@link #prepareHandle(Object, Object...)} linked on first use. */
+  private volatile MethodHandle preparer;
+
+  /** Invoker returned by the {@code invokerN} method of the arity of the method. */
+  private volatile Object fixed;
+
+  @NonNull private static final WrappedMethod<?> EMPTY = new WrappedMethod<>();
+
   /**
    * Wrap a method.
    *
@@ -22,6 +48,7 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
   private WrappedMethod(Method reference, Class<T> returnType) {
     super(reference);
     this.returnType = returnType;
+    this.accessor = reference == null ? null : Tables.method(reference);
   }
 
   private WrappedMethod() {
@@ -29,7 +56,8 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
   }
 
   /**
-   * Wrap a {@link Method} instance.
+   * Wrap a {@link Method} instance. Wrappers are shared, the same one is returned for the same
+   * method.
    *
    * @param method the method to wrap
    * @param <T> the type that the method returns
@@ -37,12 +65,12 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
    */
   @NonNull
   public static <T> WrappedMethod<T> of(Method method) {
-    if (method != null) method.setAccessible(true);
-    return new WrappedMethod<>(method, null);
+    return WrappedMethod.of(method, null);
   }
 
   /**
-   * Wrap a {@link Method} instance which returns a type.
+   * Wrap a {@link Method} instance which returns a type. Wrappers are shared, the same one is
+   * returned for the same method and return type.
    *
    * @param method the method to wrap
    * @param returnType the type that the method returns
@@ -50,13 +78,14 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
    * @return the wrap of the method
    */
   @NonNull
+  @SuppressWarnings("unchecked")
   public static <T> WrappedMethod<T> of(Method method, Class<T> returnType) {
-    if (method != null) method.setAccessible(true);
-    return new WrappedMethod<>(
-        method,
+    if (method == null) return (WrappedMethod<T>) WrappedMethod.EMPTY;
+    Class<T> type =
         returnType == null
             ? null
-            : returnType.isPrimitive() ? ReflectUtil.getBoxing(returnType) : returnType);
+            : returnType.isPrimitive() ? ReflectUtil.getBoxing(returnType) : returnType;
+    return Interner.intern(method, type, () -> new WrappedMethod<>(method, type));
   }
 
   /**
@@ -75,7 +104,16 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
       throws InvocationTargetException, IllegalAccessException {
     T obj = null;
     if (this.wrapped != null) {
-      Object invoke = this.wrapped.invoke(object, params);
+      long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+      Object invoke;
+      try {
+        invoke =
+            this.accessor == null
+                ? this.reflected().invoke(object, params)
+                : Tables.invoke(this.accessor, this.wrapped.getParameterCount(), object, params);
+      } finally {
+        if (start != 0) Metrics.getSink().invocation(this.wrapped, System.nanoTime() - start);
+      }
       if (invoke != null && returnType != null) {
         obj = returnType.cast(invoke);
       }
@@ -97,11 +135,254 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
   public Object invoke(Object object, Object... params)
       throws InvocationTargetException, IllegalAccessException {
     if (this.wrapped != null) {
-      return this.wrapped.invoke(object, params);
+      long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+      try {
+        return this.accessor == null
+            ? this.reflected().invoke(object, params)
+            : Tables.invoke(this.accessor, this.wrapped.getParameterCount(), object, params);
+      } finally {
+        if (start != 0) Metrics.getSink().invocation(this.wrapped, System.nanoTime() - start);
+      }
     }
     return null;
   }
 
+  /**
+   * Invoke the method through a cached {@link java.lang.invoke.MethodHandle} and cast the object
+   * with the return type of the method. The handle is linked on the first call and adapted to the
+   * return type once, so repeated calls skip the access checks and casts of {@link #prepare(Object,
+   * Object...)}
+   *
+   * @param object the instance of the object to prepare the method if the method is static it may
+   *     be null
+   * @param params the parameters to prepare the method
+   * @return the object which the method returns
+   * @throws ClassCastException in case the return type does not match {@link #returnType}
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws InvocationTargetException if the underlying method throws an exception.
+   */
+  @SuppressWarnings("unchecked")
+  public T prepareHandle(Object object, Object... params)
+      throws InvocationTargetException, IllegalAccessException {
+    if (this.accessor != null) return this.prepare(object, params);
+    T obj = null;
+    if (this.wrapped != null) {
+      MethodHandle handle = this.preparer;
+      if (handle == null) {
+        handle = Handles.spreader(this.reflected(), this.returnType);
+        this.preparer = handle;
+      }
+      long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+      try {
+        Object invoke = (Object) handle.invokeExact(object, params);
+        if (returnType != null) {
+          obj = (T) invoke;
+        }
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      } finally {
+        if (start != 0) Metrics.getSink().invocation(this.wrapped, System.nanoTime() - start);
+      }
+    }
+    return obj;
+  }
+
+  /**
+   * Invoke the method through a cached {@link java.lang.invoke.MethodHandle}.
+   *
+   * @see #prepareHandle(Object, Object...)
+   * @param object the instance of the object to prepare the method if the method is static it may
+   *     be null
+   * @param params the parameters to prepare the method
+   * @return the object which the method returns
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws InvocationTargetException if the underlying method throws an exception.
+   */
+  public Object invokeHandle(Object object, Object... params)
+      throws InvocationTargetException, IllegalAccessException {
+    if (this.accessor != null) return this.invoke(object, params);
+    if (this.wrapped != null) {
+      MethodHandle handle = this.invoker;
+      if (handle == null) {
+        handle = Handles.spreader(this.reflected(), null);
+        this.invoker = handle;
+      }
+      long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+      try {
+        return (Object) handle.invokeExact(object, params);
+      } catch (Throwable e) {
+        throw Handles.propagate(e);
+      } finally {
+        if (start != 0) Metrics.getSink().invocation(this.wrapped, System.nanoTime() - start);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Link the handles used by {@link #invokeHandle(Object, Object...)}, {@link
+   * #prepareHandle(Object, Object...)} and the invoker of the arity of the method, such as {@link
+   * #invoker1()}, now instead of on their first call, such as while warming up in another thread.
+   *
+   * @return this same instance
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   */
+  @NonNull
+  public WrappedMethod<T> prelink() throws IllegalAccessException {
+    if (this.wrapped == null) return this;
+    if (this.accessor == null) {
+      if (this.invoker == null) this.invoker = Handles.spreader(this.reflected(), null);
+      if (this.preparer == null)
+        this.preparer = Handles.spreader(this.reflected(), this.returnType);
+    }
+    switch (this.wrapped.getParameterCount()) {
+      case 0:
+        this.invoker0();
+        break;
+      case 1:
+        this.invoker1();
+        break;
+      case 2:
+        this.invoker2();
+        break;
+      case 3:
+        this.invoker3();
+        break;
+      case 4:
+        this.invoker4();
+        break;
+      case 5:
+        this.invoker5();
+        break;
+      case 6:
+        this.invoker6();
+        break;
+      default:
+        // There is no invoker of this arity
+        break;
+    }
+    return this;
+  }
+
+  /**
+   * Get an invoker for the method with 0 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present. It is linked
+   * once and shared by later calls.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 0 parameters
+   */
+  @NonNull
+  public Invokers.Method0<T> invoker0() throws IllegalAccessException {
+    return this.invoker(0, Invokers::method0);
+  }
+
+  /**
+   * Get an invoker for the method with 1 parameter. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 1 parameter
+   */
+  @NonNull
+  public Invokers.Method1<T> invoker1() throws IllegalAccessException {
+    return this.invoker(1, Invokers::method1);
+  }
+
+  /**
+   * Get an invoker for the method with 2 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 2 parameters
+   */
+  @NonNull
+  public Invokers.Method2<T> invoker2() throws IllegalAccessException {
+    return this.invoker(2, Invokers::method2);
+  }
+
+  /**
+   * Get an invoker for the method with 3 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 3 parameters
+   */
+  @NonNull
+  public Invokers.Method3<T> invoker3() throws IllegalAccessException {
+    return this.invoker(3, Invokers::method3);
+  }
+
+  /**
+   * Get an invoker for the method with 4 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 4 parameters
+   */
+  @NonNull
+  public Invokers.Method4<T> invoker4() throws IllegalAccessException {
+    return this.invoker(4, Invokers::method4);
+  }
+
+  /**
+   * Get an invoker for the method with 5 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 5 parameters
+   */
+  @NonNull
+  public Invokers.Method5<T> invoker5() throws IllegalAccessException {
+    return this.invoker(5, Invokers::method5);
+  }
+
+  /**
+   * Get an invoker for the method with 6 parameters. The invoker does not allocate an array of
+   * arguments, its return value is cast to the return type of the wrapper if present.
+   *
+   * @see Invokers
+   * @return the invoker of the method
+   * @throws IllegalAccessException if the handle of the method cannot be linked
+   * @throws IllegalArgumentException if the method does not have 6 parameters
+   */
+  @NonNull
+  public Invokers.Method6<T> invoker6() throws IllegalAccessException {
+    return this.invoker(6, Invokers::method6);
+  }
+
+  /**
+   * Get the invoker of the arity of the method, it is created on first use and shared by later
+   * calls.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  private <I> I invoker(int arity, @NonNull Function<MethodHandle, I> factory)
+      throws IllegalAccessException {
+    if (this.wrapped == null) return factory.apply(null);
+    if (this.wrapped.getParameterCount() != arity) {
+      throw new IllegalArgumentException(this.wrapped + " does not have " + arity + " parameters");
+    }
+    Object invoker = this.fixed;
+    if (invoker == null) {
+      invoker = factory.apply(Handles.invoker(this.reflected(), this.returnType));
+      this.fixed = invoker;
+    }
+    return (I) invoker;
+  }
+
   /**
    * The type that the method returns when {@link #prepare(Object, Object...)}
    *
@@ -121,6 +402,23 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
     return this.wrapped;
   }
 
+  /**
+   * Get the wrapped method to use it through reflection, making it accessible the first time.
+   * Wrapping a method does not make it accessible, so members that cannot be made accessible, such
+   * as the ones of modules that are not open, can still be wrapped and inspected.
+   *
+   * @return the accessible method
+   */
+  @NonNull
+  private Method reflected() {
+    Method method = this.wrapped;
+    if (!this.accessible) {
+      method.setAccessible(true);
+      this.accessible = true;
+    }
+    return method;
+  }
+
   @Override
   public String toString() {
     return new StringJoiner(", ", WrappedMethod.class.getSimpleName() + "[", "]")
@@ -140,6 +438,6 @@ public final class WrappedMethod<T> extends LangWrapper<Method> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), returnType) + super.hashCode();
+    return 31 * super.hashCode() + Objects.hashCode(returnType);
   }
 }
@@ -0,0 +1,82 @@
+package me.googas.reflect.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CacheManagerTest {
+
+  @Test
+  void invalidatingALoaderDropsItsValues() throws Exception {
+    AtomicInteger computed = new AtomicInteger();
+    ClassCache<Object> cache = new ClassCache<>(type -> computed.incrementAndGet());
+    URL classes = CacheManagerTest.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null)) {
+      Class<?> first = loader.loadClass(First.class.getName());
+      Class<?> second = loader.loadClass(Second.class.getName());
+      List<ClassLoader> invalidated = new ArrayList<>();
+      CacheManager.onInvalidate(invalidated::add);
+      assertEquals(1, cache.get(first));
+      assertEquals(2, cache.get(second));
+      assertEquals(1, cache.get(first));
+      assertEquals(2, CacheManager.size(loader));
+      CacheManager.invalidate(loader);
+      assertEquals(0, CacheManager.size(loader));
+      assertTrue(invalidated.contains(loader));
+      assertEquals(3, cache.get(first));
+      assertEquals(1, CacheManager.size(loader));
+      CacheManager.invalidate(loader);
+    }
+  }
+
+  @Test
+  void valuesNotReadRecentlyAreEvicted() {
+    AtomicInteger computed = new AtomicInteger();
+    ClassCache<Object> cache = new ClassCache<>(type -> computed.incrementAndGet());
+    int maximumSize = CacheManager.getMaximumSize();
+    try {
+      CacheManager.setMaximumSize(1);
+      assertEquals(1, CacheManager.size());
+      assertEquals(1, cache.get(First.class));
+      // The value being computed is kept even though it goes over the maximum
+      assertSame(cache.get(First.class), cache.get(First.class));
+      assertEquals(2, cache.get(Second.class));
+      assertEquals(1, CacheManager.size());
+      assertEquals(3, cache.get(First.class));
+    } finally {
+      CacheManager.setMaximumSize(maximumSize);
+    }
+  }
+
+  @Test
+  void discardedCachesAreNotKeptByTheManager() throws InterruptedException {
+    ClassCache<Object> cache = new ClassCache<>(type -> new byte[1024]);
+    cache.get(First.class);
+    WeakReference<ClassCache<Object>> reference = new WeakReference<>(cache);
+    cache = null;
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(reference.get());
+  }
+
+  @Test
+  void maximumSizeMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> CacheManager.setMaximumSize(0));
+  }
+
+  public static class First {}
+
+  public static class Second {}
+}
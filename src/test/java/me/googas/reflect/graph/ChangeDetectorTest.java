@@ -0,0 +1,98 @@
+package me.googas.reflect.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.BitSet;
+import java.util.EventObject;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChangeDetectorTest {
+
+  @Test
+  void subclassesOfClosedModulesAreCompared() {
+    ChangeDetector detector = ChangeDetector.create();
+    List<Field> fields = detector.fields(Event.class);
+    assertEquals("id", fields.get(0).getName());
+    assertEquals("source", fields.get(1).getName());
+    Object source = new Object();
+    assertTrue(detector.diff(new Event(source, 1), new Event(source, 1)).isEmpty());
+    BitSet changes = detector.diff(new Event(source, 1), new Event(new Object(), 2));
+    assertTrue(changes.get(0));
+    assertTrue(changes.get(1));
+  }
+
+  @Test
+  void primitivesAreComparedByValue() {
+    ChangeDetector detector = ChangeDetector.create();
+    List<Field> fields = detector.fields(Point.class);
+    BitSet changes = detector.diff(new Point(1, Double.NaN, "a"), new Point(2, Double.NaN, "a"));
+    assertEquals(1, changes.cardinality());
+    assertEquals("x", fields.get(changes.nextSetBit(0)).getName());
+    assertTrue(detector.diff(new Point(0, 0.0, "a"), new Point(0, -0.0, "a")).get(1));
+    assertTrue(detector.diff(new Point(0, 0, "a"), new Point(0, 0, new String("a"))).isEmpty());
+  }
+
+  @Test
+  void filteredFieldsAreIgnored() {
+    ChangeDetector detector =
+        ChangeDetector.create().filter(field -> !Modifier.isTransient(field.getModifiers()));
+    assertEquals(1, detector.fields(Event.class).size());
+    assertFalse(
+        detector.diff(new Event(new Object(), 1), new Event(new Object(), 1), new BitSet()));
+  }
+
+  @Test
+  void snapshotsCompareCopiesWithEquals() {
+    ChangeDetector detector = ChangeDetector.create();
+    Event event = new Event(new Source(), 1);
+    // Copies of objects without equals are different from the originals
+    assertTrue(detector.diff(DeepCloner.create().copy(event), event).get(1));
+    Event snapshot = DeepCloner.create().share(Source.class).copy(event);
+    assertNotSame(event, snapshot);
+    assertTrue(detector.diff(snapshot, event).isEmpty());
+    Point point = new Point(1, 2, "a");
+    assertTrue(detector.diff(DeepCloner.create().copy(point), point).isEmpty());
+  }
+
+  @Test
+  void differentClassesAreRejected() {
+    ChangeDetector detector = ChangeDetector.create();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> detector.diff(new Event(new Object(), 1), new Point(0, 0, "a")));
+  }
+
+  public static class Event extends EventObject {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+
+    public Event(Object source, int id) {
+      super(source);
+      this.id = id;
+    }
+  }
+
+  public static class Source {}
+
+  public static class Point {
+
+    private final int x;
+    private final double y;
+    private final String label;
+
+    public Point(int x, double y, String label) {
+      this.x = x;
+      this.y = y;
+      this.label = label;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package me.googas.reflect.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.junit.jupiter.api.Test;
+
+class DeepClonerTest {
+
+  @Test
+  void cyclesAndSharedReferencesKeepTheirShape() {
+    Node shared = new Node("shared", null);
+    Node first = new Node("first", shared);
+    Node second = new Node("second", shared);
+    first.next = second;
+    second.next = first;
+    Node copy = DeepCloner.create().copy(first);
+    assertNotSame(first, copy);
+    assertEquals("first", copy.name);
+    assertSame(copy, copy.next.next);
+    assertSame(copy.shared, copy.next.shared);
+    assertNotSame(shared, copy.shared);
+    assertArrayEquals(first.values, copy.values);
+    assertNotSame(first.values, copy.values);
+  }
+
+  @Test
+  void containersThatContainThemselvesAreCopied() {
+    List<Object> list = new ArrayList<>();
+    list.add(list);
+    Map<String, Object> map = new HashMap<>();
+    map.put("self", map);
+    List<Object> listCopy = DeepCloner.create().copy(list);
+    Map<String, Object> mapCopy = DeepCloner.create().copy(map);
+    assertSame(listCopy, listCopy.get(0));
+    assertSame(mapCopy, mapCopy.get("self"));
+  }
+
+  @Test
+  void fieldsOfContainerSubclassesAreCopiedDeeply() {
+    Tagged original = new Tagged(new Node("tag", null), 3);
+    original.add(new Node("element", null));
+    Tagged copy = DeepCloner.create().copy(original);
+    assertNotSame(original.tag, copy.tag);
+    assertEquals("tag", copy.tag.name);
+    assertEquals(3, copy.weight);
+    assertEquals(1, copy.size());
+    assertNotSame(original.get(0), copy.get(0));
+    TaggedMap map = new TaggedMap();
+    map.tag = new Node("tag", null);
+    map.put("key", map.tag);
+    TaggedMap mapCopy = DeepCloner.create().copy(map);
+    assertNotSame(map.tag, mapCopy.tag);
+    assertSame(mapCopy.tag, mapCopy.get("key"));
+  }
+
+  @Test
+  void containersAreNotReplacedByOtherClasses() {
+    Fixed fixed = Fixed.of(new Node("element", null));
+    Fixed copy = DeepCloner.create().copy(fixed);
+    assertEquals(Fixed.class, copy.getClass());
+    assertNotSame(fixed.get(0), copy.get(0));
+    ArrayBlockingQueue<Node> queue = new ArrayBlockingQueue<>(2);
+    queue.add(new Node("element", null));
+    ArrayBlockingQueue<Node> queueCopy = DeepCloner.create().copy(queue);
+    assertEquals(ArrayBlockingQueue.class, queueCopy.getClass());
+    assertEquals(1, queueCopy.remainingCapacity());
+    assertEquals("element", queueCopy.poll().name);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void containersHoldingTheirOwnElementsAreCopiedOnce() {
+    Bag bag = new Bag();
+    bag.add("x");
+    bag.add("y");
+    Bag copy = DeepCloner.create().copy(bag);
+    assertEquals(Arrays.asList("x", "y"), new ArrayList<>(copy));
+    assertNotSame(bag.items, copy.items);
+    copy.add("z");
+    assertEquals(2, bag.size());
+  }
+
+  @Test
+  void unmodifiableContainersAreCopied() {
+    Node node = new Node("element", null);
+    List<Node> list = Collections.unmodifiableList(Arrays.asList(node, node));
+    List<Node> copy = DeepCloner.create().copy(list);
+    assertEquals(2, copy.size());
+    assertNotSame(node, copy.get(0));
+    assertSame(copy.get(0), copy.get(1));
+    Set<String> sorted = Collections.unmodifiableSortedSet(new TreeSet<>(Arrays.asList("b", "a")));
+    Set<String> sortedCopy = DeepCloner.create().copy(sorted);
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(sortedCopy));
+    Map<String, Node> map = Collections.singletonMap("key", node);
+    Map<String, Node> mapCopy = DeepCloner.create().copy(map);
+    assertTrue(mapCopy.containsKey("key"));
+    assertNotSame(node, mapCopy.get("key"));
+  }
+
+  public static class Node {
+
+    private final String name;
+    private final Node shared;
+    private Node next;
+    private final int[] values = {1, 2, 3};
+
+    public Node(String name, Node shared) {
+      this.name = name;
+      this.shared = shared;
+    }
+  }
+
+  public static class Tagged extends ArrayList<Node> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Node tag;
+    private final int weight;
+
+    public Tagged(Node tag, int weight) {
+      this.tag = tag;
+      this.weight = weight;
+    }
+  }
+
+  public static class TaggedMap extends HashMap<String, Node> {
+
+    private static final long serialVersionUID = 1L;
+
+    private Node tag;
+  }
+
+  /** A collection that holds its elements in fields of its own. */
+  public static class Bag extends AbstractCollection<String> {
+
+    private String[] items = new String[4];
+    private int size;
+
+    @Override
+    public boolean add(String item) {
+      if (this.size == this.items.length) this.items = Arrays.copyOf(this.items, this.size * 2);
+      this.items[this.size++] = item;
+      return true;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return Arrays.asList(this.items).subList(0, this.size).iterator();
+    }
+
+    @Override
+    public int size() {
+      return this.size;
+    }
+  }
+
+  /** A list without a public constructor nor clone. */
+  public static final class Fixed extends AbstractList<Node> {
+
+    private final Node[] elements;
+
+    private Fixed(Node[] elements) {
+      this.elements = elements;
+    }
+
+    public static Fixed of(Node... elements) {
+      return new Fixed(elements);
+    }
+
+    @Override
+    public Node get(int index) {
+      return this.elements[index];
+    }
+
+    @Override
+    public int size() {
+      return this.elements.length;
+    }
+  }
+}
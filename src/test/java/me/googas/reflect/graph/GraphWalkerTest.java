@@ -0,0 +1,90 @@
+package me.googas.reflect.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class GraphWalkerTest {
+
+  @Test
+  void cyclesAndSharedReferencesAreVisitedOnce() {
+    Node shared = new Node(null);
+    Node first = new Node(shared);
+    Node second = new Node(shared);
+    first.next = second;
+    second.next = first;
+    Map<Object, Integer> visits = new IdentityHashMap<>();
+    long count =
+        GraphWalker.create()
+            .walk(
+                first,
+                object -> {
+                  visits.merge(object, 1, Integer::sum);
+                  return true;
+                });
+    assertEquals(3, count);
+    assertEquals(3, visits.size());
+    visits.values().forEach(times -> assertEquals(1, times));
+  }
+
+  @Test
+  void visitorsCanStopAtAnObject() {
+    Node leaf = new Node(null);
+    Node middle = new Node(leaf);
+    Node root = new Node(middle);
+    assertEquals(2, GraphWalker.create().walk(root, object -> object != middle));
+  }
+
+  @Test
+  void wideGraphsAreWalkedInParallel() {
+    Node shared = new Node(null);
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      nodes.add(new Node(shared, i));
+    }
+    // The list is walked through its API, so its array is not reached
+    long expected = nodes.size() + 2;
+    Set<Object> visited = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      long count =
+          GraphWalker.create()
+              .walk(
+                  nodes,
+                  object -> {
+                    if (object instanceof Node) visited.add(object);
+                    return true;
+                  },
+                  pool);
+      assertEquals(expected, count);
+      assertEquals(nodes.size() + 1, visited.size());
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(expected, GraphWalker.create().walk(nodes, object -> true));
+  }
+
+  public static class Node {
+
+    private Node next;
+    private final Node shared;
+    private final int value;
+
+    public Node(Node shared) {
+      this(shared, 0);
+    }
+
+    public Node(Node shared, int value) {
+      this.shared = shared;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package me.googas.reflect.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void valuesAreCountedInTheBucketOfTheirBitLength() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(2);
+    histogram.record(3);
+    histogram.record(4);
+    histogram.record(1023);
+    histogram.record(1024);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(2, histogram.getCount(0));
+    assertEquals(1, histogram.getCount(1));
+    assertEquals(2, histogram.getCount(2));
+    assertEquals(1, histogram.getCount(3));
+    assertEquals(1, histogram.getCount(10));
+    assertEquals(1, histogram.getCount(11));
+    assertEquals(1, histogram.getCount(63));
+    assertEquals(9, histogram.getCount());
+  }
+
+  @Test
+  void percentilesAreTheHighestValueOfTheirBucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(1000);
+    }
+    histogram.record(5000);
+    // 1000 is in [512, 1024) and 5000 in [4096, 8192)
+    assertEquals(1023, histogram.getPercentile(50));
+    assertEquals(1023, histogram.getPercentile(99));
+    assertEquals(8191, histogram.getPercentile(100));
+    assertEquals(1023, histogram.getPercentile(-1));
+  }
+
+  @Test
+  void percentilesNeverUnderReport() {
+    for (long value = 1; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 + 1) {
+      LatencyHistogram single = new LatencyHistogram();
+      single.record(value);
+      long bound = single.getPercentile(100);
+      assertTrue(bound >= value && bound < value * 2, value + " bounded by " + bound);
+    }
+    LatencyHistogram highest = new LatencyHistogram();
+    highest.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, highest.getPercentile(100));
+  }
+
+  @Test
+  void emptyHistogramsReportZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(0, histogram.getMean());
+  }
+}
@@ -0,0 +1,25 @@
+package me.googas.reflect.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class SimpleMetricsSinkTest {
+
+  @Test
+  void invocationsAreKeptBySignature() throws Exception {
+    SimpleMetricsSink sink = new SimpleMetricsSink();
+    sink.invocation(String.class.getMethod("substring", int.class, int.class), 10);
+    sink.invocation(String.class.getMethod("substring", int.class, int.class), 20);
+    sink.invocation(ArrayList.class.getConstructor(int.class), 30);
+    sink.invocation(String.class.getMethod("toCharArray"), 40);
+    assertEquals(3, sink.getInvocations().size());
+    assertEquals(2, sink.getInvocations().get("java.lang.String#substring(int,int)").getCount());
+    assertEquals(1, sink.getInvocations().get("java.util.ArrayList#<init>(int)").getCount());
+    assertEquals(1, sink.getInvocations().get("java.lang.String#toCharArray()").getCount());
+    assertEquals(
+        "java.lang.String#CASE_INSENSITIVE_ORDER",
+        SimpleMetricsSink.signature(String.class.getField("CASE_INSENSITIVE_ORDER")));
+  }
+}
@@ -0,0 +1,116 @@
+package me.googas.reflect.proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import me.googas.reflect.wrappers.WrappedClass;
+import org.junit.jupiter.api.Test;
+
+class ProxyFactoryTest {
+
+  @Test
+  void methodsCallTheirBoundTargets() throws Exception {
+    Impl impl = new Impl();
+    Calculator calculator =
+        ProxyFactory.of(Calculator.class)
+            .bind("add", impl, WrappedClass.of(Impl.class).getMethod("sum", int.class, int.class))
+            .bind(
+                "describe",
+                MethodHandles.lookup()
+                    .findStatic(
+                        String.class, "valueOf", MethodType.methodType(String.class, Object.class)),
+                Object.class)
+            .create();
+    assertEquals(5, calculator.add(2, 3));
+    assertEquals("7", calculator.describe(7));
+    assertEquals(12L, calculator.twice(6));
+    assertThrows(UnsupportedOperationException.class, () -> calculator.name());
+  }
+
+  @Test
+  void bindAllUsesTheMethodsOfAnInstance() throws Exception {
+    Calculator calculator = ProxyFactory.of(Calculator.class).bindAll(new Impl()).create();
+    assertEquals(5, calculator.add(2, 3));
+    assertEquals("impl", calculator.name());
+    assertEquals("described 1", calculator.describe(1));
+  }
+
+  @Test
+  void exceptionsAreThrownAsTheyAre() throws Exception {
+    Calculator calculator = ProxyFactory.of(Calculator.class).bindAll(new Impl()).create();
+    assertThrows(IOException.class, calculator::read);
+  }
+
+  @Test
+  void proxiesShareTheirClassButNotTheirTargets() throws Exception {
+    ProxyFactory<Calculator> factory = ProxyFactory.of(Calculator.class);
+    Calculator unbound = factory.create();
+    Calculator bound = factory.bindAll(new Impl()).create();
+    assertSame(unbound.getClass(), bound.getClass());
+    assertSame(unbound.getClass(), ProxyFactory.of(Calculator.class).create().getClass());
+    assertThrows(UnsupportedOperationException.class, () -> unbound.add(1, 2));
+    assertEquals(3, bound.add(1, 2));
+    assertEquals(bound, bound);
+    assertNotEquals(bound, unbound);
+    assertTrue(bound.toString().startsWith(bound.getClass().getName()));
+  }
+
+  @Test
+  void invalidBindingsAreRejected() {
+    ProxyFactory<Calculator> factory = ProxyFactory.of(Calculator.class);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> factory.bind("add", MethodHandles.constant(String.class, "x"), int.class, int.class));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> factory.bind("missing", MethodHandles.constant(int.class, 1)));
+    assertThrows(IllegalArgumentException.class, () -> ProxyFactory.of(Impl.class));
+    assertThrows(IllegalArgumentException.class, () -> ProxyFactory.of(Hidden.class));
+  }
+
+  public interface Calculator {
+
+    int add(int first, int second);
+
+    String describe(Object value);
+
+    String name();
+
+    void read() throws IOException;
+
+    default long twice(long value) {
+      return value * 2;
+    }
+  }
+
+  interface Hidden {}
+
+  public static class Impl {
+
+    public int sum(int first, int second) {
+      return first + second;
+    }
+
+    public int add(int first, int second) {
+      return first + second;
+    }
+
+    private String name() {
+      return "impl";
+    }
+
+    String describe(Object value) {
+      return "described " + value;
+    }
+
+    public void read() throws IOException {
+      throw new IOException();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package me.googas.reflect.resolve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import me.googas.reflect.wrappers.WrappedClass;
+import me.googas.reflect.wrappers.WrappedMethod;
+import org.junit.jupiter.api.Test;
+
+class MemberResolverTest {
+
+  private static final String MAPPINGS =
+      "# compiler: R8\n"
+          + "com.example.Level -> "
+          + Level.class.getName()
+          + ":\n"
+          + "    # {\"id\":\"sourceFile\"}\n"
+          + "    int time -> b\n"
+          + "    12:14:void tick(int,java.lang.String) -> c\n"
+          + "    1:1:void com.example.Other.run():5:5 -> d\n"
+          + "\n"
+          + "com.example.Skipped -> z:\n"
+          + "    int time -> a\n";
+
+  @Test
+  void mappingsKeepOnlyTheMappedNames() throws IOException {
+    Mappings mappings =
+        Mappings.read(
+            new StringReader(MemberResolverTest.MAPPINGS),
+            name -> !name.equals("com.example.Skipped"));
+    assertEquals(1, mappings.size());
+    assertNull(mappings.getClassName("com.example.Skipped"));
+    assertEquals(Level.class.getName(), mappings.getClassName("com.example.Level"));
+    assertEquals("b", mappings.getFieldName("com.example.Level", "time"));
+    assertEquals(
+        "c",
+        mappings.getMethodName(
+            "com.example.Level", Signature.of("tick", "int", "java.lang.String")));
+    // Members inlined from other classes are not mapped
+    assertNull(mappings.getMethodName("com.example.Level", Signature.of("run")));
+    assertThrows(IOException.class, () -> Mappings.read(new StringReader("broken"), name -> true));
+  }
+
+  @Test
+  void originalNamesAreTranslatedWithMappings() throws IOException {
+    MemberResolver resolver =
+        MemberResolver.create(
+            MemberResolverTest.class.getClassLoader(),
+            Mappings.read(new StringReader(MemberResolverTest.MAPPINGS), name -> true));
+    WrappedClass<?> level = resolver.resolveClass("com.example.Missing", "com.example.Level");
+    assertSame(Level.class, level.getClazz());
+    assertEquals("b", resolver.resolveField(Level.class, "time").getWrapped().getName());
+    // Mapped fields of superclasses are found from subclasses
+    assertEquals("b", resolver.resolveField(Child.class, "time").getWrapped().getName());
+    WrappedMethod<?> tick =
+        resolver.resolveMethod(Child.class, Signature.of("tick", "int", "java.lang.String"));
+    assertEquals("c", tick.getMethod().getName());
+  }
+
+  @Test
+  void candidatesAreProbedInOrderAndCached() {
+    MemberResolver resolver = MemberResolver.create(MemberResolverTest.class.getClassLoader());
+    assertSame(
+        Level.class, resolver.resolveClass("missing.Level", Level.class.getName()).getClazz());
+    assertSame(
+        resolver.resolveClass("missing.Level", Level.class.getName()),
+        resolver.resolveClass("missing.Level", Level.class.getName()));
+    assertEquals("b", resolver.resolveField(Child.class, "time", "b").getWrapped().getName());
+    assertSame(
+        resolver.resolveField(Child.class, "time", "b"),
+        resolver.resolveField(Child.class, "time", "b"));
+    WrappedMethod<?> tick =
+        resolver.resolveMethod(
+            Level.class,
+            Signature.of("tick", "int", "java.lang.String"),
+            Signature.of("c", "int", "java.lang.String"));
+    assertEquals("c", tick.getMethod().getName());
+  }
+
+  @Test
+  void missesAreEmpty() {
+    MemberResolver resolver = MemberResolver.create(MemberResolverTest.class.getClassLoader());
+    assertNull(resolver.resolveClass("missing.Level").getClazz());
+    assertNull(resolver.resolveField(Level.class, "time").getWrapped());
+    // Signatures with parameter types that cannot be found are skipped
+    assertNull(resolver.resolveMethod(Level.class, Signature.of("c", "missing.Type")).getMethod());
+    assertEquals(
+        "c",
+        resolver
+            .resolveMethod(
+                Level.class,
+                Signature.of("c", "missing.Type"),
+                Signature.of("c", "int", String.class.getName()))
+            .getMethod()
+            .getName());
+  }
+
+  public static class Level {
+
+    private int b;
+
+    void c(int time, String reason) {}
+  }
+
+  public static class Child extends Level {}
+}
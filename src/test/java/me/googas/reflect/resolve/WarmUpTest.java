@@ -0,0 +1,86 @@
+package me.googas.reflect.resolve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class WarmUpTest {
+
+  @Test
+  void declaredMembersAreResolvedInTheExecutor() throws Throwable {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MemberRegistry registry =
+          WarmUp.create(MemberResolver.create(WarmUpTest.class.getClassLoader()))
+              .type("level", "missing.Level", Level.class.getName())
+              .field("time", "level", "ticks", "time")
+              .field("name", "level", "name")
+              .method("tick", "level", Signature.of("tick", "int"))
+              .type("string", String.class.getName())
+              .method("length", "string", Signature.of("length"))
+              .resolve(executor)
+              .join()
+              .requireComplete();
+      assertTrue(registry.isComplete());
+      assertSame(Level.class, registry.getType("level").getClazz());
+      Level level = new Level();
+      registry.getMethod("tick").invokeHandle(level, 3);
+      assertEquals(3, registry.getField("time").getter().apply(level));
+      assertEquals(5, registry.getMethod("length").invokeHandle("level"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void missingMembersAreListed() {
+    MemberRegistry registry =
+        WarmUp.create(MemberResolver.create(WarmUpTest.class.getClassLoader()))
+            .type("level", Level.class.getName())
+            .field("time", "level", "ticks")
+            .type("world", "missing.World")
+            .method("save", "world", Signature.of("save"))
+            .resolve(Runnable::run)
+            .join();
+    assertFalse(registry.isComplete());
+    assertEquals(
+        Arrays.asList(
+            "time: field ticks in " + Level.class.getName(),
+            "world: class missing.World",
+            "save: method save() in missing world"),
+        registry.getMissing());
+    assertNull(registry.getField("time").getWrapped());
+    assertNull(registry.getMethod("save").getMethod());
+    assertThrows(IllegalStateException.class, registry::requireComplete);
+    assertThrows(IllegalArgumentException.class, () -> registry.getField("save"));
+    assertThrows(IllegalArgumentException.class, () -> registry.getType("other"));
+  }
+
+  @Test
+  void keysMustBeUniqueAndClassesDeclaredFirst() {
+    WarmUp warmUp =
+        WarmUp.create(MemberResolver.create(WarmUpTest.class.getClassLoader()))
+            .type("level", Level.class.getName())
+            .field("time", "level", "time");
+    assertThrows(IllegalArgumentException.class, () -> warmUp.type("time", "missing.Time"));
+    assertThrows(IllegalArgumentException.class, () -> warmUp.method("tick", "world"));
+  }
+
+  public static class Level {
+
+    private int time;
+    public final String name = "level";
+
+    public void tick(int ticks) {
+      this.time += ticks;
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package me.googas.reflect.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import me.googas.reflect.wrappers.WrappedClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassScannerTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void annotationsAndSubtypesAreIndexed() throws IOException {
+    ClassIndex index =
+        ClassScanner.of(ClassScannerTest.class.getClassLoader())
+            .addRoot(
+                this.copy(this.directory.resolve("classes"), Base.class, Middle.class, Leaf.class))
+            .scan();
+    assertEquals(3, index.size());
+    assertTrue(index.contains(Leaf.class.getName()));
+    assertEquals(
+        new HashSet<>(Arrays.asList(Middle.class.getName(), Leaf.class.getName())),
+        index.getSubtypeNames(Base.class.getName()));
+    assertEquals(2, index.getSubtypes(Base.class).size());
+    assertEquals(
+        Arrays.asList(Middle.class.getName()), index.getAnnotatedNames(Visible.class.getName()));
+    // Annotations kept only in the class file are indexed too
+    assertEquals(
+        Arrays.asList(Leaf.class.getName()), index.getAnnotatedNames(Invisible.class.getName()));
+    assertEquals(WrappedClass.of(Middle.class), index.getAnnotated(Visible.class).get(0));
+  }
+
+  @Test
+  void jarsAndDirectoriesAreScannedAndFiltered() throws IOException {
+    Path classes = this.copy(this.directory.resolve("classes"), Base.class, Middle.class);
+    Files.write(classes.resolve("Broken.class"), new byte[] {1, 2, 3});
+    Path jar = this.directory.resolve("classes.jar");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (Class<?> type : new Class<?>[] {Leaf.class, Middle.class}) {
+        out.putNextEntry(new ZipEntry(ClassScannerTest.entry(type)));
+        try (InputStream in = ClassScannerTest.open(type)) {
+          ClassScannerTest.transfer(in, out);
+        }
+      }
+      out.putNextEntry(new ZipEntry("other/Other.class"));
+      out.write(new byte[] {(byte) 0xCA, (byte) 0xFE});
+    }
+    ClassIndex index =
+        ClassScanner.of(ClassScannerTest.class.getClassLoader())
+            .addRoot(classes)
+            .addRoot(jar)
+            .addRoot(this.directory.resolve("missing"))
+            .include(ClassScannerTest.class.getPackage().getName())
+            .scan();
+    assertEquals(3, index.size());
+    assertFalse(index.contains("Broken"));
+    assertTrue(index.getSubtypeNames(Leaf.class.getName()).isEmpty());
+  }
+
+  @Test
+  void missingClassesAreSkippedWhenWrapped() throws IOException {
+    ClassIndex index =
+        ClassScanner.of(new ClassLoader(null) {})
+            .addRoot(this.copy(this.directory.resolve("classes"), Base.class, Middle.class))
+            .scan();
+    assertEquals(1, index.getSubtypeNames(Base.class.getName()).size());
+    assertTrue(index.getSubtypes(Base.class).isEmpty());
+  }
+
+  @Test
+  void classesThatCannotBeLinkedAreSkipped() throws IOException {
+    // The superclass of the orphan is not copied
+    Path classes =
+        this.copy(
+            this.directory.resolve("classes"),
+            Visible.class,
+            Base.class,
+            Middle.class,
+            Orphan.class,
+            Loud.class);
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, null)) {
+      ClassIndex index = ClassScanner.of(loader).addRoot(classes).scan();
+      assertEquals(3, index.getAnnotatedNames(Visible.class.getName()).size());
+      Set<String> annotated = new HashSet<>();
+      for (WrappedClass<?> wrapper : index.getAnnotated(Visible.class)) {
+        annotated.add(wrapper.getClazz().getName());
+      }
+      // Wrapping does not run the static initializer of the loud class
+      assertEquals(
+          new HashSet<>(Arrays.asList(Middle.class.getName(), Loud.class.getName())), annotated);
+    }
+  }
+
+  private Path copy(Path root, Class<?>... types) throws IOException {
+    for (Class<?> type : types) {
+      Path file = root.resolve(ClassScannerTest.entry(type));
+      Files.createDirectories(file.getParent());
+      try (InputStream in = ClassScannerTest.open(type);
+          OutputStream out = Files.newOutputStream(file)) {
+        ClassScannerTest.transfer(in, out);
+      }
+    }
+    return root;
+  }
+
+  private static String entry(Class<?> type) {
+    return type.getName().replace('.', '/') + ".class";
+  }
+
+  private static InputStream open(Class<?> type) {
+    return type.getClassLoader().getResourceAsStream(ClassScannerTest.entry(type));
+  }
+
+  private static void transfer(InputStream in, OutputStream out) throws IOException {
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  public @interface Visible {}
+
+  @Retention(RetentionPolicy.CLASS)
+  public @interface Invisible {}
+
+  public interface Base {}
+
+  @Visible
+  public abstract static class Middle implements Base {}
+
+  @Invisible
+  public static final class Leaf extends Middle {}
+
+  public static class Parent {}
+
+  @Visible
+  public static class Orphan extends Parent {}
+
+  @Visible
+  public static class Loud {
+
+    static {
+      if (true) throw new IllegalStateException("Initialized");
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package me.googas.reflect.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import org.junit.jupiter.api.Test;
+
+class AnnotationIndexTest {
+
+  @Test
+  void copiesOfAMemberShareTheirIndex() throws Exception {
+    Method first = Sample.class.getMethod("run", String.class);
+    Method second = Sample.class.getMethod("run", String.class);
+    assertSame(AnnotationIndex.of(first), AnnotationIndex.of(second));
+    assertTrue(ReflectUtil.hasAnnotation(first, Marker.class));
+    assertEquals("run", ReflectUtil.getAnnotation(second, Marker.class).value());
+    assertFalse(AnnotationIndex.of(first).has(Inheritable.class));
+    assertNull(AnnotationIndex.of(first).get(Inheritable.class));
+  }
+
+  @Test
+  void classesIncludeInheritedAnnotations() {
+    AnnotationIndex index = AnnotationIndex.of(Child.class);
+    assertSame(index, AnnotationIndex.of(Child.class));
+    assertTrue(index.has(Inheritable.class));
+    assertFalse(index.has(Marker.class));
+    assertEquals(1, index.getAll().size());
+    assertTrue(AnnotationIndex.of(Sample.class).has(Marker.class));
+  }
+
+  @Test
+  void parametersAndFieldsAreIndexed() throws Exception {
+    Parameter parameter = Sample.class.getMethod("run", String.class).getParameters()[0];
+    assertEquals("parameter", AnnotationIndex.of(parameter).get(Marker.class).value());
+    assertTrue(ReflectUtil.hasAnnotation(Sample.class.getField("name"), Marker.class));
+  }
+
+  @Test
+  void elementsWithoutAnnotationsAreEmpty() throws Exception {
+    Method plain = Sample.class.getMethod("plain");
+    assertTrue(AnnotationIndex.of(plain).isEmpty());
+    assertTrue(AnnotationIndex.of(plain).getAll().isEmpty());
+    assertThrows(
+        IllegalArgumentException.class, () -> ReflectUtil.getAnnotation(plain, Marker.class));
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  public @interface Marker {
+    String value() default "";
+  }
+
+  @Inherited
+  @Retention(RetentionPolicy.RUNTIME)
+  public @interface Inheritable {}
+
+  @Marker
+  @Inheritable
+  public static class Sample {
+
+    @Marker public String name;
+
+    @Marker("run")
+    public void run(@Marker("parameter") String value) {}
+
+    public void plain() {}
+  }
+
+  public static class Child extends Sample {}
+}
@@ -0,0 +1,70 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.googas.reflect.cache.CacheManager;
+import org.junit.jupiter.api.Test;
+
+class AsyncInvokerTest {
+
+  @Test
+  void limitsSurviveCacheInvalidation() throws Exception {
+    WrappedMethod<Integer> block = WrappedClass.of(Blocker.class).getMethod(int.class, "block");
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      AsyncInvoker invoker = AsyncInvoker.create().executor(executor).limit(1);
+      CompletableFuture<Integer> first = invoker.prepare(block, null);
+      assertTrue(Blocker.STARTED.await(5, TimeUnit.SECONDS));
+      CacheManager.invalidate(Blocker.class.getClassLoader());
+      CompletableFuture<Integer> second = invoker.prepare(block, null);
+      Thread.sleep(50);
+      assertFalse(second.isDone());
+      Blocker.RELEASE.countDown();
+      assertEquals(1, first.get(5, TimeUnit.SECONDS));
+      assertEquals(1, second.get(5, TimeUnit.SECONDS));
+      assertEquals(1, Blocker.MAXIMUM.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void exceptionsAreNotWrapped() {
+    WrappedMethod<?> fail = WrappedClass.of(Blocker.class).getMethod("fail");
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class, () -> AsyncInvoker.create().invoke(fail, null).get());
+    assertEquals(IllegalStateException.class, e.getCause().getClass());
+  }
+
+  public static class Blocker {
+
+    static final CountDownLatch STARTED = new CountDownLatch(1);
+    static final CountDownLatch RELEASE = new CountDownLatch(1);
+    static final AtomicInteger RUNNING = new AtomicInteger();
+    static final AtomicInteger MAXIMUM = new AtomicInteger();
+
+    public static int block() throws InterruptedException {
+      int running = Blocker.RUNNING.incrementAndGet();
+      Blocker.MAXIMUM.accumulateAndGet(running, Math::max);
+      Blocker.STARTED.countDown();
+      Blocker.RELEASE.await(5, TimeUnit.SECONDS);
+      Blocker.RUNNING.decrementAndGet();
+      return running;
+    }
+
+    public static void fail() {
+      throw new IllegalStateException();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AtomicFieldTest {
+
+  @Test
+  void concurrentAdditionsAreNotLost() throws Exception {
+    AtomicField<?> count = WrappedClass.of(Counter.class).getDeclaredField("count").atomic();
+    AtomicField<?> total = WrappedClass.of(Counter.class).getDeclaredField("total").atomic();
+    Counter counter = new Counter();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 10_000; j++) {
+                  count.getAndAddInt(counter, 1);
+                  total.getAndAddLong(counter, 2);
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40_000, count.getIntAcquire(counter));
+    assertEquals(80_000L, total.getLongAcquire(counter));
+  }
+
+  @Test
+  void referencesAreComparedByIdentity() throws Exception {
+    AtomicField<String> name =
+        WrappedClass.of(Counter.class).getDeclaredField(String.class, "name").atomic();
+    Counter counter = new Counter();
+    String first = new String("first");
+    name.setRelease(counter, first);
+    assertFalse(name.compareAndSet(counter, new String("first"), "second"));
+    assertTrue(name.compareAndSet(counter, first, "second"));
+    assertEquals("second", name.getAndSet(counter, "third"));
+    assertEquals("third", name.getAcquire(counter));
+  }
+
+  @Test
+  void staticFieldsIgnoreTheInstance() throws Exception {
+    AtomicField<?> shared = WrappedClass.of(Counter.class).getDeclaredField("shared").atomic();
+    assertEquals(0, shared.getAndSetInt(null, 5));
+    assertTrue(shared.compareAndSetInt(new Counter(), 5, 6));
+    assertEquals(6, shared.getIntAcquire(null));
+  }
+
+  @Test
+  void unsupportedOperationsAreRejected() throws Exception {
+    WrappedClass<Counter> clazz = WrappedClass.of(Counter.class);
+    AtomicField<?> limit = clazz.getDeclaredField("limit").atomic();
+    Counter counter = new Counter();
+    assertEquals(10, limit.getIntAcquire(counter));
+    assertThrows(UnsupportedOperationException.class, () -> limit.getAndAddInt(counter, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> clazz.getDeclaredField("count").atomic().getLongAcquire(counter));
+    assertThrows(IllegalArgumentException.class, () -> clazz.getDeclaredField("ratio").atomic());
+  }
+
+  @Test
+  void emptyFieldsReturnDefaults() throws Exception {
+    AtomicField<?> missing = WrappedClass.of(Counter.class).getDeclaredField("missing").atomic();
+    assertSame(missing, WrappedClass.of(Counter.class).getDeclaredField("missing").atomic());
+    assertNull(missing.getField());
+    assertNull(missing.getAcquire(new Counter()));
+    assertEquals(0, missing.getAndAddInt(new Counter(), 1));
+    assertFalse(missing.compareAndSetLong(new Counter(), 0, 1));
+  }
+
+  public static class Counter {
+
+    private static int shared;
+
+    private final int limit = Integer.parseInt("10");
+    private volatile int count;
+    private volatile long total;
+    private volatile String name;
+    private double ratio;
+  }
+}
@@ -0,0 +1,100 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import me.googas.reflect.metrics.Metrics;
+import me.googas.reflect.metrics.MetricsSink;
+import me.googas.reflect.metrics.SimpleMetricsSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ClassLookupTest {
+
+  @AfterEach
+  void disableMetrics() {
+    Metrics.setSink(MetricsSink.NONE);
+  }
+
+  @Test
+  void foundClassesAreCached() {
+    ClassLoader loader = new DefiningLoader(Plain.class.getName(), null);
+    SimpleMetricsSink sink = new SimpleMetricsSink();
+    Metrics.setSink(sink);
+    Class<?> first = ClassLookup.find(Plain.class.getName(), loader);
+    Class<?> second = ClassLookup.find(Plain.class.getName(), loader);
+    assertSame(first, second);
+    assertNotSame(Plain.class, first);
+    assertEquals(1, sink.getQueries(Metrics.CLASS_CACHE, false));
+    assertEquals(1, sink.getQueries(Metrics.CLASS_CACHE, true));
+  }
+
+  @Test
+  void missingClassesAreCached() {
+    ClassLoader loader = new DefiningLoader(Plain.class.getName(), null);
+    SimpleMetricsSink sink = new SimpleMetricsSink();
+    Metrics.setSink(sink);
+    assertNull(ClassLookup.find("me.googas.reflect.Missing", loader));
+    assertNull(ClassLookup.find("me.googas.reflect.Missing", loader));
+    assertEquals(1, sink.getQueries(Metrics.CLASS_CACHE, false));
+    assertEquals(1, sink.getQueries(Metrics.CLASS_CACHE, true));
+    assertTrue(ClassLookup.missing(loader).contains("me.googas.reflect.Missing"));
+  }
+
+  @Test
+  void classesAreInitializedOnlyWhenRequired() {
+    ClassLoader loader = new DefiningLoader(Failing.class.getName(), null);
+    Class<?> clazz = ClassLookup.find(Failing.class.getName(), loader, false);
+    assertNotSame(Failing.class, clazz);
+    assertSame(clazz, ClassLookup.find(Failing.class.getName(), loader, false));
+    assertThrows(
+        ExceptionInInitializerError.class,
+        () -> ClassLookup.find(Failing.class.getName(), loader, true));
+    assertThrows(
+        NoClassDefFoundError.class, () -> ClassLookup.find(Failing.class.getName(), loader, true));
+  }
+
+  @Test
+  void initializersMayLookUpEachOther() {
+    WrappedClass<?> ping =
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(10), () -> WrappedClass.forName(Ping.class.getName()));
+    assertSame(Ping.class, ping.getClazz());
+    assertSame(Pong.class, Ping.PONG.getClazz());
+    assertSame(Ping.class, Pong.PING.getClazz());
+  }
+
+  @Test
+  void invalidatedLoadersAreResolvedAgain() {
+    ClassLoader loader = new DefiningLoader(Plain.class.getName(), null);
+    assertNull(ClassLookup.find("me.googas.reflect.Missing", loader));
+    ClassLookup.invalidate(loader);
+    assertFalse(ClassLookup.missing(loader).contains("me.googas.reflect.Missing"));
+  }
+
+  public static class Plain {}
+
+  public static class Ping {
+
+    static final WrappedClass<?> PONG = WrappedClass.forName(Pong.class.getName());
+  }
+
+  public static class Pong {
+
+    static final WrappedClass<?> PING = WrappedClass.forName(Ping.class.getName());
+  }
+
+  public static class Failing {
+
+    static {
+      if (true) throw new IllegalStateException("Failing to initialize");
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package me.googas.reflect.wrappers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Defines a class of the tests again, so it is a different class than the one of the tests, and
+ * fails to load another class.
+ */
+final class DefiningLoader extends ClassLoader {
+
+  private final String defined;
+  private final String hidden;
+
+  /**
+   * Create the loader.
+   *
+   * @param defined the name of the class to define again
+   * @param hidden the name of the class that cannot be loaded, null if all can be
+   */
+  DefiningLoader(String defined, String hidden) {
+    super(DefiningLoader.class.getClassLoader());
+    this.defined = defined;
+    this.hidden = hidden;
+  }
+
+  @Override
+  protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    synchronized (this.getClassLoadingLock(name)) {
+      if (name.equals(this.hidden)) throw new ClassNotFoundException(name);
+      if (!name.equals(this.defined)) return super.loadClass(name, resolve);
+      Class<?> loaded = this.findLoadedClass(name);
+      if (loaded != null) return loaded;
+      String resource = name.replace('.', '/') + ".class";
+      try (InputStream in = this.getParent().getResourceAsStream(resource)) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+          out.write(buffer, 0, read);
+        }
+        byte[] bytes = out.toByteArray();
+        return this.defineClass(name, bytes, 0, bytes.length);
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import org.junit.jupiter.api.Test;
+
+class DynamicCallTest {
+
+  @Test
+  void boxedArgumentsPreferReferenceParameters() throws Exception {
+    DynamicCall describe = DynamicCall.method(Target.class, "describe");
+    Target target = new Target("target");
+    assertEquals("Object", describe.invoke(target, 1));
+    assertEquals("String", describe.invoke(target, "text"));
+    assertEquals("String", describe.invoke(target, (Object) null));
+    assertEquals(Target.class.getMethod("describe", int.class), describe.select(int.class));
+    assertEquals(Target.class.getMethod("describe", int.class), describe.select(short.class));
+    assertEquals(Target.class.getMethod("describe", long.class), describe.select(long.class));
+  }
+
+  @Test
+  void argumentsAreUnboxedAndWidened() throws Exception {
+    DynamicCall twice = DynamicCall.method(Target.class, "twice");
+    assertEquals(6L, twice.invoke(null, 3));
+    assertEquals(6L, twice.invoke(null, (byte) 3));
+    assertEquals(8L, twice.invoke(null, 4L));
+    assertThrows(IllegalArgumentException.class, () -> twice.invoke(null, 1.5));
+  }
+
+  @Test
+  void variableArityIsTheLastPhase() throws Exception {
+    DynamicCall join = DynamicCall.method(Target.class, "join");
+    assertEquals("single", join.invoke(null, "a"));
+    assertEquals("ab", join.invoke(null, "a", "b"));
+    assertEquals("", join.invoke(null));
+    assertEquals("ab", join.invoke(null, (Object) new String[] {"a", "b"}));
+  }
+
+  @Test
+  void ambiguousAndMissingOverloadsAreRejected() {
+    DynamicCall pick = DynamicCall.method(Target.class, "pick");
+    assertThrows(IllegalArgumentException.class, () -> pick.invoke(null, 1, 2));
+    assertThrows(IllegalArgumentException.class, () -> pick.invoke(null, "a", "b"));
+    assertThrows(IllegalArgumentException.class, () -> DynamicCall.method(Target.class, "none"));
+  }
+
+  @Test
+  void cachedTargetsAreReused() throws Exception {
+    DynamicCall describe = DynamicCall.method(Target.class, "describe");
+    Target target = new Target("target");
+    // More distinct classes than the inline cache holds
+    Object[] values = {1, "text", 2L, 'c', 1.5, 1.5f, (short) 1, (byte) 1, true, new Object()};
+    for (int round = 0; round < 3; round++) {
+      for (Object value : values) {
+        assertEquals(value instanceof String ? "String" : "Object", describe.invoke(target, value));
+      }
+    }
+  }
+
+  @Test
+  void constructorsAndExceptionsAreHandled() throws Exception {
+    DynamicCall constructor = DynamicCall.constructor(Target.class);
+    assertEquals("name", ((Target) constructor.newInstance("name")).name);
+    assertEquals("3", ((Target) constructor.newInstance(3)).name);
+    InvocationTargetException e =
+        assertThrows(
+            InvocationTargetException.class,
+            () -> DynamicCall.method(Target.class, "fail").invoke(null));
+    assertEquals(IllegalStateException.class, e.getCause().getClass());
+  }
+
+  public static class Target {
+
+    private final String name;
+
+    public Target(String name) {
+      this.name = name;
+    }
+
+    public Target(int number) {
+      this(String.valueOf(number));
+    }
+
+    public String describe(int value) {
+      return "int";
+    }
+
+    public String describe(long value) {
+      return "long";
+    }
+
+    public String describe(Object value) {
+      return "Object";
+    }
+
+    public String describe(String value) {
+      return "String";
+    }
+
+    public static long twice(long value) {
+      return value * 2;
+    }
+
+    public static String join(String value) {
+      return "single";
+    }
+
+    public static String join(String... values) {
+      return String.join("", values);
+    }
+
+    public static String pick(Integer first, Object second) {
+      return "first";
+    }
+
+    public static String pick(Object first, Integer second) {
+      return "second";
+    }
+
+    public static void fail() {
+      throw new IllegalStateException();
+    }
+  }
+}
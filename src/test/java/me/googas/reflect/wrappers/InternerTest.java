@@ -0,0 +1,64 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import me.googas.reflect.cache.CacheManager;
+import org.junit.jupiter.api.Test;
+
+class InternerTest {
+
+  @Test
+  void copiesOfAMemberShareTheirWrapper() throws Exception {
+    Field first = Sample.class.getDeclaredField("name");
+    Field second = Sample.class.getDeclaredField("name");
+    assertNotSame(first, second);
+    assertSame(WrappedField.of(first), WrappedField.of(second));
+    assertSame(WrappedField.of(first), WrappedClass.of(Sample.class).getField("name"));
+    assertSame(
+        WrappedField.of(String.class, first),
+        WrappedClass.of(Sample.class).getField(String.class, "name"));
+    assertNotSame(WrappedField.of(first), WrappedField.of(String.class, first));
+    assertSame(
+        WrappedConstructor.of(Sample.class.getConstructor()),
+        WrappedClass.of(Sample.class).getConstructor());
+    assertSame(WrappedField.of(null), WrappedField.of(String.class, null));
+  }
+
+  @Test
+  void primitiveReturnTypesShareTheWrapperOfTheirBoxing() throws Exception {
+    Method count = Sample.class.getMethod("count");
+    assertSame(WrappedMethod.of(count, int.class), WrappedMethod.of(count, Integer.class));
+    assertNotSame(WrappedMethod.of(count), WrappedMethod.of(count, Integer.class));
+  }
+
+  @Test
+  void typesOfOtherLoadersAreNotInterned() throws Exception {
+    Class<?> foreign =
+        new DefiningLoader(Sample.class.getName(), null).loadClass(Sample.class.getName());
+    Field name = Sample.class.getDeclaredField("name");
+    assertNotSame(WrappedField.of(foreign, name), WrappedField.of(foreign, name));
+  }
+
+  @Test
+  void wrappersAreReleasedWithTheirLoader() throws Exception {
+    DefiningLoader loader = new DefiningLoader(Sample.class.getName(), null);
+    Class<?> defined = loader.loadClass(Sample.class.getName());
+    Field name = defined.getDeclaredField("name");
+    WrappedField<?> wrapper = WrappedField.of(name);
+    assertSame(wrapper, WrappedField.of(name));
+    CacheManager.invalidate(loader);
+    assertNotSame(wrapper, WrappedField.of(name));
+  }
+
+  public static class Sample {
+
+    public String name;
+
+    public int count() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberIndexTest {
+
+  @Test
+  void methodsAreMatchedByParametersAndReturnType() {
+    WrappedClass<Sample> sample = WrappedClass.of(Sample.class);
+    assertEquals(0, sample.getMethod("add").getMethod().getParameterCount());
+    assertEquals(1, sample.getMethod("add", int.class).getMethod().getParameterCount());
+    assertEquals(2, sample.getMethod("add", int.class, int.class).getMethod().getParameterCount());
+    assertNotNull(sample.getMethod("add", (Class<?>[]) null).getMethod());
+    assertNull(sample.getMethod("add", String.class).getMethod());
+    assertNull(sample.getMethod(String.class, "add", int.class).getMethod());
+    assertNotNull(sample.getMethod(Number.class, "add", int.class).getMethod());
+    assertNull(sample.getMethod("missing").getMethod());
+  }
+
+  @Test
+  void declaredMembersIncludePrivateOnes() {
+    WrappedClass<Sample> sample = WrappedClass.of(Sample.class);
+    assertNotNull(sample.getDeclaredField("secret").getWrapped());
+    assertNull(sample.getField("secret").getWrapped());
+    assertNotNull(sample.getDeclaredMethod("hidden").getMethod());
+    assertNull(sample.getMethod("hidden").getMethod());
+    assertNull(sample.getDeclaredMethod(String.class, "add").getMethod());
+  }
+
+  @Test
+  void hiddenPublicFieldsResolveToTheMostSpecific() {
+    WrappedField<?> field = WrappedClass.of(Child.class).getField("value");
+    assertEquals(Child.class, field.getWrapped().getDeclaringClass());
+  }
+
+  @Test
+  void constructorsAreMatchedByParameters() {
+    WrappedClass<Sample> sample = WrappedClass.of(Sample.class);
+    assertNotNull(sample.getConstructor().getConstructor());
+    assertNotNull(sample.getConstructor(int.class).getConstructor());
+    assertNull(sample.getConstructor(String.class).getConstructor());
+  }
+
+  @Test
+  void fieldsResolveWhenMethodSignaturesReferenceMissingClasses() throws Exception {
+    ClassLoader loader = new DefiningLoader(Probe.class.getName(), Dependency.class.getName());
+    Class<?> probe = Class.forName(Probe.class.getName(), false, loader);
+    WrappedClass<?> wrapper = WrappedClass.of(probe);
+    assertNotNull(wrapper.getDeclaredField("count").getWrapped());
+    assertNotNull(wrapper.getField("count").getWrapped());
+    assertThrows(NoClassDefFoundError.class, () -> wrapper.getDeclaredMethod("use"));
+  }
+
+  @Test
+  void membersAreRecordedOnceWhileACacheIsOpen(@TempDir Path directory) throws IOException {
+    try (PersistentCache cache =
+        PersistentCache.open(directory.resolve("cache"), Recorded.class.getClassLoader())) {
+      WrappedClass<Recorded> recorded = WrappedClass.of(Recorded.class);
+      for (int i = 0; i < 3; i++) {
+        recorded.getDeclaredField("field");
+        recorded.getMethod("method");
+      }
+      assertEquals(1, cache.size());
+    }
+  }
+
+  public static class Sample {
+
+    private int secret;
+
+    public Sample() {}
+
+    public Sample(int secret) {
+      this.secret = secret;
+    }
+
+    public int add() {
+      return this.secret;
+    }
+
+    public Integer add(int value) {
+      return this.secret + value;
+    }
+
+    public int add(int a, int b) {
+      return a + b;
+    }
+
+    private void hidden() {}
+  }
+
+  public static class Parent {
+
+    public int value;
+  }
+
+  public static class Child extends Parent {
+
+    public long value;
+  }
+
+  public static class Recorded {
+
+    private int field;
+
+    public void method() {}
+  }
+
+  public static class Dependency {}
+
+  public static class Probe {
+
+    public int count;
+
+    public void use(Dependency dependency) {}
+  }
+}
@@ -0,0 +1,67 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MemberListTest {
+
+  @Test
+  void elementsAreWrappedOnceWhenRead() throws Exception {
+    Field[] fields = {
+      Sample.class.getDeclaredField("first"), Sample.class.getDeclaredField("second")
+    };
+    AtomicInteger wrapped = new AtomicInteger();
+    MemberList<Field, String> list =
+        new MemberList<>(
+            fields,
+            field -> {
+              wrapped.incrementAndGet();
+              return field.getName();
+            });
+    assertEquals(2, list.size());
+    assertEquals(0, wrapped.get());
+    assertEquals("second", list.get(1));
+    assertSame(list.get(1), list.get(1));
+    assertEquals(1, wrapped.get());
+    assertThrows(UnsupportedOperationException.class, () -> list.add("third"));
+  }
+
+  @Test
+  void listsAreSharedAndStreamsAreLazy() {
+    WrappedClass<Sample> clazz = WrappedClass.of(Sample.class);
+    List<WrappedField<?>> fields = clazz.getDeclaredFields();
+    assertSame(fields, clazz.getDeclaredFields());
+    assertSame(clazz.getMethods(), clazz.getMethods());
+    assertSame(clazz.getFields(), clazz.getFields());
+    assertThrows(UnsupportedOperationException.class, () -> fields.remove(0));
+    assertSame(
+        clazz.getDeclaredField("second"),
+        clazz
+            .streamDeclaredFields()
+            .filter(field -> field.getWrapped().getName().equals("second"))
+            .findFirst()
+            .orElse(null));
+    assertEquals(
+        1,
+        clazz
+            .streamMethods()
+            .filter(method -> method.getWrapped().getName().equals("first"))
+            .count());
+  }
+
+  public static class Sample {
+
+    private int first;
+    public String second;
+
+    public int first() {
+      return this.first;
+    }
+  }
+}
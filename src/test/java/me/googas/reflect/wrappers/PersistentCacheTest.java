@@ -0,0 +1,158 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import me.googas.reflect.metrics.Lookup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentCacheTest {
+
+  private static final String MISSING = "me.googas.reflect.wrappers.PersistentCacheTest$Missing";
+
+  @Test
+  void recordsAreReadBack(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("cache");
+    ClassLoader loader = PersistentCacheTest.class.getClassLoader();
+    try (PersistentCache cache = PersistentCache.open(file, loader)) {
+      WrappedClass<Fixture> fixture = WrappedClass.of(Fixture.class);
+      fixture.getDeclaredField("value");
+      fixture.getMethod("twice", int.class);
+      fixture.getConstructor();
+      WrappedClass.of(Other.class).getDeclaredField("name");
+      assertEquals(2, cache.size());
+    }
+    try (PersistentCache cache = PersistentCache.open(file, loader)) {
+      assertEquals(2, cache.size());
+      cache.warmUp(Runnable::run).get();
+    }
+  }
+
+  @Test
+  void corruptFilesAreIgnored(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("cache");
+    Files.write(file, "not a cache".getBytes(StandardCharsets.UTF_8));
+    try (PersistentCache cache =
+        PersistentCache.open(file, PersistentCacheTest.class.getClassLoader())) {
+      assertEquals(0, cache.size());
+    }
+    Files.write(file, new byte[] {0x52, 0x46, 0x4c, 0x43, 0, 2, 0x7f});
+    try (PersistentCache cache =
+        PersistentCache.open(file, PersistentCacheTest.class.getClassLoader())) {
+      assertEquals(0, cache.size());
+    }
+  }
+
+  @Test
+  void missingNamesArePersistedForJarsThatDidNotChange(@TempDir Path directory) throws Exception {
+    Path jar = directory.resolve("classes.jar");
+    PersistentCacheTest.jar(jar, "first");
+    Path file = directory.resolve("cache");
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+      PersistentCacheTest.lookUpMissing(file, loader);
+      assertTrue(PersistentCacheTest.reopen(file, loader));
+      // A new class could be anywhere in a jar that changed
+      PersistentCacheTest.jar(jar, "second, which is longer");
+      assertFalse(PersistentCacheTest.reopen(file, loader));
+    }
+  }
+
+  @Test
+  void missingNamesAreNotPersistedForDirectories(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("cache");
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null)) {
+      PersistentCacheTest.lookUpMissing(file, loader);
+      assertFalse(PersistentCacheTest.reopen(file, loader));
+    }
+  }
+
+  @Test
+  void missingNamesAreNotPersistedForUnknownLoaders(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("cache");
+    ClassLoader loader = new DefiningLoader(Fixture.class.getName(), null);
+    PersistentCacheTest.lookUpMissing(file, loader);
+    assertFalse(PersistentCacheTest.reopen(file, loader));
+  }
+
+  @Test
+  void membersRecordedWhileSavingAreWrittenConsistently(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("cache");
+    ClassLoader loader = PersistentCacheTest.class.getClassLoader();
+    AtomicBoolean running = new AtomicBoolean(true);
+    try (PersistentCache cache = PersistentCache.open(file, loader)) {
+      Thread recorder =
+          new Thread(
+              () -> {
+                Method[] methods = StringBuilder.class.getMethods();
+                for (int i = 0; running.get(); i = (i + 1) % methods.length) {
+                  PersistentCache.record(Fixture.class, Lookup.METHOD, methods[i]);
+                }
+              });
+      recorder.start();
+      try {
+        for (int i = 0; i < 20; i++) {
+          cache.save();
+        }
+      } finally {
+        running.set(false);
+        recorder.join();
+      }
+    }
+    try (PersistentCache cache = PersistentCache.open(file, loader)) {
+      assertEquals(1, cache.size());
+    }
+  }
+
+  private static void lookUpMissing(Path file, ClassLoader loader) throws IOException {
+    try (PersistentCache ignored = PersistentCache.open(file, loader)) {
+      assertNull(WrappedClass.forName(PersistentCacheTest.MISSING, loader).getClazz());
+    }
+  }
+
+  /** Open the cache again after forgetting the names looked up, whether the miss was seeded. */
+  private static boolean reopen(Path file, ClassLoader loader) throws IOException {
+    ClassLookup.invalidate(loader);
+    try (PersistentCache ignored = PersistentCache.open(file, loader)) {
+      return ClassLookup.missing(loader).contains(PersistentCacheTest.MISSING);
+    }
+  }
+
+  private static void jar(Path path, String content) throws IOException {
+    try (OutputStream out = Files.newOutputStream(path);
+        JarOutputStream jar = new JarOutputStream(out)) {
+      jar.putNextEntry(new ZipEntry("content.txt"));
+      jar.write(content.getBytes(StandardCharsets.UTF_8));
+      jar.closeEntry();
+    }
+  }
+
+  public static class Fixture {
+
+    private int value;
+
+    public Fixture() {}
+
+    public int twice(int value) {
+      return value * 2;
+    }
+  }
+
+  public static class Other {
+
+    private String name;
+  }
+}
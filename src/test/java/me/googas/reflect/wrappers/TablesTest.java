@@ -0,0 +1,120 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.googas.reflect.accessors.AccessorTable;
+import me.googas.reflect.accessors.Reflective;
+import org.junit.jupiter.api.Test;
+
+class TablesTest {
+
+  /** The number of accesses through the table, to tell them from reflection. */
+  static final AtomicInteger ACCESSES = new AtomicInteger();
+
+  @Test
+  void tablesAreLoadedForAnnotatedClasses() {
+    assertInstanceOf(Sample$$ReflectTable.class, AccessorTable.of(Sample.class));
+    assertNull(AccessorTable.of(TablesTest.class));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void fieldsInTheTableAreNotMadeAccessible() throws Exception {
+    WrappedField<?> count = WrappedClass.of(Sample.class).getDeclaredField("count");
+    assertFalse(count.getWrapped().isAccessible());
+    Sample sample = new Sample();
+    int before = TablesTest.ACCESSES.get();
+    count.set(sample, 3);
+    assertEquals(3, count.provide(sample));
+    assertEquals(before + 2, TablesTest.ACCESSES.get());
+    assertFalse(count.getWrapped().isAccessible());
+    // Reading without boxing needs reflection
+    assertEquals(3, count.intGetter().applyAsInt(sample));
+    assertTrue(count.getWrapped().isAccessible());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void membersOutsideTheTableAreMadeAccessibleOnUse() throws Exception {
+    WrappedField<?> secret = WrappedClass.of(Sample.class).getDeclaredField("secret");
+    assertNotNull(secret.getWrapped());
+    assertFalse(secret.getWrapped().isAccessible());
+    secret.getter().apply(new Sample());
+    assertTrue(secret.getWrapped().isAccessible());
+  }
+
+  @Test
+  void methodsAndConstructorsAreInvokedThroughTheTable() throws Exception {
+    WrappedClass<Sample> clazz = WrappedClass.of(Sample.class);
+    int before = TablesTest.ACCESSES.get();
+    Sample sample = clazz.getConstructor().invoke();
+    assertEquals(4, clazz.getDeclaredMethod(int.class, "twice", int.class).invoke(sample, 2));
+    assertEquals(before + 2, TablesTest.ACCESSES.get());
+    InvocationTargetException e =
+        assertThrows(
+            InvocationTargetException.class,
+            () -> clazz.getDeclaredMethod("twice", int.class).invoke(sample, -1));
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> clazz.getDeclaredMethod("twice", int.class).invoke(sample, "2"));
+  }
+
+  @Reflective
+  public static class Sample {
+
+    int count;
+    private int secret;
+
+    public Sample() {}
+
+    int twice(int value) {
+      if (value < 0) throw new IllegalArgumentException("Negative");
+      return value * 2;
+    }
+  }
+
+  /** The table that the processor would generate for {@link Sample}. */
+  public static final class Sample$$ReflectTable extends AccessorTable {
+
+    public Sample$$ReflectTable() {
+      field(
+          "count",
+          instance -> {
+            TablesTest.ACCESSES.incrementAndGet();
+            return ((Sample) instance).count;
+          },
+          (instance, value) -> {
+            TablesTest.ACCESSES.incrementAndGet();
+            ((Sample) instance).count = (Integer) value;
+          });
+      method(
+          "twice",
+          new Class<?>[] {int.class},
+          (instance, args) -> {
+            TablesTest.ACCESSES.incrementAndGet();
+            Sample target = (Sample) instance;
+            int a0 = (Integer) args[0];
+            try {
+              return target.twice(a0);
+            } catch (Throwable e) {
+              throw new InvocationTargetException(e);
+            }
+          });
+      constructor(
+          new Class<?>[0],
+          args -> {
+            TablesTest.ACCESSES.incrementAndGet();
+            return new Sample();
+          });
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EventObject;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WrappedFieldTest {
+
+  @Test
+  void gettersAndSettersAreShared() throws Exception {
+    WrappedField<String> name =
+        WrappedClass.of(Sample.class).getDeclaredField(String.class, "name");
+    assertSame(name.getter(), name.getter());
+    assertSame(name.setter(), name.setter());
+    Sample sample = new Sample();
+    name.setter().accept(sample, "value");
+    assertEquals("value", name.getter().apply(sample));
+  }
+
+  @Test
+  void primitiveAccessorsAreShared() throws Exception {
+    WrappedClass<Sample> clazz = WrappedClass.of(Sample.class);
+    WrappedField<?> count = clazz.getDeclaredField("count");
+    WrappedField<?> total = clazz.getDeclaredField("total");
+    WrappedField<?> ratio = clazz.getDeclaredField("ratio");
+    assertSame(count.intGetter(), count.intGetter());
+    assertSame(count.intSetter(), count.intSetter());
+    assertSame(total.longGetter(), total.longGetter());
+    assertSame(total.longSetter(), total.longSetter());
+    assertSame(ratio.doubleGetter(), ratio.doubleGetter());
+    assertSame(ratio.doubleSetter(), ratio.doubleSetter());
+  }
+
+  @Test
+  void primitiveAccessorsReadAndWriteWithoutBoxing() throws Exception {
+    WrappedClass<Sample> clazz = WrappedClass.of(Sample.class);
+    Sample sample = new Sample();
+    clazz.getDeclaredField("count").intSetter().accept(sample, 3);
+    clazz.getDeclaredField("total").longSetter().accept(sample, 4L);
+    clazz.getDeclaredField("ratio").doubleSetter().accept(sample, 0.5);
+    assertEquals(3, clazz.getDeclaredField("count").intGetter().applyAsInt(sample));
+    assertEquals(4L, clazz.getDeclaredField("total").longGetter().applyAsLong(sample));
+    assertEquals(0.5, clazz.getDeclaredField("ratio").doubleGetter().applyAsDouble(sample));
+    // An int widens to a long and a double when read
+    assertEquals(3L, clazz.getDeclaredField("count").longGetter().applyAsLong(sample));
+  }
+
+  @Test
+  void primitiveAccessorsRejectOtherTypes() {
+    WrappedClass<Sample> clazz = WrappedClass.of(Sample.class);
+    assertThrows(IllegalArgumentException.class, () -> clazz.getDeclaredField("name").intGetter());
+    assertThrows(
+        IllegalArgumentException.class, () -> clazz.getDeclaredField("count").longSetter());
+  }
+
+  @Test
+  void emptyWrappersReturnDefaults() throws Exception {
+    WrappedField<?> missing = WrappedClass.of(Sample.class).getDeclaredField("missing");
+    assertEquals(0, missing.intGetter().applyAsInt(new Sample()));
+    assertEquals(0L, missing.longGetter().applyAsLong(new Sample()));
+    missing.doubleSetter().accept(new Sample(), 1);
+  }
+
+  @Test
+  void fieldsOfClosedModulesCanBeWrapped() {
+    List<WrappedField<?>> fields = WrappedClass.of(Event.class).getHierarchyFields();
+    assertTrue(fields.stream().anyMatch(field -> field.getWrapped().getName().equals("source")));
+    assertTrue(fields.stream().anyMatch(field -> field.getWrapped().getName().equals("id")));
+  }
+
+  public static class Event extends EventObject {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+
+    public Event(Object source, int id) {
+      super(source);
+      this.id = id;
+    }
+  }
+
+  public static class Sample {
+
+    private String name;
+    private int count;
+    private long total;
+    private double ratio;
+  }
+}
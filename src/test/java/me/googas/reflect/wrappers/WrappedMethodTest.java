@@ -0,0 +1,128 @@
+package me.googas.reflect.wrappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import org.junit.jupiter.api.Test;
+
+class WrappedMethodTest {
+
+  @Test
+  void invokeHandleCallsInstanceAndStaticMethods() throws Exception {
+    Sample sample = new Sample(2);
+    WrappedMethod<?> times = WrappedClass.of(Sample.class).getMethod("times", int.class);
+    WrappedMethod<?> concat =
+        WrappedClass.of(Sample.class).getMethod("concat", String.class, String.class);
+    assertEquals(6, times.invokeHandle(sample, 3));
+    assertEquals("ab", concat.invokeHandle(null, "a", "b"));
+    // The handle is linked once and reused
+    assertEquals(8, times.invokeHandle(sample, 4));
+  }
+
+  @Test
+  void prepareHandleCastsToReturnType() throws Exception {
+    WrappedMethod<Integer> times =
+        WrappedClass.of(Sample.class).getMethod(int.class, "times", int.class);
+    Integer result = times.prepareHandle(new Sample(5), 2);
+    assertEquals(10, result);
+  }
+
+  @Test
+  void voidMethodsReturnNull() throws Exception {
+    Sample sample = new Sample(1);
+    WrappedMethod<?> reset = WrappedClass.of(Sample.class).getMethod("reset");
+    assertNull(reset.invokeHandle(sample));
+    assertEquals(0, sample.factor);
+  }
+
+  @Test
+  void exceptionsAreWrappedLikeReflection() {
+    WrappedMethod<?> fail = WrappedClass.of(Sample.class).getMethod("fail");
+    InvocationTargetException e =
+        assertThrows(InvocationTargetException.class, () -> fail.invokeHandle(null));
+    assertInstanceOf(IOException.class, e.getCause());
+    InvocationTargetException reflective =
+        assertThrows(InvocationTargetException.class, () -> fail.invoke(null));
+    assertInstanceOf(IOException.class, reflective.getCause());
+  }
+
+  @Test
+  void wrongArgumentsAreNotWrapped() {
+    WrappedMethod<?> times = WrappedClass.of(Sample.class).getMethod("times", int.class);
+    assertThrows(ClassCastException.class, () -> times.invokeHandle(new Sample(1), "3"));
+  }
+
+  @Test
+  void emptyWrapperReturnsNull() throws Exception {
+    WrappedMethod<?> missing = WrappedClass.of(Sample.class).getMethod("missing");
+    assertNull(missing.getMethod());
+    assertNull(missing.invokeHandle(null));
+    assertNull(missing.prepareHandle(null));
+    assertNull(missing.invoker0().invoke(null));
+    assertNull(missing.invoker1().invoke(null, "any"));
+  }
+
+  @Test
+  void invokersAreLinkedOnceAndShared() throws Exception {
+    WrappedMethod<Integer> times =
+        WrappedClass.of(Sample.class).getMethod(int.class, "times", int.class);
+    Invokers.Method1<Integer> invoker = times.invoker1();
+    assertSame(invoker, times.invoker1());
+    assertEquals(6, invoker.invoke(new Sample(3), 2));
+    assertThrows(IllegalArgumentException.class, times::invoker2);
+  }
+
+  @Test
+  void prelinkLinksTheInvokerOfTheArity() throws Exception {
+    WrappedMethod<?> concat =
+        WrappedClass.of(Sample.class).getMethod("concat", String.class, String.class);
+    concat.prelink();
+    assertSame(concat.invoker2(), concat.invoker2());
+    assertEquals("ab", concat.invoker2().invoke(null, "a", "b"));
+  }
+
+  @Test
+  void constructorInvokersAreShared() throws Exception {
+    WrappedConstructor<Sample> constructor =
+        WrappedClass.of(Sample.class).getConstructor(int.class);
+    assertSame(constructor.invoker1(), constructor.invoker1());
+    assertEquals(4, constructor.invoker1().invoke(4).factor);
+    assertThrows(IllegalArgumentException.class, constructor::invoker0);
+  }
+
+  @Test
+  void wrappersAreShared() {
+    WrappedMethod<?> first = WrappedClass.of(Sample.class).getMethod("reset");
+    assertSame(first, WrappedClass.of(Sample.class).getMethod("reset"));
+  }
+
+  public static class Sample {
+
+    public int factor;
+
+    public Sample(int factor) {
+      this.factor = factor;
+    }
+
+    public static String concat(String a, String b) {
+      return a + b;
+    }
+
+    public static void fail() throws IOException {
+      throw new IOException("fail");
+    }
+
+    public int times(int value) {
+      return this.factor * value;
+    }
+
+    public void reset() {
+      this.factor = 0;
+    }
+  }
+}